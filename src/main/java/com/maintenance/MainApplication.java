@@ -1,6 +1,16 @@
 package com.maintenance;
 
+import com.maintenance.dao.LastLoginRecorder;
+import com.maintenance.dao.PreventiveMaintenanceScheduler;
+import com.maintenance.dao.RequestArchiver;
+import com.maintenance.dao.RequestLocationBackfill;
+import com.maintenance.dao.RequestRollups;
+import com.maintenance.dao.SlaMonitor;
+import com.maintenance.dao.WorkOrderScheduler;
+import com.maintenance.database.BackupService;
 import com.maintenance.database.DatabaseInitializer;
+import com.maintenance.metrics.MetricsReporter;
+import com.maintenance.metrics.jfr.FlightRecording;
 import com.maintenance.ui.views.ViewFactory;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -10,8 +20,19 @@ public class MainApplication extends Application {
     @Override
     public void start(Stage primaryStage) {
         try {
+            // Start before the database so schema setup shows up in the recording
+            FlightRecording.start();
+
             // Initialize database
             DatabaseInitializer.initialize();
+            MetricsReporter.start();
+            RequestLocationBackfill.start();
+            RequestArchiver.start();
+            RequestRollups.start();
+            SlaMonitor.start();
+            WorkOrderScheduler.start();
+            PreventiveMaintenanceScheduler.start();
+            BackupService.start();
 
             // Show login window
             ViewFactory viewFactory = new ViewFactory();
@@ -24,8 +45,17 @@ public class MainApplication extends Application {
 
     @Override
     public void stop() {
-        // Close database connections
+        // Flush queued last_login updates and a final metrics dump, then close database connections
         try {
+            BackupService.shutdown();
+            PreventiveMaintenanceScheduler.shutdown();
+            WorkOrderScheduler.shutdown();
+            SlaMonitor.shutdown();
+            RequestRollups.shutdown();
+            RequestArchiver.shutdown();
+            LastLoginRecorder.getInstance().shutdown();
+            MetricsReporter.shutdown();
+            FlightRecording.shutdown();
             com.maintenance.database.DatabaseManager.getInstance().disconnect();
         } catch (Exception e) {
             System.err.println("Exception: " + e.getMessage());
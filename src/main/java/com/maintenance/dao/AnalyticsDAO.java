@@ -0,0 +1,176 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the analytics rollups maintained by {@link RequestRollups}. Each query folds pending deltas
+ * first, so results include every committed request change. A null building id means all buildings.
+ */
+public class AnalyticsDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private final DatabaseManager dbManager;
+
+    public AnalyticsDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Requests submitted per ISO week (keyed by the Monday) and category, oldest week first.
+     */
+    public Map<LocalDate, Map<String, Long>> getWeeklyCategoryCounts(String buildingId, LocalDate since) {
+        Map<LocalDate, Map<String, Long>> weeks = new LinkedHashMap<>();
+        String sql = "SELECT bucket_start, category, SUM(request_count) AS requests " +
+                "FROM request_rollups_weekly WHERE bucket_start >= ? AND (? IS NULL OR building_id = ?) " +
+                "GROUP BY bucket_start, category ORDER BY bucket_start";
+
+        fold();
+        MetricsRegistry.Sample timer = METRICS.time("dao.AnalyticsDAO.getWeeklyCategoryCounts");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            bindScope(pstmt, weekStart(since), buildingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    weeks.computeIfAbsent(rs.getDate("bucket_start").toLocalDate(), w -> new LinkedHashMap<>())
+                            .put(rs.getString("category"), rs.getLong("requests"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading weekly category counts: " + e.getMessage());
+        }
+
+        return weeks;
+    }
+
+    /**
+     * Completed requests and their total submission-to-completion time per priority.
+     */
+    public List<PriorityCompletion> getCompletionByPriority(String buildingId, LocalDate since) {
+        List<PriorityCompletion> rows = new ArrayList<>();
+        String sql = "SELECT priority, SUM(request_count) AS requests, SUM(completed_count) AS completed, " +
+                "SUM(completion_seconds) AS seconds FROM request_rollups_daily " +
+                "WHERE bucket_start >= ? AND (? IS NULL OR building_id = ?) GROUP BY priority";
+
+        fold();
+        MetricsRegistry.Sample timer = METRICS.time("dao.AnalyticsDAO.getCompletionByPriority");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            bindScope(pstmt, since, buildingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new PriorityCompletion(rs.getString("priority"), rs.getLong("requests"),
+                            rs.getLong("completed"), rs.getLong("seconds")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading completion times: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Estimated and actual cost per building, highest actual cost first. Requests not linked to a building
+     * are reported under an empty building id.
+     */
+    public List<BuildingCost> getCostByBuilding(LocalDate since) {
+        List<BuildingCost> rows = new ArrayList<>();
+        String sql = "SELECT r.building_id, b.building_name, SUM(r.request_count) AS requests, " +
+                "SUM(r.estimated_cost) AS estimated, SUM(r.actual_cost) AS actual " +
+                "FROM request_rollups_weekly r LEFT JOIN buildings b ON b.building_id = r.building_id " +
+                "WHERE r.bucket_start >= ? GROUP BY r.building_id, b.building_name ORDER BY actual DESC";
+
+        fold();
+        MetricsRegistry.Sample timer = METRICS.time("dao.AnalyticsDAO.getCostByBuilding");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(weekStart(since)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new BuildingCost(rs.getString("building_id"), rs.getString("building_name"),
+                            rs.getLong("requests"), rs.getBigDecimal("estimated"), rs.getBigDecimal("actual")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading cost by building: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    private void fold() {
+        try {
+            RequestRollups.getInstance().foldNow();
+        } catch (SQLException e) {
+            // Slightly stale rollups are still worth showing
+            System.err.println("Rollup fold failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Weekly buckets start on Monday, so weekly queries widen to the whole week containing the start date.
+     */
+    private static LocalDate weekStart(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() - 1);
+    }
+
+    private void bindScope(PreparedStatement pstmt, LocalDate since, String buildingId) throws SQLException {
+        pstmt.setDate(1, Date.valueOf(since));
+        pstmt.setString(2, buildingId);
+        pstmt.setString(3, buildingId);
+    }
+
+    public static class PriorityCompletion {
+        private final String priority;
+        private final long requests;
+        private final long completed;
+        private final long completionSeconds;
+
+        public PriorityCompletion(String priority, long requests, long completed, long completionSeconds) {
+            this.priority = priority;
+            this.requests = requests;
+            this.completed = completed;
+            this.completionSeconds = completionSeconds;
+        }
+
+        public String getPriority() { return priority; }
+        public long getRequests() { return requests; }
+        public long getCompleted() { return completed; }
+        public long getCompletionSeconds() { return completionSeconds; }
+
+        public double getMeanCompletionHours() {
+            return completed == 0 ? 0 : completionSeconds / 3600.0 / completed;
+        }
+    }
+
+    public static class BuildingCost {
+        private final String buildingId;
+        private final String buildingName;
+        private final long requests;
+        private final BigDecimal estimatedCost;
+        private final BigDecimal actualCost;
+
+        public BuildingCost(String buildingId, String buildingName, long requests,
+                            BigDecimal estimatedCost, BigDecimal actualCost) {
+            this.buildingId = buildingId;
+            this.buildingName = buildingName;
+            this.requests = requests;
+            this.estimatedCost = estimatedCost;
+            this.actualCost = actualCost;
+        }
+
+        public String getBuildingId() { return buildingId; }
+        public String getBuildingName() { return buildingName; }
+        public long getRequests() { return requests; }
+        public BigDecimal getEstimatedCost() { return estimatedCost; }
+        public BigDecimal getActualCost() { return actualCost; }
+    }
+}
@@ -1,13 +1,16 @@
 package com.maintenance.dao;
 
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
 import com.maintenance.enums.LeaseStatus;
 import com.maintenance.models.Apartment;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public class ApartmentDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
     private final DatabaseManager dbManager;
 
     public ApartmentDAO() {
@@ -18,21 +21,14 @@ public class ApartmentDAO {
         List<Apartment> apartments = new ArrayList<>();
         String sql = "SELECT * FROM apartments WHERE building_id = ?";
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.ApartmentDAO.getApartmentsByBuilding");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, buildingId);
             ResultSet rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Apartment apartment = new Apartment();
-                apartment.setApartmentId(rs.getString("apartment_id"));
-                apartment.setApartmentNumber(rs.getString("apartment_number"));
-                apartment.setBuildingId(rs.getString("building_id"));
-                apartment.setCurrentTenantId(rs.getString("current_tenant_id"));
-                apartment.setFloorPlan(rs.getString("floor_plan"));
-                apartment.setSquareFootage(rs.getInt("square_footage"));
-                apartment.setMonthlyRent(rs.getDouble("monthly_rent"));
-                apartment.setLeaseStatus(LeaseStatus.valueOf(rs.getString("lease_status")));
-                apartments.add(apartment);
+                apartments.add(mapApartment(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error loading apartments: " + e.getMessage());
@@ -40,4 +36,50 @@ public class ApartmentDAO {
 
         return apartments;
     }
+
+    /**
+     * Find the apartment a tenant's request refers to: the apartment with that number the tenant
+     * currently occupies, else the only apartment with that number in any building.
+     * RequestLocationBackfill applies the same rule to existing requests.
+     *
+     * @return the apartment, or empty if the number is unknown or ambiguous
+     */
+    public Optional<Apartment> findApartmentForRequest(String tenantId, String apartmentNumber) {
+        if (apartmentNumber == null) {
+            return Optional.empty();
+        }
+        String sql = "SELECT * FROM apartments WHERE apartment_number = ? " +
+                "ORDER BY CASE WHEN current_tenant_id = ? THEN 0 ELSE 1 END LIMIT 2";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.ApartmentDAO.findApartmentForRequest");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, apartmentNumber);
+            pstmt.setString(2, tenantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                Apartment first = mapApartment(rs);
+                boolean occupied = tenantId != null && tenantId.equals(first.getCurrentTenantId());
+                return occupied || !rs.next() ? Optional.of(first) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error resolving apartment " + apartmentNumber + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Apartment mapApartment(ResultSet rs) throws SQLException {
+        Apartment apartment = new Apartment();
+        apartment.setApartmentId(rs.getString("apartment_id"));
+        apartment.setApartmentNumber(rs.getString("apartment_number"));
+        apartment.setBuildingId(rs.getString("building_id"));
+        apartment.setCurrentTenantId(rs.getString("current_tenant_id"));
+        apartment.setFloorPlan(rs.getString("floor_plan"));
+        apartment.setSquareFootage(rs.getInt("square_footage"));
+        apartment.setMonthlyRent(rs.getDouble("monthly_rent"));
+        apartment.setLeaseStatus(LeaseStatus.valueOf(rs.getString("lease_status")));
+        return apartment;
+    }
 }
@@ -1,12 +1,14 @@
 package com.maintenance.dao;
 
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
 import com.maintenance.models.Building;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class BuildingDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
     private final DatabaseManager dbManager;
 
     public BuildingDAO() {
@@ -17,19 +19,13 @@ public class BuildingDAO {
         List<Building> buildings = new ArrayList<>();
         String sql = "SELECT * FROM buildings";
 
-        try (Statement stmt = dbManager.getConnection().createStatement();
+        MetricsRegistry.Sample timer = METRICS.time("dao.BuildingDAO.getAllBuildings");
+        try (timer;
+             Statement stmt = dbManager.getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Building building = new Building();
-                building.setBuildingId(rs.getString("building_id"));
-                building.setBuildingName(rs.getString("building_name"));
-                building.setAddress(rs.getString("address"));
-                building.setManagerId(rs.getString("manager_id"));
-                building.setTotalUnits(rs.getInt("total_units"));
-                building.setBuildingType(rs.getString("building_type"));
-                building.setConstructionYear(rs.getInt("construction_year"));
-                buildings.add(building);
+                buildings.add(mapBuilding(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error loading buildings: " + e.getMessage());
@@ -37,4 +33,36 @@ public class BuildingDAO {
 
         return buildings;
     }
+
+    public List<Building> getBuildingsByManager(String managerId) {
+        List<Building> buildings = new ArrayList<>();
+        String sql = "SELECT * FROM buildings WHERE manager_id = ? ORDER BY building_name";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.BuildingDAO.getBuildingsByManager");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, managerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    buildings.add(mapBuilding(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading manager buildings: " + e.getMessage());
+        }
+
+        return buildings;
+    }
+
+    private Building mapBuilding(ResultSet rs) throws SQLException {
+        Building building = new Building();
+        building.setBuildingId(rs.getString("building_id"));
+        building.setBuildingName(rs.getString("building_name"));
+        building.setAddress(rs.getString("address"));
+        building.setManagerId(rs.getString("manager_id"));
+        building.setTotalUnits(rs.getInt("total_units"));
+        building.setBuildingType(rs.getString("building_type"));
+        building.setConstructionYear(rs.getInt("construction_year"));
+        return building;
+    }
 }
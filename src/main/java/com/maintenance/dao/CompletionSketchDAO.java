@@ -0,0 +1,218 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.QuantileSketch;
+import com.maintenance.models.MaintenanceRequest;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores completion-time sketches (submission to completion, in seconds) per category and per staff
+ * member, so percentile queries read one small row instead of every completed request.
+ *
+ * <p>{@link MaintenanceRequestDAO} adds a request when it is completed, in the same transaction as the
+ * status change. completion_sketch_requests lists the requests already counted, so a request that is
+ * reopened and completed again is counted once, with its first completion time. {@link #rebuild()}
+ * recomputes every sketch from the request tables, where such a request has its latest completion time,
+ * so a rebuild can move a reopened request's sample. {@link RequestRollups} runs rebuild at startup when
+ * the sketches or the counted requests are empty but completed requests exist (a new install, an upgrade,
+ * or after a restore from backup, which drops both tables).
+ */
+public class CompletionSketchDAO {
+    public static final String CATEGORY = "CATEGORY";
+    public static final String STAFF = "STAFF";
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final String SELECT_FOR_UPDATE = "SELECT sketch FROM completion_sketches " +
+            "WHERE dimension = ? AND dimension_key = ? FOR UPDATE";
+    private static final String UPSERT = "MERGE INTO completion_sketches " +
+            "(dimension, dimension_key, sample_count, sketch, last_updated) KEY (dimension, dimension_key) " +
+            "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)";
+    // Inserts nothing if the request is already counted
+    private static final String MARK_COUNTED = "INSERT INTO completion_sketch_requests (request_id, recorded_at) " +
+            "SELECT ?, CURRENT_TIMESTAMP WHERE NOT EXISTS " +
+            "(SELECT 1 FROM completion_sketch_requests WHERE request_id = ?)";
+
+    private final DatabaseManager dbManager;
+
+    public CompletionSketchDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Add a completed request's submission-to-completion time to its category and staff sketches, on the
+     * caller's connection so it commits or rolls back with the caller's status change.
+     *
+     * @return false if the request has no completion time or is already counted
+     */
+    boolean recordCompletion(Connection conn, MaintenanceRequest request) throws SQLException {
+        long seconds = completionSeconds(request.getSubmissionDate(), request.getCompletionDate());
+        if (seconds < 0) {
+            return false;
+        }
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.CompletionSketchDAO.recordCompletion");
+        try (timer;
+             PreparedStatement mark = conn.prepareStatement(MARK_COUNTED);
+             PreparedStatement select = conn.prepareStatement(SELECT_FOR_UPDATE);
+             PreparedStatement upsert = conn.prepareStatement(UPSERT)) {
+            mark.setString(1, request.getRequestId());
+            mark.setString(2, request.getRequestId());
+            if (mark.executeUpdate() == 0) {
+                return false;
+            }
+            if (request.getCategory() != null) {
+                addToSketch(select, upsert, CATEGORY, request.getCategory().name(), seconds);
+            }
+            if (request.getAssignedStaffId() != null) {
+                addToSketch(select, upsert, STAFF, request.getAssignedStaffId(), seconds);
+            }
+            return true;
+        }
+    }
+
+    private void addToSketch(PreparedStatement select, PreparedStatement upsert, String dimension, String key,
+                             long seconds) throws SQLException {
+        QuantileSketch sketch;
+        select.setString(1, dimension);
+        select.setString(2, key);
+        try (ResultSet rs = select.executeQuery()) {
+            sketch = rs.next() ? QuantileSketch.fromBytes(rs.getBytes("sketch")) : new QuantileSketch();
+        }
+        sketch.add(seconds);
+        save(upsert, dimension, key, sketch);
+    }
+
+    private void save(PreparedStatement upsert, String dimension, String key, QuantileSketch sketch)
+            throws SQLException {
+        upsert.setString(1, dimension);
+        upsert.setString(2, key);
+        upsert.setLong(3, sketch.getCount());
+        upsert.setBytes(4, sketch.toBytes());
+        upsert.executeUpdate();
+    }
+
+    /**
+     * Every sketch of one dimension ({@link #CATEGORY} or {@link #STAFF}), keyed by category name or
+     * staff ID. Merge them with {@link QuantileSketch#merge} for combined percentiles.
+     */
+    public Map<String, QuantileSketch> getSketches(String dimension) {
+        Map<String, QuantileSketch> sketches = new LinkedHashMap<>();
+        String sql = "SELECT dimension_key, sketch FROM completion_sketches WHERE dimension = ? " +
+                "ORDER BY dimension_key";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.CompletionSketchDAO.getSketches");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, dimension);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sketches.put(rs.getString("dimension_key"), QuantileSketch.fromBytes(rs.getBytes("sketch")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading completion sketches: " + e.getMessage());
+        }
+
+        return sketches;
+    }
+
+    /**
+     * Recompute every sketch from the completed requests in maintenance_requests and archived_requests.
+     *
+     * @return number of completed requests added
+     */
+    public int rebuild() throws SQLException {
+        String sql = "SELECT request_id, category, assigned_staff_id, submission_date, completion_date " +
+                "FROM maintenance_requests WHERE status = 'COMPLETED' AND completion_date IS NOT NULL " +
+                "UNION ALL SELECT request_id, category, assigned_staff_id, submission_date, completion_date " +
+                "FROM archived_requests WHERE status = 'COMPLETED' AND completion_date IS NOT NULL";
+
+        Map<String, QuantileSketch> byCategory = new HashMap<>();
+        Map<String, QuantileSketch> byStaff = new HashMap<>();
+        int added = 0;
+        MetricsRegistry.Sample timer = METRICS.time("dao.CompletionSketchDAO.rebuild");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement counted = conn.prepareStatement(
+                         "INSERT INTO completion_sketch_requests (request_id, recorded_at) " +
+                                 "VALUES (?, CURRENT_TIMESTAMP)")) {
+                stmt.executeUpdate("DELETE FROM completion_sketch_requests");
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        Timestamp submitted = rs.getTimestamp("submission_date");
+                        long seconds = completionSeconds(submitted != null ? submitted.toLocalDateTime() : null,
+                                rs.getTimestamp("completion_date").toLocalDateTime());
+                        if (seconds < 0) {
+                            continue;
+                        }
+                        String category = rs.getString("category");
+                        String staffId = rs.getString("assigned_staff_id");
+                        if (category != null) {
+                            byCategory.computeIfAbsent(category, k -> new QuantileSketch()).add(seconds);
+                        }
+                        if (staffId != null) {
+                            byStaff.computeIfAbsent(staffId, k -> new QuantileSketch()).add(seconds);
+                        }
+                        counted.setString(1, rs.getString("request_id"));
+                        counted.addBatch();
+                        added++;
+                    }
+                }
+                counted.executeBatch();
+
+                stmt.executeUpdate("DELETE FROM completion_sketches");
+                try (PreparedStatement upsert = conn.prepareStatement(UPSERT)) {
+                    for (Map.Entry<String, QuantileSketch> e : byCategory.entrySet()) {
+                        save(upsert, CATEGORY, e.getKey(), e.getValue());
+                    }
+                    for (Map.Entry<String, QuantileSketch> e : byStaff.entrySet()) {
+                        save(upsert, STAFF, e.getKey(), e.getValue());
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        System.out.println("✓ Completion-time sketches rebuilt from " + added + " completed requests");
+        return added;
+    }
+
+    /**
+     * {@link #rebuild()} if there are completed requests but no sketch or no counted request yet.
+     */
+    public void rebuildIfEmpty() throws SQLException {
+        try (Statement stmt = dbManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " +
+                     "LEAST((SELECT COUNT(*) FROM completion_sketches), " +
+                     "(SELECT COUNT(*) FROM completion_sketch_requests)), " +
+                     "(SELECT COUNT(*) FROM maintenance_requests WHERE status = 'COMPLETED') + " +
+                     "(SELECT COUNT(*) FROM archived_requests WHERE status = 'COMPLETED')")) {
+            rs.next();
+            if (rs.getLong(1) > 0 || rs.getLong(2) == 0) {
+                return;
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Whole seconds from submission to completion, or -1 if either is unknown or out of order.
+     */
+    private static long completionSeconds(LocalDateTime submitted, LocalDateTime completed) {
+        if (submitted == null || completed == null || completed.isBefore(submitted)) {
+            return -1;
+        }
+        return Duration.between(submitted, completed).getSeconds();
+    }
+}
@@ -0,0 +1,345 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.Part;
+import com.maintenance.models.WorkOrder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Data Access Object for the parts catalog, stock counters and work-order reservations.
+ *
+ * <p>Each part's stock row holds on_hand and reserved counters that every movement updates in place, so
+ * availability and the low-stock report never sum a history of movements. Reservations are optimistic:
+ * stock is read without locks and updated only if its version is unchanged, and the whole work order is
+ * retried (up to {@value #MAX_ATTEMPTS} times) if another reservation got there first.
+ *
+ * <p>Work orders list their parts as {@code "Part name"} or {@code "3 x Part name"}; a part ID works in
+ * place of the name.
+ */
+public class InventoryDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Pattern PART_LINE = Pattern.compile("^\\s*(\\d+)\\s*[xX×]\\s*(.+?)\\s*$");
+    private static final String PART_COLUMNS = "p.part_id, p.part_name, p.unit_cost, p.reorder_level, " +
+            "s.on_hand, s.reserved, s.version";
+
+    private final DatabaseManager dbManager;
+
+    public InventoryDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Add a part to the catalog with its opening stock.
+     */
+    public boolean addPart(Part part) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO.addPart");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement catalog = conn.prepareStatement(
+                    "INSERT INTO parts (part_id, part_name, unit_cost, reorder_level) VALUES (?, ?, ?, ?)");
+                 PreparedStatement stock = conn.prepareStatement(
+                         "INSERT INTO part_stock (part_id, on_hand, reserved, version, last_updated) " +
+                                 "VALUES (?, ?, 0, 0, CURRENT_TIMESTAMP)")) {
+                catalog.setString(1, part.getPartId());
+                catalog.setString(2, part.getPartName());
+                catalog.setBigDecimal(3, part.getUnitCost());
+                catalog.setInt(4, part.getReorderLevel());
+                catalog.executeUpdate();
+                stock.setString(1, part.getPartId());
+                stock.setInt(2, part.getOnHand());
+                stock.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding part: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public List<Part> getAllParts() {
+        return queryParts("SELECT " + PART_COLUMNS + " FROM parts p JOIN part_stock s ON s.part_id = p.part_id " +
+                "ORDER BY p.part_name", "getAllParts");
+    }
+
+    /**
+     * Parts whose unreserved stock is at or below their reorder level, largest shortfall first.
+     */
+    public List<Part> getLowStockParts() {
+        return queryParts("SELECT " + PART_COLUMNS + " FROM parts p JOIN part_stock s ON s.part_id = p.part_id " +
+                "WHERE s.on_hand - s.reserved <= p.reorder_level " +
+                "ORDER BY p.reorder_level - (s.on_hand - s.reserved) DESC, p.part_name", "getLowStockParts");
+    }
+
+    private List<Part> queryParts(String sql, String method) {
+        List<Part> parts = new ArrayList<>();
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO." + method);
+        try (timer;
+             Statement stmt = dbManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                parts.add(mapPart(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading parts: " + e.getMessage());
+        }
+        return parts;
+    }
+
+    /**
+     * @param idOrName part ID, or part name (case-insensitive)
+     */
+    public Optional<Part> findPart(String idOrName) {
+        String sql = "SELECT " + PART_COLUMNS + " FROM parts p JOIN part_stock s ON s.part_id = p.part_id " +
+                "WHERE p.part_id = ? OR LOWER(p.part_name) = LOWER(?)";
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO.findPart");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, idOrName);
+            pstmt.setString(2, idOrName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapPart(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding part: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Add delivered stock to a part's on-hand count.
+     */
+    public boolean receiveStock(String partId, int quantity) {
+        if (quantity <= 0) {
+            return false;
+        }
+        String sql = "UPDATE part_stock SET on_hand = on_hand + ?, version = version + 1, " +
+                "last_updated = CURRENT_TIMESTAMP WHERE part_id = ?";
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO.receiveStock");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setInt(1, quantity);
+            pstmt.setString(2, partId);
+            return pstmt.executeUpdate() == 1;
+        } catch (SQLException e) {
+            System.err.println("Error receiving stock: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reserve every part the work order lists. All or nothing: if any part is unknown or short, nothing is
+     * reserved. Parts already reserved for the work order are only topped up, so calling this again after
+     * adding parts reserves just the additions.
+     *
+     * @return why the parts could not be reserved; empty if they were
+     */
+    public List<String> reserveForWorkOrder(WorkOrder workOrder) {
+        List<String> problems = new ArrayList<>();
+        // Sorted by part ID so concurrent reservations touch stock rows in the same order
+        Map<String, Integer> wanted = new TreeMap<>();
+        Map<String, String> names = new HashMap<>();
+        for (String line : workOrder.getPartsRequired()) {
+            Matcher m = PART_LINE.matcher(line);
+            int quantity = m.matches() ? Integer.parseInt(m.group(1)) : 1;
+            String name = m.matches() ? m.group(2) : line.trim();
+            Optional<Part> part = findPart(name);
+            if (part.isEmpty()) {
+                problems.add("Unknown part: " + name);
+            } else if (quantity > 0) {
+                wanted.merge(part.get().getPartId(), quantity, Integer::sum);
+                names.put(part.get().getPartId(), part.get().getPartName());
+            }
+        }
+        if (!problems.isEmpty() || wanted.isEmpty()) {
+            return problems;
+        }
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO.reserveForWorkOrder");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                try {
+                    if (tryReserve(conn, workOrder.getWorkOrderId(), wanted, names, problems)) {
+                        conn.commit();
+                    } else {
+                        conn.rollback();
+                        METRICS.counter("inventory.reservation.shortages").increment();
+                    }
+                    return problems;
+                } catch (StaleStockException e) {
+                    conn.rollback();
+                    METRICS.counter("inventory.reservation.retries").increment();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            problems.add("Stock kept changing; try again");
+        } catch (SQLException e) {
+            System.err.println("Error reserving parts: " + e.getMessage());
+            problems.add("Unable to reserve parts");
+        }
+        return problems;
+    }
+
+    /**
+     * One optimistic attempt inside the caller's transaction.
+     *
+     * @return false if some part is short (listed in problems)
+     * @throws StaleStockException if a stock row changed since it was read
+     */
+    private boolean tryReserve(Connection conn, String workOrderId, Map<String, Integer> wanted,
+                               Map<String, String> names, List<String> problems) throws SQLException {
+        Map<String, Integer> held = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT part_id, quantity FROM part_reservations " +
+                "WHERE work_order_id = ? AND status = 'RESERVED'")) {
+            pstmt.setString(1, workOrderId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    held.put(rs.getString("part_id"), rs.getInt("quantity"));
+                }
+            }
+        }
+
+        try (PreparedStatement read = conn.prepareStatement(
+                "SELECT on_hand, reserved, version FROM part_stock WHERE part_id = ?");
+             PreparedStatement update = conn.prepareStatement("UPDATE part_stock SET reserved = reserved + ?, " +
+                     "version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE part_id = ? AND version = ?");
+             PreparedStatement reserve = conn.prepareStatement("MERGE INTO part_reservations " +
+                     "(work_order_id, part_id, quantity, status, reserved_at) KEY (work_order_id, part_id) " +
+                     "VALUES (?, ?, ?, 'RESERVED', CURRENT_TIMESTAMP)")) {
+            for (Map.Entry<String, Integer> e : wanted.entrySet()) {
+                String partId = e.getKey();
+                int extra = e.getValue() - held.getOrDefault(partId, 0);
+                if (extra <= 0) {
+                    continue;
+                }
+                read.setString(1, partId);
+                int available;
+                long version;
+                try (ResultSet rs = read.executeQuery()) {
+                    if (!rs.next()) {
+                        problems.add("No stock record for " + names.get(partId));
+                        continue;
+                    }
+                    available = rs.getInt("on_hand") - rs.getInt("reserved");
+                    version = rs.getLong("version");
+                }
+                if (available < extra) {
+                    problems.add("Not enough " + names.get(partId) + ": need " + extra + ", " + available + " available");
+                    continue;
+                }
+                update.setInt(1, extra);
+                update.setString(2, partId);
+                update.setLong(3, version);
+                if (update.executeUpdate() == 0) {
+                    throw new StaleStockException();
+                }
+                reserve.setString(1, workOrderId);
+                reserve.setString(2, partId);
+                reserve.setInt(3, e.getValue());
+                reserve.executeUpdate();
+            }
+        }
+        return problems.isEmpty();
+    }
+
+    /**
+     * Take a completed work order's reserved parts out of stock.
+     */
+    public void consumeForWorkOrder(String workOrderId) {
+        closeReservations(workOrderId, true);
+    }
+
+    /**
+     * Return a cancelled work order's reserved parts to available stock.
+     */
+    public void releaseForWorkOrder(String workOrderId) {
+        closeReservations(workOrderId, false);
+    }
+
+    private void closeReservations(String workOrderId, boolean consume) {
+        String select = "SELECT part_id, quantity FROM part_reservations " +
+                "WHERE work_order_id = ? AND status = 'RESERVED' FOR UPDATE";
+        String stock = "UPDATE part_stock SET " + (consume ? "on_hand = on_hand - ?, " : "") +
+                "reserved = reserved - ?, version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE part_id = ?";
+        String close = "UPDATE part_reservations SET status = ? WHERE work_order_id = ? AND status = 'RESERVED'";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.InventoryDAO.closeReservations");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement sel = conn.prepareStatement(select);
+                 PreparedStatement stk = conn.prepareStatement(stock);
+                 PreparedStatement cls = conn.prepareStatement(close)) {
+                sel.setString(1, workOrderId);
+                try (ResultSet rs = sel.executeQuery()) {
+                    while (rs.next()) {
+                        int i = 1;
+                        if (consume) {
+                            stk.setInt(i++, rs.getInt("quantity"));
+                        }
+                        stk.setInt(i++, rs.getInt("quantity"));
+                        stk.setString(i, rs.getString("part_id"));
+                        stk.executeUpdate();
+                    }
+                }
+                cls.setString(1, consume ? "CONSUMED" : "RELEASED");
+                cls.setString(2, workOrderId);
+                cls.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing part reservations: " + e.getMessage());
+        }
+    }
+
+    private Part mapPart(ResultSet rs) throws SQLException {
+        Part part = new Part();
+        part.setPartId(rs.getString("part_id"));
+        part.setPartName(rs.getString("part_name"));
+        part.setUnitCost(rs.getBigDecimal("unit_cost"));
+        part.setReorderLevel(rs.getInt("reorder_level"));
+        part.setOnHand(rs.getInt("on_hand"));
+        part.setReserved(rs.getInt("reserved"));
+        part.setVersion(rs.getLong("version"));
+        return part;
+    }
+
+    /**
+     * A stock row's version moved between reading and updating it.
+     */
+    private static final class StaleStockException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        StaleStockException() {
+            super("Stock changed concurrently");
+        }
+    }
+}
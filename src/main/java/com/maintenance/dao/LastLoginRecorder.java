@@ -0,0 +1,104 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records last_login timestamps off the login path.
+ * Logins only put (userId, time) into a map; a background task writes the pending entries as one
+ * JDBC batch every {@link #FLUSH_INTERVAL_MS} ms. Repeat logins by the same user between flushes
+ * collapse into a single UPDATE.
+ */
+public final class LastLoginRecorder {
+    // Delay between batched writes; last_login is informational so a short lag is fine
+    private static final long FLUSH_INTERVAL_MS = 2000;
+
+    private static LastLoginRecorder instance;
+
+    private final DatabaseManager dbManager;
+    private final Map<String, Timestamp> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private LastLoginRecorder() {
+        this.dbManager = DatabaseManager.getInstance();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "last-login-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        MetricsRegistry.getInstance().gauge("dao.LastLoginRecorder.pending", pending::size);
+    }
+
+    public static synchronized LastLoginRecorder getInstance() {
+        if (instance == null) {
+            instance = new LastLoginRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a last_login update for the given user at the current time.
+     *
+     * @param userId ID of the user who just logged in
+     */
+    public void record(String userId) {
+        pending.put(userId, new Timestamp(System.currentTimeMillis()));
+    }
+
+    /**
+     * Write all pending timestamps in one batch on a dedicated connection.
+     * Entries that fail to write are re-queued unless a newer login replaced them.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, Timestamp> drained = new HashMap<>();
+        for (String userId : pending.keySet()) {
+            Timestamp ts = pending.remove(userId);
+            if (ts != null) {
+                drained.put(userId, ts);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        String sql = "UPDATE users SET last_login = ? WHERE user_id = ?";
+        MetricsRegistry.Sample timer = MetricsRegistry.getInstance().time("dao.LastLoginRecorder.flush");
+        try (timer;
+             Connection conn = dbManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Timestamp> entry : drained.entrySet()) {
+                pstmt.setTimestamp(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            System.err.println("Error updating last login: " + e.getMessage());
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+
+    /**
+     * Stop the background task and write anything still pending. Called on application exit.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        flush();
+    }
+}
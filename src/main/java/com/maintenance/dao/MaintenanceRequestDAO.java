@@ -1,19 +1,45 @@
 package com.maintenance.dao;
 
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
 import com.maintenance.enums.*;
 import com.maintenance.models.MaintenanceRequest;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class MaintenanceRequestDAO {
 
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
+    /**
+     * Columns shared by maintenance_requests and archived_requests, for copying rows between them.
+     */
+    static final String REQUEST_COLUMNS = "request_id, tenant_id, apartment_number, description, " +
+            "detailed_description, category, priority, status, submission_date, last_updated, " +
+            "scheduled_date, completion_date, estimated_cost, actual_cost, assigned_staff_id, " +
+            "work_order_number, staff_update_notes, resolution_notes, tenant_archived, staff_archived, " +
+            "apartment_id, building_id, escalated_at, escalation_count, version";
+    // Attempts updateRequest(requestId, change) makes after the first before reporting a conflict
+    private static final int MAX_RETRIES = 3;
+    // UPDATE text per table and set of changed columns. Identical text is what lets H2's per-connection
+    // statement cache (queryCacheSize in DatabaseConfig) hand back the parsed UPDATE instead of re-parsing it
+    private static final Map<String, String> UPDATE_SQL = new ConcurrentHashMap<>();
+
     private final DatabaseManager dbManager;
+    private final ApartmentDAO apartmentDAO;
+    private final CompletionSketchDAO sketchDAO;
 
     public MaintenanceRequestDAO() {
         this.dbManager = DatabaseManager.getInstance();
+        this.apartmentDAO = new ApartmentDAO();
+        this.sketchDAO = new CompletionSketchDAO();
     }
 
     public Optional<String> findTenantNameByRequestId(String requestId) {
@@ -25,7 +51,9 @@ public class MaintenanceRequestDAO {
                 WHERE r.request_id = ?
                 """;
 
-        try (PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.findTenantNameByRequestId");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
             ps.setString(1, requestId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -51,7 +79,9 @@ public class MaintenanceRequestDAO {
                 JOIN users u ON u.user_id = mr.tenant_id
                 WHERE mr.request_id = ?
                 """;
-        try (PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.findTenantEmailByRequestId");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
             ps.setString(1, requestId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) return Optional.ofNullable(rs.getString(1));
@@ -71,7 +101,9 @@ public class MaintenanceRequestDAO {
             WHERE r.request_id = ?
             """;
 
-        try (PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.findStaffNameByRequestId");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
             ps.setString(1, requestId);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -99,7 +131,9 @@ public class MaintenanceRequestDAO {
             WHERE mr.request_id = ?
             """;
 
-        try (PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.findStaffEmailByRequestId");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql)) {
             ps.setString(1, requestId);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -113,15 +147,29 @@ public class MaintenanceRequestDAO {
     }
 
 
+    /**
+     * Insert a new request. If its apartment and building are not set, they are resolved from the
+     * tenant and apartment number (see {@link ApartmentDAO#findApartmentForRequest}).
+     */
     public boolean saveRequest(MaintenanceRequest request) {
         String sql = "INSERT INTO maintenance_requests (" +
                 "request_id, tenant_id, apartment_number, " +
                 "description, category, priority, status, " +
                 "submission_date, last_updated, " +
-                "tenant_archived, staff_archived) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+                "tenant_archived, staff_archived, " +
+                "apartment_id, building_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.saveRequest");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            if (request.getApartmentId() == null) {
+                apartmentDAO.findApartmentForRequest(request.getTenantId(), request.getApartmentNumber())
+                        .ifPresent(apartment -> {
+                            request.setApartmentId(apartment.getApartmentId());
+                            request.setBuildingId(apartment.getBuildingId());
+                        });
+            }
             pstmt.setString(1, request.getRequestId());
             pstmt.setString(2, request.getTenantId());
             pstmt.setString(3, request.getApartmentNumber());
@@ -133,8 +181,12 @@ public class MaintenanceRequestDAO {
             pstmt.setTimestamp(9, Timestamp.valueOf(request.getLastUpdated()));
             pstmt.setBoolean(10, request.isTenantArchived());
             pstmt.setBoolean(11, request.isStaffArchived());
+            pstmt.setString(12, request.getApartmentId());
+            pstmt.setString(13, request.getBuildingId());
 
             pstmt.executeUpdate();
+            request.markClean();
+            SlaMonitor.requestChanged(request);
             return true;
         } catch (SQLException e) {
             System.err.println("Error saving request: " + e.getMessage());
@@ -142,46 +194,165 @@ public class MaintenanceRequestDAO {
         }
     }
 
-    public boolean updateRequest(MaintenanceRequest request) {
-        String sql = "UPDATE maintenance_requests SET " +
-                "description = ?, " +
-                "category = ?, " +
-                "priority = ?, " +
-                "status = ?, " +
-                "last_updated = ?, " +
-                "assigned_staff_id = ?, " +
-                "scheduled_date = ?, " +
-                "completion_date = ?, " +
-                "staff_update_notes = ?, " +
-                "resolution_notes = ?, " +
-                "tenant_archived = ?, " +
-                "staff_archived = ? " +
-                "WHERE request_id = ?";
+    /**
+     * Save changes made to a copy of a request. Only the fields changed since the copy was loaded are
+     * written (see {@link MaintenanceRequest#getDirtyFields()}), and only if nobody else has saved the
+     * request since then (its version still matches the row's); the copy then carries the new version.
+     * Requests already moved to the archive store are updated there.
+     *
+     * <p>scheduled_date is not written here: it belongs to the request's work order (see WorkOrderDAO).
+     * Completing a request also adds it to the completion-time sketches (see CompletionSketchDAO), in the
+     * same transaction on a dedicated connection.
+     *
+     * @return UPDATED, also when nothing changed; CONFLICT with the stored request if it changed in the
+     *         meantime; NOT_FOUND if it is gone; FAILED on a database error
+     */
+    public UpdateResult updateRequest(MaintenanceRequest request) {
+        Set<MaintenanceRequest.Field> fields = EnumSet.noneOf(MaintenanceRequest.Field.class);
+        fields.addAll(request.getDirtyFields());
+        if (fields.isEmpty()) {
+            return new UpdateResult(UpdateStatus.UPDATED, request);
+        }
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.updateRequest");
+        try (timer) {
+            boolean completing = fields.contains(MaintenanceRequest.Field.STATUS)
+                    && request.getStatus() == RequestStatus.COMPLETED;
+            if (!(completing ? writeCompletion(request, fields) : write(dbManager.getConnection(), request, fields))) {
+                Optional<MaintenanceRequest> current = getRequestById(request.getRequestId());
+                if (current.isEmpty()) {
+                    return UpdateResult.NOT_FOUND;
+                }
+                METRICS.counter("dao.requests.conflicts").increment();
+                return new UpdateResult(UpdateStatus.CONFLICT, current.get());
+            }
+            request.setVersion(request.getVersion() + 1);
+            request.markClean();
+            METRICS.counter("dao.requests.columns.written").add(fields.size());
+            // Deadlines and bookings only depend on these; archive toggles and notes leave them alone
+            if (fields.contains(MaintenanceRequest.Field.STATUS)
+                    || fields.contains(MaintenanceRequest.Field.PRIORITY)
+                    || fields.contains(MaintenanceRequest.Field.ASSIGNED_STAFF_ID)) {
+                SlaMonitor.requestChanged(request);
+                WorkOrderScheduler.requestChanged(request);
+            }
+            return new UpdateResult(UpdateStatus.UPDATED, request);
+        } catch (SQLException e) {
+            System.err.println("Error updating request: " + e.getMessage());
+            return UpdateResult.FAILED;
+        }
+    }
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, request.getDescription());
-            pstmt.setString(2, request.getCategory().name());
-            pstmt.setString(3, request.getPriority().name());
-            pstmt.setString(4, request.getStatus().name());
-            pstmt.setTimestamp(5, Timestamp.valueOf(request.getLastUpdated()));
-            pstmt.setString(6, request.getAssignedStaffId());
-            pstmt.setTimestamp(7, request.getScheduledDate() != null
-                    ? Timestamp.valueOf(request.getScheduledDate())
-                    : null);
-            pstmt.setTimestamp(8, request.getCompletionDate() != null
+    /**
+     * Apply a change to the latest copy of a request and save it, merging with concurrent updates: if
+     * someone else saves the request in between, the change is applied again to their copy and saved on
+     * top of it, up to {@value #MAX_RETRIES} more times.
+     *
+     * @param change edits the copy it is given, or returns false if it no longer applies to it (e.g. the
+     *               request was completed meanwhile), which ends the update with CONFLICT
+     * @return as {@link #updateRequest(MaintenanceRequest)}, with the saved copy on UPDATED
+     */
+    public UpdateResult updateRequest(String requestId, RequestChange change) {
+        Optional<MaintenanceRequest> loaded = getRequestById(requestId);
+        if (loaded.isEmpty()) {
+            return UpdateResult.NOT_FOUND;
+        }
+        MaintenanceRequest current = loaded.get();
+        for (int attempt = 0; ; attempt++) {
+            if (!change.applyTo(current)) {
+                return new UpdateResult(UpdateStatus.CONFLICT, current);
+            }
+            UpdateResult result = updateRequest(current);
+            if (result.getStatus() != UpdateStatus.CONFLICT || attempt == MAX_RETRIES) {
+                return result;
+            }
+            METRICS.counter("dao.requests.retries").increment();
+            current = result.getRequest();
+        }
+    }
+
+    // false if the request is in neither table at the copy's version
+    private boolean write(Connection conn, MaintenanceRequest request, Set<MaintenanceRequest.Field> fields)
+            throws SQLException {
+        return updateIn(conn, "maintenance_requests", request, fields) > 0
+                || updateIn(conn, "archived_requests", request, fields) > 0;
+    }
+
+    private boolean writeCompletion(MaintenanceRequest request, Set<MaintenanceRequest.Field> fields)
+            throws SQLException {
+        try (Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                boolean written = write(conn, request, fields);
+                if (written) {
+                    sketchDAO.recordCompletion(conn, request);
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return written;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private int updateIn(Connection conn, String table, MaintenanceRequest request,
+                         Set<MaintenanceRequest.Field> fields) throws SQLException {
+        String sql = UPDATE_SQL.computeIfAbsent(table + fields, key -> {
+            StringBuilder sb = new StringBuilder("UPDATE ").append(table).append(" SET ");
+            for (MaintenanceRequest.Field field : fields) {
+                sb.append(column(field)).append(" = ?, ");
+            }
+            return sb.append("version = version + 1 WHERE request_id = ? AND version = ?").toString();
+        });
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (MaintenanceRequest.Field field : fields) {
+                bind(pstmt, index++, field, request);
+            }
+            pstmt.setString(index++, request.getRequestId());
+            pstmt.setLong(index, request.getVersion());
+
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static String column(MaintenanceRequest.Field field) {
+        return switch (field) {
+            case DESCRIPTION -> "description";
+            case CATEGORY -> "category";
+            case PRIORITY -> "priority";
+            case STATUS -> "status";
+            case LAST_UPDATED -> "last_updated";
+            case ASSIGNED_STAFF_ID -> "assigned_staff_id";
+            case COMPLETION_DATE -> "completion_date";
+            case ACTUAL_COST -> "actual_cost";
+            case STAFF_UPDATE_NOTES -> "staff_update_notes";
+            case RESOLUTION_NOTES -> "resolution_notes";
+            case TENANT_ARCHIVED -> "tenant_archived";
+            case STAFF_ARCHIVED -> "staff_archived";
+        };
+    }
+
+    private static void bind(PreparedStatement pstmt, int index, MaintenanceRequest.Field field,
+                             MaintenanceRequest request) throws SQLException {
+        switch (field) {
+            case DESCRIPTION -> pstmt.setString(index, request.getDescription());
+            case CATEGORY -> pstmt.setString(index, request.getCategory().name());
+            case PRIORITY -> pstmt.setString(index, request.getPriority().name());
+            case STATUS -> pstmt.setString(index, request.getStatus().name());
+            case LAST_UPDATED -> pstmt.setTimestamp(index, Timestamp.valueOf(request.getLastUpdated()));
+            case ASSIGNED_STAFF_ID -> pstmt.setString(index, request.getAssignedStaffId());
+            case COMPLETION_DATE -> pstmt.setTimestamp(index, request.getCompletionDate() != null
                     ? Timestamp.valueOf(request.getCompletionDate())
                     : null);
-            pstmt.setString(9, request.getStaffUpdateNotes());
-            pstmt.setString(10, request.getResolutionNotes());
-            pstmt.setBoolean(11, request.isTenantArchived());
-            pstmt.setBoolean(12, request.isStaffArchived());
-            pstmt.setString(13, request.getRequestId());
-
-            pstmt.executeUpdate();
-            return true;
-        } catch (SQLException e) {
-            System.err.println("Error updating request: " + e.getMessage());
-            return false;
+            case ACTUAL_COST -> pstmt.setDouble(index, request.getActualCost());
+            case STAFF_UPDATE_NOTES -> pstmt.setString(index, request.getStaffUpdateNotes());
+            case RESOLUTION_NOTES -> pstmt.setString(index, request.getResolutionNotes());
+            case TENANT_ARCHIVED -> pstmt.setBoolean(index, request.isTenantArchived());
+            case STAFF_ARCHIVED -> pstmt.setBoolean(index, request.isStaffArchived());
         }
     }
 
@@ -189,7 +360,9 @@ public class MaintenanceRequestDAO {
         List<MaintenanceRequest> requests = new ArrayList<>();
         String sql = "SELECT * FROM maintenance_requests ORDER BY submission_date DESC";
 
-        try (Statement stmt = dbManager.getConnection().createStatement();
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getAllRequests");
+        try (timer;
+             Statement stmt = dbManager.getConnection().createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -207,7 +380,9 @@ public class MaintenanceRequestDAO {
         String sql = "SELECT * FROM maintenance_requests " +
                 "WHERE tenant_id = ? ORDER BY submission_date DESC";
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getRequestsByTenant");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, tenantId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -226,7 +401,9 @@ public class MaintenanceRequestDAO {
         String sql = "SELECT * FROM maintenance_requests " +
                 "WHERE assigned_staff_id = ? ORDER BY priority DESC";
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getRequestsByStaff");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, staffId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -240,11 +417,218 @@ public class MaintenanceRequestDAO {
         return requests;
     }
 
+    /**
+     * @return the building's active requests, newest first
+     */
+    public List<MaintenanceRequest> getRequestsByBuilding(String buildingId) {
+        List<MaintenanceRequest> requests = new ArrayList<>();
+        String sql = "SELECT * FROM maintenance_requests " +
+                "WHERE building_id = ? ORDER BY submission_date DESC";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getRequestsByBuilding");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, buildingId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    requests.add(mapResultSetToRequest(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading building requests: " + e.getMessage());
+        }
+
+        return requests;
+    }
+
+    /**
+     * @return the apartment's active requests, newest first
+     */
+    public List<MaintenanceRequest> getRequestsByApartment(String apartmentId) {
+        List<MaintenanceRequest> requests = new ArrayList<>();
+        String sql = "SELECT * FROM maintenance_requests " +
+                "WHERE apartment_id = ? ORDER BY submission_date DESC";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getRequestsByApartment");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, apartmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    requests.add(mapResultSetToRequest(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading apartment requests: " + e.getMessage());
+        }
+
+        return requests;
+    }
+
+    /**
+     * Look a request up by ID, falling back to the archive store if it is no longer active.
+     */
+    public Optional<MaintenanceRequest> getRequestById(String requestId) {
+        String sql = "SELECT * FROM maintenance_requests WHERE request_id = ?";
+        String archivedSql = "SELECT * FROM archived_requests WHERE request_id = ?";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.getRequestById");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapResultSetToRequest(rs));
+                }
+            }
+            try (PreparedStatement archived = dbManager.getConnection().prepareStatement(archivedSql)) {
+                archived.setString(1, requestId);
+                try (ResultSet rs = archived.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapArchivedRequest(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading request " + requestId + ": " + e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return every request in the archive store, newest first
+     */
+    public List<MaintenanceRequest> getArchivedRequests() {
+        String sql = "SELECT * FROM archived_requests ORDER BY submission_date DESC";
+        try {
+            return METRICS.time("dao.MaintenanceRequestDAO.getArchivedRequests", () -> queryArchived(sql, null));
+        } catch (SQLException e) {
+            System.err.println("Error loading archived requests: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return the tenant's requests in the archive store, newest first
+     */
+    public List<MaintenanceRequest> getArchivedRequestsByTenant(String tenantId) {
+        String sql = "SELECT * FROM archived_requests WHERE tenant_id = ? ORDER BY submission_date DESC";
+        try {
+            return METRICS.time("dao.MaintenanceRequestDAO.getArchivedRequestsByTenant", () -> queryArchived(sql, tenantId));
+        } catch (SQLException e) {
+            System.err.println("Error loading archived tenant requests: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return requests in the archive store that were assigned to the staff member, newest first
+     */
+    public List<MaintenanceRequest> getArchivedRequestsByStaff(String staffId) {
+        String sql = "SELECT * FROM archived_requests WHERE assigned_staff_id = ? ORDER BY submission_date DESC";
+        try {
+            return METRICS.time("dao.MaintenanceRequestDAO.getArchivedRequestsByStaff", () -> queryArchived(sql, staffId));
+        } catch (SQLException e) {
+            System.err.println("Error loading archived staff requests: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return the building's requests in the archive store, newest first
+     */
+    public List<MaintenanceRequest> getArchivedRequestsByBuilding(String buildingId) {
+        String sql = "SELECT * FROM archived_requests WHERE building_id = ? ORDER BY submission_date DESC";
+        try {
+            return METRICS.time("dao.MaintenanceRequestDAO.getArchivedRequestsByBuilding", () -> queryArchived(sql, buildingId));
+        } catch (SQLException e) {
+            System.err.println("Error loading archived building requests: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private List<MaintenanceRequest> queryArchived(String sql, String key) throws SQLException {
+        List<MaintenanceRequest> requests = new ArrayList<>();
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            if (key != null) {
+                pstmt.setString(1, key);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    requests.add(mapArchivedRequest(rs));
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Move a request from the archive store back into the active table, in one transaction
+     * on a dedicated connection.
+     *
+     * @return true if the request was restored
+     */
+    public boolean restoreArchivedRequest(String requestId) {
+        String insert = "INSERT INTO maintenance_requests (" + REQUEST_COLUMNS + ") " +
+                "SELECT " + REQUEST_COLUMNS + " FROM archived_requests WHERE request_id = ?";
+        String delete = "DELETE FROM archived_requests WHERE request_id = ?";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.restoreArchivedRequest");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ins = conn.prepareStatement(insert);
+                 PreparedStatement del = conn.prepareStatement(delete)) {
+                ins.setString(1, requestId);
+                del.setString(1, requestId);
+                boolean restored = ins.executeUpdate() == 1 && del.executeUpdate() == 1;
+                if (restored) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return restored;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error restoring archived request " + requestId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Visit every request newest first without building a list, for responses too large to buffer.
+     * Rows are mapped one at a time from a forward-only cursor.
+     *
+     * @param consumer receives each request in order
+     * @throws SQLException if the query fails
+     */
+    public void forEachRequest(Consumer<MaintenanceRequest> consumer) throws SQLException {
+        String sql = "SELECT * FROM maintenance_requests ORDER BY submission_date DESC";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.MaintenanceRequestDAO.forEachRequest");
+        try (timer;
+             Statement stmt = dbManager.getConnection()
+                .createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(500);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToRequest(rs));
+                }
+            }
+        }
+    }
+
     private MaintenanceRequest mapResultSetToRequest(ResultSet rs) throws SQLException {
         MaintenanceRequest request = new MaintenanceRequest();
         request.setRequestId(rs.getString("request_id"));
         request.setTenantId(rs.getString("tenant_id"));
         request.setApartmentNumber(rs.getString("apartment_number"));
+        request.setApartmentId(rs.getString("apartment_id"));
+        request.setBuildingId(rs.getString("building_id"));
         request.setDescription(rs.getString("description"));
         request.setDetailedDescription(rs.getString("detailed_description"));
         request.setCategory(CategoryType.valueOf(rs.getString("category")));
@@ -259,6 +643,11 @@ public class MaintenanceRequestDAO {
         Timestamp completed = rs.getTimestamp("completion_date");
         if (completed != null) request.setCompletionDate(completed.toLocalDateTime());
 
+        Timestamp escalated = rs.getTimestamp("escalated_at");
+        if (escalated != null) request.setEscalatedAt(escalated.toLocalDateTime());
+        request.setEscalationCount(rs.getInt("escalation_count"));
+        request.setVersion(rs.getLong("version"));
+
         request.setEstimatedCost(rs.getDouble("estimated_cost"));
         request.setActualCost(rs.getDouble("actual_cost"));
         request.setAssignedStaffId(rs.getString("assigned_staff_id"));
@@ -282,7 +671,71 @@ public class MaintenanceRequestDAO {
 
         request.setTenantArchived(tenantArchived);
         request.setStaffArchived(staffArchived);
+        request.markClean();
+
+        return request;
+    }
 
+    /**
+     * Map an archived_requests row. Such requests are archived for everyone, whatever their flags.
+     */
+    private MaintenanceRequest mapArchivedRequest(ResultSet rs) throws SQLException {
+        MaintenanceRequest request = mapResultSetToRequest(rs);
+        Timestamp archivedAt = rs.getTimestamp("archived_at");
+        request.setArchivedAt(archivedAt != null ? archivedAt.toLocalDateTime() : request.getLastUpdated());
+        request.setTenantArchived(true);
+        request.setStaffArchived(true);
+        request.markClean();
         return request;
     }
+
+    /**
+     * An edit to a request that can be re-applied to a newer copy of it.
+     */
+    @FunctionalInterface
+    public interface RequestChange {
+        /**
+         * @return false if the change no longer makes sense for this copy of the request
+         */
+        boolean applyTo(MaintenanceRequest request);
+    }
+
+    /**
+     * Outcome of an update.
+     */
+    public enum UpdateStatus {
+        UPDATED,
+        // Someone else saved the request first; the result carries their version
+        CONFLICT,
+        NOT_FOUND,
+        FAILED
+    }
+
+    /**
+     * Update outcome plus the saved request, or the stored one on conflict.
+     */
+    public static final class UpdateResult {
+        public static final UpdateResult NOT_FOUND = new UpdateResult(UpdateStatus.NOT_FOUND, null);
+        public static final UpdateResult FAILED = new UpdateResult(UpdateStatus.FAILED, null);
+
+        private final UpdateStatus status;
+        private final MaintenanceRequest request;
+
+        UpdateResult(UpdateStatus status, MaintenanceRequest request) {
+            this.status = status;
+            this.request = request;
+        }
+
+        public UpdateStatus getStatus() {
+            return status;
+        }
+
+        public MaintenanceRequest getRequest() {
+            return request;
+        }
+
+        public boolean isUpdated() {
+            return status == UpdateStatus.UPDATED;
+        }
+    }
 }
@@ -1,17 +1,38 @@
 package com.maintenance.dao;
 
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.Photo;
+import com.maintenance.util.IDGenerator;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.UUID;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for handling photo metadata associated with maintenance requests.
  * This DAO is responsible only for inserting and querying photo records in the database.
  */
 public class PhotoDAO {
+    /**
+     * Upper bound on the number of request IDs bound into a single IN (...) query.
+     * Larger collections are split into several queries of at most this size.
+     */
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
     /**
      * Shared database manager used to obtain JDBC connections.
      */
@@ -41,12 +62,10 @@ public class PhotoDAO {
                 "photo_id, request_id, file_name, file_path, file_size, upload_date" +
                 ") VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
 
-        String photoId = "PHO-" + UUID.randomUUID()
-                .toString()
-                .substring(0, 8)
-                .toUpperCase();
+        String photoId = IDGenerator.generatePhotoId();
 
-        try {
+        MetricsRegistry.Sample timer = METRICS.time("dao.PhotoDAO.savePhotoForRequest");
+        try (timer) {
             Connection conn = dbManager.getConnection(); // do NOT close
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setString(1, photoId);
@@ -85,7 +104,8 @@ public class PhotoDAO {
                 "ORDER BY upload_date DESC " +
                 "LIMIT 1";
 
-        try {
+        MetricsRegistry.Sample timer = METRICS.time("dao.PhotoDAO.getLatestPhotoPathForRequest");
+        try (timer) {
             Connection conn = dbManager.getConnection(); // do NOT close
             try (PreparedStatement ps = conn.prepareStatement(sql)) {
                 ps.setString(1, requestId);
@@ -105,4 +125,162 @@ public class PhotoDAO {
         }
         return null;
     }
+    /**
+     * Save several photo records for one maintenance request using a single JDBC batch.
+     * IMPORTANT: does NOT close the shared Connection.
+     *
+     * @param requestId ID of the maintenance request the photos are linked to
+     * @param files     image files selected by the user; missing files are skipped
+     * @return number of photo rows inserted
+     */
+    public int savePhotosForRequest(String requestId, List<File> files) {
+        if (requestId == null || files == null || files.isEmpty()) {
+            return 0;
+        }
+
+        String sql = "INSERT INTO photos (" +
+                "photo_id, request_id, file_name, file_path, file_size, upload_date" +
+                ") VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.PhotoDAO.savePhotosForRequest");
+        try (timer) {
+            Connection conn = dbManager.getConnection(); // do NOT close
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int queued = 0;
+                for (File file : files) {
+                    if (file == null || !file.exists()) {
+                        continue;
+                    }
+                    ps.setString(1, IDGenerator.generatePhotoId());
+                    ps.setString(2, requestId);
+                    ps.setString(3, file.getName());
+                    // Store a file: URI so JavaFX Image can load it directly later
+                    ps.setString(4, file.toURI().toString());
+                    ps.setLong(5, file.length());
+                    ps.addBatch();
+                    queued++;
+                }
+                if (queued == 0) {
+                    return 0;
+                }
+
+                int saved = 0;
+                for (int count : ps.executeBatch()) {
+                    // SUCCESS_NO_INFO (-2) still means the row was written
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        saved++;
+                    }
+                }
+                return saved;
+            }
+        } catch (Exception e) {
+            System.err.println("Error saving photo metadata batch: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Load metadata for every photo attached to the given requests.
+     * All IDs are resolved with one IN (...) query per chunk of {@value #IN_CLAUSE_CHUNK_SIZE},
+     * so a full page of requests costs a single round trip instead of one query per row.
+     * Image bytes are never read here; callers decode lazily from {@link Photo#getFilePath()}.
+     *
+     * @param requestIds IDs of the maintenance requests to look up (nulls and duplicates ignored)
+     * @return map of requestId to its photos ordered oldest first; requests without photos are absent
+     */
+    public Map<String, List<Photo>> getPhotosForRequests(Collection<String> requestIds) {
+        Map<String, List<Photo>> photosByRequest = new LinkedHashMap<>();
+        if (requestIds == null || requestIds.isEmpty()) {
+            return photosByRequest;
+        }
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(requestIds));
+        ids.removeIf(id -> id == null || id.isBlank());
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.PhotoDAO.getPhotosForRequests");
+        try (timer) {
+            Connection conn = dbManager.getConnection(); // do NOT close
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<String> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                String sql = "SELECT photo_id, request_id, file_name, file_path, file_size, upload_date, description " +
+                        "FROM photos " +
+                        "WHERE request_id IN (" + placeholders + ") " +
+                        "ORDER BY request_id, upload_date";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Photo photo = mapResultSetToPhoto(rs);
+                            photosByRequest
+                                    .computeIfAbsent(photo.getRequestId(), k -> new ArrayList<>())
+                                    .add(photo);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading photo metadata for requests: " + e.getMessage());
+        }
+        return photosByRequest;
+    }
+
+    /**
+     * Convenience wrapper around {@link #getPhotosForRequests(Collection)} for a single request.
+     *
+     * @param requestId ID of the maintenance request
+     * @return photos for the request ordered oldest first, or an empty list if none exist
+     */
+    public List<Photo> getPhotosForRequest(String requestId) {
+        return getPhotosForRequests(List.of(requestId)).getOrDefault(requestId, new ArrayList<>());
+    }
+
+    /**
+     * Load a single photo's metadata by ID.
+     *
+     * @param photoId ID of the photo
+     * @return the photo, or null if not found
+     */
+    public Photo getPhotoById(String photoId) {
+        String sql = "SELECT photo_id, request_id, file_name, file_path, file_size, upload_date, description " +
+                "FROM photos WHERE photo_id = ?";
+        MetricsRegistry.Sample timer = METRICS.time("dao.PhotoDAO.getPhotoById");
+        try (timer) {
+            Connection conn = dbManager.getConnection(); // do NOT close
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, photoId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapResultSetToPhoto(rs);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading photo " + photoId + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Map the current ResultSet row into a Photo model.
+     *
+     * @param rs ResultSet positioned on a photos row
+     * @return populated Photo
+     * @throws SQLException if any column access fails
+     */
+    private Photo mapResultSetToPhoto(ResultSet rs) throws SQLException {
+        Photo photo = new Photo();
+        photo.setPhotoId(rs.getString("photo_id"));
+        photo.setRequestId(rs.getString("request_id"));
+        photo.setFileName(rs.getString("file_name"));
+        photo.setFilePath(rs.getString("file_path"));
+        photo.setFileSize(rs.getLong("file_size"));
+        Timestamp uploaded = rs.getTimestamp("upload_date");
+        photo.setUploadDate(uploaded != null ? uploaded.toLocalDateTime() : null);
+        photo.setDescription(rs.getString("description"));
+        return photo;
+    }
 }
@@ -0,0 +1,269 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.MaintenanceRequest;
+import com.maintenance.models.PreventiveSchedule;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns preventive maintenance schedules into requests on their due dates.
+ *
+ * <p>Runs on a background thread every hour ({@code -Dmaintenance.preventive.intervalMinutes}; 0 disables).
+ * Each run expands every active schedule up to today: every due date after the schedule's
+ * generated_through becomes one SUBMITTED request per apartment it covers. The request is submitted when
+ * it is generated, so SLA targets run from then; the due date itself is kept on its preventive_occurrences
+ * row and in the request's detailed description.
+ * A schedule is expanded in one transaction on a dedicated connection, with the schedule row locked and
+ * the requests and their preventive_occurrences rows written as JDBC batches of 1000
+ * ({@code -Dmaintenance.preventive.batchSize}), so a building with thousands of units is one short pass.
+ *
+ * <p>Expansion is idempotent: generated_through advances in the same transaction, and due dates that
+ * already have an occurrence for an apartment are skipped, so two processes or a retried run never
+ * duplicate a request. Due dates missed while the application was down (or the schedule paused) are all
+ * caught up on the next run.
+ *
+ * <p>Metrics: {@code preventive.requests.generated} counter and {@code preventive.expand} timer.
+ */
+public final class PreventiveMaintenanceScheduler {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    // Let the first run wait for startup work (schema, logins) to settle
+    private static final long INITIAL_DELAY_MINUTES = 1;
+    private static final String INSERT_REQUEST = "INSERT INTO maintenance_requests (" +
+            "request_id, tenant_id, apartment_number, description, detailed_description, category, priority, " +
+            "status, submission_date, last_updated, tenant_archived, staff_archived, apartment_id, building_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, FALSE, ?, ?)";
+
+    private static PreventiveMaintenanceScheduler instance;
+
+    private final DatabaseManager dbManager;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private PreventiveMaintenanceScheduler(int batchSize, long intervalMinutes) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "preventive-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly,
+                Math.min(INITIAL_DELAY_MINUTES, intervalMinutes), intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Start expanding schedules in the background unless disabled or already running.
+     */
+    public static synchronized void start() {
+        long interval = Long.getLong("maintenance.preventive.intervalMinutes", 60);
+        if (instance != null || interval <= 0) {
+            return;
+        }
+        int batchSize = Integer.getInteger("maintenance.preventive.batchSize", 1000);
+        instance = new PreventiveMaintenanceScheduler(batchSize, interval);
+        System.out.println("✓ Preventive maintenance scheduler every " + interval + " min");
+    }
+
+    /**
+     * @return the running scheduler, or null if not started
+     */
+    public static synchronized PreventiveMaintenanceScheduler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop the schedule; a schedule being expanded finishes its transaction.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.scheduler.shutdown();
+            instance = null;
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            expandNow(LocalDate.now());
+        } catch (SQLException e) {
+            System.err.println("Preventive maintenance expansion failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generate the requests for every active schedule's due dates up to and including {@code today}.
+     *
+     * @return number of requests created
+     */
+    public synchronized int expandNow(LocalDate today) throws SQLException {
+        List<String> scheduleIds = new ArrayList<>();
+        int created = 0;
+        MetricsRegistry.Sample timer = METRICS.time("preventive.expand");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT schedule_id FROM preventive_schedules WHERE active")) {
+                while (rs.next()) {
+                    scheduleIds.add(rs.getString(1));
+                }
+            }
+            conn.setAutoCommit(false);
+            for (String scheduleId : scheduleIds) {
+                List<MaintenanceRequest> generated;
+                try {
+                    generated = expand(conn, scheduleId, today);
+                    conn.commit();
+                } catch (SQLException e) {
+                    // One bad schedule must not hold up the others; it is retried on the next run
+                    conn.rollback();
+                    System.err.println("Error expanding preventive schedule " + scheduleId + ": " + e.getMessage());
+                    continue;
+                }
+                for (MaintenanceRequest request : generated) {
+                    SlaMonitor.requestChanged(request);
+                }
+                created += generated.size();
+                METRICS.counter("preventive.requests.generated").add(generated.size());
+            }
+        }
+        if (created > 0) {
+            System.out.println("✓ Generated " + created + " preventive maintenance requests");
+        }
+        return created;
+    }
+
+    /**
+     * Expand one schedule inside the caller's transaction.
+     *
+     * @return the requests written
+     */
+    private List<MaintenanceRequest> expand(Connection conn, String scheduleId, LocalDate today) throws SQLException {
+        PreventiveSchedule schedule;
+        // The lock makes a concurrent expansion of the same schedule wait, then see the new generated_through
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT " + PreventiveScheduleDAO.COLUMNS +
+                " FROM preventive_schedules WHERE schedule_id = ? AND active FOR UPDATE")) {
+            pstmt.setString(1, scheduleId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return List.of();
+                }
+                schedule = PreventiveScheduleDAO.mapSchedule(rs);
+            }
+        }
+
+        List<LocalDate> dueDates = schedule.pendingDueDates(today);
+        if (dueDates.isEmpty()) {
+            return List.of();
+        }
+
+        List<String[]> apartments = new ArrayList<>();
+        String aptSql = "SELECT apartment_id, apartment_number, current_tenant_id FROM apartments WHERE building_id = ?" +
+                (schedule.getApartmentId() != null ? " AND apartment_id = ?" : "") + " ORDER BY apartment_id";
+        try (PreparedStatement pstmt = conn.prepareStatement(aptSql)) {
+            pstmt.setString(1, schedule.getBuildingId());
+            if (schedule.getApartmentId() != null) {
+                pstmt.setString(2, schedule.getApartmentId());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    apartments.add(new String[]{rs.getString(1), rs.getString(2), rs.getString(3)});
+                }
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT apartment_id, due_date FROM preventive_occurrences " +
+                "WHERE schedule_id = ? AND due_date >= ?")) {
+            pstmt.setString(1, scheduleId);
+            pstmt.setDate(2, Date.valueOf(dueDates.get(0)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1) + "|" + rs.getDate(2).toLocalDate());
+                }
+            }
+        }
+
+        List<MaintenanceRequest> generated = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement requests = conn.prepareStatement(INSERT_REQUEST);
+             PreparedStatement occurrences = conn.prepareStatement("INSERT INTO preventive_occurrences " +
+                     "(schedule_id, apartment_id, due_date, request_id) VALUES (?, ?, ?, ?)")) {
+            int pending = 0;
+            for (LocalDate due : dueDates) {
+                for (String[] apartment : apartments) {
+                    if (existing.contains(apartment[0] + "|" + due)) {
+                        continue;
+                    }
+                    MaintenanceRequest r = new MaintenanceRequest();
+                    r.setTenantId(apartment[2]);
+                    r.setApartmentId(apartment[0]);
+                    r.setApartmentNumber(apartment[1]);
+                    r.setBuildingId(schedule.getBuildingId());
+                    r.setDescription(schedule.getDescription());
+                    r.setDetailedDescription("Preventive maintenance due " + due + " (schedule " + scheduleId + ")");
+                    r.setCategory(schedule.getCategory());
+                    r.setPriority(schedule.getPriority());
+                    // The SLA clock starts now: a due date caught up after downtime is already past, and
+                    // dating the request then would escalate every generated request on arrival
+                    r.setSubmissionDate(now);
+                    r.setLastUpdated(now);
+
+                    requests.setString(1, r.getRequestId());
+                    requests.setString(2, r.getTenantId());
+                    requests.setString(3, r.getApartmentNumber());
+                    requests.setString(4, r.getDescription());
+                    requests.setString(5, r.getDetailedDescription());
+                    requests.setString(6, r.getCategory().name());
+                    requests.setString(7, r.getPriority().name());
+                    requests.setString(8, r.getStatus().name());
+                    requests.setTimestamp(9, Timestamp.valueOf(r.getSubmissionDate()));
+                    requests.setTimestamp(10, Timestamp.valueOf(r.getLastUpdated()));
+                    requests.setString(11, r.getApartmentId());
+                    requests.setString(12, r.getBuildingId());
+                    requests.addBatch();
+
+                    occurrences.setString(1, scheduleId);
+                    occurrences.setString(2, r.getApartmentId());
+                    occurrences.setDate(3, Date.valueOf(due));
+                    occurrences.setString(4, r.getRequestId());
+                    occurrences.addBatch();
+
+                    generated.add(r);
+                    if (++pending == batchSize) {
+                        requests.executeBatch();
+                        occurrences.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                requests.executeBatch();
+                occurrences.executeBatch();
+            }
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE preventive_schedules SET generated_through = ? WHERE schedule_id = ?")) {
+            pstmt.setDate(1, Date.valueOf(dueDates.get(dueDates.size() - 1)));
+            pstmt.setString(2, scheduleId);
+            pstmt.executeUpdate();
+        }
+        return generated;
+    }
+}
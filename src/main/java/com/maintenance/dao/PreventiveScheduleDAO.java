@@ -0,0 +1,105 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.enums.CategoryType;
+import com.maintenance.enums.PriorityLevel;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.PreventiveSchedule;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for recurring preventive maintenance schedules.
+ */
+public class PreventiveScheduleDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    static final String COLUMNS = "schedule_id, building_id, apartment_id, description, category, priority, " +
+            "interval_months, first_due, generated_through, active";
+
+    private final DatabaseManager dbManager;
+
+    public PreventiveScheduleDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public boolean saveSchedule(PreventiveSchedule schedule) {
+        String sql = "INSERT INTO preventive_schedules (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.PreventiveScheduleDAO.saveSchedule");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, schedule.getScheduleId());
+            pstmt.setString(2, schedule.getBuildingId());
+            pstmt.setString(3, schedule.getApartmentId());
+            pstmt.setString(4, schedule.getDescription());
+            pstmt.setString(5, schedule.getCategory().name());
+            pstmt.setString(6, schedule.getPriority().name());
+            pstmt.setInt(7, schedule.getIntervalMonths());
+            pstmt.setDate(8, Date.valueOf(schedule.getFirstDue()));
+            pstmt.setDate(9, schedule.getGeneratedThrough() != null ? Date.valueOf(schedule.getGeneratedThrough()) : null);
+            pstmt.setBoolean(10, schedule.isActive());
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error saving preventive schedule: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public List<PreventiveSchedule> getAllSchedules() {
+        List<PreventiveSchedule> schedules = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM preventive_schedules ORDER BY building_id, description";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.PreventiveScheduleDAO.getAllSchedules");
+        try (timer;
+             Statement stmt = dbManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                schedules.add(mapSchedule(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading preventive schedules: " + e.getMessage());
+        }
+
+        return schedules;
+    }
+
+    /**
+     * Pause or resume a schedule. Due dates that pass while it is paused are generated when it resumes.
+     */
+    public boolean setActive(String scheduleId, boolean active) {
+        String sql = "UPDATE preventive_schedules SET active = ? WHERE schedule_id = ?";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.PreventiveScheduleDAO.setActive");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setBoolean(1, active);
+            pstmt.setString(2, scheduleId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating preventive schedule: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static PreventiveSchedule mapSchedule(ResultSet rs) throws SQLException {
+        PreventiveSchedule schedule = new PreventiveSchedule();
+        schedule.setScheduleId(rs.getString("schedule_id"));
+        schedule.setBuildingId(rs.getString("building_id"));
+        schedule.setApartmentId(rs.getString("apartment_id"));
+        schedule.setDescription(rs.getString("description"));
+        schedule.setCategory(CategoryType.valueOf(rs.getString("category")));
+        schedule.setPriority(PriorityLevel.valueOf(rs.getString("priority")));
+        schedule.setIntervalMonths(rs.getInt("interval_months"));
+        schedule.setFirstDue(rs.getDate("first_due").toLocalDate());
+        Date through = rs.getDate("generated_through");
+        schedule.setGeneratedThrough(through != null ? through.toLocalDate() : null);
+        schedule.setActive(rs.getBoolean("active"));
+        return schedule;
+    }
+}
@@ -0,0 +1,192 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves requests that were completed or cancelled long ago from maintenance_requests into
+ * archived_requests, so the active table (and every getRequestsBy* scan) only holds recent work.
+ *
+ * <p>Runs on a background thread every hour (override with {@code -Dmaintenance.archive.intervalMinutes};
+ * 0 disables) and archives requests closed more than 365 days ago ({@code -Dmaintenance.archive.afterDays}).
+ * Rows move in chunks of 500 ({@code -Dmaintenance.archive.batchSize}), each chunk its own transaction on a
+ * dedicated connection, so the UI connection is never blocked for long. Archived requests stay readable
+ * through the DAO's getArchivedRequests* methods and the dashboards' "Archived" filter.
+ *
+ * <p>Metrics: {@code archive.requests.moved} counter, {@code archive.run} timer, and gauges for the active
+ * and archived row counts and the active table's reduction since startup.
+ */
+public final class RequestArchiver {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    // Let the first run wait for startup work (schema, logins) to settle
+    private static final long INITIAL_DELAY_MINUTES = 1;
+
+    private static RequestArchiver instance;
+
+    private final DatabaseManager dbManager;
+    private final int afterDays;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    // Row counts refreshed after each run; -1 until the first run
+    private final AtomicLong activeRows = new AtomicLong(-1);
+    private final AtomicLong archivedRows = new AtomicLong(-1);
+    private final AtomicLong activeRowsAtStart = new AtomicLong(-1);
+
+    private RequestArchiver(int afterDays, int batchSize, long intervalMinutes) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "request-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly,
+                Math.min(INITIAL_DELAY_MINUTES, intervalMinutes), intervalMinutes, TimeUnit.MINUTES);
+
+        METRICS.gauge("archive.activeRows", activeRows::get);
+        METRICS.gauge("archive.archivedRows", archivedRows::get);
+        METRICS.gauge("archive.activeReductionPercent", () -> {
+            long start = activeRowsAtStart.get();
+            long now = activeRows.get();
+            return start <= 0 || now < 0 ? 0 : (start - now) * 100 / start;
+        });
+    }
+
+    /**
+     * Start the background archiver unless disabled or already running.
+     */
+    public static synchronized void start() {
+        long interval = Long.getLong("maintenance.archive.intervalMinutes", 60);
+        if (instance != null || interval <= 0) {
+            return;
+        }
+        int afterDays = Integer.getInteger("maintenance.archive.afterDays", 365);
+        int batchSize = Integer.getInteger("maintenance.archive.batchSize", 500);
+        instance = new RequestArchiver(afterDays, batchSize, interval);
+        System.out.println("✓ Request archiver every " + interval + " min (closed > " + afterDays + " days)");
+    }
+
+    /**
+     * @return the running archiver, or null if not started
+     */
+    public static synchronized RequestArchiver getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop the schedule; a chunk in progress finishes its transaction.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.scheduler.shutdown();
+            instance = null;
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            archiveNow();
+        } catch (SQLException e) {
+            System.err.println("Request archiver failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Archive every eligible request now, chunk by chunk.
+     *
+     * @return number of requests moved
+     */
+    public synchronized int archiveNow() throws SQLException {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(afterDays));
+        // idx_requests_closed narrows each chunk to closed requests instead of walking the whole table
+        String select = "SELECT request_id FROM maintenance_requests " +
+                "WHERE status IN ('COMPLETED', 'CANCELLED') " +
+                "AND COALESCE(completion_date, last_updated) < ? " +
+                "ORDER BY request_id LIMIT ? FOR UPDATE";
+        String copy = "INSERT INTO archived_requests (" + MaintenanceRequestDAO.REQUEST_COLUMNS + ", archived_at) " +
+                "SELECT " + MaintenanceRequestDAO.REQUEST_COLUMNS + ", ? FROM maintenance_requests " +
+                "WHERE request_id = ANY(?)";
+        String delete = "DELETE FROM maintenance_requests WHERE request_id = ANY(?)";
+
+        int moved = 0;
+        MetricsRegistry.Sample timer = METRICS.time("archive.run");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            if (activeRowsAtStart.get() < 0) {
+                activeRowsAtStart.set(count(conn, "maintenance_requests"));
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement sel = conn.prepareStatement(select);
+                 PreparedStatement ins = conn.prepareStatement(copy);
+                 PreparedStatement del = conn.prepareStatement(delete)) {
+                while (true) {
+                    List<String> ids = new ArrayList<>(batchSize);
+                    sel.setTimestamp(1, cutoff);
+                    sel.setInt(2, batchSize);
+                    try (ResultSet rs = sel.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getString(1));
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        conn.commit();
+                        break;
+                    }
+
+                    // Rows are locked by FOR UPDATE, so the copy and the delete see the same set
+                    Array idArray = conn.createArrayOf("VARCHAR", ids.toArray());
+                    ins.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+                    ins.setArray(2, idArray);
+                    ins.executeUpdate();
+                    del.setArray(1, idArray);
+                    del.executeUpdate();
+                    conn.commit();
+
+                    moved += ids.size();
+                    METRICS.counter("archive.requests.moved").add(ids.size());
+                    if (ids.size() < batchSize || scheduler.isShutdown()) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            activeRows.set(count(conn, "maintenance_requests"));
+            archivedRows.set(count(conn, "archived_requests"));
+        }
+
+        if (moved > 0) {
+            System.out.println("✓ Archived " + moved + " requests (" + activeRows.get() + " active, "
+                    + archivedRows.get() + " archived)");
+        }
+        return moved;
+    }
+
+    private static long count(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills apartment_id and building_id on requests saved before those columns existed, by matching
+ * apartment_number the same way as {@link ApartmentDAO#findApartmentForRequest}.
+ *
+ * <p>Runs once on a background thread at startup. Requests are walked in request_id order in chunks of
+ * 1000 ({@code -Dmaintenance.backfill.batchSize}), each chunk its own short transaction on a dedicated
+ * connection, so a large table never holds locks for long. Requests whose apartment number is unknown or
+ * ambiguous are not selected at all; they stay without a building until a later start finds the number
+ * resolvable.
+ */
+public final class RequestLocationBackfill {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final String[] TABLES = {"maintenance_requests", "archived_requests"};
+
+    private static ExecutorService executor;
+
+    private RequestLocationBackfill() {
+    }
+
+    /**
+     * Start the backfill in the background unless it is already running.
+     */
+    public static synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "request-location-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+        int batchSize = Integer.getInteger("maintenance.backfill.batchSize", 1000);
+        executor.submit(() -> {
+            try {
+                runNow(batchSize);
+            } catch (SQLException e) {
+                System.err.println("Request location backfill failed: " + e.getMessage());
+            }
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * Backfill both request tables now.
+     *
+     * @return number of requests that got a building
+     */
+    public static int runNow(int batchSize) throws SQLException {
+        int resolved = 0;
+        int scanned = 0;
+        MetricsRegistry.Sample timer = METRICS.time("backfill.requestLocation");
+        try (timer;
+             Connection conn = DatabaseManager.getInstance().openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (String table : TABLES) {
+                    int[] counts = backfill(conn, table, batchSize);
+                    scanned += counts[0];
+                    resolved += counts[1];
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        METRICS.counter("backfill.requests.resolved").add(resolved);
+        if (resolved > 0) {
+            System.out.println("✓ Linked " + resolved + " of " + scanned + " requests to their building");
+        }
+        return resolved;
+    }
+
+    private static int[] backfill(Connection conn, String table, int batchSize) throws SQLException {
+        // Only rows setApartment can resolve, so unknown and ambiguous numbers are not re-updated on every start
+        String select = "SELECT request_id FROM " + table + " r " +
+                "WHERE building_id IS NULL AND request_id > ? " +
+                "AND (EXISTS (SELECT 1 FROM apartments a " +
+                "WHERE a.apartment_number = r.apartment_number AND a.current_tenant_id = r.tenant_id) " +
+                "OR (SELECT COUNT(*) FROM apartments a WHERE a.apartment_number = r.apartment_number) = 1) " +
+                "ORDER BY request_id LIMIT ?";
+        // The tenant's own apartment with that number, else the only apartment with that number
+        String setApartment = "UPDATE " + table + " r SET apartment_id = COALESCE(" +
+                "(SELECT MIN(a.apartment_id) FROM apartments a " +
+                "WHERE a.apartment_number = r.apartment_number AND a.current_tenant_id = r.tenant_id), " +
+                "(SELECT MIN(a.apartment_id) FROM apartments a " +
+                "WHERE a.apartment_number = r.apartment_number HAVING COUNT(*) = 1)) " +
+                "WHERE request_id = ANY(?)";
+        String setBuilding = "UPDATE " + table + " r SET building_id = " +
+                "(SELECT a.building_id FROM apartments a WHERE a.apartment_id = r.apartment_id) " +
+                "WHERE request_id = ANY(?) AND apartment_id IS NOT NULL";
+
+        int scanned = 0;
+        int resolved = 0;
+        String lastId = "";
+        try (PreparedStatement sel = conn.prepareStatement(select);
+             PreparedStatement apt = conn.prepareStatement(setApartment);
+             PreparedStatement bld = conn.prepareStatement(setBuilding)) {
+            while (true) {
+                List<String> ids = new ArrayList<>(batchSize);
+                sel.setString(1, lastId);
+                sel.setInt(2, batchSize);
+                try (ResultSet rs = sel.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getString(1));
+                    }
+                }
+                if (ids.isEmpty()) {
+                    conn.commit();
+                    break;
+                }
+
+                Array idArray = conn.createArrayOf("VARCHAR", ids.toArray());
+                apt.setArray(1, idArray);
+                apt.executeUpdate();
+                bld.setArray(1, idArray);
+                resolved += bld.executeUpdate();
+                conn.commit();
+
+                scanned += ids.size();
+                lastId = ids.get(ids.size() - 1);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+        return new int[]{scanned, resolved};
+    }
+}
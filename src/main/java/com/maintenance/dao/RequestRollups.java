@@ -0,0 +1,268 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps request_rollups_daily and request_rollups_weekly up to date for the analytics views.
+ *
+ * <p>Every request change is appended to request_rollup_deltas by
+ * {@link com.maintenance.database.RollupTrigger}. Every minute ({@code -Dmaintenance.rollup.foldSeconds};
+ * 0 disables the schedule) and before the analytics views read, {@link #foldNow()} sums the pending deltas
+ * per bucket and adds them to both rollup tables in one short transaction, so the tables follow request
+ * changes without rescanning requests. {@link #rebuild()} recomputes both tables from the request tables;
+ * it runs in the background at startup whenever the rollups are empty but requests exist (a new install, or
+ * after a restore from backup). The same startup task fills the {@link CompletionSketchDAO} sketches.
+ *
+ * <p>Metrics: {@code rollup.fold} and {@code rollup.rebuild} timers and a {@code rollup.deltas.folded}
+ * counter.
+ */
+public final class RequestRollups {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final int FOLD_CHUNK = 5000;
+    private static final String WEEK_START = "DATEADD('DAY', 1 - ISO_DAY_OF_WEEK(%1$s), %1$s)";
+    private static final String KEYS = "bucket_start, building_id, category, priority, status";
+    private static final String MEASURES = "request_count, estimated_cost, actual_cost, completed_count, " +
+            "completion_seconds";
+    private static final String SUMS = "SUM(request_count) AS request_count, SUM(estimated_cost) AS estimated_cost, " +
+            "SUM(actual_cost) AS actual_cost, SUM(completed_count) AS completed_count, " +
+            "SUM(completion_seconds) AS completion_seconds";
+
+    private static RequestRollups instance;
+
+    private final DatabaseManager dbManager;
+    private final ScheduledExecutorService scheduler;
+
+    private RequestRollups(long foldSeconds) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "request-rollups");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(this::rebuildIfEmpty);
+        if (foldSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::foldQuietly, foldSeconds, foldSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Start folding deltas in the background (and the initial rebuild if needed) unless already running.
+     */
+    public static synchronized void start() {
+        if (instance != null) {
+            return;
+        }
+        long foldSeconds = Long.getLong("maintenance.rollup.foldSeconds", 60);
+        instance = new RequestRollups(foldSeconds);
+    }
+
+    /**
+     * @return the running instance, starting one if needed so the analytics views can fold on demand
+     */
+    public static synchronized RequestRollups getInstance() {
+        if (instance == null) {
+            start();
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the schedule; a fold in progress finishes its transaction.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.scheduler.shutdown();
+            instance = null;
+        }
+    }
+
+    private void foldQuietly() {
+        try {
+            foldNow();
+        } catch (SQLException e) {
+            System.err.println("Rollup fold failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void rebuildIfEmpty() {
+        try {
+            new CompletionSketchDAO().rebuildIfEmpty();
+        } catch (SQLException e) {
+            System.err.println("Completion sketch rebuild failed: " + e.getMessage());
+        }
+        try (Connection conn = dbManager.openConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT " +
+                     "(SELECT COUNT(*) FROM request_rollups_daily), " +
+                     "(SELECT COUNT(*) FROM maintenance_requests) + (SELECT COUNT(*) FROM archived_requests)")) {
+            rs.next();
+            if (rs.getLong(1) > 0 || rs.getLong(2) == 0) {
+                return;
+            }
+        } catch (SQLException e) {
+            System.err.println("Unable to check analytics rollups: " + e.getMessage());
+            return;
+        }
+        try {
+            rebuild();
+        } catch (SQLException e) {
+            System.err.println("Rollup rebuild failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add every pending delta to the rollup tables.
+     *
+     * @return number of deltas folded
+     */
+    public synchronized int foldNow() throws SQLException {
+        int folded = 0;
+        MetricsRegistry.Sample timer = METRICS.time("rollup.fold");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement sel = conn.prepareStatement(
+                         "SELECT seq FROM request_rollup_deltas ORDER BY seq LIMIT ? FOR UPDATE");
+                 PreparedStatement daily = conn.prepareStatement(foldSql("request_rollups_daily", "submission_day"));
+                 PreparedStatement weekly = conn.prepareStatement(
+                         foldSql("request_rollups_weekly", String.format(WEEK_START, "submission_day")));
+                 PreparedStatement del = conn.prepareStatement("DELETE FROM request_rollup_deltas WHERE seq = ANY(?)");
+                 Statement stmt = conn.createStatement()) {
+                while (true) {
+                    // Deltas are locked, so a second folder waits instead of adding them twice
+                    List<Long> seqs = new ArrayList<>();
+                    sel.setInt(1, FOLD_CHUNK);
+                    try (ResultSet rs = sel.executeQuery()) {
+                        while (rs.next()) {
+                            seqs.add(rs.getLong(1));
+                        }
+                    }
+                    if (seqs.isEmpty()) {
+                        conn.commit();
+                        break;
+                    }
+
+                    Array seqArray = conn.createArrayOf("BIGINT", seqs.toArray());
+                    daily.setArray(1, seqArray);
+                    daily.executeUpdate();
+                    weekly.setArray(1, seqArray);
+                    weekly.executeUpdate();
+                    del.setArray(1, seqArray);
+                    del.executeUpdate();
+                    // Buckets whose requests all moved elsewhere
+                    stmt.executeUpdate("DELETE FROM request_rollups_daily WHERE request_count = 0");
+                    stmt.executeUpdate("DELETE FROM request_rollups_weekly WHERE request_count = 0");
+                    conn.commit();
+
+                    folded += seqs.size();
+                    if (seqs.size() < FOLD_CHUNK) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        METRICS.counter("rollup.deltas.folded").add(folded);
+        return folded;
+    }
+
+    private static String foldSql(String table, String bucket) {
+        return "MERGE INTO " + table + " t USING (" +
+                "SELECT " + KEYS + ", " + SUMS + " FROM (" +
+                "SELECT " + bucket + " AS bucket_start, COALESCE(building_id, '') AS building_id, " +
+                "category, priority, status, " + MEASURES + " " +
+                "FROM request_rollup_deltas WHERE seq = ANY(?)) d GROUP BY " + KEYS + ") s " +
+                "ON t.bucket_start = s.bucket_start AND t.building_id = s.building_id " +
+                "AND t.category = s.category AND t.priority = s.priority AND t.status = s.status " +
+                "WHEN MATCHED THEN UPDATE SET " +
+                "t.request_count = t.request_count + s.request_count, " +
+                "t.estimated_cost = t.estimated_cost + s.estimated_cost, " +
+                "t.actual_cost = t.actual_cost + s.actual_cost, " +
+                "t.completed_count = t.completed_count + s.completed_count, " +
+                "t.completion_seconds = t.completion_seconds + s.completion_seconds " +
+                "WHEN NOT MATCHED THEN INSERT (" + KEYS + ", " + MEASURES + ") " +
+                "VALUES (s.bucket_start, s.building_id, s.category, s.priority, s.status, " +
+                "s.request_count, s.estimated_cost, s.actual_cost, s.completed_count, s.completion_seconds)";
+    }
+
+    /**
+     * Recompute both rollup tables from maintenance_requests and archived_requests.
+     *
+     * <p>Runs in one snapshot transaction: the deltas visible in the snapshot are already reflected in the
+     * request rows it reads, so exactly those are discarded. Changes committed after the snapshot keep
+     * their deltas and are folded in afterwards.
+     */
+    public synchronized void rebuild() throws SQLException {
+        String daily = "INSERT INTO request_rollups_daily (" + KEYS + ", " + MEASURES + ") " +
+                "SELECT " + KEYS + ", " + SUMS + " FROM (" + contributions("maintenance_requests") +
+                " UNION ALL " + contributions("archived_requests") + ") r GROUP BY " + KEYS;
+        String weekly = "INSERT INTO request_rollups_weekly (" + KEYS + ", " + MEASURES + ") " +
+                "SELECT " + KEYS + ", " + SUMS + " FROM (" +
+                "SELECT " + String.format(WEEK_START, "bucket_start") + " AS bucket_start, " +
+                "building_id, category, priority, status, " + MEASURES + " FROM request_rollups_daily) d " +
+                "GROUP BY " + KEYS;
+
+        MetricsRegistry.Sample timer = METRICS.time("rollup.rebuild");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement stmt = conn.createStatement()) {
+                List<Long> seen = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery("SELECT seq FROM request_rollup_deltas")) {
+                    while (rs.next()) {
+                        seen.add(rs.getLong(1));
+                    }
+                }
+                stmt.executeUpdate("DELETE FROM request_rollups_daily");
+                stmt.executeUpdate("DELETE FROM request_rollups_weekly");
+                int buckets = stmt.executeUpdate(daily);
+                stmt.executeUpdate(weekly);
+                try (PreparedStatement del = conn.prepareStatement(
+                        "DELETE FROM request_rollup_deltas WHERE seq = ANY(?)")) {
+                    for (int from = 0; from < seen.size(); from += FOLD_CHUNK) {
+                        List<Long> chunk = seen.subList(from, Math.min(seen.size(), from + FOLD_CHUNK));
+                        del.setArray(1, conn.createArrayOf("BIGINT", chunk.toArray()));
+                        del.executeUpdate();
+                    }
+                }
+                conn.commit();
+                System.out.println("✓ Analytics rollups rebuilt (" + buckets + " daily buckets)");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Each row's contribution to its daily bucket, computed the same way as {@link
+     * com.maintenance.database.RollupTrigger}.
+     */
+    private static String contributions(String table) {
+        String completed = "status = 'COMPLETED' AND completion_date IS NOT NULL";
+        return "SELECT CAST(submission_date AS DATE) AS bucket_start, COALESCE(building_id, '') AS building_id, " +
+                "COALESCE(category, '') AS category, COALESCE(priority, '') AS priority, " +
+                "COALESCE(status, '') AS status, 1 AS request_count, " +
+                "COALESCE(estimated_cost, 0) AS estimated_cost, COALESCE(actual_cost, 0) AS actual_cost, " +
+                "CASE WHEN " + completed + " THEN 1 ELSE 0 END AS completed_count, " +
+                "CASE WHEN " + completed + " THEN DATEDIFF('SECOND', submission_date, completion_date) " +
+                "ELSE 0 END AS completion_seconds " +
+                "FROM " + table + " WHERE submission_date IS NOT NULL";
+    }
+}
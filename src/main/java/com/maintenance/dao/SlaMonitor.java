@@ -0,0 +1,383 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.enums.PriorityLevel;
+import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.MaintenanceRequest;
+import com.maintenance.notification.Email;
+import com.maintenance.util.TimerWheel;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Enforces per-priority SLA targets on open requests.
+ *
+ * <p>Requests waiting for staff (SUBMITTED, ACKNOWLEDGED) must be picked up within the priority's response
+ * target; requests being worked on (ASSIGNED, IN_PROGRESS, REOPENED) must be completed within its resolution
+ * target. ON_HOLD and closed requests are not tracked. The clock runs from submission, or from the last
+ * escalation. Targets are configurable in minutes with {@code -Dmaintenance.sla.<PRIORITY>.responseMinutes}
+ * and {@code .resolutionMinutes}.
+ *
+ * <p>Each tracked request has one timeout in a {@link TimerWheel}, loaded from the open requests at
+ * startup and re-armed by {@link MaintenanceRequestDAO} whenever a request is saved, so nothing scans the
+ * requests table periodically. When a deadline passes, the request is re-read; if it is still open in the
+ * same phase it is escalated: its priority goes up one level, {@code escalated_at} and
+ * {@code escalation_count} are recorded, and the building's manager is emailed. A request already at the
+ * highest priority is not escalated: the manager gets one breach notice for that deadline, recorded in
+ * {@code sla_notified_due} so it is not sent again, and the request is tracked again only once a save
+ * gives it a new deadline. After {@code -Dmaintenance.sla.maxEscalations} (default 3) escalations a
+ * request is no longer tracked.
+ *
+ * <p>Metrics: {@code sla.tracked} gauge, {@code sla.escalations} and {@code sla.breachNotices} counters and
+ * {@code sla.load} timer.
+ */
+public final class SlaMonitor {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final Map<PriorityLevel, long[]> DEFAULT_TARGET_MINUTES = Map.of(
+            PriorityLevel.EMERGENCY, new long[]{60, 24 * 60},
+            PriorityLevel.URGENT, new long[]{4 * 60, 3 * 24 * 60},
+            PriorityLevel.HIGH, new long[]{24 * 60, 7 * 24 * 60},
+            PriorityLevel.MEDIUM, new long[]{3 * 24 * 60, 14 * 24 * 60},
+            PriorityLevel.LOW, new long[]{7 * 24 * 60, 30 * 24 * 60});
+
+    private static volatile SlaMonitor instance;
+
+    private final DatabaseManager dbManager;
+    private final Map<PriorityLevel, Duration> responseTargets = new EnumMap<>(PriorityLevel.class);
+    private final Map<PriorityLevel, Duration> resolutionTargets = new EnumMap<>(PriorityLevel.class);
+    private final int maxEscalations;
+    // One pending timeout per tracked request; a replaced timeout is cancelled
+    private final Map<String, TimerWheel.Timeout<String>> tracked = new ConcurrentHashMap<>();
+    private final TimerWheel<String> wheel;
+    // Escalations touch the database and mail server, so they run off the wheel's thread
+    private final ExecutorService escalator;
+
+    private SlaMonitor(int maxEscalations) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.maxEscalations = maxEscalations;
+        for (PriorityLevel priority : PriorityLevel.values()) {
+            long[] defaults = DEFAULT_TARGET_MINUTES.get(priority);
+            String prefix = "maintenance.sla." + priority.name();
+            responseTargets.put(priority, Duration.ofMinutes(Long.getLong(prefix + ".responseMinutes", defaults[0])));
+            resolutionTargets.put(priority, Duration.ofMinutes(Long.getLong(prefix + ".resolutionMinutes", defaults[1])));
+        }
+        this.escalator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "sla-escalator");
+            t.setDaemon(true);
+            return t;
+        });
+        // One-second ticks; 4096 buckets keep each tick's bucket small even with 100k deadlines
+        this.wheel = new TimerWheel<>("sla-deadlines", 1000, 4096, this::onDeadline);
+        METRICS.gauge("sla.tracked", tracked::size);
+    }
+
+    /**
+     * Load the open requests and start tracking them unless already running;
+     * {@code -Dmaintenance.sla.enabled=false} disables SLA tracking.
+     */
+    public static synchronized void start() {
+        if (instance != null || !Boolean.parseBoolean(System.getProperty("maintenance.sla.enabled", "true"))) {
+            return;
+        }
+        SlaMonitor monitor = new SlaMonitor(Integer.getInteger("maintenance.sla.maxEscalations", 3));
+        instance = monitor;
+        monitor.escalator.execute(monitor::loadOpenRequests);
+    }
+
+    /**
+     * @return the running monitor, or null if SLA tracking is not running
+     */
+    public static SlaMonitor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop tracking; pending deadlines are dropped and re-loaded on the next start.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.wheel.stop();
+            instance.escalator.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Re-arm (or stop) a request's deadline after it was saved. No-op if SLA tracking is not running.
+     */
+    static void requestChanged(MaintenanceRequest request) {
+        SlaMonitor monitor = instance;
+        if (monitor != null) {
+            monitor.track(request.getRequestId(), request.getStatus(), request.getPriority(),
+                    request.getSubmissionDate(), request.getEscalatedAt(), request.getEscalationCount(), null);
+        }
+    }
+
+    /**
+     * @return the SLA deadline of a request in its current state, or null if it is not subject to one
+     */
+    public LocalDateTime deadlineFor(MaintenanceRequest request) {
+        return deadline(request.getStatus(), request.getPriority(), request.getSubmissionDate(),
+                request.getEscalatedAt());
+    }
+
+    private LocalDateTime deadline(RequestStatus status, PriorityLevel priority, LocalDateTime submitted,
+                                   LocalDateTime escalatedAt) {
+        if (status == null || priority == null || submitted == null) {
+            return null;
+        }
+        Duration target = switch (status) {
+            case SUBMITTED, ACKNOWLEDGED -> responseTargets.get(priority);
+            case ASSIGNED, IN_PROGRESS, REOPENED -> resolutionTargets.get(priority);
+            default -> null;
+        };
+        if (target == null) {
+            return null;
+        }
+        LocalDateTime start = escalatedAt != null && escalatedAt.isAfter(submitted) ? escalatedAt : submitted;
+        return start.plus(target);
+    }
+
+    /**
+     * @param notifiedDue the deadline already reported by a breach notice, which is not tracked again
+     *                    (null if unknown; {@link #checkDeadline} re-reads it before notifying)
+     */
+    private void track(String requestId, RequestStatus status, PriorityLevel priority, LocalDateTime submitted,
+                       LocalDateTime escalatedAt, int escalationCount, LocalDateTime notifiedDue) {
+        LocalDateTime due = escalationCount < maxEscalations
+                ? deadline(status, priority, submitted, escalatedAt)
+                : null;
+        if (due != null && due.equals(notifiedDue)) {
+            due = null;
+        }
+        TimerWheel.Timeout<String> previous;
+        if (due == null) {
+            previous = tracked.remove(requestId);
+        } else {
+            long dueMillis = due.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            previous = tracked.put(requestId, wheel.scheduleAt(requestId, dueMillis));
+        }
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void loadOpenRequests() {
+        String sql = "SELECT request_id, status, priority, submission_date, escalated_at, escalation_count, " +
+                "sla_notified_due FROM maintenance_requests WHERE status IN ('SUBMITTED', 'ACKNOWLEDGED', 'ASSIGNED', " +
+                "'IN_PROGRESS', 'REOPENED')";
+        MetricsRegistry.Sample timer = METRICS.time("sla.load");
+        try (timer;
+             Connection conn = dbManager.openConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                trackRow(rs);
+            }
+            System.out.println("✓ Tracking SLA deadlines for " + tracked.size() + " open requests");
+        } catch (SQLException e) {
+            System.err.println("Unable to load SLA deadlines: " + e.getMessage());
+        }
+    }
+
+    private void trackRow(ResultSet rs) throws SQLException {
+        track(rs.getString("request_id"),
+                RequestStatus.valueOf(rs.getString("status")),
+                PriorityLevel.valueOf(rs.getString("priority")),
+                rs.getTimestamp("submission_date").toLocalDateTime(),
+                toLocalDateTime(rs.getTimestamp("escalated_at")),
+                rs.getInt("escalation_count"),
+                toLocalDateTime(rs.getTimestamp("sla_notified_due")));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    /**
+     * Runs on the wheel thread: hand the check to the escalator. Replaced timeouts are cancelled and never fire.
+     */
+    private void onDeadline(String requestId) {
+        TimerWheel.Timeout<String> current = tracked.get(requestId);
+        if (current != null) {
+            escalator.execute(() -> checkDeadline(requestId, current));
+        }
+    }
+
+    /**
+     * Re-read the request: it may have been handled, or saved from a stale copy, since the timeout was set.
+     */
+    private void checkDeadline(String requestId, TimerWheel.Timeout<String> expired) {
+        if (tracked.get(requestId) != expired) {
+            return;
+        }
+        String select = "SELECT request_id, status, priority, submission_date, escalated_at, escalation_count, " +
+                "sla_notified_due, building_id FROM maintenance_requests WHERE request_id = ?";
+        try (Connection conn = dbManager.openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(select)) {
+            pstmt.setString(1, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    tracked.remove(requestId, expired);
+                    return;
+                }
+                RequestStatus status = RequestStatus.valueOf(rs.getString("status"));
+                PriorityLevel priority = PriorityLevel.valueOf(rs.getString("priority"));
+                LocalDateTime submitted = rs.getTimestamp("submission_date").toLocalDateTime();
+                LocalDateTime escalatedAt = toLocalDateTime(rs.getTimestamp("escalated_at"));
+                int escalations = rs.getInt("escalation_count");
+                LocalDateTime notifiedDue = toLocalDateTime(rs.getTimestamp("sla_notified_due"));
+
+                LocalDateTime due = deadline(status, priority, submitted, escalatedAt);
+                if (due == null || escalations >= maxEscalations || due.isAfter(LocalDateTime.now())
+                        || due.equals(notifiedDue)) {
+                    track(requestId, status, priority, submitted, escalatedAt, escalations, notifiedDue);
+                    return;
+                }
+                if (raise(priority) == priority) {
+                    reportBreach(conn, requestId, status, priority, submitted, escalations, due,
+                            rs.getString("building_id"), expired);
+                } else {
+                    escalate(conn, requestId, status, priority, submitted, escalations, rs.getString("building_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("SLA check failed for request " + requestId + ": " + e.getMessage());
+        }
+    }
+
+    private void escalate(Connection conn, String requestId, RequestStatus status, PriorityLevel priority,
+                          LocalDateTime submitted, int escalations, String buildingId) throws SQLException {
+        PriorityLevel raised = raise(priority);
+        LocalDateTime now = LocalDateTime.now();
+        // Guarded on the values just read, so a concurrent save or a second monitor cannot double-escalate
+        String update = "UPDATE maintenance_requests SET priority = ?, escalated_at = ?, " +
+                "escalation_count = escalation_count + 1, last_updated = ?, version = version + 1 " +
+                "WHERE request_id = ? AND status = ? AND priority = ? AND escalation_count = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+            pstmt.setString(1, raised.name());
+            pstmt.setTimestamp(2, Timestamp.valueOf(now));
+            pstmt.setTimestamp(3, Timestamp.valueOf(now));
+            pstmt.setString(4, requestId);
+            pstmt.setString(5, status.name());
+            pstmt.setString(6, priority.name());
+            pstmt.setInt(7, escalations);
+            if (pstmt.executeUpdate() == 0) {
+                // Changed underneath us; the save that changed it has re-armed the deadline
+                return;
+            }
+        }
+        METRICS.counter("sla.escalations").increment();
+        track(requestId, status, raised, submitted, now, escalations + 1, null);
+
+        String subject = "SLA breached: request " + requestId + " escalated to " + raised.getDisplayName();
+        String details = "Priority: " + priority.getDisplayName() + " -> " + raised.getDisplayName() + "\n"
+                + "Escalation: " + (escalations + 1) + " of " + maxEscalations + "\n";
+        notifyManagers(conn, requestId, status, priority, submitted, buildingId, subject, details);
+    }
+
+    /**
+     * The request is already at the highest priority: record the breached deadline instead of escalating,
+     * so the manager is told once, and stop tracking it until a save sets a new deadline.
+     */
+    private void reportBreach(Connection conn, String requestId, RequestStatus status, PriorityLevel priority,
+                              LocalDateTime submitted, int escalations, LocalDateTime due, String buildingId,
+                              TimerWheel.Timeout<String> expired) throws SQLException {
+        // Same guard as escalate; the notified deadline also stops a second monitor from reporting it
+        String update = "UPDATE maintenance_requests SET sla_notified_due = ? " +
+                "WHERE request_id = ? AND status = ? AND priority = ? AND escalation_count = ? " +
+                "AND (sla_notified_due IS NULL OR sla_notified_due <> ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(due));
+            pstmt.setString(2, requestId);
+            pstmt.setString(3, status.name());
+            pstmt.setString(4, priority.name());
+            pstmt.setInt(5, escalations);
+            pstmt.setTimestamp(6, Timestamp.valueOf(due));
+            // A save that changed the request has already replaced the expired timeout
+            tracked.remove(requestId, expired);
+            if (pstmt.executeUpdate() == 0) {
+                return;
+            }
+        }
+        METRICS.counter("sla.breachNotices").increment();
+
+        String subject = "SLA breached: request " + requestId + " (already " + priority.getDisplayName() + ")";
+        String details = "Priority: " + priority.getDisplayName() + " (highest, not escalated)\n"
+                + "Deadline: " + due.withNano(0) + "\n";
+        notifyManagers(conn, requestId, status, priority, submitted, buildingId, subject, details);
+    }
+
+    private static void notifyManagers(Connection conn, String requestId, RequestStatus status,
+                                       PriorityLevel priority, LocalDateTime submitted, String buildingId,
+                                       String subject, String details) throws SQLException {
+        String phase = status == RequestStatus.SUBMITTED || status == RequestStatus.ACKNOWLEDGED
+                ? "has not been assigned"
+                : "has not been completed";
+        String body = "Request " + requestId + " (" + priority.getDisplayName() + " priority, submitted "
+                + submitted.withNano(0) + ") " + phase + " within its service-level target.\n\n"
+                + "Status: " + status.getDisplayName() + "\n"
+                + details;
+        for (String to : managerEmails(conn, buildingId)) {
+            try {
+                Email.send(to, subject, body);
+            } catch (RuntimeException e) {
+                System.err.println("SLA notification to " + to + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static PriorityLevel raise(PriorityLevel priority) {
+        PriorityLevel raised = priority;
+        for (PriorityLevel candidate : PriorityLevel.values()) {
+            if (candidate.getLevel() == priority.getLevel() + 1) {
+                raised = candidate;
+            }
+        }
+        return raised;
+    }
+
+    /**
+     * The building's manager, or every active manager if the request has no building (or its building none).
+     */
+    private static List<String> managerEmails(Connection conn, String buildingId) throws SQLException {
+        List<String> emails = new ArrayList<>();
+        if (buildingId != null) {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT u.email FROM buildings b " +
+                    "JOIN users u ON u.user_id = b.manager_id WHERE b.building_id = ? AND u.email IS NOT NULL")) {
+                pstmt.setString(1, buildingId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        emails.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        if (emails.isEmpty()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT email FROM users WHERE user_type = 'MANAGER' " +
+                         "AND is_active = TRUE AND email IS NOT NULL")) {
+                while (rs.next()) {
+                    emails.add(rs.getString(1));
+                }
+            }
+        }
+        return emails;
+    }
+}
@@ -1,7 +1,9 @@
 package com.maintenance.dao;
 
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.metrics.MetricsRegistry;
 import com.maintenance.models.*;
+import com.maintenance.util.PasswordHasher;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -12,6 +14,8 @@ import java.util.List;
  * Handles authentication and loading of specific user-role objects from the database.
  */
 public class UserDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
     /**
      * Shared DatabaseManager used to obtain JDBC connections.
      */
@@ -24,166 +28,184 @@ public class UserDAO {
         this.dbManager = DatabaseManager.getInstance();
     }
 
+    /**
+     * Single-query login lookup: the users row LEFT JOINed with every role table, so the
+     * password hash, active flag and subtype fields all arrive in one round trip.
+     */
+    private static final String AUTH_SQL =
+            "SELECT u.user_id, u.username, u.password, u.first_name, u.last_name, u.email, " +
+            "u.phone_number, u.user_type, u.is_active, " +
+            "t.user_id AS tenant_user_id, t.apartment_number, " +
+            "s.user_id AS staff_user_id, s.staff_id, s.current_workload, s.max_capacity, s.is_available, " +
+            "m.user_id AS manager_user_id, m.employee_id, m.department " +
+            "FROM users u " +
+            "LEFT JOIN tenants t ON t.user_id = u.user_id " +
+            "LEFT JOIN maintenance_staff s ON s.user_id = u.user_id " +
+            "LEFT JOIN building_managers m ON m.user_id = u.user_id " +
+            "WHERE u.username = ?";
+
     /**
      * Authenticate a user by username and password.
      * Only active users (is_active = true) are allowed to authenticate.
-     * On successful authentication, the method:
-     *  - Updates the last_login timestamp.
-     *  - Loads and returns the appropriate User subtype (Tenant, Manager, Staff, Admin).
      *
      * @param username username provided at login
      * @param password password provided at login
      * @return a concrete User subtype instance if credentials are valid and user is active, otherwise null
+     * @see #authenticate(String, String)
      */
     public User authenticateUser(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ? AND is_active = true";
+        AuthResult result = authenticate(username, password);
+        return result.getStatus() == AuthStatus.SUCCESS ? result.getUser() : null;
+    }
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+    /**
+     * Authenticate a user with one database round trip.
+     * The stored value is checked with PasswordHasher, so this call costs one PBKDF2 derivation
+     * and should not run on the FX thread.
+     * On successful authentication, the method:
+     *  - Upgrades legacy plaintext or under-strength hashes to the current work factor.
+     *  - Queues the last_login update with LastLoginRecorder (written asynchronously in batches).
+     *  - Returns the appropriate User subtype (Tenant, Manager, Staff, Admin) built from the same row.
+     * A correct password on an inactive account yields INACTIVE rather than INVALID.
+     *
+     * @param username username provided at login
+     * @param password password provided at login
+     * @return outcome of the attempt; carries the user only on SUCCESS
+     */
+    public AuthResult authenticate(String username, String password) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.UserDAO.authenticate");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(AUTH_SQL)) {
             pstmt.setString(1, username);
-            pstmt.setString(2, password);
-
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                String userType = rs.getString("user_type");
-                String userId = rs.getString("user_id");
-
-                // Update last login timestamp for the authenticated user
-                updateLastLogin(userId);
 
-                // Load and return the correct user subtype (Tenant, Manager, Staff, Admin)
-                return loadUserByType(userId, userType);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return AuthResult.INVALID;
+                }
+
+                String stored = rs.getString("password");
+                if (!PasswordHasher.verify(password, stored)) {
+                    return AuthResult.INVALID;
+                }
+                if (!rs.getBoolean("is_active")) {
+                    return AuthResult.INACTIVE;
+                }
+
+                User user = mapAuthenticatedUser(rs);
+                if (user == null) {
+                    // Role row missing or unknown user_type
+                    return AuthResult.INVALID;
+                }
+
+                // Transparently move legacy rows onto the current hash format
+                if (PasswordHasher.needsRehash(stored)) {
+                    upgradePasswordHash(user.getUserId(), stored, password);
+                }
+
+                // last_login is written in the background so login stays a single round trip
+                LastLoginRecorder.getInstance().record(user.getUserId());
+                return new AuthResult(AuthStatus.SUCCESS, user);
             }
         } catch (SQLException e) {
             System.err.println("Authentication error: " + e.getMessage());
         }
 
-        // Authentication failed or error occurred
-        return null;
+        // Error occurred
+        return AuthResult.INVALID;
     }
 
     /**
-     * Dispatch helper that loads and returns the correct user subtype based on user_type.
+     * Build the User subtype from a row of {@link #AUTH_SQL}.
      *
-     * @param userId   ID of the user
-     * @param userType string indicating user role (TENANT, MANAGER, STAFF, ADMIN)
-     * @return specific User subtype or null if userType does not match any known role
-     * @throws SQLException if the underlying load methods encounter database issues
-     */
-    private User loadUserByType(String userId, String userType) throws SQLException {
-        return switch (userType) {
-            case "TENANT" -> loadTenant(userId);
-            case "MANAGER" -> loadManager(userId);
-            case "STAFF" -> loadStaff(userId);
-            case "ADMIN" -> loadAdmin(userId);
-            default -> null;
-        };
-    }
-
-    /**
-     * Load a Tenant user by ID, joining the base users table with the tenants table.
-     *
-     * @param userId ID of the tenant user
-     * @return Tenant object or null if not found
-     * @throws SQLException if any JDBC error occurs
+     * @param rs result set positioned on the user's row
+     * @return specific User subtype, or null if the role row is missing or the type is unknown
+     * @throws SQLException if any column access fails
      */
-    private Tenant loadTenant(String userId) throws SQLException {
-        String sql = "SELECT u.*, t.* FROM users u " +
-                "JOIN tenants t ON u.user_id = t.user_id WHERE u.user_id = ?";
-
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            ResultSet rs = pstmt.executeQuery();
+    private User mapAuthenticatedUser(ResultSet rs) throws SQLException {
+        String userType = rs.getString("user_type");
+        if (userType == null) {
+            return null;
+        }
 
-            if (rs.next()) {
+        switch (userType) {
+            case "TENANT" -> {
+                if (rs.getString("tenant_user_id") == null) return null;
                 Tenant tenant = new Tenant();
-                // Populate generic user fields from the result set
                 populateUserFields(tenant, rs);
-                // Populate tenant-specific fields
                 tenant.setApartmentNumber(rs.getString("apartment_number"));
                 return tenant;
             }
-        }
-        return null;
-    }
-
-    /**
-     * Load a BuildingManager user by ID, joining the base users table with the building_managers table.
-     *
-     * @param userId ID of the building manager user
-     * @return BuildingManager object or null if not found
-     * @throws SQLException if any JDBC error occurs
-     */
-    private BuildingManager loadManager(String userId) throws SQLException {
-        String sql = "SELECT u.*, m.* FROM users u " +
-                "JOIN building_managers m ON u.user_id = m.user_id WHERE u.user_id = ?";
-
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
+            case "MANAGER" -> {
+                if (rs.getString("manager_user_id") == null) return null;
                 BuildingManager manager = new BuildingManager();
-                // Populate generic user fields
                 populateUserFields(manager, rs);
-                // Populate manager-specific fields
                 manager.setEmployeeId(rs.getString("employee_id"));
                 manager.setDepartment(rs.getString("department"));
                 return manager;
             }
-        }
-        return null;
-    }
-
-    /**
-     * Load a MaintenanceStaff user by ID, joining the base users table with the maintenance_staff table.
-     *
-     * @param userId ID of the maintenance staff user
-     * @return MaintenanceStaff object or null if not found
-     * @throws SQLException if any JDBC error occurs
-     */
-    private MaintenanceStaff loadStaff(String userId) throws SQLException {
-        String sql = "SELECT u.*, s.* FROM users u " +
-                "JOIN maintenance_staff s ON u.user_id = s.user_id WHERE u.user_id = ?";
-
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
+            case "STAFF" -> {
+                if (rs.getString("staff_user_id") == null) return null;
                 MaintenanceStaff staff = new MaintenanceStaff();
-                // Populate shared user fields
                 populateUserFields(staff, rs);
-                // Populate staff-specific fields
                 staff.setStaffId(rs.getString("staff_id"));
                 staff.setCurrentWorkload(rs.getInt("current_workload"));
                 staff.setMaxCapacity(rs.getInt("max_capacity"));
                 staff.setAvailable(rs.getBoolean("is_available"));
                 return staff;
             }
+            case "ADMIN" -> {
+                Admin admin = new Admin();
+                populateUserFields(admin, rs);
+                return admin;
+            }
+            default -> {
+                return null;
+            }
         }
-        return null;
     }
 
     /**
-     * Load an Admin user by ID from the base users table only.
+     * Replace a stored password with a fresh hash at the current work factor.
+     * The old value is part of the WHERE clause so a concurrent password change is not overwritten.
      *
-     * @param userId ID of the admin user
-     * @return Admin object or null if not found
+     * @param userId   ID of the user
+     * @param stored   value that was verified
+     * @param password plaintext password that matched it
+     */
+    private void upgradePasswordHash(String userId, String stored, String password) {
+        String sql = "UPDATE users SET password = ? WHERE user_id = ? AND password = ?";
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, PasswordHasher.hash(password));
+            pstmt.setString(2, userId);
+            pstmt.setString(3, stored);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error upgrading password hash: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load a Tenant user by ID, joining the base users table with the tenants table.
+     *
+     * @param userId ID of the tenant user
+     * @return Tenant object or null if not found
      * @throws SQLException if any JDBC error occurs
      */
-    private Admin loadAdmin(String userId) throws SQLException {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
+    private Tenant loadTenant(String userId) throws SQLException {
+        String sql = "SELECT u.*, t.* FROM users u " +
+                "JOIN tenants t ON u.user_id = t.user_id WHERE u.user_id = ?";
 
         try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, userId);
             ResultSet rs = pstmt.executeQuery();
 
             if (rs.next()) {
-                Admin admin = new Admin();
-                // Populate all standard user fields
-                populateUserFields(admin, rs);
-                return admin;
+                Tenant tenant = new Tenant();
+                // Populate generic user fields from the result set
+                populateUserFields(tenant, rs);
+                // Populate tenant-specific fields
+                tenant.setApartmentNumber(rs.getString("apartment_number"));
+                return tenant;
             }
         }
         return null;
@@ -208,22 +230,6 @@ public class UserDAO {
         user.setActive(rs.getBoolean("is_active"));
     }
 
-    /**
-     * Update the last_login column for a given user to the current timestamp.
-     * Called after a successful authentication.
-     *
-     * @param userId ID of the user whose last_login should be updated
-     */
-    private void updateLastLogin(String userId) {
-        String sql = "UPDATE users SET last_login = CURRENT_TIMESTAMP WHERE user_id = ?";
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, userId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Error updating last login: " + e.getMessage());
-        }
-    }
-
     /**
      * Retrieve a list of all active maintenance staff.
      * This joins the users table with maintenance_staff and filters by is_active = TRUE.
@@ -238,7 +244,9 @@ public class UserDAO {
                 "JOIN maintenance_staff s ON u.user_id = s.user_id " +
                 "WHERE u.is_active = TRUE";
 
-        try (PreparedStatement ps = dbManager.getConnection().prepareStatement(sql);
+        MetricsRegistry.Sample timer = METRICS.time("dao.UserDAO.getAllActiveStaff");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -261,6 +269,40 @@ public class UserDAO {
         return staffList;
     }
 
+    /**
+     * Retrieve every user with base fields only (role tables are not joined).
+     * The returned objects are the matching User subtype so callers can tell roles apart.
+     *
+     * @return list of users ordered by username
+     */
+    public List<User> getAllUsers() {
+        List<User> users = new ArrayList<>();
+        String sql = "SELECT * FROM users ORDER BY username";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.UserDAO.getAllUsers");
+        try (timer;
+             PreparedStatement ps = dbManager.getConnection().prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                User user = switch (String.valueOf(rs.getString("user_type"))) {
+                    case "TENANT" -> new Tenant();
+                    case "STAFF" -> new MaintenanceStaff();
+                    case "MANAGER" -> new BuildingManager();
+                    case "ADMIN" -> new Admin();
+                    default -> null;
+                };
+                if (user != null) {
+                    populateUserFields(user, rs);
+                    users.add(user);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading users: " + e.getMessage());
+        }
+
+        return users;
+    }
+
     /**
      * Convenience method to load a Tenant by user ID, wrapping SQLExceptions with logging.
      *
@@ -269,7 +311,7 @@ public class UserDAO {
      */
     public Tenant getTenantById(String userId) {
         try {
-            return loadTenant(userId);
+            return METRICS.time("dao.UserDAO.getTenantById", () -> loadTenant(userId));
         } catch (SQLException e) {
             System.err.println("Error loading tenant by id: " + e.getMessage());
             return null;
@@ -287,7 +329,9 @@ public class UserDAO {
         String sql = "SELECT u.*, s.* FROM users u " +
                 "JOIN maintenance_staff s ON u.user_id = s.user_id WHERE s.staff_id = ?";
 
-        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+        MetricsRegistry.Sample timer = METRICS.time("dao.UserDAO.getStaffByStaffId");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
             pstmt.setString(1, staffId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -308,4 +352,39 @@ public class UserDAO {
         return null;
     }
 
+    /**
+     * Outcome of a login attempt.
+     */
+    public enum AuthStatus {
+        SUCCESS,
+        INACTIVE,
+        INVALID,
+        // Rejected by the login rate limiter before any database access
+        THROTTLED
+    }
+
+    /**
+     * Login outcome plus the loaded user on success.
+     */
+    public static final class AuthResult {
+        public static final AuthResult INVALID = new AuthResult(AuthStatus.INVALID, null);
+        public static final AuthResult INACTIVE = new AuthResult(AuthStatus.INACTIVE, null);
+        public static final AuthResult THROTTLED = new AuthResult(AuthStatus.THROTTLED, null);
+
+        private final AuthStatus status;
+        private final User user;
+
+        AuthResult(AuthStatus status, User user) {
+            this.status = status;
+            this.user = user;
+        }
+
+        public AuthStatus getStatus() {
+            return status;
+        }
+
+        public User getUser() {
+            return user;
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.enums.WorkOrderStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.WorkOrder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data Access Object for work orders. Saving a work order also records its number and scheduled time on
+ * the maintenance request it belongs to.
+ */
+public class WorkOrderDAO {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final String COLUMNS = "work_order_id, request_id, assigned_staff_id, scheduled_date_time, " +
+            "estimated_duration, parts_required, instructions, status";
+    private static final String ACTIVE = "status IN ('CREATED', 'SCHEDULED', 'IN_PROGRESS')";
+    // Parts are stored one per line
+    private static final String PARTS_SEPARATOR = "\n";
+
+    private final DatabaseManager dbManager;
+
+    public WorkOrderDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    public boolean saveWorkOrder(WorkOrder workOrder) {
+        return saveWorkOrders(List.of(workOrder)) == 1;
+    }
+
+    /**
+     * Insert or update several work orders in one transaction, as two JDBC batches: one for the work
+     * orders and one setting work_order_number and scheduled_date on their requests.
+     *
+     * @return number of work orders saved, or 0 if the transaction failed
+     */
+    public int saveWorkOrders(Collection<WorkOrder> workOrders) {
+        if (workOrders.isEmpty()) {
+            return 0;
+        }
+        String upsert = "MERGE INTO work_orders (" + COLUMNS + ") KEY (work_order_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String linkRequest = "UPDATE maintenance_requests SET work_order_number = ?, scheduled_date = ? " +
+                "WHERE request_id = ?";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.WorkOrderDAO.saveWorkOrders");
+        try (timer;
+             Connection conn = dbManager.openConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement orders = conn.prepareStatement(upsert);
+                 PreparedStatement requests = conn.prepareStatement(linkRequest)) {
+                for (WorkOrder wo : workOrders) {
+                    Timestamp scheduled = wo.getScheduledDateTime() != null
+                            ? Timestamp.valueOf(wo.getScheduledDateTime())
+                            : null;
+                    orders.setString(1, wo.getWorkOrderId());
+                    orders.setString(2, wo.getRequestId());
+                    orders.setString(3, wo.getAssignedStaffId());
+                    orders.setTimestamp(4, scheduled);
+                    orders.setInt(5, wo.getEstimatedDuration());
+                    orders.setString(6, wo.getPartsRequired() == null || wo.getPartsRequired().isEmpty()
+                            ? null
+                            : String.join(PARTS_SEPARATOR, wo.getPartsRequired()));
+                    orders.setString(7, wo.getInstructions());
+                    orders.setString(8, wo.getStatus().name());
+                    orders.addBatch();
+
+                    if (wo.getRequestId() != null) {
+                        requests.setString(1, wo.getWorkOrderId());
+                        requests.setTimestamp(2, scheduled);
+                        requests.setString(3, wo.getRequestId());
+                        requests.addBatch();
+                    }
+                }
+                orders.executeBatch();
+                requests.executeBatch();
+                conn.commit();
+                return workOrders.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving work orders: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public Optional<WorkOrder> getWorkOrderById(String workOrderId) {
+        String sql = "SELECT " + COLUMNS + " FROM work_orders WHERE work_order_id = ?";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.WorkOrderDAO.getWorkOrderById");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, workOrderId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapWorkOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading work order: " + e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * The request's open (created, scheduled or in progress) work order, if any.
+     */
+    public Optional<WorkOrder> getActiveWorkOrderForRequest(String requestId) {
+        String sql = "SELECT " + COLUMNS + " FROM work_orders WHERE request_id = ? AND " + ACTIVE +
+                " ORDER BY scheduled_date_time DESC NULLS LAST LIMIT 1";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.WorkOrderDAO.getActiveWorkOrderForRequest");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapWorkOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading work order for request: " + e.getMessage());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Every open work order of a staff member that has a scheduled time, earliest first.
+     */
+    public List<WorkOrder> getScheduledWorkOrders(String staffId) {
+        List<WorkOrder> workOrders = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM work_orders WHERE assigned_staff_id = ? AND " + ACTIVE +
+                " AND scheduled_date_time IS NOT NULL ORDER BY scheduled_date_time";
+
+        MetricsRegistry.Sample timer = METRICS.time("dao.WorkOrderDAO.getScheduledWorkOrders");
+        try (timer;
+             PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            pstmt.setString(1, staffId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    workOrders.add(mapWorkOrder(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading scheduled work orders: " + e.getMessage());
+        }
+
+        return workOrders;
+    }
+
+    private WorkOrder mapWorkOrder(ResultSet rs) throws SQLException {
+        WorkOrder wo = new WorkOrder();
+        wo.setWorkOrderId(rs.getString("work_order_id"));
+        wo.setRequestId(rs.getString("request_id"));
+        wo.setAssignedStaffId(rs.getString("assigned_staff_id"));
+        Timestamp scheduled = rs.getTimestamp("scheduled_date_time");
+        if (scheduled != null) wo.setScheduledDateTime(scheduled.toLocalDateTime());
+        wo.setEstimatedDuration(rs.getInt("estimated_duration"));
+        String parts = rs.getString("parts_required");
+        wo.setPartsRequired(parts == null || parts.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(parts.split(PARTS_SEPARATOR))));
+        wo.setInstructions(rs.getString("instructions"));
+        String status = rs.getString("status");
+        wo.setStatus(status != null ? WorkOrderStatus.valueOf(status) : WorkOrderStatus.CREATED);
+        return wo;
+    }
+}
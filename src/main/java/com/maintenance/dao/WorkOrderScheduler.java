@@ -0,0 +1,403 @@
+package com.maintenance.dao;
+
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.enums.RequestStatus;
+import com.maintenance.enums.WorkOrderStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.MaintenanceRequest;
+import com.maintenance.models.WorkOrder;
+import com.maintenance.util.IntervalTree;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps one work order per assigned request and books it into its staff member's calendar.
+ *
+ * <p>When {@link MaintenanceRequestDAO} saves an assigned request without an open work order, one is
+ * created and booked into the staff member's next free slot of {@code estimatedDuration} minutes (default
+ * {@code -Dmaintenance.schedule.defaultMinutes=60}) within working hours
+ * ({@code -Dmaintenance.schedule.dayStartHour=8} to {@code dayEndHour=17}). Reassigning moves the booking
+ * to the new staff member's calendar; completing or cancelling the request closes the work order and frees
+ * its slot. Assigned requests saved before work orders existed are booked in batches on a background
+ * thread at startup.
+ *
+ * <p>Each staff member's open bookings are held in an {@link IntervalTree}, loaded from work_orders the
+ * first time that staff member is scheduled, so conflict checks and next-free-slot searches take
+ * logarithmic time instead of scanning their orders. The calendars are local to this process: bookings made
+ * by another app instance on the same database are picked up after a restart.
+ */
+public final class WorkOrderScheduler {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final int BATCH_SIZE = 500;
+
+    private static volatile WorkOrderScheduler instance;
+
+    private final WorkOrderDAO workOrderDAO;
+    private final InventoryDAO inventoryDAO;
+    private final int defaultMinutes;
+    private final int dayStartMinute;
+    private final int dayEndMinute;
+    private final Map<String, Calendar> calendars = new HashMap<>();
+    private final ExecutorService backfill;
+
+    /**
+     * One staff member's open bookings, in minutes on the local time line.
+     */
+    private static final class Calendar {
+        final IntervalTree<String> busy = new IntervalTree<>();
+        // Booked start per work order, needed to remove it from the tree
+        final Map<String, Long> starts = new HashMap<>();
+    }
+
+    private WorkOrderScheduler() {
+        this.workOrderDAO = new WorkOrderDAO();
+        this.inventoryDAO = new InventoryDAO();
+        this.defaultMinutes = Integer.getInteger("maintenance.schedule.defaultMinutes", 60);
+        this.dayStartMinute = Integer.getInteger("maintenance.schedule.dayStartHour", 8) * 60;
+        this.dayEndMinute = Integer.getInteger("maintenance.schedule.dayEndHour", 17) * 60;
+        this.backfill = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "work-order-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start scheduling unless already running, and book assigned requests that have no work order yet.
+     */
+    public static synchronized void start() {
+        if (instance != null) {
+            return;
+        }
+        WorkOrderScheduler scheduler = new WorkOrderScheduler();
+        instance = scheduler;
+        METRICS.gauge("workorders.calendars", () -> {
+            synchronized (scheduler) {
+                return scheduler.calendars.size();
+            }
+        });
+        scheduler.backfill.submit(scheduler::bookUnscheduled);
+        scheduler.backfill.shutdown();
+    }
+
+    /**
+     * @return the running scheduler, or null if it has not been started
+     */
+    public static WorkOrderScheduler getInstance() {
+        return instance;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.backfill.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Bring the request's work order in line with its status and staff member after it was saved.
+     * No-op if the scheduler is not running.
+     */
+    static void requestChanged(MaintenanceRequest request) {
+        WorkOrderScheduler scheduler = instance;
+        if (scheduler != null) {
+            scheduler.sync(request);
+        }
+    }
+
+    private synchronized void sync(MaintenanceRequest request) {
+        RequestStatus status = request.getStatus();
+        String staffId = request.getAssignedStaffId();
+        Optional<WorkOrder> existing = workOrderDAO.getActiveWorkOrderForRequest(request.getRequestId());
+
+        if (status == RequestStatus.COMPLETED || status == RequestStatus.CANCELLED) {
+            existing.ifPresent(wo -> {
+                release(wo);
+                wo.setStatus(status == RequestStatus.COMPLETED ? WorkOrderStatus.COMPLETED : WorkOrderStatus.CANCELLED);
+                workOrderDAO.saveWorkOrder(wo);
+                if (status == RequestStatus.COMPLETED) {
+                    inventoryDAO.consumeForWorkOrder(wo.getWorkOrderId());
+                } else {
+                    inventoryDAO.releaseForWorkOrder(wo.getWorkOrderId());
+                }
+            });
+            return;
+        }
+        if (staffId == null || (existing.isEmpty() && status != RequestStatus.ASSIGNED
+                && status != RequestStatus.IN_PROGRESS && status != RequestStatus.REOPENED)) {
+            return;
+        }
+
+        WorkOrderStatus wanted = status == RequestStatus.IN_PROGRESS
+                ? WorkOrderStatus.IN_PROGRESS
+                : WorkOrderStatus.SCHEDULED;
+        WorkOrder wo;
+        if (existing.isPresent()) {
+            wo = existing.get();
+            if (staffId.equals(wo.getAssignedStaffId()) && wo.getScheduledDateTime() != null) {
+                // Already booked; the request may have been saved from a copy older than the booking
+                boolean changed = wo.getStatus() != wanted
+                        || !wo.getScheduledDateTime().equals(request.getScheduledDate())
+                        || !wo.getWorkOrderId().equals(request.getWorkOrderNumber());
+                if (changed) {
+                    wo.setStatus(wanted);
+                    request.setWorkOrderNumber(wo.getWorkOrderId());
+                    request.setScheduledDate(wo.getScheduledDateTime());
+                    workOrderDAO.saveWorkOrder(wo);
+                }
+                return;
+            }
+            release(wo);
+            wo.setAssignedStaffId(staffId);
+        } else if (request.getWorkOrder() != null && request.getWorkOrder().getStatus().isActive()) {
+            // Generated in memory (e.g. with parts requested) but never saved
+            wo = request.getWorkOrder();
+            wo.setAssignedStaffId(staffId);
+        } else {
+            wo = new WorkOrder();
+            wo.generateWorkOrder(request);
+            request.setWorkOrder(wo);
+        }
+        if (wo.getEstimatedDuration() <= 0) {
+            wo.setEstimatedDuration(defaultMinutes);
+        }
+
+        book(wo, LocalDateTime.now());
+        wo.setStatus(wanted);
+        request.setWorkOrderNumber(wo.getWorkOrderId());
+        request.setScheduledDate(wo.getScheduledDateTime());
+        if (!workOrderDAO.saveWorkOrder(wo)) {
+            release(wo);
+            return;
+        }
+        METRICS.counter("workorders.booked").increment();
+        if (existing.isEmpty() && !wo.getPartsRequired().isEmpty()) {
+            List<String> problems = inventoryDAO.reserveForWorkOrder(wo);
+            if (!problems.isEmpty()) {
+                System.err.println("Parts for work order " + wo.getWorkOrderId() + " not reserved: "
+                        + String.join("; ", problems));
+            }
+        }
+    }
+
+    /**
+     * Add parts to the request's open work order and reserve them.
+     *
+     * @return why the parts could not be reserved, in which case the work order is left unchanged;
+     *         empty if they were added
+     * @throws IllegalStateException if the request has no open work order
+     */
+    public synchronized List<String> addParts(MaintenanceRequest request, List<String> parts) {
+        WorkOrder wo = workOrderDAO.getActiveWorkOrderForRequest(request.getRequestId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Request " + request.getRequestId() + " has no open work order"));
+        wo.addParts(parts);
+        List<String> problems = inventoryDAO.reserveForWorkOrder(wo);
+        // The reservation stays with the work order and is settled when it closes
+        if (problems.isEmpty() && !workOrderDAO.saveWorkOrder(wo)) {
+            throw new IllegalStateException("Unable to save work order " + wo.getWorkOrderId());
+        }
+        return problems;
+    }
+
+    /**
+     * @return the earliest start at or after {@code from}, within working hours, at which the staff member
+     *         is free for {@code minutes}
+     */
+    public synchronized LocalDateTime nextFreeSlot(String staffId, LocalDateTime from, int minutes) {
+        return toTime(findSlot(calendar(staffId), ceilMinute(from), Math.max(1, minutes)));
+    }
+
+    /**
+     * @return IDs of the staff member's open work orders overlapping {@code minutes} from {@code start}
+     */
+    public synchronized List<String> findConflicts(String staffId, LocalDateTime start, int minutes) {
+        long from = toMinute(start);
+        return calendar(staffId).busy.findOverlapping(from, from + Math.max(1, minutes));
+    }
+
+    /**
+     * Move the request's open work order to {@code start}, if its staff member is free for the whole
+     * work order then. Working hours are not enforced for times picked by hand.
+     *
+     * @return IDs of the work orders it would overlap; empty if it was moved
+     * @throws IllegalStateException if the request is not assigned or its work order cannot be saved
+     */
+    public synchronized List<String> reschedule(MaintenanceRequest request, LocalDateTime start) {
+        WorkOrder wo = workOrderDAO.getActiveWorkOrderForRequest(request.getRequestId()).orElse(null);
+        if (wo == null || !Objects.equals(wo.getAssignedStaffId(), request.getAssignedStaffId())) {
+            sync(request);
+            wo = workOrderDAO.getActiveWorkOrderForRequest(request.getRequestId()).orElse(null);
+        }
+        if (wo == null || wo.getAssignedStaffId() == null) {
+            throw new IllegalStateException("Request " + request.getRequestId() + " has no open work order");
+        }
+
+        Calendar calendar = calendar(wo.getAssignedStaffId());
+        LocalDateTime previous = wo.getScheduledDateTime();
+        release(wo);
+        long from = toMinute(start);
+        List<String> conflicts = calendar.busy.findOverlapping(from, from + duration(wo));
+        if (!conflicts.isEmpty()) {
+            if (previous != null) {
+                add(calendar, wo.getWorkOrderId(), toMinute(previous), duration(wo));
+            }
+            return conflicts;
+        }
+
+        add(calendar, wo.getWorkOrderId(), from, duration(wo));
+        wo.updateSchedule(start.truncatedTo(ChronoUnit.MINUTES));
+        if (!workOrderDAO.saveWorkOrder(wo)) {
+            release(wo);
+            throw new IllegalStateException("Unable to save work order " + wo.getWorkOrderId());
+        }
+        request.setWorkOrderNumber(wo.getWorkOrderId());
+        request.setScheduledDate(wo.getScheduledDateTime());
+        return conflicts;
+    }
+
+    /**
+     * Create and book work orders for assigned open requests that have none, {@value #BATCH_SIZE} per batch
+     * write. Each batch is selected and booked under the scheduler's lock, so a request saved meanwhile is
+     * never booked twice.
+     */
+    private void bookUnscheduled() {
+        String sql = "SELECT request_id, assigned_staff_id, description, status FROM maintenance_requests " +
+                "WHERE work_order_number IS NULL AND assigned_staff_id IS NOT NULL " +
+                "AND status IN ('ASSIGNED', 'IN_PROGRESS', 'REOPENED') ORDER BY submission_date LIMIT ?";
+        int booked = 0;
+        MetricsRegistry.Sample timer = METRICS.time("workorders.backfill");
+        try (timer;
+             Connection conn = DatabaseManager.getInstance().openConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, BATCH_SIZE);
+            while (!Thread.currentThread().isInterrupted()) {
+                int saved;
+                synchronized (this) {
+                    List<WorkOrder> batch = new ArrayList<>();
+                    LocalDateTime now = LocalDateTime.now();
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            WorkOrder wo = new WorkOrder();
+                            wo.setRequestId(rs.getString("request_id"));
+                            wo.setAssignedStaffId(rs.getString("assigned_staff_id"));
+                            wo.setInstructions(rs.getString("description"));
+                            wo.setEstimatedDuration(defaultMinutes);
+                            book(wo, now);
+                            if ("IN_PROGRESS".equals(rs.getString("status"))) {
+                                wo.setStatus(WorkOrderStatus.IN_PROGRESS);
+                            }
+                            batch.add(wo);
+                        }
+                    }
+                    saved = workOrderDAO.saveWorkOrders(batch);
+                    if (saved == 0) {
+                        batch.forEach(this::release);
+                    }
+                    booked += saved;
+                    METRICS.counter("workorders.booked").add(saved);
+                    if (batch.size() < BATCH_SIZE || saved == 0) {
+                        break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Work order backfill failed: " + e.getMessage());
+        }
+        if (booked > 0) {
+            System.out.println("✓ Scheduled work orders for " + booked + " assigned requests");
+        }
+    }
+
+    // Calendar bookkeeping; callers hold the scheduler's lock
+
+    private Calendar calendar(String staffId) {
+        Calendar calendar = calendars.get(staffId);
+        if (calendar == null) {
+            calendar = new Calendar();
+            for (WorkOrder wo : workOrderDAO.getScheduledWorkOrders(staffId)) {
+                add(calendar, wo.getWorkOrderId(), toMinute(wo.getScheduledDateTime()), duration(wo));
+            }
+            calendars.put(staffId, calendar);
+        }
+        return calendar;
+    }
+
+    private void book(WorkOrder wo, LocalDateTime from) {
+        Calendar calendar = calendar(wo.getAssignedStaffId());
+        long start = findSlot(calendar, ceilMinute(from), duration(wo));
+        add(calendar, wo.getWorkOrderId(), start, duration(wo));
+        wo.updateSchedule(toTime(start));
+    }
+
+    private void release(WorkOrder wo) {
+        Calendar calendar = calendars.get(wo.getAssignedStaffId());
+        if (calendar != null) {
+            Long start = calendar.starts.remove(wo.getWorkOrderId());
+            if (start != null) {
+                calendar.busy.remove(wo.getWorkOrderId(), start);
+            }
+        }
+    }
+
+    private static void add(Calendar calendar, String workOrderId, long start, int minutes) {
+        calendar.busy.add(workOrderId, start, start + minutes);
+        calendar.starts.put(workOrderId, start);
+    }
+
+    /**
+     * Earliest free slot that also fits in one day's working hours. Work longer than a working day is
+     * booked at the next free time regardless of hours.
+     */
+    private long findSlot(Calendar calendar, long from, int minutes) {
+        boolean withinHours = dayStartMinute < dayEndMinute && minutes <= dayEndMinute - dayStartMinute;
+        long cursor = from;
+        while (true) {
+            long start = calendar.busy.nextFree(cursor, minutes);
+            if (!withinHours) {
+                return start;
+            }
+            long day = Math.floorDiv(start, 24 * 60) * 24 * 60;
+            if (start < day + dayStartMinute) {
+                cursor = day + dayStartMinute;
+            } else if (start + minutes <= day + dayEndMinute) {
+                return start;
+            } else {
+                cursor = day + 24 * 60 + dayStartMinute;
+            }
+        }
+    }
+
+    private int duration(WorkOrder wo) {
+        return wo.getEstimatedDuration() > 0 ? wo.getEstimatedDuration() : defaultMinutes;
+    }
+
+    // Minutes on the local (wall clock) time line, matching the TIMESTAMP columns
+
+    private static long toMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long ceilMinute(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.MINUTES);
+        return toMinute(truncated) + (truncated.equals(time) ? 0 : 1);
+    }
+
+    private static LocalDateTime toTime(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,115 @@
+package com.maintenance.database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restores a database from the files written by {@link BackupService}.
+ *
+ * <p>Run with {@code BackupRestore <backupDir>} to list the available backups, or
+ * {@code BackupRestore <backupDir> <targetDbPath> [yyyyMMdd-HHmmss]} to build a new database at the target
+ * path from the latest full backup and every later incremental, optionally stopping at the given time.
+ * The target must not exist yet; once checked, move it into place of the live database while the app is
+ * stopped. The database user and password are taken from the normal configuration.
+ */
+public final class BackupRestore {
+    // Older backups may predate some of these tables
+    private static final String[] DERIVED_TABLES = {"request_rollup_deltas", "request_rollups_daily",
+            "request_rollups_weekly", "completion_sketches", "completion_sketch_requests"};
+
+    private BackupRestore() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: BackupRestore <backupDir> [targetDbPath [yyyyMMdd-HHmmss]]");
+            return;
+        }
+        Path directory = Path.of(args[0]);
+        if (args.length == 1) {
+            list(directory);
+            return;
+        }
+        Path target = Path.of(args[1]).toAbsolutePath();
+        String until = args.length > 2 ? args[2] : null;
+        restore(directory, target, until);
+    }
+
+    private static void list(Path directory) throws Exception {
+        for (Path full : BackupService.list(directory, BackupService.FULL_PREFIX)) {
+            System.out.println(full.getFileName() + "  " + Files.size(full) / 1024 + " KB");
+        }
+        for (Path incremental : BackupService.list(directory, BackupService.INCREMENTAL_PREFIX)) {
+            System.out.println(incremental.getFileName() + "  " + Files.size(incremental) / 1024 + " KB");
+        }
+    }
+
+    private static void restore(Path directory, Path target, String until) throws Exception {
+        if (Files.exists(target.resolveSibling(target.getFileName() + ".mv.db"))) {
+            System.err.println("Refusing to overwrite existing database " + target + ".mv.db");
+            return;
+        }
+
+        Path full = null;
+        for (Path candidate : BackupService.list(directory, BackupService.FULL_PREFIX)) {
+            if (until == null || stamp(candidate, BackupService.FULL_PREFIX).compareTo(until) <= 0) {
+                full = candidate;
+            }
+        }
+        if (full == null) {
+            System.err.println("No full backup in " + directory + (until != null ? " before " + until : ""));
+            return;
+        }
+        String fullStamp = stamp(full, BackupService.FULL_PREFIX);
+        List<Path> incrementals = new ArrayList<>();
+        for (Path candidate : BackupService.list(directory, BackupService.INCREMENTAL_PREFIX)) {
+            String s = stamp(candidate, BackupService.INCREMENTAL_PREFIX);
+            if (s.compareTo(fullStamp) > 0 && (until == null || s.compareTo(until) <= 0)) {
+                incrementals.add(candidate);
+            }
+        }
+
+        DatabaseConfig config = DatabaseConfig.load();
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:" + target, config.getUser(), config.getPassword());
+             Statement stmt = conn.createStatement()) {
+            runScript(stmt, full);
+            for (Path incremental : incrementals) {
+                runScript(stmt, incremental);
+            }
+            // Replayed rows are already in the backups
+            stmt.execute("DELETE FROM change_log");
+            // Rollups and sketches are not backed up; the app rebuilds them from the requests on first start
+            for (String table : DERIVED_TABLES) {
+                boolean exists;
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                        "WHERE TABLE_NAME = '" + table.toUpperCase() + "'")) {
+                    rs.next();
+                    exists = rs.getLong(1) > 0;
+                }
+                if (exists) {
+                    stmt.execute("DELETE FROM " + table);
+                }
+            }
+        }
+        System.out.println("✓ Restored " + target + " from " + full.getFileName()
+                + " and " + incrementals.size() + " incremental backups");
+    }
+
+    private static void runScript(Statement stmt, Path file) throws Exception {
+        long start = System.nanoTime();
+        stmt.execute("RUNSCRIPT FROM '" + file.toAbsolutePath().toString().replace("'", "''")
+                + "' COMPRESSION GZIP CHARSET 'UTF-8'");
+        System.out.println("  " + file.getFileName() + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    private static String stamp(Path file, String prefix) {
+        String name = file.getFileName().toString();
+        return name.substring(prefix.length(), name.length() - BackupService.SUFFIX.length());
+    }
+}
@@ -0,0 +1,576 @@
+package com.maintenance.database;
+
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Online backups of the live database, without stopping the app.
+ *
+ * <p>A full backup is the output of H2's {@code SCRIPT} command (schema and data as SQL), read through a
+ * dedicated connection inside one snapshot transaction and written gzip-compressed. Between full backups,
+ * {@link ChangeCaptureTrigger} logs the key of every changed row in {@code change_log}; an incremental
+ * backup writes the current state of just those rows as {@code MERGE} statements (or {@code DELETE} for
+ * rows that are gone) and clears the captured log entries. {@link BackupRestore} replays the latest full
+ * backup and the incrementals after it. Every table with a primary key, single-column or composite, is
+ * captured. While some table has no primary key, or right after capture was installed on a table that had
+ * none, every backup is a full one, so no change is left out of the backup chain.
+ *
+ * <p>Files go to {@code ./data/backups} ({@code -Dmaintenance.backup.dir}). Every hour
+ * ({@code -Dmaintenance.backup.incrementalMinutes}) the service writes an incremental backup, or a full one
+ * if the last full backup is older than 24 hours ({@code -Dmaintenance.backup.fullHours}). The last 7 full
+ * backups and their incrementals are kept ({@code -Dmaintenance.backup.keepFull}). Between 08:00 and 18:00
+ * ({@code -Dmaintenance.backup.businessHours=8-18}) output is throttled to 1024 KB/s of uncompressed SQL
+ * ({@code -Dmaintenance.backup.throttleKbPerSecond}) so backups do not compete with users for disk and CPU.
+ *
+ * <p>Runs by default in processes that own the database file (embedded and server mode); set
+ * {@code -Dmaintenance.backup.enabled=true} or {@code false} to override. Disabling it also removes the
+ * capture triggers.
+ */
+public final class BackupService {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String STATE_FILE = "backup-state.properties";
+    private static final String TRIGGER_PREFIX = "TRG_CAPTURE_";
+    private static final int KEY_CHUNK = 500;
+    // Bookkeeping tables; rollups and sketches are rebuilt after a restore instead (see BackupRestore)
+    private static final Set<String> UNCAPTURED_TABLES = Set.of("CHANGE_LOG", "REQUEST_ROLLUP_DELTAS",
+            "REQUEST_ROLLUPS_DAILY", "REQUEST_ROLLUPS_WEEKLY", "COMPLETION_SKETCHES", "COMPLETION_SKETCH_REQUESTS");
+
+    static final String FULL_PREFIX = "full-";
+    static final String INCREMENTAL_PREFIX = "incr-";
+    static final String SUFFIX = ".sql.gz";
+
+    private static BackupService instance;
+
+    private final DatabaseManager dbManager;
+    private final Path directory;
+    private final long fullIntervalMillis;
+    private final int keepFull;
+    private final long throttleBytesPerSecond;
+    private final int businessStartHour;
+    private final int businessEndHour;
+    private final ScheduledExecutorService scheduler;
+    private volatile long lastSuccessMillis;
+    // Capture was just installed on some table, so its earlier changes are only in the next full backup
+    private boolean fullPending;
+
+    private BackupService(Path directory, long incrementalMinutes, boolean fullPending) {
+        this.dbManager = DatabaseManager.getInstance();
+        this.fullPending = fullPending;
+        this.directory = directory;
+        this.fullIntervalMillis = TimeUnit.HOURS.toMillis(Long.getLong("maintenance.backup.fullHours", 24));
+        this.keepFull = Math.max(1, Integer.getInteger("maintenance.backup.keepFull", 7));
+        this.throttleBytesPerSecond = Long.getLong("maintenance.backup.throttleKbPerSecond", 1024) * 1024;
+        String[] hours = System.getProperty("maintenance.backup.businessHours", "8-18").split("-");
+        this.businessStartHour = Integer.parseInt(hours[0].trim());
+        this.businessEndHour = Integer.parseInt(hours[1].trim());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "database-backup");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runQuietly, incrementalMinutes, incrementalMinutes, TimeUnit.MINUTES);
+        METRICS.gauge("backup.lastSuccessAgeSeconds",
+                () -> lastSuccessMillis == 0 ? -1 : (System.currentTimeMillis() - lastSuccessMillis) / 1000);
+    }
+
+    /**
+     * Install change capture and start the schedule, unless backups are disabled for this process.
+     */
+    public static synchronized void start() {
+        if (instance != null) {
+            return;
+        }
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        DatabaseConfig.Mode mode = dbManager.getConfig().getMode();
+        String enabled = System.getProperty("maintenance.backup.enabled");
+        long interval = Long.getLong("maintenance.backup.incrementalMinutes", 60);
+        try {
+            if ("false".equalsIgnoreCase(enabled) || interval <= 0) {
+                removeChangeCapture(dbManager.getConnection());
+                return;
+            }
+            // Clients leave backups to the process that owns the file
+            if (enabled == null && mode != DatabaseConfig.Mode.EMBEDDED && mode != DatabaseConfig.Mode.SERVER) {
+                return;
+            }
+            boolean newlyCaptured = installChangeCapture(dbManager.getConnection());
+            Path directory = Path.of(System.getProperty("maintenance.backup.dir", "./data/backups"));
+            Files.createDirectories(directory);
+            instance = new BackupService(directory, interval, newlyCaptured);
+            System.out.println("✓ Database backups every " + interval + " min to " + directory);
+        } catch (SQLException | IOException e) {
+            System.err.println("Unable to start database backups: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the running service, or null if backups are not scheduled in this process
+     */
+    public static synchronized BackupService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Stop the schedule; a backup in progress is abandoned and its temporary file left behind.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.scheduler.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Create change_log and a capture trigger on every table with a primary key.
+     *
+     * @return true if some table got its trigger just now (a new table, or capture newly enabled)
+     */
+    static boolean installChangeCapture(Connection conn) throws SQLException {
+        Set<String> existing = new HashSet<>(captureTriggers(conn));
+        boolean created = false;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS change_log (" +
+                    "seq BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                    "table_name VARCHAR(128)," +
+                    "row_key VARCHAR(200)," +
+                    "changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            for (String table : capturableTables(conn, true)) {
+                created |= !existing.contains(TRIGGER_PREFIX + table);
+                stmt.execute("CREATE TRIGGER IF NOT EXISTS " + TRIGGER_PREFIX + table +
+                        " AFTER INSERT, UPDATE, DELETE ON " + table +
+                        " FOR EACH ROW CALL '" + ChangeCaptureTrigger.class.getName() + "'");
+            }
+            // Tables that became uncaptured after their trigger was installed
+            for (String table : UNCAPTURED_TABLES) {
+                if (existing.contains(TRIGGER_PREFIX + table)) {
+                    stmt.execute("DROP TRIGGER IF EXISTS " + TRIGGER_PREFIX + table);
+                }
+            }
+        }
+        List<String> keyless = capturableTables(conn, false);
+        if (!keyless.isEmpty()) {
+            System.err.println("⚠ Tables without a primary key cannot be captured, so every backup will be full: "
+                    + keyless);
+        }
+        return created;
+    }
+
+    private static void removeChangeCapture(Connection conn) throws SQLException {
+        List<String> triggers = captureTriggers(conn);
+        try (Statement stmt = conn.createStatement()) {
+            for (String trigger : triggers) {
+                stmt.execute("DROP TRIGGER IF EXISTS " + trigger);
+            }
+        }
+    }
+
+    private static List<String> captureTriggers(Connection conn) throws SQLException {
+        List<String> triggers = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT TRIGGER_NAME FROM INFORMATION_SCHEMA.TRIGGERS " +
+                     "WHERE TRIGGER_SCHEMA = 'PUBLIC' AND TRIGGER_NAME LIKE '" + TRIGGER_PREFIX + "%'")) {
+            while (rs.next()) {
+                triggers.add(rs.getString(1));
+            }
+        }
+        return triggers;
+    }
+
+    /**
+     * @param withKey true for the tables that have a primary key (and can be captured), false for the rest
+     * @return the backed-up tables of that kind, excluding {@link #UNCAPTURED_TABLES}
+     */
+    private static List<String> capturableTables(Connection conn, boolean withKey) throws SQLException {
+        String sql = "SELECT t.TABLE_NAME FROM INFORMATION_SCHEMA.TABLES t " +
+                "WHERE t.TABLE_SCHEMA = 'PUBLIC' AND t.TABLE_TYPE = 'BASE TABLE' AND " +
+                (withKey ? "" : "NOT ") + "EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS c " +
+                "WHERE c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME " +
+                "AND c.CONSTRAINT_TYPE = 'PRIMARY KEY') ORDER BY t.TABLE_NAME";
+        List<String> tables = new ArrayList<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                if (!UNCAPTURED_TABLES.contains(rs.getString(1))) {
+                    tables.add(rs.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private void runQuietly() {
+        try {
+            backupNow(false);
+        } catch (Exception e) {
+            METRICS.counter("backup.failures").increment();
+            System.err.println("Database backup failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write an incremental backup, or a full one if forced, none exists yet, or the last is too old.
+     *
+     * @return the written file
+     */
+    public synchronized Path backupNow(boolean forceFull) throws SQLException, IOException {
+        Properties state = readState();
+        long lastFull = Long.parseLong(state.getProperty("lastFullMillis", "0"));
+        boolean full = forceFull || fullPending || System.currentTimeMillis() - lastFull >= fullIntervalMillis
+                || !capturableTables(dbManager.getConnection(), false).isEmpty();
+
+        Path file;
+        if (full) {
+            MetricsRegistry.Sample timer = METRICS.time("backup.full");
+            try (timer) {
+                file = writeFull();
+            }
+            state.setProperty("lastFullMillis", String.valueOf(System.currentTimeMillis()));
+            state.setProperty("lastFull", file.getFileName().toString());
+            writeState(state);
+            fullPending = false;
+            prune();
+        } else {
+            MetricsRegistry.Sample timer = METRICS.time("backup.incremental");
+            try (timer) {
+                file = writeIncremental();
+            }
+        }
+        lastSuccessMillis = System.currentTimeMillis();
+        METRICS.counter("backup.bytes").add(Files.size(file));
+        System.out.println("✓ " + (full ? "Full" : "Incremental") + " backup written to " + file
+                + " (" + Files.size(file) / 1024 + " KB)");
+        return file;
+    }
+
+    private Path writeFull() throws SQLException, IOException {
+        Path target = directory.resolve(FULL_PREFIX + LocalDateTime.now().format(STAMP) + SUFFIX);
+        try (Connection conn = dbManager.openConnection()) {
+            snapshot(conn);
+            try {
+                // Entries visible in this snapshot are covered by the script; later ones go to the next incremental
+                List<Long> captured = capturedSeqs(conn);
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SCRIPT");
+                     Writer out = openOutput(target)) {
+                    while (rs.next()) {
+                        writeLine(out, rs.getString(1));
+                    }
+                }
+                deleteSeqs(conn, captured);
+                conn.commit();
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return commitFile(target);
+    }
+
+    private Path writeIncremental() throws SQLException, IOException {
+        Path target = directory.resolve(INCREMENTAL_PREFIX + LocalDateTime.now().format(STAMP) + SUFFIX);
+        try (Connection conn = dbManager.openConnection()) {
+            snapshot(conn);
+            try {
+                List<Long> captured = new ArrayList<>();
+                Map<String, Set<String>> keysByTable = new LinkedHashMap<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT seq, table_name, row_key FROM change_log ORDER BY seq")) {
+                    while (rs.next()) {
+                        captured.add(rs.getLong(1));
+                        keysByTable.computeIfAbsent(rs.getString(2), t -> new LinkedHashSet<>()).add(rs.getString(3));
+                    }
+                }
+
+                try (Writer out = openOutput(target)) {
+                    writeLine(out, "-- incremental backup, " + captured.size() + " changes");
+                    // Rows arrive grouped by table, not in dependency order
+                    writeLine(out, "SET REFERENTIAL_INTEGRITY FALSE;");
+                    for (Map.Entry<String, Set<String>> e : keysByTable.entrySet()) {
+                        writeTableChanges(conn, out, e.getKey(), new ArrayList<>(e.getValue()));
+                    }
+                    writeLine(out, "SET REFERENTIAL_INTEGRITY TRUE;");
+                }
+                deleteSeqs(conn, captured);
+                conn.commit();
+                METRICS.counter("backup.rowsCaptured").add(captured.size());
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return commitFile(target);
+    }
+
+    private void writeTableChanges(Connection conn, Writer out, String table, List<String> keys)
+            throws SQLException, IOException {
+        List<String> keyColumns = ChangeCaptureTrigger.primaryKeyColumns(conn, "PUBLIC", table);
+        if (keyColumns.isEmpty()) {
+            return;
+        }
+        String keyList = String.join(", ", keyColumns);
+        for (int from = 0; from < keys.size(); from += KEY_CHUNK) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + KEY_CHUNK));
+            Set<String> missing = new LinkedHashSet<>(chunk);
+            try (PreparedStatement ps = conn.prepareStatement(selectByKeys(table, keyColumns, chunk.size()))) {
+                if (keyColumns.size() == 1) {
+                    Array array = conn.createArrayOf("VARCHAR", chunk.toArray());
+                    ps.setArray(1, array);
+                } else {
+                    int index = 1;
+                    for (String key : chunk) {
+                        for (String part : ChangeCaptureTrigger.keyParts(key, keyColumns.size())) {
+                            ps.setString(index++, part);
+                        }
+                    }
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    StringBuilder columns = new StringBuilder();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        columns.append(i > 1 ? ", " : "").append(meta.getColumnName(i));
+                    }
+                    while (rs.next()) {
+                        Object[] key = new Object[keyColumns.size()];
+                        for (int i = 0; i < key.length; i++) {
+                            key[i] = rs.getObject(keyColumns.get(i));
+                        }
+                        missing.remove(ChangeCaptureTrigger.rowKey(key));
+                        StringBuilder sql = new StringBuilder("MERGE INTO ").append(table)
+                                .append(" (").append(columns).append(") KEY (").append(keyList).append(") VALUES (");
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            sql.append(i > 1 ? ", " : "").append(literal(rs.getObject(i)));
+                        }
+                        writeLine(out, sql.append(");").toString());
+                    }
+                }
+            }
+            for (String key : missing) {
+                List<String> parts = ChangeCaptureTrigger.keyParts(key, keyColumns.size());
+                StringBuilder where = new StringBuilder();
+                for (int i = 0; i < keyColumns.size(); i++) {
+                    where.append(i > 0 ? " AND " : "").append(keyColumns.get(i)).append(" = ").append(literal(parts.get(i)));
+                }
+                writeLine(out, "DELETE FROM " + table + " WHERE " + where + ";");
+            }
+        }
+    }
+
+    /**
+     * SELECT for a chunk of logged keys: one array parameter for a single-column key, else one
+     * {@code (?, ?, ...)} row per key.
+     */
+    private static String selectByKeys(String table, List<String> keyColumns, int keys) {
+        if (keyColumns.size() == 1) {
+            return "SELECT * FROM " + table + " WHERE " + keyColumns.get(0) + " = ANY(?)";
+        }
+        String row = "(" + String.join(", ", Collections.nCopies(keyColumns.size(), "?")) + ")";
+        return "SELECT * FROM " + table + " WHERE (" + String.join(", ", keyColumns) + ") IN (" +
+                String.join(", ", Collections.nCopies(keys, row)) + ")";
+    }
+
+    /**
+     * SQL literal for a value read with getObject, for the column types this schema uses.
+     */
+    static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Boolean b) {
+            return b ? "TRUE" : "FALSE";
+        }
+        if (value instanceof BigDecimal d) {
+            return d.toPlainString();
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof java.sql.Timestamp ts) {
+            return "TIMESTAMP '" + ts + "'";
+        }
+        if (value instanceof java.sql.Date d) {
+            return "DATE '" + d + "'";
+        }
+        if (value instanceof java.sql.Time t) {
+            return "TIME '" + t + "'";
+        }
+        if (value instanceof byte[] bytes) {
+            return "X'" + HexFormat.of().formatHex(bytes) + "'";
+        }
+        return "'" + value.toString().replace("'", "''") + "'";
+    }
+
+    private static void snapshot(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    }
+
+    private static List<Long> capturedSeqs(Connection conn) throws SQLException {
+        List<Long> seqs = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT seq FROM change_log")) {
+            while (rs.next()) {
+                seqs.add(rs.getLong(1));
+            }
+        }
+        return seqs;
+    }
+
+    /**
+     * Delete exactly the captured entries; entries committed after the snapshot started stay for next time.
+     */
+    private static void deleteSeqs(Connection conn, List<Long> seqs) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM change_log WHERE seq = ANY(?)")) {
+            for (int from = 0; from < seqs.size(); from += KEY_CHUNK) {
+                List<Long> chunk = seqs.subList(from, Math.min(seqs.size(), from + KEY_CHUNK));
+                ps.setArray(1, conn.createArrayOf("BIGINT", chunk.toArray()));
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private Writer openOutput(Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        OutputStream gzip = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024);
+        return new ThrottledWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), currentRate());
+    }
+
+    private static void writeLine(Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+    }
+
+    private static Path commitFile(Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private long currentRate() {
+        int hour = LocalTime.now().getHour();
+        return hour >= businessStartHour && hour < businessEndHour ? throttleBytesPerSecond : 0;
+    }
+
+    /**
+     * Keep the newest full backups; drop older ones and every incremental older than the oldest kept full.
+     */
+    private void prune() throws IOException {
+        List<Path> fulls = list(directory, FULL_PREFIX);
+        if (fulls.size() <= keepFull) {
+            return;
+        }
+        String oldestKept = fulls.get(fulls.size() - keepFull).getFileName().toString().substring(FULL_PREFIX.length());
+        for (Path full : fulls.subList(0, fulls.size() - keepFull)) {
+            Files.deleteIfExists(full);
+        }
+        for (Path incremental : list(directory, INCREMENTAL_PREFIX)) {
+            if (incremental.getFileName().toString().substring(INCREMENTAL_PREFIX.length()).compareTo(oldestKept) < 0) {
+                Files.deleteIfExists(incremental);
+            }
+        }
+    }
+
+    /**
+     * @return backup files with the given prefix, oldest first (names sort by timestamp)
+     */
+    static List<Path> list(Path directory, String prefix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private Properties readState() throws IOException {
+        Properties state = new Properties();
+        Path file = directory.resolve(STATE_FILE);
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                state.load(in);
+            }
+        }
+        return state;
+    }
+
+    private void writeState(Properties state) throws IOException {
+        Path file = directory.resolve(STATE_FILE);
+        Path tmp = file.resolveSibling(STATE_FILE + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            state.store(out, "Database backup state");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Buffered writer that sleeps as needed to stay under a byte rate (0 = unlimited).
+     */
+    private static final class ThrottledWriter extends BufferedWriter {
+        private final long bytesPerSecond;
+        private final long startNanos = System.nanoTime();
+        private long written;
+
+        ThrottledWriter(Writer out, long bytesPerSecond) {
+            super(out, 64 * 1024);
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public void write(String s) throws IOException {
+            super.write(s);
+            throttle(s.length());
+        }
+
+        private void throttle(int chars) throws IOException {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            written += chars;
+            long dueNanos = written * 1_000_000_000L / bytesPerSecond;
+            long aheadMillis = (dueNanos - (System.nanoTime() - startNanos)) / 1_000_000;
+            if (aheadMillis > 10) {
+                try {
+                    Thread.sleep(aheadMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Backup interrupted", e);
+                }
+            }
+        }
+    }
+}
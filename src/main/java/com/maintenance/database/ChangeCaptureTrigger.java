@@ -0,0 +1,134 @@
+package com.maintenance.database;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Row trigger that records the primary key of every inserted, updated or deleted row in
+ * {@code change_log}, inside the same transaction as the change. {@link BackupService} reads the log to
+ * write incremental backups and removes the entries it captured.
+ *
+ * <p>Installed by {@link BackupService} on every table with a primary key; H2 creates one instance per
+ * table. A single-column key is logged as its value; a composite key as its values in key order, joined
+ * by {@code |} (see {@link #rowKey(Object[])}).
+ */
+public class ChangeCaptureTrigger implements Trigger {
+    private static final String INSERT = "INSERT INTO change_log (table_name, row_key) VALUES (?, ?)";
+
+    private String tableName;
+    private int[] keyIndexes;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        this.tableName = tableName;
+        DatabaseMetaData meta = conn.getMetaData();
+        List<String> keyColumns = primaryKeyColumns(conn, schemaName, tableName);
+        if (keyColumns.isEmpty()) {
+            throw new SQLException("Table " + tableName + " has no primary key to capture");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        try (ResultSet rs = meta.getColumns(null, schemaName, tableName, null)) {
+            while (rs.next()) {
+                positions.put(rs.getString("COLUMN_NAME"), rs.getInt("ORDINAL_POSITION") - 1);
+            }
+        }
+        keyIndexes = new int[keyColumns.size()];
+        for (int i = 0; i < keyIndexes.length; i++) {
+            keyIndexes[i] = positions.get(keyColumns.get(i));
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        String newKey = newRow != null ? rowKey(keyOf(newRow)) : null;
+        String oldKey = oldRow != null ? rowKey(keyOf(oldRow)) : null;
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            ps.setString(1, tableName);
+            if (newKey != null) {
+                ps.setString(2, newKey);
+                ps.executeUpdate();
+            }
+            // A key change also removes the old row
+            if (oldKey != null && !Objects.equals(oldKey, newKey)) {
+                ps.setString(2, oldKey);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private Object[] keyOf(Object[] row) {
+        Object[] key = new Object[keyIndexes.length];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = row[keyIndexes[i]];
+        }
+        return key;
+    }
+
+    /**
+     * Primary key columns of a table in key order (getPrimaryKeys itself sorts by column name).
+     */
+    static List<String> primaryKeyColumns(Connection conn, String schemaName, String tableName)
+            throws SQLException {
+        Map<Integer, String> bySeq = new TreeMap<>();
+        try (ResultSet rs = conn.getMetaData().getPrimaryKeys(null, schemaName, tableName)) {
+            while (rs.next()) {
+                bySeq.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+        return new ArrayList<>(bySeq.values());
+    }
+
+    /**
+     * The change_log form of a key: the value itself for one column, else the values joined by '|' with
+     * '\' and '|' escaped.
+     */
+    static String rowKey(Object[] values) {
+        if (values.length == 1) {
+            return String.valueOf(values[0]);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append('|');
+            }
+            sb.append(String.valueOf(values[i]).replace("\\", "\\\\").replace("|", "\\|"));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Split a key written by {@link #rowKey(Object[])} back into its column values.
+     */
+    static List<String> keyParts(String rowKey, int columns) {
+        if (columns == 1) {
+            return List.of(rowKey);
+        }
+        List<String> parts = new ArrayList<>(columns);
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < rowKey.length(); i++) {
+            char c = rowKey.charAt(i);
+            if (c == '\\' && i + 1 < rowKey.length()) {
+                part.append(rowKey.charAt(++i));
+            } else if (c == '|') {
+                parts.add(part.toString());
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        return parts;
+    }
+}
@@ -0,0 +1,145 @@
+package com.maintenance.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size pool of physical connections for concurrent (server) workloads.
+ * Connections are opened up front and handed out from a blocking queue; a borrower that
+ * waits longer than the acquire timeout gets an SQLException instead of queuing forever.
+ * Returned connections are rolled back if left mid-transaction and replaced if broken.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private final DatabaseManager dbManager;
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> all = new ArrayList<>();
+    private final long acquireTimeoutMillis;
+    private volatile boolean closed;
+
+    /**
+     * @param dbManager            source of new physical connections
+     * @param size                 number of connections to keep open
+     * @param acquireTimeoutMillis maximum wait for a free connection
+     * @throws SQLException if the initial connections cannot be opened
+     */
+    public ConnectionPool(DatabaseManager dbManager, int size, long acquireTimeoutMillis) throws SQLException {
+        this.dbManager = dbManager;
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        for (int i = 0; i < size; i++) {
+            Connection conn = dbManager.openConnection();
+            synchronized (all) {
+                all.add(conn);
+            }
+            idle.add(conn);
+        }
+    }
+
+    /**
+     * Borrow a connection; it must be passed back to {@link #release(Connection)}.
+     *
+     * @throws SQLException if the pool is closed or no connection frees up in time
+     */
+    public Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            Connection conn = idle.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (conn == null) {
+                throw new SQLException("Timed out waiting for a pooled connection");
+            }
+            return conn;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a pooled connection", e);
+        }
+    }
+
+    /**
+     * Return a borrowed connection, resetting any state the borrower left behind.
+     */
+    public void release(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            if (conn.isClosed()) {
+                conn = replace(conn);
+            } else if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            conn = replace(conn);
+        }
+
+        if (conn == null) {
+            return;
+        }
+        if (closed) {
+            closeQuietly(conn);
+        } else {
+            idle.offer(conn);
+        }
+    }
+
+    /**
+     * @return number of connections currently free
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return total number of pooled connections
+     */
+    public int getSize() {
+        synchronized (all) {
+            return all.size();
+        }
+    }
+
+    private Connection replace(Connection broken) {
+        closeQuietly(broken);
+        synchronized (all) {
+            all.remove(broken);
+        }
+        try {
+            Connection fresh = dbManager.openConnection();
+            synchronized (all) {
+                all.add(fresh);
+            }
+            return fresh;
+        } catch (SQLException e) {
+            System.err.println("Unable to replace pooled connection: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // already broken
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (all) {
+            for (Connection conn : all) {
+                closeQuietly(conn);
+            }
+            all.clear();
+        }
+        idle.clear();
+    }
+}
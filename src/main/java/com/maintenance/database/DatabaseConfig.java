@@ -0,0 +1,217 @@
+package com.maintenance.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Connection settings for {@link DatabaseManager}, resolved once at startup.
+ *
+ * <p>Each key is looked up as a system property ({@code -Dmaintenance.db.<key>}), then an environment
+ * variable ({@code MAINTENANCE_DB_<KEY>}, e.g. {@code MAINTENANCE_DB_TCP_PORT}), then the properties file
+ * ({@code maintenance-db.properties} in the working directory, or the path in {@code -Dmaintenance.db.config}),
+ * and finally the built-in default. With no configuration the app behaves as before: an embedded database
+ * at {@code ./data/maintenance_db}.
+ *
+ * <p>Modes:
+ * <ul>
+ *   <li>{@code EMBEDDED} - this JVM opens the file exclusively (default, single desktop).</li>
+ *   <li>{@code SERVER} - mixed mode: this JVM opens the file embedded and also starts an H2 TCP server
+ *       on {@code tcpPort} so other clients can connect. Run this on the machine that holds the data.</li>
+ *   <li>{@code CLIENT} - connect to a {@code SERVER} process at {@code host:tcpPort}.</li>
+ *   <li>{@code AUTO_SERVER} - H2's automatic mixed mode: whichever process opens the file first serves
+ *       the others. All processes must see the same file (shared drive).</li>
+ * </ul>
+ *
+ * <p>Keys: {@code mode, path, host, tcpPort, tcpAllowOthers, user, password, url} (a full JDBC URL
+ * overrides the computed one), and tuning options {@code cacheSizeKb, writeDelayMs, lockTimeoutMs,
+ * maxCompactTimeMs, retentionTimeMs, compress}. Tuning options left unset use H2's defaults, except
+ * {@code queryCacheSize}: the number of parsed statements H2 keeps per connection defaults to 64 rather
+ * than H2's 8, since MaintenanceRequestDAO issues a differently shaped UPDATE per set of changed columns.
+ * {@code sqlTracing} (default true) times every statement through {@link SqlTracer}, and
+ * {@code slowQueryMillis} (default 200) is the threshold for logging a statement as slow.
+ */
+public final class DatabaseConfig {
+    public enum Mode {
+        EMBEDDED, SERVER, CLIENT, AUTO_SERVER
+    }
+
+    private static final String PROPERTY_PREFIX = "maintenance.db.";
+    private static final String ENV_PREFIX = "MAINTENANCE_DB_";
+    private static final String DEFAULT_FILE = "maintenance-db.properties";
+    private static final int DEFAULT_TCP_PORT = 9092;
+
+    private final Mode mode;
+    private final String path;
+    private final String host;
+    private final int tcpPort;
+    private final boolean tcpAllowOthers;
+    private final String user;
+    private final String password;
+    private final String urlOverride;
+    private final Integer cacheSizeKb;
+    private final Integer writeDelayMs;
+    private final Integer lockTimeoutMs;
+    private final Integer maxCompactTimeMs;
+    private final Integer retentionTimeMs;
+    private final Boolean compress;
+    private final int queryCacheSize;
+    private final boolean sqlTracing;
+    private final long slowQueryMillis;
+
+    private DatabaseConfig(Properties file) {
+        this.mode = Mode.valueOf(lookup(file, "mode", "EMBEDDED").trim().toUpperCase(Locale.ROOT));
+        this.path = lookup(file, "path", "./data/maintenance_db");
+        this.host = lookup(file, "host", "localhost");
+        this.tcpPort = Integer.parseInt(lookup(file, "tcpPort", String.valueOf(DEFAULT_TCP_PORT)).trim());
+        this.tcpAllowOthers = Boolean.parseBoolean(lookup(file, "tcpAllowOthers", "false").trim());
+        this.user = lookup(file, "user", "sa");
+        this.password = lookup(file, "password", "");
+        this.urlOverride = lookup(file, "url", null);
+        this.cacheSizeKb = optionalInt(file, "cacheSizeKb");
+        this.writeDelayMs = optionalInt(file, "writeDelayMs");
+        this.lockTimeoutMs = optionalInt(file, "lockTimeoutMs");
+        this.maxCompactTimeMs = optionalInt(file, "maxCompactTimeMs");
+        this.retentionTimeMs = optionalInt(file, "retentionTimeMs");
+        String compressValue = lookup(file, "compress", null);
+        this.compress = compressValue == null ? null : Boolean.valueOf(compressValue.trim());
+        this.queryCacheSize = Integer.parseInt(lookup(file, "queryCacheSize", "64").trim());
+        this.sqlTracing = Boolean.parseBoolean(lookup(file, "sqlTracing", "true").trim());
+        this.slowQueryMillis = Long.parseLong(lookup(file, "slowQueryMillis", "200").trim());
+    }
+
+    /**
+     * Resolve the configuration from system properties, environment and the properties file.
+     *
+     * @throws IllegalArgumentException if a value is malformed (unknown mode, non-numeric port, ...)
+     */
+    public static DatabaseConfig load() {
+        Properties file = new Properties();
+        Path source = Path.of(System.getProperty(PROPERTY_PREFIX + "config", DEFAULT_FILE));
+        if (Files.isRegularFile(source)) {
+            try (InputStream in = Files.newInputStream(source)) {
+                file.load(in);
+                System.out.println("✓ Database settings loaded from " + source);
+            } catch (IOException e) {
+                System.err.println("Unable to read " + source + ": " + e.getMessage());
+            }
+        }
+        return new DatabaseConfig(file);
+    }
+
+    private static String lookup(Properties file, String key, String defaultValue) {
+        String value = System.getProperty(PROPERTY_PREFIX + key);
+        if (value == null) {
+            value = System.getenv(ENV_PREFIX + key.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT));
+        }
+        if (value == null) {
+            value = file.getProperty(key);
+        }
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static Integer optionalInt(Properties file, String key) {
+        String value = lookup(file, key, null);
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    /**
+     * JDBC URL for this process's connections.
+     */
+    public String getUrl() {
+        if (urlOverride != null) {
+            return urlOverride;
+        }
+        return switch (mode) {
+            case EMBEDDED, SERVER -> "jdbc:h2:" + path + fileSettings() + sessionSettings();
+            case AUTO_SERVER -> "jdbc:h2:" + path + ";AUTO_SERVER=TRUE;AUTO_SERVER_PORT=" + tcpPort
+                    + fileSettings() + sessionSettings();
+            case CLIENT -> getTcpUrl(host, tcpPort);
+        };
+    }
+
+    /**
+     * URL for reaching this database through a TCP server at the given address. The server is started
+     * with the database's directory as its base directory, so only the file name is sent.
+     */
+    public String getTcpUrl(String tcpHost, int port) {
+        return "jdbc:h2:tcp://" + tcpHost + ":" + port + "/" + getDatabaseName() + sessionSettings();
+    }
+
+    /**
+     * Settings that apply when this process opens the database file.
+     */
+    private String fileSettings() {
+        StringBuilder sb = new StringBuilder();
+        if (cacheSizeKb != null) sb.append(";CACHE_SIZE=").append(cacheSizeKb);
+        if (writeDelayMs != null) sb.append(";WRITE_DELAY=").append(writeDelayMs);
+        if (maxCompactTimeMs != null) sb.append(";MAX_COMPACT_TIME=").append(maxCompactTimeMs);
+        if (retentionTimeMs != null) sb.append(";RETENTION_TIME=").append(retentionTimeMs);
+        if (compress != null) sb.append(";COMPRESS=").append(compress.toString().toUpperCase(Locale.ROOT));
+        sb.append(";QUERY_CACHE_SIZE=").append(queryCacheSize);
+        return sb.toString();
+    }
+
+    /**
+     * Per-connection settings, valid in every mode.
+     */
+    private String sessionSettings() {
+        return lockTimeoutMs != null ? ";LOCK_TIMEOUT=" + lockTimeoutMs : "";
+    }
+
+    /**
+     * @return directory holding the database file, used as the TCP server's base directory
+     */
+    public Path getDatabaseDirectory() {
+        Path parent = Path.of(path).toAbsolutePath().normalize().getParent();
+        return parent != null ? parent : Path.of("").toAbsolutePath();
+    }
+
+    /**
+     * @return database file name without directory or extension, e.g. {@code maintenance_db}
+     */
+    public String getDatabaseName() {
+        return Path.of(path).getFileName().toString();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getTcpPort() {
+        return tcpPort;
+    }
+
+    public boolean isTcpAllowOthers() {
+        return tcpAllowOthers;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public boolean isSqlTracing() {
+        return sqlTracing;
+    }
+
+    public long getSlowQueryMillis() {
+        return slowQueryMillis;
+    }
+
+    @Override
+    public String toString() {
+        // Never include the password
+        return mode + " " + getUrl() + " as " + user;
+    }
+}
@@ -1,6 +1,10 @@
 package com.maintenance.database;
 
+import com.maintenance.util.PasswordHasher;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 
 public class DatabaseInitializer {
@@ -106,7 +110,52 @@ public class DatabaseInitializer {
                     "staff_update_notes VARCHAR(1000)," +
                     "resolution_notes VARCHAR(1000)," +
                     "tenant_archived BOOLEAN DEFAULT FALSE," +
-                    "staff_archived BOOLEAN DEFAULT FALSE)");
+                    "staff_archived BOOLEAN DEFAULT FALSE," +
+                    "apartment_id VARCHAR(50)," +
+                    "building_id VARCHAR(50)," +
+                    "escalated_at TIMESTAMP," +
+                    "escalation_count INT DEFAULT 0)");
+            // Tenant and staff request lists, and RequestArchiver's search for long-closed requests
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_requests_tenant ON maintenance_requests(tenant_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_requests_staff ON maintenance_requests(assigned_staff_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_requests_closed ON maintenance_requests(status, completion_date)");
+
+            // Cold store for requests closed long ago; same columns as maintenance_requests plus archived_at.
+            // RequestArchiver moves rows here so the hot table only holds recent work.
+            stmt.execute("CREATE TABLE IF NOT EXISTS archived_requests (" +
+                    "request_id VARCHAR(50) PRIMARY KEY," +
+                    "tenant_id VARCHAR(50)," +
+                    "apartment_number VARCHAR(20)," +
+                    "description VARCHAR(1000)," +
+                    "detailed_description VARCHAR(2000)," +
+                    "category VARCHAR(50)," +
+                    "priority VARCHAR(20)," +
+                    "status VARCHAR(20)," +
+                    "submission_date TIMESTAMP," +
+                    "last_updated TIMESTAMP," +
+                    "scheduled_date TIMESTAMP," +
+                    "completion_date TIMESTAMP," +
+                    "estimated_cost DECIMAL(10,2)," +
+                    "actual_cost DECIMAL(10,2)," +
+                    "assigned_staff_id VARCHAR(50)," +
+                    "work_order_number VARCHAR(50)," +
+                    "staff_update_notes VARCHAR(1000)," +
+                    "resolution_notes VARCHAR(1000)," +
+                    "tenant_archived BOOLEAN DEFAULT FALSE," +
+                    "staff_archived BOOLEAN DEFAULT FALSE," +
+                    "archived_at TIMESTAMP," +
+                    "apartment_id VARCHAR(50)," +
+                    "building_id VARCHAR(50)," +
+                    "escalated_at TIMESTAMP," +
+                    "escalation_count INT DEFAULT 0)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_archived_requests_tenant ON archived_requests(tenant_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_archived_requests_staff ON archived_requests(assigned_staff_id)");
+
+            addRequestLocationColumns(stmt);
+            addEscalationColumns(stmt);
+            addVersionColumns(stmt);
+            createRollupTables(stmt);
+            createCompletionSketchTable(stmt);
 
             // Create Photos table
             stmt.execute("CREATE TABLE IF NOT EXISTS photos (" +
@@ -128,6 +177,12 @@ public class DatabaseInitializer {
                     "parts_required VARCHAR(1000)," +
                     "instructions VARCHAR(2000)," +
                     "status VARCHAR(20))");
+            // A request's open work order, and a staff member's bookings for WorkOrderScheduler
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_work_orders_request ON work_orders(request_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_work_orders_staff " +
+                    "ON work_orders(assigned_staff_id, scheduled_date_time)");
+            createInventoryTables(stmt);
+            createPreventiveTables(stmt);
 
             // Insert default users
             insertDefaultUsers(stmt);
@@ -139,13 +194,170 @@ public class DatabaseInitializer {
         }
     }
 
+    /**
+     * Adds apartment_id/building_id to databases created before requests carried their building
+     * (RequestLocationBackfill fills them), plus the indexes behind the building-scoped queries.
+     * On maintenance_requests the foreign keys' own indexes serve those queries.
+     */
+    private static void addRequestLocationColumns(Statement stmt) throws SQLException {
+        for (String table : new String[]{"maintenance_requests", "archived_requests"}) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS apartment_id VARCHAR(50)");
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS building_id VARCHAR(50)");
+        }
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_archived_requests_building ON archived_requests(building_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_apartments_number ON apartments(apartment_number)");
+        stmt.execute("ALTER TABLE maintenance_requests ADD CONSTRAINT IF NOT EXISTS fk_requests_apartment " +
+                "FOREIGN KEY (apartment_id) REFERENCES apartments(apartment_id)");
+        stmt.execute("ALTER TABLE maintenance_requests ADD CONSTRAINT IF NOT EXISTS fk_requests_building " +
+                "FOREIGN KEY (building_id) REFERENCES buildings(building_id)");
+    }
+
+    /**
+     * Adds the SLA escalation columns (see SlaMonitor) to databases created before them.
+     */
+    private static void addEscalationColumns(Statement stmt) throws SQLException {
+        for (String table : new String[]{"maintenance_requests", "archived_requests"}) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS escalated_at TIMESTAMP");
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS escalation_count INT DEFAULT 0");
+        }
+        // The deadline whose breach was reported for a request that could not be escalated further
+        stmt.execute("ALTER TABLE maintenance_requests ADD COLUMN IF NOT EXISTS sla_notified_due TIMESTAMP");
+    }
+
+    /**
+     * Adds the row version MaintenanceRequestDAO.updateRequest checks and bumps, so an update made from
+     * a stale copy of a request is refused instead of overwriting someone else's change.
+     */
+    private static void addVersionColumns(Statement stmt) throws SQLException {
+        for (String table : new String[]{"maintenance_requests", "archived_requests"}) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL");
+        }
+    }
+
+    /**
+     * Daily and weekly analytics rollups keyed by (bucket, building, category, priority, status).
+     * RollupTrigger appends each request change to request_rollup_deltas and RequestRollups folds
+     * the deltas into both tables. building_id is '' for requests without a building.
+     */
+    private static void createRollupTables(Statement stmt) throws SQLException {
+        for (String table : new String[]{"request_rollups_daily", "request_rollups_weekly"}) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "bucket_start DATE NOT NULL," +
+                    "building_id VARCHAR(50) DEFAULT '' NOT NULL," +
+                    "category VARCHAR(50) NOT NULL," +
+                    "priority VARCHAR(20) NOT NULL," +
+                    "status VARCHAR(20) NOT NULL," +
+                    "request_count BIGINT DEFAULT 0," +
+                    "estimated_cost DECIMAL(14,2) DEFAULT 0," +
+                    "actual_cost DECIMAL(14,2) DEFAULT 0," +
+                    "completed_count BIGINT DEFAULT 0," +
+                    "completion_seconds BIGINT DEFAULT 0," +
+                    "PRIMARY KEY (bucket_start, building_id, category, priority, status))");
+        }
+        stmt.execute("CREATE TABLE IF NOT EXISTS request_rollup_deltas (" +
+                "seq BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                "submission_day DATE," +
+                "building_id VARCHAR(50)," +
+                "category VARCHAR(50)," +
+                "priority VARCHAR(20)," +
+                "status VARCHAR(20)," +
+                "request_count INT," +
+                "estimated_cost DECIMAL(14,2)," +
+                "actual_cost DECIMAL(14,2)," +
+                "completed_count INT," +
+                "completion_seconds BIGINT)");
+        for (String table : new String[]{"maintenance_requests", "archived_requests"}) {
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_rollup_" + table +
+                    " AFTER INSERT, UPDATE, DELETE ON " + table +
+                    " FOR EACH ROW CALL '" + RollupTrigger.class.getName() + "'");
+        }
+    }
+
+    /**
+     * Parts catalog, its stock counters and the parts reserved for each work order (see InventoryDAO).
+     * on_hand and reserved are kept current by every stock movement; version is bumped on each change
+     * so reservations can update stock optimistically.
+     */
+    private static void createInventoryTables(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS parts (" +
+                "part_id VARCHAR(50) PRIMARY KEY," +
+                "part_name VARCHAR(100) UNIQUE NOT NULL," +
+                "unit_cost DECIMAL(10,2) DEFAULT 0," +
+                "reorder_level INT DEFAULT 0)");
+        stmt.execute("CREATE TABLE IF NOT EXISTS part_stock (" +
+                "part_id VARCHAR(50) PRIMARY KEY," +
+                "on_hand INT DEFAULT 0 NOT NULL," +
+                "reserved INT DEFAULT 0 NOT NULL," +
+                "version BIGINT DEFAULT 0 NOT NULL," +
+                "last_updated TIMESTAMP," +
+                "FOREIGN KEY (part_id) REFERENCES parts(part_id))");
+        stmt.execute("CREATE TABLE IF NOT EXISTS part_reservations (" +
+                "work_order_id VARCHAR(50) NOT NULL," +
+                "part_id VARCHAR(50) NOT NULL," +
+                "quantity INT NOT NULL," +
+                "status VARCHAR(20) NOT NULL," +
+                "reserved_at TIMESTAMP," +
+                "PRIMARY KEY (work_order_id, part_id)," +
+                "FOREIGN KEY (part_id) REFERENCES parts(part_id))");
+    }
+
+    /**
+     * Recurring preventive jobs and the requests generated from them (see PreventiveMaintenanceScheduler).
+     * A null apartment_id means every apartment in the building. preventive_occurrences has one row per
+     * (schedule, apartment, due date) so expanding the same due date twice never creates a second request.
+     */
+    private static void createPreventiveTables(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS preventive_schedules (" +
+                "schedule_id VARCHAR(50) PRIMARY KEY," +
+                "building_id VARCHAR(50) NOT NULL," +
+                "apartment_id VARCHAR(50)," +
+                "description VARCHAR(1000)," +
+                "category VARCHAR(50)," +
+                "priority VARCHAR(20)," +
+                "interval_months INT NOT NULL CHECK (interval_months > 0)," +
+                "first_due DATE NOT NULL," +
+                "generated_through DATE," +
+                "active BOOLEAN DEFAULT TRUE," +
+                "FOREIGN KEY (building_id) REFERENCES buildings(building_id)," +
+                "FOREIGN KEY (apartment_id) REFERENCES apartments(apartment_id))");
+        stmt.execute("CREATE TABLE IF NOT EXISTS preventive_occurrences (" +
+                "schedule_id VARCHAR(50) NOT NULL," +
+                "apartment_id VARCHAR(50) NOT NULL," +
+                "due_date DATE NOT NULL," +
+                "request_id VARCHAR(50) NOT NULL," +
+                "PRIMARY KEY (schedule_id, apartment_id, due_date)," +
+                "FOREIGN KEY (schedule_id) REFERENCES preventive_schedules(schedule_id))");
+    }
+
+    /**
+     * Serialized completion-time sketches (see QuantileSketch), one per category and one per staff member,
+     * and the requests they already count.
+     */
+    private static void createCompletionSketchTable(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS completion_sketches (" +
+                "dimension VARCHAR(20) NOT NULL," +
+                "dimension_key VARCHAR(50) NOT NULL," +
+                "sample_count BIGINT DEFAULT 0," +
+                "sketch VARBINARY(65536)," +
+                "last_updated TIMESTAMP," +
+                "PRIMARY KEY (dimension, dimension_key))");
+        stmt.execute("CREATE TABLE IF NOT EXISTS completion_sketch_requests (" +
+                "request_id VARCHAR(50) PRIMARY KEY," +
+                "recorded_at TIMESTAMP)");
+    }
+
     private static void insertDefaultUsers(Statement stmt) {
         try {
             // Insert default admin
-            stmt.execute("MERGE INTO users (user_id, username, password, first_name, last_name, " +
+            // Password is bound as a PBKDF2 hash so the seed never writes plaintext
+            try (PreparedStatement adminStmt = stmt.getConnection().prepareStatement(
+                    "MERGE INTO users (user_id, username, password, first_name, last_name, " +
                     "email, phone_number, user_type, date_created, is_active) " +
-                    "VALUES ('A001', 'admin1', 'pass123', 'System', 'Admin', 'admin@email.com', " +
-                    "'555-0100', 'ADMIN', CURRENT_TIMESTAMP, true)");
+                    "VALUES ('A001', 'admin1', ?, 'System', 'Admin', 'admin@email.com', " +
+                    "'555-0100', 'ADMIN', CURRENT_TIMESTAMP, true)")) {
+                adminStmt.setString(1, PasswordHasher.hash("pass123"));
+                adminStmt.executeUpdate();
+            }
 
             // Insert default tenant
 //            stmt.execute("MERGE INTO users (user_id, username, password, first_name, last_name, " +
@@ -1,13 +1,30 @@
 package com.maintenance.database;
 
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.MetricsReporter;
+import org.h2.tools.Server;
+
 import java.sql.*;
 
 public class DatabaseManager {
     private static DatabaseManager instance;
+    private final DatabaseConfig config;
     private Connection connection;
     private boolean isConnected;
+    // In-process TCP server (SERVER mode or started explicitly); null otherwise
+    private Server tcpServer;
+
+    // Optional pool for concurrent callers (server mode); null in the desktop app
+    private volatile ConnectionPool pool;
+    // Pooled connection leased by the current thread, returned by getConnection() while held
+    private final ThreadLocal<Connection> leased = new ThreadLocal<>();
 
     private DatabaseManager() {
+        this.config = DatabaseConfig.load();
+        SqlStats.getInstance().setSlowThresholdMillis(config.getSlowQueryMillis());
+        if (config.isSqlTracing()) {
+            MetricsReporter.addReport("sql.txt", SqlStats.getInstance()::writeText);
+        }
         connect();
     }
 
@@ -21,10 +38,18 @@ public class DatabaseManager {
     public void connect() {
         try {
             Class.forName("org.h2.Driver");
-            String connectionString = "jdbc:h2:./data/maintenance_db";
-            connection = DriverManager.getConnection(connectionString, "sa", "");
+            connection = trace(DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword()));
             isConnected = true;
-            System.out.println("✓ Database connected successfully");
+            System.out.println("✓ Database connected successfully (" + config.getMode() + ")");
+
+            // Serve other clients only once the file is open here, so they never create it remotely
+            if (config.getMode() == DatabaseConfig.Mode.SERVER) {
+                try {
+                    startTcpServer(config.getTcpPort());
+                } catch (SQLException e) {
+                    System.err.println("Unable to start database TCP server: " + e.getMessage());
+                }
+            }
         } catch (ClassNotFoundException | SQLException e) {
             System.err.println("Database connection error: " + e.getMessage());
             isConnected = false;
@@ -32,6 +57,12 @@ public class DatabaseManager {
     }
 
     public void disconnect() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            current.close();
+            pool = null;
+        }
+        stopTcpServer();
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -43,11 +74,149 @@ public class DatabaseManager {
         }
     }
 
+    /**
+     * Start an H2 TCP server in this JVM so other processes can reach the database opened here.
+     * Does nothing if one is already running.
+     *
+     * @param port TCP port, or 0 for any free port
+     * @return the port the server listens on
+     */
+    public synchronized int startTcpServer(int port) throws SQLException {
+        if (tcpServer == null) {
+            String[] args = config.isTcpAllowOthers()
+                    ? new String[]{"-tcpPort", String.valueOf(port), "-tcpDaemon", "-tcpAllowOthers",
+                            "-baseDir", config.getDatabaseDirectory().toString()}
+                    : new String[]{"-tcpPort", String.valueOf(port), "-tcpDaemon",
+                            "-baseDir", config.getDatabaseDirectory().toString()};
+            tcpServer = Server.createTcpServer(args).start();
+            System.out.println("✓ Database TCP server listening on port " + tcpServer.getPort()
+                    + (config.isTcpAllowOthers() ? " (remote clients allowed)" : " (local clients only)"));
+            if (config.isTcpAllowOthers() && config.getPassword().isEmpty()) {
+                System.err.println("Warning: database accepts remote clients but has no password set");
+            }
+        }
+        return tcpServer.getPort();
+    }
+
+    public synchronized void stopTcpServer() {
+        if (tcpServer != null) {
+            tcpServer.stop();
+            tcpServer = null;
+            System.out.println("✓ Database TCP server stopped");
+        }
+    }
+
+    /**
+     * @return the resolved connection settings
+     */
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the connection DAOs should use: the pooled connection leased by the calling thread
+     * if there is one, otherwise the shared connection.
+     */
     public Connection getConnection() {
-        return connection;
+        Connection own = leased.get();
+        return own != null ? own : connection;
+    }
+
+    /**
+     * Open a fixed-size connection pool so concurrent threads stop serializing on the shared connection.
+     *
+     * @param size                 number of pooled connections
+     * @param acquireTimeoutMillis maximum wait for a free connection
+     */
+    public synchronized void enablePool(int size, long acquireTimeoutMillis) throws SQLException {
+        if (pool == null) {
+            pool = new ConnectionPool(this, size, acquireTimeoutMillis);
+            ConnectionPool current = pool;
+            MetricsRegistry.getInstance().gauge("db.pool.idle", current::getIdleCount);
+            MetricsRegistry.getInstance().gauge("db.pool.size", current::getSize);
+            System.out.println("✓ Connection pool ready (" + size + " connections)");
+        }
+    }
+
+    /**
+     * @return the connection pool, or null if not enabled
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Bind a pooled connection to the calling thread until the lease is closed, so DAO calls made
+     * in between use it via {@link #getConnection()}. Without a pool, or when the thread already
+     * holds a lease, this returns a no-op lease and the existing connection is used.
+     */
+    public ConnectionLease leaseConnection() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null || leased.get() != null) {
+            return new ConnectionLease(null, null, false);
+        }
+        Connection conn = current.acquire();
+        leased.set(conn);
+        return new ConnectionLease(current, conn, true);
+    }
+
+    /**
+     * Bind a caller-owned connection to the calling thread until the lease is closed, so DAO calls
+     * run on it instead of the shared connection. The caller still owns and closes the connection.
+     *
+     * @throws IllegalStateException if the thread already holds a connection
+     */
+    public ConnectionLease bindConnection(Connection conn) {
+        if (leased.get() != null) {
+            throw new IllegalStateException("Thread already holds a database connection");
+        }
+        leased.set(conn);
+        return new ConnectionLease(null, conn, true);
+    }
+
+    /**
+     * Opens a separate connection to the same database for long-running work
+     * (exports, imports) that should not hold the shared UI connection's session.
+     * The caller owns the returned connection and must close it.
+     */
+    public Connection openConnection() throws SQLException {
+        return trace(DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword()));
+    }
+
+    /**
+     * Wrap a connection in the SQL timing proxy unless tracing is disabled.
+     */
+    Connection trace(Connection conn) {
+        return config.isSqlTracing() ? SqlTracer.wrap(conn) : conn;
     }
 
     public boolean isConnected() {
         return isConnected;
     }
+
+    /**
+     * Scope of a connection bound to one thread; closing it unbinds the connection and returns it
+     * to its pool, if it came from one.
+     */
+    public final class ConnectionLease implements AutoCloseable {
+        private final ConnectionPool owner;
+        private final Connection conn;
+        private final boolean bound;
+
+        private ConnectionLease(ConnectionPool owner, Connection conn, boolean bound) {
+            this.owner = owner;
+            this.conn = conn;
+            this.bound = bound;
+        }
+
+        @Override
+        public void close() {
+            if (bound) {
+                leased.remove();
+            }
+            if (owner != null) {
+                owner.release(conn);
+            }
+        }
+    }
 }
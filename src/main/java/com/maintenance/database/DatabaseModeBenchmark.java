@@ -0,0 +1,121 @@
+package com.maintenance.database;
+
+import com.maintenance.dao.MaintenanceRequestDAO;
+import com.maintenance.dao.PhotoDAO;
+import com.maintenance.dao.UserDAO;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares DAO call latency over an embedded connection with the same calls over the H2 TCP server.
+ *
+ * <p>Run from the application directory with {@code DatabaseModeBenchmark [iterations]}. The database is
+ * opened according to the normal configuration (which must not be {@code CLIENT}), a TCP server is started
+ * in-process if one is not already running, and each DAO call is timed on an embedded connection and on a
+ * loopback TCP connection. The TCP figures are a lower bound for clients on other machines.
+ */
+public final class DatabaseModeBenchmark {
+    private static final int WARMUP = 200;
+
+    private DatabaseModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        DatabaseInitializer.initialize();
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        DatabaseConfig config = dbManager.getConfig();
+        if (config.getMode() == DatabaseConfig.Mode.CLIENT) {
+            System.err.println("Run the benchmark where the database file lives (not in CLIENT mode)");
+            return;
+        }
+        int port = dbManager.startTcpServer(0);
+
+        MaintenanceRequestDAO requestDAO = new MaintenanceRequestDAO();
+        UserDAO userDAO = new UserDAO();
+        PhotoDAO photoDAO = new PhotoDAO();
+
+        String requestId;
+        String tenantId;
+        try (Statement stmt = dbManager.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT request_id, tenant_id FROM maintenance_requests ORDER BY request_id LIMIT 1")) {
+            if (!rs.next()) {
+                System.err.println("No maintenance requests to benchmark against");
+                return;
+            }
+            requestId = rs.getString(1);
+            tenantId = rs.getString(2);
+        }
+
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("getRequestById", () -> requestDAO.getRequestById(requestId));
+        calls.put("getRequestsByTenant", () -> requestDAO.getRequestsByTenant(tenantId));
+        calls.put("findTenantEmailByRequestId", () -> requestDAO.findTenantEmailByRequestId(requestId));
+        calls.put("getPhotosForRequest", () -> photoDAO.getPhotosForRequest(requestId));
+        calls.put("getAllActiveStaff", userDAO::getAllActiveStaff);
+        // Saving an unchanged request writes nothing, so flip one column to time a real single-column UPDATE
+        calls.put("updateRequest", () -> requestDAO.getRequestById(requestId).ifPresent(request -> {
+            request.setStaffArchived(!request.isStaffArchived());
+            requestDAO.updateRequest(request);
+        }));
+
+        Map<String, double[]> embedded;
+        try (Connection conn = dbManager.openConnection()) {
+            embedded = run(dbManager, conn, calls, iterations);
+        }
+        Map<String, double[]> tcp;
+        try (Connection conn = dbManager.trace(DriverManager.getConnection(
+                config.getTcpUrl("localhost", port), config.getUser(), config.getPassword()))) {
+            tcp = run(dbManager, conn, calls, iterations);
+        }
+
+        System.out.println("========================================");
+        System.out.printf("%d iterations per call, latency in microseconds%n", iterations);
+        System.out.printf("%-28s %10s %10s %10s %10s %7s%n",
+                "call", "emb p50", "emb p99", "tcp p50", "tcp p99", "x p50");
+        for (String name : calls.keySet()) {
+            double[] e = embedded.get(name);
+            double[] t = tcp.get(name);
+            System.out.printf("%-28s %10.1f %10.1f %10.1f %10.1f %7.1f%n",
+                    name, e[0], e[1], t[0], t[1], t[0] / e[0]);
+        }
+        System.out.println("========================================");
+        dbManager.disconnect();
+    }
+
+    /**
+     * Time each call on the given connection.
+     *
+     * @return p50 and p99 in microseconds per call name
+     */
+    private static Map<String, double[]> run(DatabaseManager dbManager, Connection conn,
+                                             Map<String, Runnable> calls, int iterations) {
+        Map<String, double[]> results = new LinkedHashMap<>();
+        try (DatabaseManager.ConnectionLease lease = dbManager.bindConnection(conn)) {
+            for (Map.Entry<String, Runnable> call : calls.entrySet()) {
+                for (int i = 0; i < WARMUP; i++) {
+                    call.getValue().run();
+                }
+                long[] sorted = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    call.getValue().run();
+                    sorted[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(sorted);
+                results.put(call.getKey(), new double[]{
+                        sorted[sorted.length / 2] / 1e3,
+                        sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)] / 1e3});
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,145 @@
+package com.maintenance.database;
+
+import org.h2.api.Trigger;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Row trigger on maintenance_requests and archived_requests that appends each row's change to the
+ * analytics rollups as a delta in {@code request_rollup_deltas}: the old row's contribution with a count
+ * of -1 and the new row's with +1. Deltas are appended rather than applied to the rollup tables directly,
+ * so concurrent request updates never wait on the same rollup row; {@code RequestRollups} folds them in.
+ *
+ * <p>Moving a row between the two tables (archiving or restoring) cancels out, and updates that do not
+ * touch a rolled-up column (notes, staff assignment) write nothing.
+ */
+public class RollupTrigger implements Trigger {
+    private static final String INSERT = "INSERT INTO request_rollup_deltas (submission_day, building_id, " +
+            "category, priority, status, request_count, estimated_cost, actual_cost, completed_count, " +
+            "completion_seconds) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private int submissionDate;
+    private int buildingId;
+    private int category;
+    private int priority;
+    private int status;
+    private int estimatedCost;
+    private int actualCost;
+    private int completionDate;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        try (ResultSet rs = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (rs.next()) {
+                columns.put(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT), rs.getInt("ORDINAL_POSITION") - 1);
+            }
+        }
+        submissionDate = column(columns, tableName, "submission_date");
+        buildingId = column(columns, tableName, "building_id");
+        category = column(columns, tableName, "category");
+        priority = column(columns, tableName, "priority");
+        status = column(columns, tableName, "status");
+        estimatedCost = column(columns, tableName, "estimated_cost");
+        actualCost = column(columns, tableName, "actual_cost");
+        completionDate = column(columns, tableName, "completion_date");
+    }
+
+    private static int column(Map<String, Integer> columns, String table, String name) throws SQLException {
+        Integer index = columns.get(name);
+        if (index == null) {
+            throw new SQLException("Table " + table + " has no column " + name + " to roll up");
+        }
+        return index;
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        Contribution before = contribution(oldRow);
+        Contribution after = contribution(newRow);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            if (before != null) {
+                before.bind(ps, -1);
+                ps.executeUpdate();
+            }
+            if (after != null) {
+                after.bind(ps, 1);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private Contribution contribution(Object[] row) {
+        if (row == null) {
+            return null;
+        }
+        LocalDateTime submitted = toDateTime(row[submissionDate]);
+        if (submitted == null) {
+            return null;
+        }
+        LocalDateTime completed = toDateTime(row[completionDate]);
+        boolean isCompleted = "COMPLETED".equals(row[status]) && completed != null;
+        // Whole seconds between the two timestamps, the same as DATEDIFF('SECOND', ...) in a rebuild
+        long seconds = isCompleted
+                ? ChronoUnit.SECONDS.between(submitted.truncatedTo(ChronoUnit.SECONDS),
+                        completed.truncatedTo(ChronoUnit.SECONDS))
+                : 0;
+        return new Contribution(submitted.toLocalDate(), (String) row[buildingId], text(row[category]),
+                text(row[priority]), text(row[status]), amount(row[estimatedCost]), amount(row[actualCost]),
+                isCompleted ? 1 : 0, seconds);
+    }
+
+    private static LocalDateTime toDateTime(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts.toLocalDateTime();
+        }
+        return value instanceof LocalDateTime ldt ? ldt : null;
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static BigDecimal amount(Object value) {
+        return value instanceof BigDecimal d ? d.stripTrailingZeros() : BigDecimal.ZERO;
+    }
+
+    /**
+     * What one request row adds to its rollup bucket.
+     */
+    private record Contribution(LocalDate day, String buildingId, String category, String priority,
+                                String status, BigDecimal estimatedCost, BigDecimal actualCost,
+                                int completed, long completionSeconds) {
+
+        void bind(PreparedStatement ps, int sign) throws SQLException {
+            ps.setDate(1, Date.valueOf(day));
+            ps.setString(2, buildingId);
+            ps.setString(3, category);
+            ps.setString(4, priority);
+            ps.setString(5, status);
+            ps.setInt(6, sign);
+            ps.setBigDecimal(7, sign < 0 ? estimatedCost.negate() : estimatedCost);
+            ps.setBigDecimal(8, sign < 0 ? actualCost.negate() : actualCost);
+            ps.setInt(9, sign * completed);
+            ps.setLong(10, sign * completionSeconds);
+        }
+    }
+}
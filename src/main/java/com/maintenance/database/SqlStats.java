@@ -0,0 +1,219 @@
+package com.maintenance.database;
+
+import com.maintenance.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregated SQL timings fed by {@link SqlTracer}.
+ *
+ * <p>Each statement is reduced to a normalized shape: literals become {@code ?}, IN lists collapse to
+ * {@code IN (?+)}, and whitespace is squeezed. So ad-hoc SQL built by string concatenation groups together
+ * with its prepared equivalents. Per shape it keeps count, total and max time, and rows. Statements slower
+ * than the threshold ({@code slowQueryMillis} in {@link DatabaseConfig}, default 200 ms) are logged with
+ * their bind parameters; parameters of statements that mention passwords are masked.
+ */
+public final class SqlStats {
+    // Bound the shape table so unexpected SQL variety cannot grow it without limit
+    private static final int MAX_SHAPES = 2000;
+    private static final int MAX_PARAM_CHARS = 64;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final SqlStats INSTANCE = new SqlStats();
+
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    // Raw SQL to shape; prepared statements repeat the same strings, so normalization runs once per string
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    private volatile long slowThresholdNanos = 200_000_000L;
+
+    private SqlStats() {
+    }
+
+    public static SqlStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param millis statements slower than this are logged; 0 logs everything
+     */
+    public void setSlowThresholdMillis(long millis) {
+        this.slowThresholdNanos = millis * 1_000_000L;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    /**
+     * Record one finished execution.
+     *
+     * @param sql    statement text as executed
+     * @param nanos  time spent in execute and in fetching rows
+     * @param rows   rows fetched (queries) or affected (updates)
+     * @param params bind parameters by index (1-based; index 0 unused), or null
+     * @param batch  number of batched executions, or 0
+     */
+    void record(String sql, long nanos, long rows, Object[] params, int batch) {
+        String shape = shapeOf(sql);
+        Shape stats = shapes.get(shape);
+        if (stats == null && shapes.size() < MAX_SHAPES) {
+            stats = shapes.computeIfAbsent(shape, s -> new Shape());
+        }
+        if (stats != null) {
+            stats.count.increment();
+            stats.totalNanos.add(nanos);
+            stats.maxNanos.accumulate(nanos);
+            stats.rows.add(rows);
+        }
+        metrics.histogram("sql.execute").record(nanos);
+
+        if (nanos >= slowThresholdNanos) {
+            metrics.counter("sql.slow").increment();
+            System.err.println(String.format(Locale.ROOT, "Slow SQL (%.1f ms, %d rows%s): %s%s",
+                    nanos / 1e6, rows, batch > 0 ? ", batch of " + batch : "", shape,
+                    formatParams(params, shape)));
+        }
+    }
+
+    String shapeOf(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = normalized.get(sql);
+        if (shape == null) {
+            shape = normalize(sql);
+            if (normalized.size() < MAX_SHAPES * 4) {
+                normalized.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("IN (?+)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static String formatParams(Object[] params, String shape) {
+        if (params == null || params.length <= 1) {
+            return "";
+        }
+        boolean mask = shape.toLowerCase(Locale.ROOT).contains("password");
+        StringBuilder sb = new StringBuilder(" [");
+        for (int i = 1; i < params.length; i++) {
+            if (i > 1) sb.append(", ");
+            Object value = params[i];
+            if (value == null) {
+                sb.append("NULL");
+            } else if (mask) {
+                sb.append("***");
+            } else if (value instanceof CharSequence) {
+                String text = value.toString();
+                sb.append('\'')
+                        .append(text.length() > MAX_PARAM_CHARS ? text.substring(0, MAX_PARAM_CHARS) + "..." : text)
+                        .append('\'');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * @param n maximum number of shapes to return
+     * @return shapes with the highest total time, slowest first
+     */
+    public List<ShapeSummary> top(int n) {
+        List<ShapeSummary> all = new ArrayList<>(shapes.size());
+        shapes.forEach((sql, s) -> all.add(new ShapeSummary(sql, s.count.sum(), s.totalNanos.sum(),
+                s.maxNanos.get(), s.rows.sum())));
+        all.sort(Comparator.comparingLong((ShapeSummary s) -> s.totalNanos).reversed());
+        return all.size() > n ? new ArrayList<>(all.subList(0, n)) : all;
+    }
+
+    /**
+     * Forget all aggregated shapes (e.g. after a deployment).
+     */
+    public void reset() {
+        shapes.clear();
+    }
+
+    /**
+     * Write the 50 most expensive shapes as aligned plain text.
+     */
+    public void writeText(Writer out) throws IOException {
+        out.write(String.format(Locale.ROOT, "%10s %12s %10s %10s %12s  %s%n",
+                "count", "total ms", "mean ms", "max ms", "rows", "sql"));
+        for (ShapeSummary s : top(50)) {
+            out.write(String.format(Locale.ROOT, "%10d %12.1f %10.3f %10.3f %12d  %s%n", s.getCount(),
+                    s.getTotalMillis(), s.getMeanMillis(), s.getMaxMillis(), s.getRows(), s.getSql()));
+        }
+    }
+
+    private static final class Shape {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+    }
+
+    /**
+     * Totals for one SQL shape.
+     */
+    public static final class ShapeSummary {
+        private final String sql;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long rows;
+
+        private ShapeSummary(String sql, long count, long totalNanos, long maxNanos, long rows) {
+            this.sql = sql;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.rows = rows;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getTotalMillis() {
+            return totalNanos / 1e6;
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalNanos / 1e6 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+    }
+}
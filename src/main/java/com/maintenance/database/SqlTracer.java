@@ -0,0 +1,324 @@
+package com.maintenance.database;
+
+import com.maintenance.metrics.jfr.DbQueryEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * JDBC proxies that time every statement execution and report it to {@link SqlStats}.
+ *
+ * <p>{@link #wrap(Connection)} returns a {@link Connection} whose statements record their SQL and bind
+ * parameters. An update is recorded when its execute returns. A query is recorded when its result set or
+ * statement is closed (or the statement is re-executed), so its time covers the execute plus every
+ * {@code next()} call, and its row count is the number of rows actually fetched. Time spent by the caller
+ * between {@code next()} calls is not counted. Each execution is also emitted as a {@link DbQueryEvent}
+ * when a flight recording is running.
+ */
+final class SqlTracer {
+    private static final ClassLoader LOADER = SqlTracer.class.getClassLoader();
+
+    private SqlTracer() {
+    }
+
+    /**
+     * @return a traced view of the connection; closing it closes the underlying connection
+     */
+    static Connection wrap(Connection target) {
+        if (target == null || Proxy.isProxyClass(target.getClass())) {
+            return target;
+        }
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class},
+                new ConnectionHandler(target));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Identity semantics for proxies, so pools and collections can find them again.
+     */
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class && !method.getName().equals("toString");
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            Object result = SqlTracer.invoke(target, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement cs && name.equals("prepareCall")) {
+                return StatementHandler.wrap((Connection) proxy, cs, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement ps && name.equals("prepareStatement")) {
+                return StatementHandler.wrap((Connection) proxy, ps, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement st && name.equals("createStatement")) {
+                return StatementHandler.wrap((Connection) proxy, st, Statement.class, null);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One timed execution; queries stay open while their rows are fetched.
+     */
+    private static final class Execution {
+        private final String sql;
+        private final Object[] params;
+        private final int batch;
+        private final DbQueryEvent event = new DbQueryEvent();
+        private long nanos;
+        private long rows;
+        private boolean failed;
+        private boolean finished;
+
+        Execution(String sql, Object[] params, int batch) {
+            this.sql = sql;
+            this.params = params;
+            this.batch = batch;
+            event.begin();
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            SqlStats stats = SqlStats.getInstance();
+            stats.record(sql, nanos, rows, params, batch);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.sql = stats.shapeOf(sql);
+                event.rows = rows;
+                event.batch = batch;
+                event.databaseTime = nanos;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+        private final Statement target;
+        // SQL given to prepareStatement/prepareCall; null for plain statements
+        private final String preparedSql;
+        private Object[] params = new Object[0];
+        // Highest parameter index bound since the last clearParameters()
+        private int paramCount;
+        private int batchSize;
+        private String batchSql;
+        private Execution open;
+
+        private StatementHandler(Connection connection, Statement target, String preparedSql) {
+            this.connection = connection;
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        static Statement wrap(Connection connection, Statement target, Class<? extends Statement> type, String sql) {
+            return (Statement) Proxy.newProxyInstance(LOADER, new Class<?>[]{type},
+                    new StatementHandler(connection, target, sql));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute((Statement) proxy, method, args);
+            }
+            switch (name) {
+                case "addBatch" -> {
+                    batchSize++;
+                    // Plain statements batch different SQL strings; keep the first as the label
+                    if (args != null && args.length == 1 && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    batchSql = null;
+                }
+                case "clearParameters" -> {
+                    params = new Object[0];
+                    paramCount = 0;
+                }
+                case "getResultSet" -> {
+                    Object rs = SqlTracer.invoke(target, method, args);
+                    return rs instanceof ResultSet resultSet && open != null && !open.finished
+                            ? ResultSetHandler.wrap(resultSet, open, (Statement) proxy) : rs;
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "close" -> finishOpen();
+                default -> {
+                    // setString(1, x), setNull(2, type), setObject(3, x, type), ...
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bind(index, name, args[1]);
+                    }
+                }
+            }
+            return SqlTracer.invoke(target, method, args);
+        }
+
+        private void bind(int index, String setter, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index >= params.length) {
+                params = Arrays.copyOf(params, Math.max(index + 1, params.length * 2));
+            }
+            paramCount = Math.max(paramCount, index);
+            params[index] = switch (setter) {
+                case "setNull" -> null;
+                case "setBinaryStream", "setAsciiStream", "setCharacterStream", "setNCharacterStream",
+                     "setBlob", "setClob", "setNClob" -> "<stream>";
+                case "setBytes" -> value == null ? null : "<" + ((byte[]) value).length + " bytes>";
+                default -> value;
+            };
+        }
+
+        private Object execute(Statement proxy, Method method, Object[] args) throws Throwable {
+            finishOpen();
+            String name = method.getName();
+            boolean isBatch = name.endsWith("Batch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s
+                    : preparedSql != null ? preparedSql : batchSql;
+            Execution execution = new Execution(sql, trimmedParams(), isBatch ? batchSize : 0);
+            if (isBatch) {
+                batchSize = 0;
+                batchSql = null;
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = SqlTracer.invoke(target, method, args);
+            } catch (Throwable t) {
+                execution.nanos = System.nanoTime() - start;
+                execution.failed = true;
+                execution.finish();
+                throw t;
+            }
+            execution.nanos = System.nanoTime() - start;
+
+            if (result instanceof ResultSet rs) {
+                open = execution;
+                return ResultSetHandler.wrap(rs, execution, proxy);
+            }
+            if (result instanceof Boolean isQuery && isQuery) {
+                // execute() produced a result set; rows are counted through getResultSet()
+                open = execution;
+                return result;
+            }
+            execution.rows = updateCount(result);
+            execution.finish();
+            return result;
+        }
+
+        private Object[] trimmedParams() {
+            return paramCount == 0 ? null : Arrays.copyOf(params, paramCount + 1);
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer n) {
+                return Math.max(n, 0);
+            }
+            if (result instanceof Long n) {
+                return Math.max(n, 0);
+            }
+            long total = 0;
+            if (result instanceof int[] counts) {
+                for (int c : counts) total += Math.max(c, 0);
+            } else if (result instanceof long[] counts) {
+                for (long c : counts) total += Math.max(c, 0);
+            }
+            return total;
+        }
+
+        private void finishOpen() {
+            if (open != null) {
+                open.finish();
+                open = null;
+            }
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final Execution execution;
+        private final Statement statement;
+
+        private ResultSetHandler(ResultSet target, Execution execution, Statement statement) {
+            this.target = target;
+            this.execution = execution;
+            this.statement = statement;
+        }
+
+        static ResultSet wrap(ResultSet target, Execution execution, Statement statement) {
+            return (ResultSet) Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(target, execution, statement));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, method, args);
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    Object more = SqlTracer.invoke(target, method, args);
+                    execution.nanos += System.nanoTime() - start;
+                    if (Boolean.TRUE.equals(more)) {
+                        execution.rows++;
+                    }
+                    return more;
+                }
+                case "close" -> execution.finish();
+                case "getStatement" -> {
+                    return statement;
+                }
+                default -> {
+                }
+            }
+            return SqlTracer.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.maintenance.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event counter. Increments are striped across cells, so hot paths never contend.
+ */
+public final class Counter {
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long n) {
+        count.add(n);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,124 @@
+package com.maintenance.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ *
+ * <p>Values (nanoseconds) are bucketed by their highest set bit into powers of two, each split into
+ * 32 linear sub-buckets, so any recorded value is reported within about 3% of its true value. Recording
+ * is a few bit operations plus two atomic adds and an atomic max; there is no locking and no allocation.
+ * Values at or above 2^40 ns (about 18 minutes) land in the last bucket.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_BIT = 40;
+    private static final int BUCKETS = (MAX_BIT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Record one duration in nanoseconds; negative values are treated as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(indexOf(value));
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        if (msb > MAX_BIT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (msb - SUB_BITS)) & (SUB_COUNT - 1);
+        return (msb - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Midpoint of the range of values that map to the given bucket.
+     */
+    static long valueOf(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int group = index >>> SUB_BITS;
+        int sub = index & (SUB_COUNT - 1);
+        long lower = (long) (SUB_COUNT + sub) << (group - 1);
+        long width = 1L << (group - 1);
+        return lower + width / 2;
+    }
+
+    /**
+     * Copy the current state. Concurrent recordings may be partially included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * Point-in-time view of a histogram, with durations reported in milliseconds.
+     */
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] buckets, long count, long totalNanos, long maxNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalNanos / (double) count / 1e6;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        /**
+         * @param quantile between 0 and 1, e.g. 0.99
+         * @return the value at that quantile in milliseconds, or 0 if nothing was recorded
+         */
+        public double getPercentileMillis(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(valueOf(i), maxNanos) / 1e6;
+                }
+            }
+            return maxNanos / 1e6;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.maintenance.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of named counters, gauges and latency histograms.
+ *
+ * <p>Names are dotted paths such as {@code dao.MaintenanceRequestDAO.getRequestById}. Metrics are created
+ * on first use; later lookups are a single concurrent map read, so call sites can look metrics up by name
+ * on every call. Typical use around a unit of work:
+ *
+ * <pre>
+ * List&lt;Stop&gt; stops = metrics.time("routes.plan", () -&gt; buildPlan(open));
+ * </pre>
+ *
+ * <p>To time an existing try block without re-indenting it, start the sample just before and list it as the
+ * first resource:
+ *
+ * <pre>
+ * MetricsRegistry.Sample timer = metrics.time("dao.UserDAO.getAllUsers");
+ * try (timer; Statement stmt = conn.createStatement()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final long startMillis = System.currentTimeMillis();
+
+    private MetricsRegistry() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm.heap.usedMb", () -> memory.getHeapMemoryUsage().getUsed() >> 20);
+        gauge("jvm.threads.live", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        gauge("jvm.uptimeSeconds", () -> (System.currentTimeMillis() - startMillis) / 1000);
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Register (or replace) a gauge that is sampled whenever metrics are read.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Start timing a unit of work; closing the sample records its duration in the named histogram.
+     */
+    public Sample time(String name) {
+        return new Sample(histogram(name));
+    }
+
+    /**
+     * Run a unit of work and record its duration in the named histogram, also when it throws.
+     *
+     * @return whatever the work returned
+     */
+    public <T, E extends Exception> T time(String name, TimedCall<T, E> work) throws E {
+        LatencyHistogram histogram = histogram(name);
+        long startNanos = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Run a unit of work that returns nothing and record its duration in the named histogram.
+     */
+    public void time(String name, Runnable work) {
+        LatencyHistogram histogram = histogram(name);
+        long startNanos = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * @return current counter values, sorted by name
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    /**
+     * @return current gauge readings, sorted by name; gauges that fail to read are skipped
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            try {
+                values.put(name, gauge.getAsLong());
+            } catch (RuntimeException e) {
+                // a gauge over a closed resource; leave it out of this reading
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @return histogram snapshots, sorted by name
+     */
+    public Map<String, LatencyHistogram.Snapshot> getHistograms() {
+        Map<String, LatencyHistogram.Snapshot> values = new TreeMap<>();
+        histograms.forEach((name, histogram) -> values.put(name, histogram.snapshot()));
+        return values;
+    }
+
+    /**
+     * Write all metrics as aligned plain text.
+     */
+    public void writeText(Writer out) throws IOException {
+        out.write(String.format(Locale.ROOT, "%-50s %10s %10s %10s %10s %10s%n",
+                "timer", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : getHistograms().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            out.write(String.format(Locale.ROOT, "%-50s %10d %10.2f %10.2f %10.2f %10.2f%n", e.getKey(), s.getCount(),
+                    s.getPercentileMillis(0.50), s.getPercentileMillis(0.95), s.getPercentileMillis(0.99),
+                    s.getMaxMillis()));
+        }
+        out.write(System.lineSeparator());
+        for (Map.Entry<String, Long> e : getCounters().entrySet()) {
+            out.write(String.format(Locale.ROOT, "%-50s %10d%n", e.getKey(), e.getValue()));
+        }
+        for (Map.Entry<String, Long> e : getGauges().entrySet()) {
+            out.write(String.format(Locale.ROOT, "%-50s %10d%n", e.getKey(), e.getValue()));
+        }
+    }
+
+    /**
+     * Write all metrics as one JSON object with "timers", "counters" and "gauges" sections.
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\"timestamp\":" + System.currentTimeMillis() + ",\"timers\":{");
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : getHistograms().entrySet()) {
+            LatencyHistogram.Snapshot s = e.getValue();
+            out.write((first ? "" : ",") + quote(e.getKey()) + String.format(Locale.ROOT,
+                    ":{\"count\":%d,\"meanMs\":%.3f,\"p50Ms\":%.3f,\"p95Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                    s.getCount(), s.getMeanMillis(), s.getPercentileMillis(0.50), s.getPercentileMillis(0.95),
+                    s.getPercentileMillis(0.99), s.getMaxMillis()));
+            first = false;
+        }
+        out.write("},\"counters\":");
+        writeJsonMap(out, getCounters());
+        out.write(",\"gauges\":");
+        writeJsonMap(out, getGauges());
+        out.write("}");
+    }
+
+    private static void writeJsonMap(Writer out, Map<String, Long> values) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<String, Long> e : values.entrySet()) {
+            out.write((first ? "" : ",") + quote(e.getKey()) + ":" + e.getValue());
+            first = false;
+        }
+        out.write('}');
+    }
+
+    private static String quote(String name) {
+        return "\"" + name.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Work timed by {@link #time(String, TimedCall)}; may throw a checked exception.
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * An in-flight timing; records into its histogram when closed.
+     */
+    public static final class Sample implements AutoCloseable {
+        private final LatencyHistogram histogram;
+        private final long startNanos;
+
+        private Sample(LatencyHistogram histogram) {
+            this.histogram = histogram;
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+}
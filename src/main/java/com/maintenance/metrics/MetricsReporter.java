@@ -0,0 +1,102 @@
+package com.maintenance.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically dumps the {@link MetricsRegistry} to {@code metrics.txt} and {@code metrics.json}.
+ *
+ * <p>Files go to {@code ./data/metrics} (override with {@code -Dmaintenance.metrics.dir}) every 60 seconds
+ * (override with {@code -Dmaintenance.metrics.dumpSeconds}; 0 disables dumping). Each file is written to
+ * a temporary name and moved into place, so readers never see a partial dump. Other components can add
+ * their own files to the dump with {@link #addReport(String, Report)}.
+ */
+public final class MetricsReporter {
+    private static MetricsReporter instance;
+    private static final Map<String, Report> REPORTS = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+
+    private MetricsReporter(Path directory, long intervalSeconds) {
+        this.directory = directory;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start the periodic dump unless disabled or already running.
+     */
+    public static synchronized void start() {
+        long interval = Long.getLong("maintenance.metrics.dumpSeconds", 60);
+        if (instance != null || interval <= 0) {
+            return;
+        }
+        Path directory = Path.of(System.getProperty("maintenance.metrics.dir", "./data/metrics"));
+        instance = new MetricsReporter(directory, interval);
+        System.out.println("✓ Metrics dump every " + interval + "s to " + directory);
+    }
+
+    /**
+     * Stop the schedule and write one final dump.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.scheduler.shutdownNow();
+            instance.dump();
+            instance = null;
+        }
+    }
+
+    /**
+     * Write an extra file alongside the metrics on every dump.
+     *
+     * @param fileName file name inside the metrics directory
+     * @param report   writes the file's content
+     */
+    public static void addReport(String fileName, Report report) {
+        REPORTS.put(fileName, report);
+    }
+
+    private void dump() {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        try {
+            Files.createDirectories(directory);
+            write(directory.resolve("metrics.txt"), registry::writeText);
+            write(directory.resolve("metrics.json"), registry::writeJson);
+            for (Map.Entry<String, Report> e : REPORTS.entrySet()) {
+                write(directory.resolve(e.getKey()), e.getValue());
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to write metrics dump: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Content of one dump file.
+     */
+    public interface Report {
+        void write(Writer out) throws IOException;
+    }
+
+    private static void write(Path target, Report body) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            body.write(out);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
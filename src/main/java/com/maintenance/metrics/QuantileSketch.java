@@ -0,0 +1,180 @@
+package com.maintenance.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch with relative-error guarantees (DDSketch-style).
+ *
+ * <p>Positive values are counted in logarithmic buckets of ratio {@code (1 + a) / (1 - a)}, so every
+ * quantile is reported within a relative error {@code a} (1% by default) of a value actually recorded.
+ * Values below 1 are counted together as zero. Memory depends only on the range of values, not how many
+ * were added: durations from one second to ten years need under a thousand buckets at 1%. If the bucket
+ * cap is ever reached, the lowest buckets are collapsed, which only loses accuracy at the fast end.
+ *
+ * <p>Two sketches with the same accuracy merge exactly by adding bucket counts, so per-category or
+ * per-staff sketches can be combined into any larger group. Not thread-safe; sketches are short-lived
+ * copies read from and written back to the database.
+ */
+public final class QuantileSketch {
+    public static final double DEFAULT_ACCURACY = 0.01;
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_BUCKETS = 2048;
+
+    private final double accuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public QuantileSketch() {
+        this(DEFAULT_ACCURACY);
+    }
+
+    /**
+     * @param accuracy relative accuracy between 0 and 1, e.g. 0.01 for 1%
+     */
+    public QuantileSketch(double accuracy) {
+        if (!(accuracy > 0 && accuracy < 1)) {
+            throw new IllegalArgumentException("Accuracy must be between 0 and 1: " + accuracy);
+        }
+        this.accuracy = accuracy;
+        this.gamma = (1 + accuracy) / (1 - accuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Add one value; negative values are treated as zero.
+     */
+    public void add(double value) {
+        double v = Math.max(value, 0);
+        if (v < 1) {
+            zeroCount++;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(v) / logGamma), 1L, Long::sum);
+            collapseIfNeeded();
+        }
+        count++;
+        min = Double.isNaN(min) ? v : Math.min(min, v);
+        max = Double.isNaN(max) ? v : Math.max(max, v);
+    }
+
+    /**
+     * Add every value counted in another sketch of the same accuracy.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.accuracy != accuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of accuracy " + accuracy
+                    + " and " + other.accuracy);
+        }
+        if (other.count == 0) {
+            return;
+        }
+        other.buckets.forEach((index, n) -> buckets.merge(index, n, Long::sum));
+        collapseIfNeeded();
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+    }
+
+    private void collapseIfNeeded() {
+        while (buckets.size() > MAX_BUCKETS) {
+            Map.Entry<Integer, Long> lowest = buckets.pollFirstEntry();
+            buckets.merge(buckets.firstKey(), lowest.getValue(), Long::sum);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.9
+     * @return the value at that quantile within the sketch's relative accuracy, or 0 if empty
+     */
+    public double getQuantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        if (rank <= zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen >= rank) {
+                // Value of least relative error for the bucket (gamma^(i-1), gamma^i]
+                double estimate = 2 * Math.pow(gamma, bucket.getKey()) / (1 + gamma);
+                return Math.max(min, Math.min(estimate, max));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Serialize for storage; read back with {@link #fromBytes(byte[])}.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + buckets.size() * 12);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeDouble(accuracy);
+            out.writeLong(count);
+            out.writeLong(zeroCount);
+            out.writeDouble(getMin());
+            out.writeDouble(getMax());
+            out.writeInt(buckets.size());
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+                out.writeInt(bucket.getKey());
+                out.writeLong(bucket.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static QuantileSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown sketch format " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readDouble());
+            sketch.count = in.readLong();
+            sketch.zeroCount = in.readLong();
+            double min = in.readDouble();
+            double max = in.readDouble();
+            if (sketch.count > 0) {
+                sketch.min = min;
+                sketch.max = max;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.buckets.put(in.readInt(), in.readLong());
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt sketch data", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.maintenance.metrics.jfr;
+
+import com.maintenance.metrics.MetricsRegistry;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One dashboard reload ({@code loadRequests}, {@code refreshStats}, ...). These run on the FX thread,
+ * so a long event here is a UI freeze; the database queries it issued are nested in the same thread.
+ */
+@Name("com.maintenance.DashboardLoad")
+@Label("Dashboard Load")
+@Category({"Maintenance", "UI"})
+@Description("Dashboard table or statistics reload")
+public final class DashboardLoadEvent extends jdk.jfr.Event {
+    @Label("Dashboard")
+    public String dashboard;
+
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Run a reload as one event, also recording it in the {@code ui.<dashboard>.<operation>} timer.
+     *
+     * @param dashboard e.g. {@code ManagerDashboard}
+     * @param operation e.g. {@code loadRequests}
+     */
+    public static void time(String dashboard, String operation, Runnable load) {
+        DashboardLoadEvent event = new DashboardLoadEvent();
+        event.dashboard = dashboard;
+        event.operation = operation;
+        event.begin();
+        try {
+            MetricsRegistry.getInstance().time("ui." + dashboard + "." + operation, load);
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.maintenance.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One SQL statement, from execute until its last row was fetched. Emitted by the JDBC proxy under
+ * every DAO, so the stack trace shows the calling DAO method and the thread shows whether it ran on
+ * the FX thread.
+ */
+@Name("com.maintenance.DbQuery")
+@Label("Database Query")
+@Category({"Maintenance", "Database"})
+@Description("SQL statement executed through DatabaseManager")
+public final class DbQueryEvent extends jdk.jfr.Event {
+    @Label("SQL Shape")
+    @Description("Statement with literals replaced by ?")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Rows fetched by a query, or rows affected by an update")
+    public long rows;
+
+    @Label("Batch Size")
+    public int batch;
+
+    @Label("Database Time")
+    @Description("Time spent in execute and next(), excluding the caller's work between rows")
+    @Timespan(Timespan.NANOSECONDS)
+    public long databaseTime;
+
+    @Label("Failed")
+    public boolean failed;
+}
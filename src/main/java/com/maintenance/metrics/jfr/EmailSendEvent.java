@@ -0,0 +1,39 @@
+package com.maintenance.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One SMTP send from {@code Email.send}, including session setup.
+ */
+@Name("com.maintenance.EmailSend")
+@Label("Email Send")
+@Category({"Maintenance", "Notification"})
+@Description("Notification email sent over SMTP")
+public final class EmailSendEvent extends jdk.jfr.Event implements AutoCloseable {
+    @Label("Subject")
+    public String subject;
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * Begin timing a send; close the event when the send finishes or fails.
+     */
+    public static EmailSendEvent start(String subject) {
+        EmailSendEvent event = new EmailSendEvent();
+        event.subject = subject;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void close() {
+        commit();
+    }
+}
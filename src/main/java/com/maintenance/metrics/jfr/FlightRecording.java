@@ -0,0 +1,104 @@
+package com.maintenance.metrics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Optional continuous Java Flight Recorder recording with a rolling buffer.
+ *
+ * <p>Enabled with {@code -Dmaintenance.jfr=true}. The recording keeps the last 30 minutes, capped at 250 MB
+ * (override with {@code -Dmaintenance.jfr.maxAgeMinutes} and {@code -Dmaintenance.jfr.maxSizeMb}), using
+ * the JDK's low-overhead "default" settings plus the app's {@link DbQueryEvent}, {@link EmailSendEvent}
+ * and {@link DashboardLoadEvent}. Queries faster than {@code -Dmaintenance.jfr.dbThresholdMillis}
+ * (default 1) are left out to keep the buffer long. The buffer is written to {@code ./data/jfr}
+ * ({@code -Dmaintenance.jfr.dir}) when the JVM exits, on {@link #dump()}, and on demand with
+ * {@code jcmd <pid> JFR.dump name=maintenance}.
+ */
+public final class FlightRecording {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+    private static Path directory;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start the recording if enabled and not already running.
+     */
+    public static synchronized void start() {
+        if (recording != null || !Boolean.getBoolean("maintenance.jfr")) {
+            return;
+        }
+        try {
+            directory = Path.of(System.getProperty("maintenance.jfr.dir", "./data/jfr"));
+            Files.createDirectories(directory);
+
+            Recording r = new Recording(Configuration.getConfiguration("default"));
+            r.setName("maintenance");
+            r.setToDisk(true);
+            r.setMaxAge(Duration.ofMinutes(Long.getLong("maintenance.jfr.maxAgeMinutes", 30)));
+            r.setMaxSize(Long.getLong("maintenance.jfr.maxSizeMb", 250) << 20);
+            // Written by JFR itself at exit; its own shutdown hook would reject a dump from ours
+            r.setDestination(directory.resolve("maintenance-" + LocalDateTime.now().format(STAMP) + ".jfr"));
+            r.setDumpOnExit(true);
+            r.enable(DbQueryEvent.class)
+                    .withThreshold(Duration.ofMillis(Long.getLong("maintenance.jfr.dbThresholdMillis", 1)))
+                    .withStackTrace();
+            r.enable(EmailSendEvent.class).withStackTrace();
+            r.enable(DashboardLoadEvent.class).withStackTrace();
+            r.start();
+            recording = r;
+            System.out.println("✓ Flight recording started (rolling, dumps to " + directory + ")");
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Unable to start flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return true while a recording is running
+     */
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Write the current rolling buffer to a timestamped file.
+     *
+     * @return the written file
+     * @throws IllegalStateException if no recording is running
+     */
+    public static synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        Path target = directory.resolve("maintenance-" + LocalDateTime.now().format(STAMP) + ".jfr");
+        recording.dump(target);
+        return target;
+    }
+
+    /**
+     * Stop recording, writing the buffer to the file chosen at start.
+     */
+    public static synchronized void shutdown() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            System.out.println("✓ Flight recording saved to " + recording.getDestination());
+        } catch (IllegalStateException e) {
+            System.err.println("Unable to save flight recording: " + e.getMessage());
+        }
+        recording.close();
+        recording = null;
+    }
+}
@@ -6,12 +6,19 @@ import com.maintenance.enums.RequestStatus;
 import com.maintenance.util.IDGenerator;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class MaintenanceRequest {
     private String requestId;
     private String tenantId;
     private String apartmentNumber;
+    // Resolved from apartmentNumber when the request is saved; null if no apartment matches
+    private String apartmentId;
+    private String buildingId;
     private String description;
     private String detailedDescription;
     private CategoryType category;
@@ -31,12 +38,61 @@ public class MaintenanceRequest {
     private WorkOrder workOrder;
     private boolean tenantArchived;
     private boolean staffArchived;
+    // Set when the row lives in archived_requests (moved by RequestArchiver); null for active rows
+    private LocalDateTime archivedAt;
+    // Last SLA escalation (see SlaMonitor); the SLA clock restarts from here
+    private LocalDateTime escalatedAt;
+    private int escalationCount;
+    // Row version this copy was loaded at; updateRequest refuses to save over a newer one
+    private long version;
+    // Fields changed since the copy was loaded or last saved; updateRequest writes only these
+    private final EnumSet<Field> dirty = EnumSet.noneOf(Field.class);
+
+    /**
+     * The fields of a saved request that can change after submission, tracked so an update writes only
+     * the columns that actually changed.
+     */
+    public enum Field {
+        DESCRIPTION,
+        CATEGORY,
+        PRIORITY,
+        STATUS,
+        LAST_UPDATED,
+        ASSIGNED_STAFF_ID,
+        COMPLETION_DATE,
+        ACTUAL_COST,
+        STAFF_UPDATE_NOTES,
+        RESOLUTION_NOTES,
+        TENANT_ARCHIVED,
+        STAFF_ARCHIVED
+    }
+
+    /**
+     * @return the tracked fields set to a different value since the last {@link #markClean()}
+     */
+    public Set<Field> getDirtyFields() {
+        return Collections.unmodifiableSet(dirty);
+    }
+
+    /**
+     * Forget pending changes, once this copy matches the stored request.
+     */
+    public void markClean() {
+        dirty.clear();
+    }
+
+    private void mark(Field field, Object from, Object to) {
+        if (!Objects.equals(from, to)) {
+            dirty.add(field);
+        }
+    }
 
     public boolean isTenantArchived() {
         return tenantArchived;
     }
 
     public void setTenantArchived(boolean tenantArchived) {
+        mark(Field.TENANT_ARCHIVED, this.tenantArchived, tenantArchived);
         this.tenantArchived = tenantArchived;
     }
 
@@ -45,9 +101,49 @@ public class MaintenanceRequest {
     }
 
     public void setStaffArchived(boolean staffArchived) {
+        mark(Field.STAFF_ARCHIVED, this.staffArchived, staffArchived);
         this.staffArchived = staffArchived;
     }
 
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public LocalDateTime getEscalatedAt() {
+        return escalatedAt;
+    }
+
+    public void setEscalatedAt(LocalDateTime escalatedAt) {
+        this.escalatedAt = escalatedAt;
+    }
+
+    public int getEscalationCount() {
+        return escalationCount;
+    }
+
+    public void setEscalationCount(int escalationCount) {
+        this.escalationCount = escalationCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * @return true if this request was moved to the archive store rather than just hidden by a flag
+     */
+    public boolean isInArchiveStore() {
+        return archivedAt != null;
+    }
+
     public MaintenanceRequest() {
         this.requestId = IDGenerator.generateRequestId();
         this.submissionDate = LocalDateTime.now();
@@ -66,14 +162,14 @@ public class MaintenanceRequest {
     }
 
     public void updateStatus(RequestStatus newStatus) {
-        this.status = newStatus;
-        this.lastUpdated = LocalDateTime.now();
+        setStatus(newStatus);
+        setLastUpdated(LocalDateTime.now());
     }
 
     public void assignToStaff(MaintenanceStaff staff) {
-        this.assignedStaffId = staff.getStaffId();
-        this.status = RequestStatus.ASSIGNED;
-        this.lastUpdated = LocalDateTime.now();
+        setAssignedStaffId(staff.getStaffId());
+        setStatus(RequestStatus.ASSIGNED);
+        setLastUpdated(LocalDateTime.now());
         staff.assignRequest(this);
     }
 
@@ -105,10 +201,10 @@ public class MaintenanceRequest {
     }
 
     public void close(String resolution) {
-        this.resolutionNotes = resolution;
-        this.status = RequestStatus.COMPLETED;
-        this.completionDate = LocalDateTime.now();
-        this.lastUpdated = LocalDateTime.now();
+        setResolutionNotes(resolution);
+        setStatus(RequestStatus.COMPLETED);
+        setCompletionDate(LocalDateTime.now());
+        setLastUpdated(LocalDateTime.now());
     }
 
     // Getters and Setters
@@ -121,50 +217,56 @@ public class MaintenanceRequest {
     public String getApartmentNumber() { return apartmentNumber; }
     public void setApartmentNumber(String apartmentNumber) { this.apartmentNumber = apartmentNumber; }
 
+    public String getApartmentId() { return apartmentId; }
+    public void setApartmentId(String apartmentId) { this.apartmentId = apartmentId; }
+
+    public String getBuildingId() { return buildingId; }
+    public void setBuildingId(String buildingId) { this.buildingId = buildingId; }
+
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) { mark(Field.DESCRIPTION, this.description, description); this.description = description; }
 
     public String getDetailedDescription() { return detailedDescription; }
     public void setDetailedDescription(String detailedDescription) { this.detailedDescription = detailedDescription; }
 
     public CategoryType getCategory() { return category; }
-    public void setCategory(CategoryType category) { this.category = category; }
+    public void setCategory(CategoryType category) { mark(Field.CATEGORY, this.category, category); this.category = category; }
 
     public PriorityLevel getPriority() { return priority; }
-    public void setPriority(PriorityLevel priority) { this.priority = priority; }
+    public void setPriority(PriorityLevel priority) { mark(Field.PRIORITY, this.priority, priority); this.priority = priority; }
 
     public RequestStatus getStatus() { return status; }
-    public void setStatus(RequestStatus status) { this.status = status; }
+    public void setStatus(RequestStatus status) { mark(Field.STATUS, this.status, status); this.status = status; }
 
     public LocalDateTime getSubmissionDate() { return submissionDate; }
     public void setSubmissionDate(LocalDateTime submissionDate) { this.submissionDate = submissionDate; }
 
     public LocalDateTime getLastUpdated() { return lastUpdated; }
-    public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+    public void setLastUpdated(LocalDateTime lastUpdated) { mark(Field.LAST_UPDATED, this.lastUpdated, lastUpdated); this.lastUpdated = lastUpdated; }
 
     public LocalDateTime getScheduledDate() { return scheduledDate; }
     public void setScheduledDate(LocalDateTime scheduledDate) { this.scheduledDate = scheduledDate; }
 
     public LocalDateTime getCompletionDate() { return completionDate; }
-    public void setCompletionDate(LocalDateTime completionDate) { this.completionDate = completionDate; }
+    public void setCompletionDate(LocalDateTime completionDate) { mark(Field.COMPLETION_DATE, this.completionDate, completionDate); this.completionDate = completionDate; }
 
     public double getEstimatedCost() { return estimatedCost; }
     public void setEstimatedCost(double estimatedCost) { this.estimatedCost = estimatedCost; }
 
     public double getActualCost() { return actualCost; }
-    public void setActualCost(double actualCost) { this.actualCost = actualCost; }
+    public void setActualCost(double actualCost) { mark(Field.ACTUAL_COST, this.actualCost, actualCost); this.actualCost = actualCost; }
 
     public String getAssignedStaffId() { return assignedStaffId; }
-    public void setAssignedStaffId(String assignedStaffId) { this.assignedStaffId = assignedStaffId; }
+    public void setAssignedStaffId(String assignedStaffId) { mark(Field.ASSIGNED_STAFF_ID, this.assignedStaffId, assignedStaffId); this.assignedStaffId = assignedStaffId; }
 
     public String getWorkOrderNumber() { return workOrderNumber; }
     public void setWorkOrderNumber(String workOrderNumber) { this.workOrderNumber = workOrderNumber; }
 
     public String getStaffUpdateNotes() { return staffUpdateNotes; }
-    public void setStaffUpdateNotes(String staffUpdateNotes) { this.staffUpdateNotes = staffUpdateNotes; }
+    public void setStaffUpdateNotes(String staffUpdateNotes) { mark(Field.STAFF_UPDATE_NOTES, this.staffUpdateNotes, staffUpdateNotes); this.staffUpdateNotes = staffUpdateNotes; }
 
     public String getResolutionNotes() { return resolutionNotes; }
-    public void setResolutionNotes(String resolutionNotes) { this.resolutionNotes = resolutionNotes; }
+    public void setResolutionNotes(String resolutionNotes) { mark(Field.RESOLUTION_NOTES, this.resolutionNotes, resolutionNotes); this.resolutionNotes = resolutionNotes; }
 
     public List<Photo> getPhotos() { return photos; }
     public void setPhotos(List<Photo> photos) { this.photos = photos; }
@@ -0,0 +1,52 @@
+package com.maintenance.models;
+
+import com.maintenance.util.IDGenerator;
+import java.math.BigDecimal;
+
+public class Part {
+    private String partId;
+    private String partName;
+    private BigDecimal unitCost;
+    private int reorderLevel;
+    private int onHand;
+    private int reserved;
+    private long version;
+
+    public Part() {
+        this.partId = IDGenerator.generatePartId();
+        this.unitCost = BigDecimal.ZERO;
+    }
+
+    /**
+     * Stock not yet reserved for a work order.
+     */
+    public int getAvailable() {
+        return onHand - reserved;
+    }
+
+    public boolean isLowStock() {
+        return getAvailable() <= reorderLevel;
+    }
+
+    // Getters and Setters
+    public String getPartId() { return partId; }
+    public void setPartId(String partId) { this.partId = partId; }
+
+    public String getPartName() { return partName; }
+    public void setPartName(String partName) { this.partName = partName; }
+
+    public BigDecimal getUnitCost() { return unitCost; }
+    public void setUnitCost(BigDecimal unitCost) { this.unitCost = unitCost; }
+
+    public int getReorderLevel() { return reorderLevel; }
+    public void setReorderLevel(int reorderLevel) { this.reorderLevel = reorderLevel; }
+
+    public int getOnHand() { return onHand; }
+    public void setOnHand(int onHand) { this.onHand = onHand; }
+
+    public int getReserved() { return reserved; }
+    public void setReserved(int reserved) { this.reserved = reserved; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,100 @@
+package com.maintenance.models;
+
+import com.maintenance.enums.CategoryType;
+import com.maintenance.enums.PriorityLevel;
+import com.maintenance.util.IDGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recurring preventive job, e.g. replacing HVAC filters every 3 months, for one apartment or for every
+ * apartment in a building. PreventiveMaintenanceScheduler turns each due date into requests.
+ */
+public class PreventiveSchedule {
+    private String scheduleId;
+    private String buildingId;
+    // Null when the job covers every apartment in the building
+    private String apartmentId;
+    private String description;
+    private CategoryType category;
+    private PriorityLevel priority;
+    private int intervalMonths;
+    private LocalDate firstDue;
+    // Last due date already turned into requests; null until the first run
+    private LocalDate generatedThrough;
+    private boolean active;
+
+    public PreventiveSchedule() {
+        this.scheduleId = IDGenerator.generateScheduleId();
+        this.category = CategoryType.GENERAL_MAINTENANCE;
+        this.priority = PriorityLevel.LOW;
+        this.intervalMonths = 12;
+        this.firstDue = LocalDate.now();
+        this.active = true;
+    }
+
+    /**
+     * @return the n-th due date (0 is the first); counted from the first due date so month ends do not drift
+     */
+    public LocalDate dueDate(int n) {
+        return firstDue.plusMonths((long) n * intervalMonths);
+    }
+
+    /**
+     * @return the earliest due date not yet turned into requests
+     */
+    public LocalDate getNextDue() {
+        return dueDate(firstPending());
+    }
+
+    /**
+     * @return due dates not yet turned into requests, up to and including {@code through}
+     */
+    public List<LocalDate> pendingDueDates(LocalDate through) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int n = firstPending(); !dueDate(n).isAfter(through); n++) {
+            dates.add(dueDate(n));
+        }
+        return dates;
+    }
+
+    private int firstPending() {
+        int n = 0;
+        while (generatedThrough != null && !dueDate(n).isAfter(generatedThrough)) {
+            n++;
+        }
+        return n;
+    }
+
+    // Getters and Setters
+    public String getScheduleId() { return scheduleId; }
+    public void setScheduleId(String scheduleId) { this.scheduleId = scheduleId; }
+
+    public String getBuildingId() { return buildingId; }
+    public void setBuildingId(String buildingId) { this.buildingId = buildingId; }
+
+    public String getApartmentId() { return apartmentId; }
+    public void setApartmentId(String apartmentId) { this.apartmentId = apartmentId; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public CategoryType getCategory() { return category; }
+    public void setCategory(CategoryType category) { this.category = category; }
+
+    public PriorityLevel getPriority() { return priority; }
+    public void setPriority(PriorityLevel priority) { this.priority = priority; }
+
+    public int getIntervalMonths() { return intervalMonths; }
+    public void setIntervalMonths(int intervalMonths) { this.intervalMonths = intervalMonths; }
+
+    public LocalDate getFirstDue() { return firstDue; }
+    public void setFirstDue(LocalDate firstDue) { this.firstDue = firstDue; }
+
+    public LocalDate getGeneratedThrough() { return generatedThrough; }
+    public void setGeneratedThrough(LocalDate generatedThrough) { this.generatedThrough = generatedThrough; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+}
@@ -1,5 +1,7 @@
 package com.maintenance.models;
 
+import com.maintenance.util.PasswordHasher;
+
 import java.time.LocalDateTime;
 
 public abstract class User {
@@ -49,8 +51,8 @@ public abstract class User {
     }
 
     public boolean changePassword(String oldPassword, String newPassword) {
-        if (this.password.equals(oldPassword)) {
-            this.password = newPassword;
+        if (PasswordHasher.verify(oldPassword, this.password)) {
+            this.password = PasswordHasher.hash(newPassword);
             return true;
         }
         return false;
@@ -61,7 +63,7 @@ public abstract class User {
     }
 
     public boolean validateCredentials(String username, String password) {
-        return this.username.equals(username) && this.password.equals(password);
+        return this.username.equals(username) && PasswordHasher.verify(password, this.password);
     }
 
     // PUBLIC Getters and Setters
@@ -1,5 +1,7 @@
 package com.maintenance.notification;
 
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.jfr.EmailSendEvent;
 import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
@@ -32,10 +34,15 @@ public final class Email {
     }
 
     public static void send(String to, String subject, String textBody) {
-        try {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        MetricsRegistry.Sample timer = metrics.time("email.send");
+        try (timer;
+             EmailSendEvent event = EmailSendEvent.start(subject)) {
             Message msg = new MimeMessage(session());
             msg.setFrom(new InternetAddress(must("SMTP_FROM"))); // e.g. "RMMS Notifications <rmms.noreply@gmail.com>"
-            msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to, false));
+            InternetAddress[] recipients = InternetAddress.parse(to, false);
+            msg.setRecipients(Message.RecipientType.TO, recipients);
+            event.recipients = recipients.length;
 
             String replyTo = System.getenv("SMTP_REPLY_TO");
             if (replyTo != null && !replyTo.isBlank()) {
@@ -45,8 +52,14 @@ public final class Email {
             msg.setSubject(subject);
             msg.setText(textBody == null ? "" : textBody);
             Transport.send(msg);
+            event.succeeded = true;
         } catch (MessagingException e) {
+            metrics.counter("email.failures").increment();
             throw new RuntimeException("Email send failed", e);
+        } catch (RuntimeException e) {
+            // missing SMTP settings, bad address
+            metrics.counter("email.failures").increment();
+            throw e;
         }
     }
 
@@ -0,0 +1,185 @@
+package com.maintenance.server;
+
+import com.maintenance.database.DatabaseInitializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for {@link ApiServer}.
+ *
+ * <p>Usage: {@code ApiLoadTest [baseUrl|-] [username] [password] [concurrency] [seconds]}.
+ * With {@code -} (the default) an in-process server is started on a free port against the local database.
+ * Each virtual-thread client fetches random requests by id, with one list call in twenty,
+ * and the run reports throughput and latency percentiles.
+ */
+public final class ApiLoadTest {
+    private static final int LIST_EVERY = 20;
+
+    private ApiLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "-";
+        String username = args.length > 1 ? args[1] : "admin1";
+        String password = args.length > 2 ? args[2] : "pass123";
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 15;
+
+        ApiServer embedded = null;
+        if ("-".equals(baseUrl)) {
+            DatabaseInitializer.initialize();
+            embedded = new ApiServer(0, Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+            embedded.start();
+            baseUrl = "http://localhost:" + embedded.getPort();
+        }
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            String token = login(http, baseUrl, username, password);
+            List<String> ids = fetchRequestIds(http, baseUrl, token);
+            if (ids.isEmpty()) {
+                System.err.println("No requests visible to " + username + "; nothing to load test");
+                return;
+            }
+            System.out.printf("Load testing %s with %d clients for %ds over %d requests%n",
+                    baseUrl, concurrency, seconds, ids.size());
+
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            LongAdder errors = new LongAdder();
+            List<long[]> perClient = new ArrayList<>();
+            List<Future<?>> futures = new ArrayList<>();
+            String url = baseUrl;
+
+            for (int c = 0; c < concurrency; c++) {
+                perClient.add(null);
+                int slot = c;
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String path = rnd.nextInt(LIST_EVERY) == 0
+                                ? "/api/requests"
+                                : "/api/requests/" + ids.get(rnd.nextInt(ids.size()));
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> resp = http.send(get(url + path, token),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (resp.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (n == samples.length) {
+                            samples = Arrays.copyOf(samples, n * 2);
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    }
+                    long[] done = Arrays.copyOf(samples, n);
+                    synchronized (perClient) {
+                        perClient.set(slot, done);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+
+            report(perClient, errors.sum(), seconds);
+        } finally {
+            if (embedded != null) {
+                embedded.stop();
+            }
+        }
+    }
+
+    private static String login(HttpClient http, String baseUrl, String username, String password) throws Exception {
+        StringBuilder body = new StringBuilder("{\"username\":");
+        appendString(body, username);
+        body.append(",\"password\":");
+        appendString(body, password);
+        body.append('}');
+
+        HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != 200) {
+            throw new IllegalStateException("Login failed (" + resp.statusCode() + "): " + resp.body());
+        }
+        return (String) Json.parseObject(resp.body()).get("token");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> fetchRequestIds(HttpClient http, String baseUrl, String token) throws Exception {
+        HttpResponse<String> resp = http.send(get(baseUrl + "/api/requests", token),
+                HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != 200) {
+            throw new IllegalStateException("Listing requests failed (" + resp.statusCode() + "): " + resp.body());
+        }
+        List<String> ids = new ArrayList<>();
+        for (Object item : (List<Object>) Json.parse(resp.body())) {
+            ids.add((String) ((Map<String, Object>) item).get("requestId"));
+        }
+        return ids;
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        StringWriter writer = new StringWriter();
+        try {
+            Json.writeString(writer, value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        sb.append(writer);
+    }
+
+    private static void report(List<long[]> perClient, long errors, int seconds) {
+        long[] all = perClient.stream().filter(Objects::nonNull).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        if (all.length == 0) {
+            System.out.println("No requests completed");
+            return;
+        }
+        System.out.println("========================================");
+        System.out.printf("Requests:   %d (%d errors)%n", all.length, errors);
+        System.out.printf("Throughput: %.0f req/s%n", all.length / (double) seconds);
+        System.out.printf("Latency:    p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        System.out.println("========================================");
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,880 @@
+package com.maintenance.server;
+
+import com.maintenance.dao.InventoryDAO;
+import com.maintenance.dao.MaintenanceRequestDAO;
+import com.maintenance.dao.PhotoDAO;
+import com.maintenance.dao.PreventiveMaintenanceScheduler;
+import com.maintenance.dao.RequestArchiver;
+import com.maintenance.dao.RequestLocationBackfill;
+import com.maintenance.dao.RequestRollups;
+import com.maintenance.dao.SlaMonitor;
+import com.maintenance.dao.UserDAO;
+import com.maintenance.dao.WorkOrderScheduler;
+import com.maintenance.database.BackupService;
+import com.maintenance.database.DatabaseInitializer;
+import com.maintenance.database.DatabaseManager;
+import com.maintenance.enums.CategoryType;
+import com.maintenance.enums.PriorityLevel;
+import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.MetricsReporter;
+import com.maintenance.metrics.jfr.FlightRecording;
+import com.maintenance.models.*;
+import com.maintenance.service.AuthenticationService;
+import com.maintenance.service.NotificationService;
+import com.maintenance.service.RoutePlanner;
+import com.maintenance.service.SessionRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP/JSON API over the existing DAOs, for running the backend without JavaFX.
+ *
+ * <p>Start with {@code java -cp <jar> com.maintenance.server.ApiServer [port]}. Every exchange runs
+ * on its own virtual thread, leases a pooled JDBC connection for its duration, and binds the caller's
+ * session (from {@code Authorization: Bearer <token>}) so DAO and service code is unchanged.
+ *
+ * <p>Endpoints (JSON bodies and responses):
+ * <pre>
+ *   GET  /api/health
+ *   POST /api/login                      {username, password} -> {token, role, userId}
+ *   POST /api/logout
+ *   GET  /api/me
+ *   GET  /api/requests                   tenants: own, staff: assigned, managers/admins: all (streamed)
+ *   POST /api/requests                   tenants: {description, category}
+ *   GET  /api/requests/{id}              request with photo metadata
+ *   POST /api/requests/{id}/status       {status, notes?, version?}; 409 if changed since version, or by a concurrent update
+ *   POST /api/requests/{id}/assign       managers/admins: {staffId, version?}; 409 as for status
+ *   POST /api/requests/{id}/schedule     managers/admins: {start} moves its work order; 409 on a conflict
+ *   POST /api/requests/{id}/parts        staff/managers/admins: {parts: ["2 x Part name", ...]} reserves them
+ *   GET  /api/requests/{id}/photos
+ *   GET  /api/photos/{id}/content        raw image bytes
+ *   GET  /api/staff                      managers/admins
+ *   GET  /api/parts                      staff/managers/admins: stock per part; ?low=true for the low-stock report
+ *   GET  /api/plan                       staff: today's route through their open requests; managers/admins: ?staff=<staffId>
+ *   GET  /api/users                      admins
+ * </pre>
+ */
+public final class ApiServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final long POOL_ACQUIRE_TIMEOUT_MILLIS = 5000;
+    private static final int RESPONSE_BUFFER_CHARS = 16 * 1024;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+
+    private final int port;
+    private final int poolSize;
+    private final DatabaseManager dbManager;
+    private final AuthenticationService authService;
+    private final MaintenanceRequestDAO requestDAO;
+    private final UserDAO userDAO;
+    private final PhotoDAO photoDAO;
+    private final InventoryDAO inventoryDAO;
+    private final NotificationService notificationService;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(int port, int poolSize) {
+        this.port = port;
+        this.poolSize = poolSize;
+        this.dbManager = DatabaseManager.getInstance();
+        this.authService = AuthenticationService.getInstance();
+        this.requestDAO = new MaintenanceRequestDAO();
+        this.userDAO = new UserDAO();
+        this.photoDAO = new PhotoDAO();
+        this.inventoryDAO = new InventoryDAO();
+        this.notificationService = new NotificationService();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int poolSize = Integer.getInteger("maintenance.api.poolSize",
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+        FlightRecording.start();
+        DatabaseInitializer.initialize();
+        MetricsReporter.start();
+        RequestLocationBackfill.start();
+        RequestArchiver.start();
+        RequestRollups.start();
+        SlaMonitor.start();
+        WorkOrderScheduler.start();
+        PreventiveMaintenanceScheduler.start();
+        BackupService.start();
+        ApiServer apiServer = new ApiServer(port, poolSize);
+        apiServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop();
+            BackupService.shutdown();
+            PreventiveMaintenanceScheduler.shutdown();
+            WorkOrderScheduler.shutdown();
+            SlaMonitor.shutdown();
+            RequestRollups.shutdown();
+            RequestArchiver.shutdown();
+            MetricsReporter.shutdown();
+        }, "api-shutdown"));
+    }
+
+    /**
+     * Open the connection pool and start listening.
+     */
+    public void start() throws IOException, SQLException {
+        dbManager.enablePool(poolSize, POOL_ACQUIRE_TIMEOUT_MILLIS);
+
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+        System.out.println("✓ API server listening on port " + getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    /**
+     * @return the bound port (useful when started on port 0)
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    private void handle(HttpExchange exchange) {
+        // The exchange is closed last so error responses can still be written
+        MetricsRegistry.Sample timer = METRICS.time("api.request");
+        try (exchange; timer) {
+            try (DatabaseManager.ConnectionLease lease = dbManager.leaseConnection();
+                 AuthenticationService.SessionScope scope = authService.bind(bearerToken(exchange))) {
+                route(exchange, scope.getSession());
+            } catch (ApiException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (Exception e) {
+                System.err.println("API error on " + exchange.getRequestURI() + ": " + e.getMessage());
+                sendError(exchange, 500, "Internal server error");
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, SessionRegistry.Session session) throws Exception {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts[0] is "" and parts[1] is "api"
+        String resource = parts.length > 2 ? parts[2] : "";
+        String id = parts.length > 3 ? parts[3] : null;
+        String action = parts.length > 4 ? parts[4] : null;
+
+        switch (resource) {
+            case "health" -> sendJson(exchange, 200, Map.of("status", "ok"));
+            case "login" -> {
+                requireMethod(method, "POST");
+                login(exchange);
+            }
+            case "logout" -> {
+                requireMethod(method, "POST");
+                requireSession(session);
+                authService.logout();
+                exchange.sendResponseHeaders(204, -1);
+            }
+            case "me" -> {
+                requireMethod(method, "GET");
+                User user = requireSession(session).getUser();
+                sendJson(exchange, 200, out -> writeUser(out, user));
+            }
+            case "requests" -> routeRequests(exchange, requireSession(session), method, id, action);
+            case "photos" -> {
+                requireMethod(method, "GET");
+                if (id == null || !"content".equals(action)) {
+                    throw new ApiException(404, "Not found");
+                }
+                sendPhotoContent(exchange, requireSession(session), id);
+            }
+            case "staff" -> {
+                requireMethod(method, "GET");
+                requireRole(requireSession(session), "MANAGER", "ADMIN");
+                List<MaintenanceStaff> staff = userDAO.getAllActiveStaff();
+                sendJson(exchange, 200, out -> {
+                    out.beginArray();
+                    for (MaintenanceStaff s : staff) {
+                        writeUser(out, s);
+                    }
+                    out.endArray();
+                });
+            }
+            case "parts" -> {
+                requireMethod(method, "GET");
+                requireRole(requireSession(session), "STAFF", "MANAGER", "ADMIN");
+                String query = exchange.getRequestURI().getQuery();
+                List<Part> stock = query != null && List.of(query.split("&")).contains("low=true")
+                        ? inventoryDAO.getLowStockParts()
+                        : inventoryDAO.getAllParts();
+                sendJson(exchange, 200, out -> {
+                    out.beginArray();
+                    for (Part p : stock) {
+                        writePart(out, p);
+                    }
+                    out.endArray();
+                });
+            }
+            case "plan" -> {
+                requireMethod(method, "GET");
+                sendPlan(exchange, requireSession(session));
+            }
+            case "users" -> {
+                requireMethod(method, "GET");
+                requireRole(requireSession(session), "ADMIN");
+                List<User> users = userDAO.getAllUsers();
+                sendJson(exchange, 200, out -> {
+                    out.beginArray();
+                    for (User u : users) {
+                        writeUser(out, u);
+                    }
+                    out.endArray();
+                });
+            }
+            default -> throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void routeRequests(HttpExchange exchange, SessionRegistry.Session session,
+                               String method, String id, String action) throws Exception {
+        if (id == null) {
+            if ("GET".equals(method)) {
+                listRequests(exchange, session);
+            } else if ("POST".equals(method)) {
+                createRequest(exchange, session);
+            } else {
+                throw new ApiException(405, "Method not allowed");
+            }
+            return;
+        }
+
+        MaintenanceRequest request = requestDAO.getRequestById(id)
+                .orElseThrow(() -> new ApiException(404, "Request not found"));
+        requireAccess(session, request);
+
+        if (action == null) {
+            requireMethod(method, "GET");
+            List<Photo> photos = photoDAO.getPhotosForRequest(id);
+            sendJson(exchange, 200, out -> writeRequest(out, request, photos));
+            return;
+        }
+
+        switch (action) {
+            case "status" -> {
+                requireMethod(method, "POST");
+                updateStatus(exchange, session, request);
+            }
+            case "assign" -> {
+                requireMethod(method, "POST");
+                requireRole(session, "MANAGER", "ADMIN");
+                assign(exchange, request);
+            }
+            case "schedule" -> {
+                requireMethod(method, "POST");
+                requireRole(session, "MANAGER", "ADMIN");
+                schedule(exchange, request);
+            }
+            case "parts" -> {
+                requireMethod(method, "POST");
+                requireRole(session, "STAFF", "MANAGER", "ADMIN");
+                addParts(exchange, request);
+            }
+            case "photos" -> {
+                requireMethod(method, "GET");
+                List<Photo> photos = photoDAO.getPhotosForRequest(id);
+                sendJson(exchange, 200, out -> {
+                    out.beginArray();
+                    for (Photo p : photos) {
+                        writePhoto(out, p);
+                    }
+                    out.endArray();
+                });
+            }
+            default -> throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String username = requireString(body, "username");
+        String password = requireString(body, "password");
+        String source = exchange.getRemoteAddress().getAddress().getHostAddress();
+
+        AuthenticationService.SessionLogin login = authService.openSession(username, password, source);
+        switch (login.getStatus()) {
+            case SUCCESS -> {
+                SessionRegistry.Session session = login.getSession();
+                sendJson(exchange, 200, Map.of(
+                        "token", session.getToken(),
+                        "role", session.getRole(),
+                        "userId", session.getUser().getUserId()));
+            }
+            case THROTTLED -> throw new ApiException(429, "Too many login attempts");
+            case INACTIVE -> throw new ApiException(403, "Account is inactive");
+            default -> throw new ApiException(401, "Invalid username or password");
+        }
+    }
+
+    /**
+     * The staff member's open requests in route order. Staff see their own plan; managers and admins
+     * name the staff member with {@code ?staff=<staffId>}.
+     */
+    private void sendPlan(HttpExchange exchange, SessionRegistry.Session session) throws IOException {
+        requireRole(session, "STAFF", "MANAGER", "ADMIN");
+        String staffId;
+        if (session.hasRole("STAFF")) {
+            staffId = ((MaintenanceStaff) session.getUser()).getStaffId();
+        } else {
+            String query = exchange.getRequestURI().getQuery();
+            staffId = query == null ? null : List.of(query.split("&")).stream()
+                    .filter(p -> p.startsWith("staff="))
+                    .map(p -> URLDecoder.decode(p.substring("staff=".length()), StandardCharsets.UTF_8))
+                    .findFirst()
+                    .orElse(null);
+            if (staffId == null || staffId.isBlank()) {
+                throw new ApiException(400, "Missing staff");
+            }
+        }
+
+        List<RoutePlanner.Stop> stops = RoutePlanner.getInstance().planFor(staffId);
+        sendJson(exchange, 200, out -> {
+            out.beginArray();
+            for (RoutePlanner.Stop stop : stops) {
+                out.beginObject()
+                        .field("sequence", stop.getSequence())
+                        .field("window", stop.getWindow())
+                        .field("building", stop.getBuildingName())
+                        .field("floor", stop.getFloor())
+                        .name("request");
+                writeRequest(out, stop.getRequest(), null);
+                out.endObject();
+            }
+            out.endArray();
+        });
+    }
+
+    /**
+     * Tenants and staff get their own (small) lists; managers and admins get every request,
+     * streamed from a cursor with chunked transfer so the response is never held in memory.
+     * With {@code ?archived=true} the same lists come from the archive store instead, and managers and
+     * admins can narrow either list to one building with {@code ?building=<buildingId>}.
+     */
+    private void listRequests(HttpExchange exchange, SessionRegistry.Session session) throws Exception {
+        User user = session.getUser();
+        String query = exchange.getRequestURI().getQuery();
+        List<String> params = query != null ? List.of(query.split("&")) : List.of();
+        boolean archived = params.contains("archived=true");
+        String buildingId = params.stream()
+                .filter(p -> p.startsWith("building="))
+                .map(p -> URLDecoder.decode(p.substring("building=".length()), StandardCharsets.UTF_8))
+                .findFirst()
+                .orElse(null);
+        if (archived || buildingId != null || session.hasRole("TENANT") || session.hasRole("STAFF")) {
+            List<MaintenanceRequest> requests;
+            if (session.hasRole("TENANT")) {
+                requests = archived
+                        ? requestDAO.getArchivedRequestsByTenant(user.getUserId())
+                        : requestDAO.getRequestsByTenant(user.getUserId());
+            } else if (session.hasRole("STAFF")) {
+                String staffId = ((MaintenanceStaff) user).getStaffId();
+                requests = archived
+                        ? requestDAO.getArchivedRequestsByStaff(staffId)
+                        : requestDAO.getRequestsByStaff(staffId);
+            } else if (buildingId != null) {
+                requests = archived
+                        ? requestDAO.getArchivedRequestsByBuilding(buildingId)
+                        : requestDAO.getRequestsByBuilding(buildingId);
+            } else {
+                requests = requestDAO.getArchivedRequests();
+            }
+            sendJson(exchange, 200, out -> {
+                out.beginArray();
+                for (MaintenanceRequest r : requests) {
+                    writeRequest(out, r, null);
+                }
+                out.endArray();
+            });
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = responseWriter(exchange)) {
+            Json.Emitter out = new Json.Emitter(writer);
+            out.beginArray();
+            try {
+                requestDAO.forEachRequest(r -> {
+                    try {
+                        writeRequest(out, r, null);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.endArray();
+        }
+    }
+
+    private void createRequest(HttpExchange exchange, SessionRegistry.Session session) throws IOException {
+        requireRole(session, "TENANT");
+        Map<String, Object> body = readBody(exchange);
+        String description = requireString(body, "description").trim();
+        CategoryType category = parseEnum(CategoryType.class, requireString(body, "category"));
+        Tenant tenant = (Tenant) session.getUser();
+
+        // Same fields the tenant dashboard sets on submit
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTenantId(tenant.getUserId());
+        request.setApartmentNumber(tenant.getApartmentNumber());
+        request.setCategory(category);
+        request.setDescription(description);
+        request.setPriority(body.containsKey("priority")
+                ? parseEnum(PriorityLevel.class, requireString(body, "priority"))
+                : request.calculatePriority());
+        request.setSubmissionDate(LocalDateTime.now());
+        request.setStatus(RequestStatus.SUBMITTED);
+
+        if (!requestDAO.saveRequest(request)) {
+            throw new ApiException(500, "Unable to save request");
+        }
+        sendJson(exchange, 201, out -> writeRequest(out, request, List.of()));
+    }
+
+    /**
+     * Tenants may cancel or reopen their own requests; staff update requests assigned to them;
+     * managers and admins may set any status.
+     */
+    private void updateStatus(HttpExchange exchange, SessionRegistry.Session session,
+                              MaintenanceRequest request) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        RequestStatus status = parseEnum(RequestStatus.class, requireString(body, "status"));
+        if (session.hasRole("TENANT") && status != RequestStatus.CANCELLED && status != RequestStatus.REOPENED) {
+            throw new ApiException(403, "Tenants may only cancel or reopen requests");
+        }
+
+        Object notes = body.get("notes");
+        Long expectedVersion = optionalVersion(body);
+        boolean completing = status == RequestStatus.COMPLETED && request.getStatus() != RequestStatus.COMPLETED;
+        String assignee = request.getAssignedStaffId();
+        MaintenanceRequest saved = requireUpdated(requestDAO.updateRequest(request.getRequestId(), r -> {
+            // Re-checked on each attempt, since a retry starts from someone else's save
+            if ((expectedVersion != null && r.getVersion() != expectedVersion)
+                    || (completing && r.getStatus() == RequestStatus.COMPLETED)
+                    || (session.hasRole("STAFF") && !assignee.equals(r.getAssignedStaffId()))) {
+                return false;
+            }
+            r.setStatus(status);
+            r.setLastUpdated(LocalDateTime.now());
+            if (status == RequestStatus.COMPLETED) {
+                r.setCompletionDate(LocalDateTime.now());
+                if (notes != null) r.setResolutionNotes(notes.toString());
+            } else if (notes != null && session.hasRole("STAFF")) {
+                r.setStaffUpdateNotes(notes.toString());
+                r.setTenantArchived(false);
+            }
+            return true;
+        }), "Unable to update request");
+
+        // Notify the tenant like the dashboards do; failures are logged by the mail layer
+        requestDAO.findTenantEmailByRequestId(saved.getRequestId()).ifPresent(to ->
+                notificationService.statusEmailAsync(to, saved.getRequestId(), status.getDisplayName()));
+
+        sendJson(exchange, 200, out -> writeRequest(out, saved, null));
+    }
+
+    /**
+     * Assign to a staff member, applying the same capacity rule as the manager dashboard.
+     */
+    private void assign(HttpExchange exchange, MaintenanceRequest request) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String staffId = requireString(body, "staffId");
+        MaintenanceStaff staff = userDAO.getStaffByStaffId(staffId);
+        if (staff == null || !staff.isActive()) {
+            throw new ApiException(404, "Staff member not found");
+        }
+
+        long activeWorkload = requestDAO.getRequestsByStaff(staffId).stream()
+                .filter(r -> r.getStatus() != RequestStatus.COMPLETED && r.getStatus() != RequestStatus.CANCELLED)
+                .count();
+        if (activeWorkload >= staff.getMaxCapacity()) {
+            throw new ApiException(409, "Staff member is at full capacity");
+        }
+
+        Long expectedVersion = optionalVersion(body);
+        RequestStatus seenStatus = request.getStatus();
+        String seenAssignee = request.getAssignedStaffId();
+        MaintenanceRequest saved = requireUpdated(requestDAO.updateRequest(request.getRequestId(), r -> {
+            // Another assignment or status change since the request was read wins
+            if ((expectedVersion != null && r.getVersion() != expectedVersion) || r.getStatus() != seenStatus
+                    || !Objects.equals(r.getAssignedStaffId(), seenAssignee)) {
+                return false;
+            }
+            r.setAssignedStaffId(staffId);
+            r.setStatus(RequestStatus.ASSIGNED);
+            r.setLastUpdated(LocalDateTime.now());
+            return true;
+        }), "Unable to assign request");
+        sendJson(exchange, 200, out -> writeRequest(out, saved, null));
+    }
+
+    /**
+     * Move the request's work order to {@code start} (ISO local date-time), refusing with 409 if the
+     * assigned staff member already has work then.
+     */
+    private void schedule(HttpExchange exchange, MaintenanceRequest request) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        LocalDateTime start;
+        try {
+            start = LocalDateTime.parse(requireString(body, "start"));
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Invalid start: expected yyyy-MM-ddTHH:mm");
+        }
+        WorkOrderScheduler scheduler = WorkOrderScheduler.getInstance();
+        if (scheduler == null) {
+            throw new ApiException(503, "Scheduling is not running");
+        }
+        if (request.getAssignedStaffId() == null || request.getStatus() == RequestStatus.COMPLETED
+                || request.getStatus() == RequestStatus.CANCELLED) {
+            throw new ApiException(409, "Only open, assigned requests can be scheduled");
+        }
+
+        List<String> conflicts;
+        try {
+            conflicts = scheduler.reschedule(request, start);
+        } catch (IllegalStateException e) {
+            throw new ApiException(500, e.getMessage());
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ApiException(409, "Conflicts with work orders " + String.join(", ", conflicts));
+        }
+        sendJson(exchange, 200, out -> writeRequest(out, request, null));
+    }
+
+    /**
+     * Add parts to the request's work order, reserving them from stock; 409 lists any unknown or short parts.
+     */
+    private void addParts(HttpExchange exchange, MaintenanceRequest request) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        if (!(body.get("parts") instanceof List<?> list) || list.isEmpty()) {
+            throw new ApiException(400, "Missing field: parts");
+        }
+        List<String> parts = new ArrayList<>();
+        for (Object item : list) {
+            parts.add(String.valueOf(item));
+        }
+        WorkOrderScheduler scheduler = WorkOrderScheduler.getInstance();
+        if (scheduler == null) {
+            throw new ApiException(503, "Scheduling is not running");
+        }
+
+        List<String> problems;
+        try {
+            problems = scheduler.addParts(request, parts);
+        } catch (IllegalStateException e) {
+            throw new ApiException(409, e.getMessage());
+        }
+        if (!problems.isEmpty()) {
+            throw new ApiException(409, String.join("; ", problems));
+        }
+        sendJson(exchange, 200, out -> writeRequest(out, request, null));
+    }
+
+    private void sendPhotoContent(HttpExchange exchange, SessionRegistry.Session session, String photoId)
+            throws IOException {
+        Photo photo = photoDAO.getPhotoById(photoId);
+        if (photo == null) {
+            throw new ApiException(404, "Photo not found");
+        }
+        MaintenanceRequest request = requestDAO.getRequestById(photo.getRequestId())
+                .orElseThrow(() -> new ApiException(404, "Photo not found"));
+        requireAccess(session, request);
+
+        Path file = toPath(photo.getFilePath());
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new ApiException(404, "Photo file is missing");
+        }
+
+        String contentType = Files.probeContentType(file);
+        exchange.getResponseHeaders().set("Content-Type", contentType != null ? contentType : "application/octet-stream");
+        exchange.sendResponseHeaders(200, Files.size(file));
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(file, out);
+        }
+    }
+
+    /**
+     * Photo paths are stored either as file: URIs (newer rows) or plain filesystem paths.
+     */
+    private static Path toPath(String stored) {
+        if (stored == null || stored.isBlank()) {
+            return null;
+        }
+        try {
+            return stored.startsWith("file:") ? Path.of(URI.create(stored)) : Path.of(stored);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void requireAccess(SessionRegistry.Session session, MaintenanceRequest request) {
+        User user = session.getUser();
+        if (session.hasRole("TENANT") && !user.getUserId().equals(request.getTenantId())) {
+            throw new ApiException(404, "Request not found");
+        }
+        if (session.hasRole("STAFF")
+                && !((MaintenanceStaff) user).getStaffId().equals(request.getAssignedStaffId())) {
+            throw new ApiException(404, "Request not found");
+        }
+    }
+
+    private static SessionRegistry.Session requireSession(SessionRegistry.Session session) {
+        if (session == null) {
+            throw new ApiException(401, "Missing or expired session");
+        }
+        return session;
+    }
+
+    private static void requireRole(SessionRegistry.Session session, String... roles) {
+        for (String role : roles) {
+            if (session.hasRole(role)) {
+                return;
+            }
+        }
+        throw new ApiException(403, "Not permitted for role " + session.getRole());
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!expected.equals(actual)) {
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (value == null || value.toString().isBlank()) {
+            throw new ApiException(400, "Missing field: " + field);
+        }
+        return value.toString();
+    }
+
+    /**
+     * The optional "version" a client read the request at; when given, the update applies only to that version.
+     */
+    private static Long optionalVersion(Map<String, Object> body) {
+        Object value = body.get("version");
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof Double number) || number != Math.rint(number)) {
+            throw new ApiException(400, "Invalid version: " + value);
+        }
+        return number.longValue();
+    }
+
+    /**
+     * @return the saved request; 409 if someone else changed it first or it no longer allows the change
+     */
+    private static MaintenanceRequest requireUpdated(MaintenanceRequestDAO.UpdateResult result, String failure) {
+        return switch (result.getStatus()) {
+            case UPDATED -> result.getRequest();
+            case CONFLICT -> throw new ApiException(409, "Request was changed by someone else; it is now "
+                    + result.getRequest().getStatus().getDisplayName() + " at version " + result.getRequest().getVersion());
+            case NOT_FOUND -> throw new ApiException(404, "Request not found");
+            case FAILED -> throw new ApiException(500, failure);
+        };
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return header.substring(7).trim();
+        }
+        return null;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    // JSON rendering
+
+    private static void writeRequest(Json.Emitter out, MaintenanceRequest r, List<Photo> photos) throws IOException {
+        out.beginObject()
+                .field("requestId", r.getRequestId())
+                .field("tenantId", r.getTenantId())
+                .field("apartmentNumber", r.getApartmentNumber())
+                .field("apartmentId", r.getApartmentId())
+                .field("buildingId", r.getBuildingId())
+                .field("description", r.getDescription())
+                .field("category", r.getCategory() != null ? r.getCategory().name() : null)
+                .field("priority", r.getPriority() != null ? r.getPriority().name() : null)
+                .field("status", r.getStatus() != null ? r.getStatus().name() : null)
+                .field("submissionDate", r.getSubmissionDate())
+                .field("lastUpdated", r.getLastUpdated())
+                .field("scheduledDate", r.getScheduledDate())
+                .field("completionDate", r.getCompletionDate())
+                .field("assignedStaffId", r.getAssignedStaffId())
+                .field("workOrderNumber", r.getWorkOrderNumber())
+                .field("staffUpdateNotes", r.getStaffUpdateNotes())
+                .field("resolutionNotes", r.getResolutionNotes())
+                .field("archivedAt", r.getArchivedAt())
+                .field("version", r.getVersion());
+        if (photos != null) {
+            out.name("photos").beginArray();
+            for (Photo p : photos) {
+                writePhoto(out, p);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    private static void writePhoto(Json.Emitter out, Photo p) throws IOException {
+        out.beginObject()
+                .field("photoId", p.getPhotoId())
+                .field("fileName", p.getFileName())
+                .field("fileSize", p.getFileSize())
+                .field("uploadDate", p.getUploadDate())
+                .field("contentUrl", "/api/photos/" + p.getPhotoId() + "/content")
+                .endObject();
+    }
+
+    private static void writePart(Json.Emitter out, Part p) throws IOException {
+        out.beginObject()
+                .field("partId", p.getPartId())
+                .field("partName", p.getPartName())
+                .field("unitCost", p.getUnitCost())
+                .field("onHand", p.getOnHand())
+                .field("reserved", p.getReserved())
+                .field("available", p.getAvailable())
+                .field("reorderLevel", p.getReorderLevel())
+                .field("lowStock", p.isLowStock())
+                .endObject();
+    }
+
+    private static void writeUser(Json.Emitter out, User u) throws IOException {
+        out.beginObject()
+                .field("userId", u.getUserId())
+                .field("username", u.getUsername())
+                .field("firstName", u.getFirstName())
+                .field("lastName", u.getLastName())
+                .field("email", u.getEmail())
+                .field("phoneNumber", u.getPhoneNumber())
+                .field("type", u.getClass().getSimpleName())
+                .field("active", u.isActive());
+        if (u instanceof Tenant t) {
+            out.field("apartmentNumber", t.getApartmentNumber());
+        } else if (u instanceof MaintenanceStaff s) {
+            out.field("staffId", s.getStaffId())
+                    .field("currentWorkload", s.getCurrentWorkload())
+                    .field("maxCapacity", s.getMaxCapacity());
+        } else if (u instanceof BuildingManager m) {
+            out.field("employeeId", m.getEmployeeId())
+                    .field("department", m.getDepartment());
+        }
+        out.endObject();
+    }
+
+    // Response helpers
+
+    private interface JsonBody {
+        void write(Json.Emitter out) throws IOException;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Map<String, ?> fields) throws IOException {
+        sendJson(exchange, status, out -> {
+            out.beginObject();
+            for (Map.Entry<String, ?> e : fields.entrySet()) {
+                out.field(e.getKey(), e.getValue());
+            }
+            out.endObject();
+        });
+    }
+
+    /**
+     * Send a JSON response with chunked encoding, serializing straight into the socket buffer.
+     */
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer writer = responseWriter(exchange)) {
+            body.write(new Json.Emitter(writer));
+        }
+    }
+
+    private static Writer responseWriter(HttpExchange exchange) {
+        return new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), RESPONSE_BUFFER_CHARS);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        METRICS.counter(status >= 500 ? "api.errors.server" : "api.errors.client").increment();
+        try {
+            sendJson(exchange, status, Map.of("error", message == null ? "Error" : message));
+        } catch (IOException | RuntimeException ignored) {
+            // Headers already sent or client gone; nothing more to report
+        }
+    }
+
+    /**
+     * Error with an HTTP status, thrown from handlers and rendered as {"error": message}.
+     */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.maintenance.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the API server: a streaming writer and a small parser for request bodies.
+ * Kept dependency-free on purpose; the payloads here are flat objects and arrays of them.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parse a JSON document into Maps, Lists, Strings, Doubles, Booleans and nulls.
+     *
+     * @throws IllegalArgumentException on malformed input
+     */
+    static Object parse(String text) {
+        Parser parser = new Parser(text);
+        parser.skipWhitespace();
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Trailing characters");
+        }
+        return value;
+    }
+
+    /**
+     * Parse a JSON object body; an empty body is treated as {}.
+     *
+     * @throws IllegalArgumentException if the body is not a JSON object
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) {
+        if (text == null || text.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        Object value = parse(text);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Streaming writer that tracks comma placement for nested objects and arrays.
+     */
+    static final class Emitter {
+        private final Writer out;
+        // One entry per open container: true once it has at least one element
+        private final boolean[] hasElement = new boolean[32];
+        private int depth;
+        private boolean afterName;
+
+        Emitter(Writer out) {
+            this.out = out;
+        }
+
+        Emitter beginObject() throws IOException {
+            separate();
+            out.write('{');
+            push();
+            return this;
+        }
+
+        Emitter endObject() throws IOException {
+            depth--;
+            out.write('}');
+            return this;
+        }
+
+        Emitter beginArray() throws IOException {
+            separate();
+            out.write('[');
+            push();
+            return this;
+        }
+
+        Emitter endArray() throws IOException {
+            depth--;
+            out.write(']');
+            return this;
+        }
+
+        Emitter name(String name) throws IOException {
+            separate();
+            writeString(out, name);
+            out.write(':');
+            afterName = true;
+            return this;
+        }
+
+        Emitter value(String value) throws IOException {
+            separate();
+            if (value == null) {
+                out.write("null");
+            } else {
+                writeString(out, value);
+            }
+            return this;
+        }
+
+        Emitter value(Object value) throws IOException {
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                separate();
+                out.write(String.valueOf(value));
+                return this;
+            }
+            return value(value.toString());
+        }
+
+        Emitter field(String name, Object value) throws IOException {
+            return name(name).value(value);
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        private void push() {
+            if (depth + 1 >= hasElement.length) {
+                throw new IllegalStateException("JSON nesting too deep");
+            }
+            hasElement[++depth] = false;
+        }
+
+        private void separate() throws IOException {
+            if (afterName) {
+                afterName = false;
+                return;
+            }
+            if (depth > 0) {
+                if (hasElement[depth]) {
+                    out.write(',');
+                }
+                hasElement[depth] = true;
+            }
+        }
+    }
+
+    static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Recursive-descent parser over a String.
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object readValue() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of input");
+            }
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> readObject();
+                case '[' -> readArray();
+                case '"' -> readString();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> readNumber();
+            };
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected field name");
+                }
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return map;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return list;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char esc = next();
+                switch (esc) {
+                    case '"', '\\', '/' -> sb.append(esc);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("Bad unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> throw error("Bad escape");
+                }
+            }
+        }
+
+        private Double readNumber() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Unexpected character");
+            }
+            try {
+                return Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw error("Unexpected token");
+            }
+            pos += word.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of input");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
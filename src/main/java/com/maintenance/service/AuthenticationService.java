@@ -1,15 +1,49 @@
 package com.maintenance.service;
 
 import com.maintenance.dao.UserDAO;
+import com.maintenance.metrics.MetricsRegistry;
 import com.maintenance.models.User;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Authentication and session management.
+ *
+ * <p>Every successful login creates a {@link SessionRegistry.Session}. The desktop UI has one
+ * process-wide session that lives until logout. A server front end opens one session per client
+ * with {@link #openSession}, then wraps each request in {@link #bind(String)}. While a session is
+ * bound to the current thread, {@link #getCurrentUser()} and the other existing accessors resolve
+ * to it, so existing callers keep working with many concurrent users.
+ */
 public class AuthenticationService {
+    // Source key used for attempts made from the local desktop UI
+    public static final String LOCAL_SOURCE = "local";
+    // Server sessions unused for this long are expired
+    private static final long SESSION_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
     private static AuthenticationService instance;
-    private User currentUser;
     private final UserDAO userDAO;
 
+    private final SessionRegistry sessions = new SessionRegistry(SESSION_IDLE_TIMEOUT_MILLIS);
+    // Session of the desktop UI; used when no session is bound to the calling thread
+    private volatile SessionRegistry.Session desktopSession;
+    private final ThreadLocal<SessionRegistry.Session> boundSession = new ThreadLocal<>();
+
+    // Brute-force guards, checked before any database access
+    private final LoginRateLimiter usernameLimiter = new LoginRateLimiter("login.username", 5, 60_000, 10_000);
+    private final LoginRateLimiter sourceLimiter = new LoginRateLimiter("login.source", 30, 60_000, 10_000);
+    private final LongAdder attemptsServed = new LongAdder();
+    private final LongAdder attemptsThrottled = new LongAdder();
+
     private AuthenticationService() {
         this.userDAO = new UserDAO();
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("auth.attempts.served", attemptsServed::sum);
+        metrics.gauge("auth.attempts.throttled", attemptsThrottled::sum);
+        metrics.gauge("auth.sessions.active", sessions::size);
+        metrics.gauge("auth.limiter.username.trackedKeys", usernameLimiter::getTrackedKeys);
+        metrics.gauge("auth.limiter.source.trackedKeys", sourceLimiter::getTrackedKeys);
     }
 
     public static synchronized AuthenticationService getInstance() {
@@ -20,28 +54,193 @@ public class AuthenticationService {
     }
 
     public boolean login(String username, String password) {
-        User user = userDAO.authenticateUser(username, password);
-        if (user != null) {
-            this.currentUser = user;
-            return true;
+        return authenticate(username, password).getStatus() == UserDAO.AuthStatus.SUCCESS;
+    }
+
+    /**
+     * Log in the desktop user and report why an attempt failed (bad credentials vs. inactive account).
+     * On success the new session becomes the process-wide current session.
+     */
+    public UserDAO.AuthResult authenticate(String username, String password) {
+        UserDAO.AuthResult result = verify(username, password, LOCAL_SOURCE);
+        if (result.getStatus() == UserDAO.AuthStatus.SUCCESS) {
+            SessionRegistry.Session previous = desktopSession;
+            desktopSession = sessions.create(result.getUser(), false);
+            if (previous != null) {
+                sessions.invalidate(previous.getToken());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Log in a remote client and create an idle-expiring session for it.
+     *
+     * @param source client identifier for rate limiting (e.g. remote address)
+     * @return login status, plus the session on success
+     */
+    public SessionLogin openSession(String username, String password, String source) {
+        UserDAO.AuthResult result = verify(username, password, source);
+        SessionRegistry.Session session = result.getStatus() == UserDAO.AuthStatus.SUCCESS
+                ? sessions.create(result.getUser(), true)
+                : null;
+        return new SessionLogin(result.getStatus(), session);
+    }
+
+    /**
+     * Bind the session for a token to the calling thread until the returned scope is closed.
+     * Unknown or expired tokens bind nothing; {@link #getCurrentUser()} then returns null.
+     *
+     * @param token session token from {@link #openSession}
+     * @return scope to close when the request finishes
+     */
+    public SessionScope bind(String token) {
+        SessionRegistry.Session previous = boundSession.get();
+        SessionRegistry.Session session = sessions.touch(token);
+        if (session == null) {
+            boundSession.remove();
+        } else {
+            boundSession.set(session);
         }
-        return false;
+        return new SessionScope(session, previous);
     }
 
+    /**
+     * Check rate limits, then credentials. Attempts over the per-source or per-username
+     * limit are rejected with THROTTLED without touching the database or hashing the password.
+     * A successful login clears the username's attempt history.
+     */
+    private UserDAO.AuthResult verify(String username, String password, String source) {
+        String userKey = username == null ? "" : username.toLowerCase();
+        if (!sourceLimiter.tryAcquire(source) || !usernameLimiter.tryAcquire(userKey)) {
+            attemptsThrottled.increment();
+            return UserDAO.AuthResult.THROTTLED;
+        }
+        attemptsServed.increment();
+
+        UserDAO.AuthResult result = userDAO.authenticate(username, password);
+        if (result.getStatus() == UserDAO.AuthStatus.SUCCESS) {
+            usernameLimiter.reset(userKey);
+        }
+        return result;
+    }
+
+    /**
+     * @return login attempts that reached credential verification
+     */
+    public long getAttemptsServed() {
+        return attemptsServed.sum();
+    }
+
+    /**
+     * @return login attempts rejected by the rate limiters
+     */
+    public long getAttemptsThrottled() {
+        return attemptsThrottled.sum();
+    }
+
+    public LoginRateLimiter getUsernameLimiter() {
+        return usernameLimiter;
+    }
+
+    public LoginRateLimiter getSourceLimiter() {
+        return sourceLimiter;
+    }
+
+    /**
+     * End the current session: the thread-bound one if present, otherwise the desktop session.
+     */
     public void logout() {
-        this.currentUser = null;
+        SessionRegistry.Session bound = boundSession.get();
+        if (bound != null) {
+            sessions.invalidate(bound.getToken());
+            boundSession.remove();
+            return;
+        }
+        SessionRegistry.Session desktop = desktopSession;
+        if (desktop != null) {
+            sessions.invalidate(desktop.getToken());
+            desktopSession = null;
+        }
+    }
+
+    /**
+     * @return the thread-bound session if any, otherwise the desktop session (may be null)
+     */
+    public SessionRegistry.Session getCurrentSession() {
+        SessionRegistry.Session bound = boundSession.get();
+        return bound != null ? bound : desktopSession;
     }
 
     public User getCurrentUser() {
-        return currentUser;
+        SessionRegistry.Session session = getCurrentSession();
+        return session == null ? null : session.getUser();
     }
 
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return getCurrentSession() != null;
     }
 
     public String getUserType() {
+        User currentUser = getCurrentUser();
         if (currentUser == null) return null;
         return currentUser.getClass().getSimpleName();
     }
+
+    /**
+     * @return number of live sessions (desktop and server)
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Result of {@link #openSession}: status and, on success, the session.
+     */
+    public static final class SessionLogin {
+        private final UserDAO.AuthStatus status;
+        private final SessionRegistry.Session session;
+
+        SessionLogin(UserDAO.AuthStatus status, SessionRegistry.Session session) {
+            this.status = status;
+            this.session = session;
+        }
+
+        public UserDAO.AuthStatus getStatus() {
+            return status;
+        }
+
+        public SessionRegistry.Session getSession() {
+            return session;
+        }
+    }
+
+    /**
+     * Thread binding created by {@link #bind(String)}; closing it restores the previous binding.
+     */
+    public final class SessionScope implements AutoCloseable {
+        private final SessionRegistry.Session session;
+        private final SessionRegistry.Session previous;
+
+        private SessionScope(SessionRegistry.Session session, SessionRegistry.Session previous) {
+            this.session = session;
+            this.previous = previous;
+        }
+
+        /**
+         * @return the bound session, or null if the token was not valid
+         */
+        public SessionRegistry.Session getSession() {
+            return session;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                boundSession.remove();
+            } else {
+                boundSession.set(previous);
+            }
+        }
+    }
 }
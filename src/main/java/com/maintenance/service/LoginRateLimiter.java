@@ -0,0 +1,164 @@
+package com.maintenance.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory sliding-window rate limiter keyed by an arbitrary string (username or source address).
+ *
+ * <p>Uses the sliding-window-counter approximation: each key keeps the count for the current fixed
+ * window and the previous one, and the previous count is weighted by how much of it still overlaps
+ * the sliding window. Window index and both counts are packed into a single {@link AtomicLong} per
+ * key, so checks are lock-free and allocate nothing once a key exists.
+ *
+ * <p>Memory is bounded: keys idle for more than two windows are swept periodically, and if the map
+ * still exceeds {@code maxKeys} arbitrary keys are dropped (which can only make the limiter more lenient).
+ * Between sweeps the map can grow by at most {@link #SWEEP_EVERY} keys.
+ */
+public final class LoginRateLimiter {
+    // Sweep idle keys once every this many calls (power of two)
+    private static final int SWEEP_EVERY = 1024;
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final String name;
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeys;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param name         label used in {@link #toString()}
+     * @param limit        attempts allowed per key within any sliding window
+     * @param windowMillis window length in milliseconds
+     * @param maxKeys      upper bound on tracked keys
+     */
+    public LoginRateLimiter(String name, int limit, long windowMillis, int maxKeys) {
+        if (limit < 1 || limit > COUNT_MASK) {
+            throw new IllegalArgumentException("limit must be between 1 and " + COUNT_MASK);
+        }
+        this.name = name;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Record an attempt for the key if it is under the limit.
+     *
+     * @param key username or source identifier
+     * @return true if the attempt is allowed, false if the key is throttled
+     */
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(String key, long nowMillis) {
+        if ((calls.incrementAndGet() & (SWEEP_EVERY - 1)) == 0) {
+            sweep(nowMillis);
+        }
+
+        Window window = windows.computeIfAbsent(key, k -> new Window());
+        window.lastAccess = nowMillis;
+
+        long nowIndex = nowMillis / windowMillis;
+        double elapsedFraction = (nowMillis % windowMillis) / (double) windowMillis;
+
+        while (true) {
+            long state = window.state.get();
+            long index = state >>> 32;
+            long prev = (state >>> 16) & COUNT_MASK;
+            long curr = state & COUNT_MASK;
+
+            // Roll the window forward if time has moved on
+            if (nowIndex == index + 1) {
+                prev = curr;
+                curr = 0;
+            } else if (nowIndex != index) {
+                prev = 0;
+                curr = 0;
+            }
+
+            double estimate = prev * (1.0 - elapsedFraction) + curr;
+            if (estimate >= limit) {
+                rejected.increment();
+                return false;
+            }
+
+            long next = (nowIndex << 32) | (prev << 16) | Math.min(curr + 1, COUNT_MASK);
+            if (window.state.compareAndSet(state, next)) {
+                allowed.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Forget all attempts for a key (e.g. after a successful login).
+     */
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    /**
+     * Drop keys idle for more than two windows, then enforce the key cap.
+     */
+    private void sweep(long nowMillis) {
+        long idleCutoff = nowMillis - 2 * windowMillis;
+        windows.entrySet().removeIf(e -> {
+            if (e.getValue().lastAccess < idleCutoff) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+
+        int excess = windows.size() - maxKeys;
+        if (excess > 0) {
+            Iterator<String> it = windows.keySet().iterator();
+            while (excess-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+                evicted.increment();
+            }
+        }
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public int getTrackedKeys() {
+        return windows.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: allowed=%d rejected=%d tracked=%d evicted=%d",
+                name, getAllowedCount(), getRejectedCount(), getTrackedKeys(), getEvictedCount());
+    }
+
+    /**
+     * Per-key state: window index (high 32 bits), previous count (16 bits), current count (16 bits).
+     */
+    private static final class Window {
+        private final AtomicLong state = new AtomicLong();
+        private volatile long lastAccess;
+    }
+}
@@ -0,0 +1,258 @@
+package com.maintenance.service;
+
+import com.maintenance.database.DatabaseManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams maintenance requests to CSV or JSON Lines for accounting exports.
+ * Rows are read through a forward-only, lazily executed cursor on a dedicated connection
+ * and written straight to a buffered file channel, so memory use does not grow with row count.
+ */
+public final class RequestExportService {
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    // Rows pulled from the driver per round trip
+    private static final int FETCH_SIZE = 1000;
+    // Writer buffer in characters; flushed to the channel when full
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private static final String BASE_COLUMNS =
+            "r.request_id, r.tenant_id, r.apartment_number, r.description, r.category, r.priority, " +
+            "r.status, r.submission_date, r.last_updated, r.scheduled_date, r.completion_date, " +
+            "r.estimated_cost, r.actual_cost, r.assigned_staff_id, r.work_order_number, " +
+            "r.resolution_notes";
+
+    private final DatabaseManager dbManager;
+
+    public RequestExportService() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Export every maintenance request to the given file.
+     *
+     * @param target       file to create or overwrite
+     * @param format       CSV or JSON Lines
+     * @param includeNames when true, tenant_name and staff_name columns are joined in
+     * @param gzip         when true, output is gzip-compressed
+     * @return row count and throughput of the finished export
+     * @throws SQLException if the query fails
+     * @throws IOException  if the file cannot be written
+     */
+    public ExportResult exportRequests(Path target, Format format, boolean includeNames, boolean gzip)
+            throws SQLException, IOException {
+        String sql = buildQuery(includeNames);
+        long started = System.nanoTime();
+        long rows = 0;
+
+        try (Connection conn = dbManager.openConnection()) {
+            // Let H2 produce rows on demand instead of materializing the whole result first
+            try (Statement session = conn.createStatement()) {
+                session.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                 Writer out = openWriter(target, gzip)) {
+                stmt.setFetchSize(FETCH_SIZE);
+
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    int columnCount = meta.getColumnCount();
+                    String[] names = new String[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        names[i] = meta.getColumnLabel(i + 1).toLowerCase();
+                    }
+
+                    if (format == Format.CSV) {
+                        writeCsvHeader(out, names);
+                    }
+
+                    while (rs.next()) {
+                        if (format == Format.CSV) {
+                            writeCsvRow(out, rs, columnCount);
+                        } else {
+                            writeJsonRow(out, rs, names);
+                        }
+                        rows++;
+                    }
+                }
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        ExportResult result = new ExportResult(target, rows, elapsedNanos);
+        System.out.println("✓ Exported " + rows + " requests to " + target +
+                String.format(" in %.2fs (%.0f rows/sec)", result.getElapsedSeconds(), result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Build the export query, optionally joining tenant and staff display names. Rows come in request_id
+     * order, which is creation order (see IDGenerator) and walks the primary key, so H2 can stream them
+     * lazily instead of sorting the whole table first.
+     */
+    private String buildQuery(boolean includeNames) {
+        if (!includeNames) {
+            return "SELECT " + BASE_COLUMNS + " FROM maintenance_requests r ORDER BY r.request_id";
+        }
+        return "SELECT " + BASE_COLUMNS + ", " +
+                "NULLIF(TRIM(CONCAT(COALESCE(tu.first_name, ''), ' ', COALESCE(tu.last_name, ''))), '') AS tenant_name, " +
+                "NULLIF(TRIM(CONCAT(COALESCE(su.first_name, ''), ' ', COALESCE(su.last_name, ''))), '') AS staff_name " +
+                "FROM maintenance_requests r " +
+                "LEFT JOIN users tu ON tu.user_id = r.tenant_id " +
+                "LEFT JOIN maintenance_staff ms ON ms.staff_id = r.assigned_staff_id " +
+                "LEFT JOIN users su ON su.user_id = ms.user_id " +
+                "ORDER BY r.request_id";
+    }
+
+    /**
+     * Open a UTF-8 writer over a file channel, optionally wrapped in gzip.
+     */
+    private Writer openWriter(Path target, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        OutputStream stream = Channels.newOutputStream(channel);
+        if (gzip) {
+            stream = new GZIPOutputStream(stream, WRITE_BUFFER_CHARS);
+        }
+        return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+    }
+
+    private void writeCsvHeader(Writer out, String[] names) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) out.write(',');
+            out.write(names[i]);
+        }
+        out.write('\n');
+    }
+
+    private void writeCsvRow(Writer out, ResultSet rs, int columnCount) throws SQLException, IOException {
+        for (int i = 1; i <= columnCount; i++) {
+            if (i > 1) out.write(',');
+            String value = rs.getString(i);
+            if (value != null) {
+                writeCsvValue(out, value);
+            }
+        }
+        out.write('\n');
+    }
+
+    /**
+     * RFC 4180 quoting: wrap in quotes only when needed and double any embedded quotes.
+     */
+    private void writeCsvValue(Writer out, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private void writeJsonRow(Writer out, ResultSet rs, String[] names) throws SQLException, IOException {
+        out.write('{');
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) out.write(',');
+            out.write('"');
+            out.write(names[i]);
+            out.write("\":");
+            Object value = rs.getObject(i + 1);
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.write(value.toString());
+            } else {
+                writeJsonString(out, rs.getString(i + 1));
+            }
+        }
+        out.write("}\n");
+    }
+
+    private void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Summary of a finished export.
+     */
+    public static final class ExportResult {
+        private final Path target;
+        private final long rows;
+        private final long elapsedNanos;
+
+        public ExportResult(Path target, long rows, long elapsedNanos) {
+            this.target = target;
+            this.rows = rows;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Path getTarget() {
+            return target;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1_000_000_000.0;
+        }
+
+        public double getRowsPerSecond() {
+            double seconds = getElapsedSeconds();
+            return seconds > 0 ? rows / seconds : rows;
+        }
+    }
+}
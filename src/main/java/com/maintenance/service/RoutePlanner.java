@@ -0,0 +1,285 @@
+package com.maintenance.service;
+
+import com.maintenance.dao.BuildingDAO;
+import com.maintenance.dao.MaintenanceRequestDAO;
+import com.maintenance.enums.PriorityLevel;
+import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.models.Building;
+import com.maintenance.models.MaintenanceRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Orders a staff member's open requests into a walking route for the day.
+ *
+ * <p>Requests are split into priority windows (urgent and emergency first, then high, then the rest)
+ * and each window is routed from where the previous one ended. Within a window the route starts as a
+ * nearest-neighbour tour and is then improved with 2-opt until no swap helps or the time budget
+ * ({@code -Dmaintenance.plan.budgetMillis}, default 5) runs out. Distance is building, then floor, then
+ * unit, with floor and unit read from the apartment number ("A305" is wing A, floor 3, unit 5).
+ *
+ * <p>Plans are cached per staff member together with the requests they were built from, and rebuilt only
+ * when that set changes: a new assignment, a reassignment, an escalation or a finished task. The check
+ * reads the staff member's requests afresh, so changes made by another process are picked up too.
+ */
+public final class RoutePlanner {
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
+    private static final Pattern APARTMENT = Pattern.compile("^\\s*([A-Za-z]*)[\\s-]*(\\d+)");
+    // Changing building outweighs any walk inside one; a flight of stairs outweighs a corridor
+    private static final long BUILDING_COST = 100_000;
+    private static final long FLOOR_COST = 100;
+    private static final long WING_COST = 50;
+    private static final String[] WINDOWS = {"Urgent", "High", "Routine"};
+
+    private static RoutePlanner instance;
+
+    private final MaintenanceRequestDAO requestDAO;
+    private final BuildingDAO buildingDAO;
+    private final long budgetNanos;
+    private final Map<String, CachedPlan> plans = new ConcurrentHashMap<>();
+
+    private RoutePlanner() {
+        this.requestDAO = new MaintenanceRequestDAO();
+        this.buildingDAO = new BuildingDAO();
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("maintenance.plan.budgetMillis", 5));
+    }
+
+    public static synchronized RoutePlanner getInstance() {
+        if (instance == null) {
+            instance = new RoutePlanner();
+        }
+        return instance;
+    }
+
+    /**
+     * One stop of a daily plan.
+     */
+    public static final class Stop {
+        private final int sequence;
+        private final String window;
+        private final String buildingName;
+        private final int floor;
+        private final MaintenanceRequest request;
+
+        Stop(int sequence, String window, String buildingName, int floor, MaintenanceRequest request) {
+            this.sequence = sequence;
+            this.window = window;
+            this.buildingName = buildingName;
+            this.floor = floor;
+            this.request = request;
+        }
+
+        public int getSequence() { return sequence; }
+        public String getWindow() { return window; }
+        public String getBuildingName() { return buildingName; }
+        public int getFloor() { return floor; }
+        public MaintenanceRequest getRequest() { return request; }
+    }
+
+    private record CachedPlan(List<String> fingerprint, List<Stop> stops) {
+    }
+
+    /**
+     * Where a request is, parsed once per plan.
+     */
+    private record Location(String buildingId, String wing, int floor, int unit) {
+        long distanceTo(Location other) {
+            if (!buildingId.equals(other.buildingId)) {
+                return BUILDING_COST;
+            }
+            return FLOOR_COST * Math.abs(floor - other.floor)
+                    + (wing.equalsIgnoreCase(other.wing) ? 0 : WING_COST)
+                    + Math.abs(unit - other.unit);
+        }
+    }
+
+    /**
+     * @return today's route through the staff member's assigned, in-progress and reopened requests
+     */
+    public List<Stop> planFor(String staffId) {
+        List<MaintenanceRequest> open = requestDAO.getRequestsByStaff(staffId).stream()
+                .filter(r -> !r.isStaffArchived())
+                .filter(r -> r.getStatus() == RequestStatus.ASSIGNED
+                        || r.getStatus() == RequestStatus.IN_PROGRESS
+                        || r.getStatus() == RequestStatus.REOPENED)
+                .sorted(Comparator.comparing(MaintenanceRequest::getRequestId))
+                .toList();
+
+        List<String> fingerprint = new ArrayList<>(open.size());
+        for (MaintenanceRequest r : open) {
+            fingerprint.add(r.getRequestId() + "|" + r.getPriority() + "|" + r.getStatus() + "|"
+                    + r.getBuildingId() + "|" + r.getApartmentNumber());
+        }
+        CachedPlan cached = plans.get(staffId);
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            METRICS.counter("routes.plans.cached").increment();
+            // Same route, but hand out the freshly loaded requests so notes and dates are current
+            Map<String, MaintenanceRequest> byId = new HashMap<>();
+            for (MaintenanceRequest r : open) {
+                byId.put(r.getRequestId(), r);
+            }
+            List<Stop> stops = new ArrayList<>(cached.stops().size());
+            for (Stop s : cached.stops()) {
+                stops.add(new Stop(s.sequence, s.window, s.buildingName, s.floor,
+                        byId.get(s.request.getRequestId())));
+            }
+            return stops;
+        }
+
+        List<Stop> stops = METRICS.time("routes.plan", () -> buildPlan(open));
+        plans.put(staffId, new CachedPlan(fingerprint, stops));
+        METRICS.counter("routes.plans.built").increment();
+        return stops;
+    }
+
+    private List<Stop> buildPlan(List<MaintenanceRequest> open) {
+        Map<String, String> buildingNames = new HashMap<>();
+        if (!open.isEmpty()) {
+            for (Building b : buildingDAO.getAllBuildings()) {
+                buildingNames.put(b.getBuildingId(), b.getBuildingName());
+            }
+        }
+
+        List<List<MaintenanceRequest>> windows = new ArrayList<>();
+        for (int w = 0; w < WINDOWS.length; w++) {
+            windows.add(new ArrayList<>());
+        }
+        for (MaintenanceRequest r : open) {
+            windows.get(window(r.getPriority())).add(r);
+        }
+
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Stop> stops = new ArrayList<>(open.size());
+        Location last = null;
+        for (int w = 0; w < WINDOWS.length; w++) {
+            List<MaintenanceRequest> requests = windows.get(w);
+            if (requests.isEmpty()) {
+                continue;
+            }
+            Location[] locations = new Location[requests.size()];
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = locate(requests.get(i));
+            }
+            int[] tour = nearestNeighbour(locations, last);
+            twoOpt(tour, locations, last, deadline);
+
+            for (int i : tour) {
+                MaintenanceRequest r = requests.get(i);
+                stops.add(new Stop(stops.size() + 1, WINDOWS[w],
+                        r.getBuildingId() == null ? "-" : buildingNames.getOrDefault(r.getBuildingId(), r.getBuildingId()),
+                        locations[i].floor(), r));
+            }
+            last = locations[tour[tour.length - 1]];
+        }
+        return stops;
+    }
+
+    private static int window(PriorityLevel priority) {
+        if (priority == PriorityLevel.EMERGENCY || priority == PriorityLevel.URGENT) {
+            return 0;
+        }
+        return priority == PriorityLevel.HIGH ? 1 : 2;
+    }
+
+    private static Location locate(MaintenanceRequest r) {
+        String buildingId = r.getBuildingId() == null ? "" : r.getBuildingId();
+        Matcher m = APARTMENT.matcher(r.getApartmentNumber() == null ? "" : r.getApartmentNumber());
+        if (!m.find()) {
+            return new Location(buildingId, "", 0, 0);
+        }
+        int number;
+        try {
+            number = Integer.parseInt(m.group(2));
+        } catch (NumberFormatException e) {
+            return new Location(buildingId, m.group(1), 0, 0);
+        }
+        // "305" is floor 3, unit 5; numbers below 100 are ground-floor units
+        return new Location(buildingId, m.group(1), number / 100, number % 100);
+    }
+
+    /**
+     * Greedy tour from {@code start} (or from the first stop in building/floor/unit order when there is none).
+     */
+    private static int[] nearestNeighbour(Location[] locations, Location start) {
+        int n = locations.length;
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        Location current = start;
+        for (int k = 0; k < n; k++) {
+            int best = -1;
+            long bestDistance = Long.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                if (visited[i]) {
+                    continue;
+                }
+                long d = current == null ? 0 : current.distanceTo(locations[i]);
+                if (d < bestDistance || (d == bestDistance && current == null && before(locations[i], locations[best]))) {
+                    best = i;
+                    bestDistance = d;
+                }
+            }
+            tour[k] = best;
+            visited[best] = true;
+            current = locations[best];
+        }
+        return tour;
+    }
+
+    private static boolean before(Location a, Location b) {
+        int c = a.buildingId().compareTo(b.buildingId());
+        if (c == 0) c = Integer.compare(a.floor(), b.floor());
+        if (c == 0) c = a.wing().compareToIgnoreCase(b.wing());
+        if (c == 0) c = Integer.compare(a.unit(), b.unit());
+        return c < 0;
+    }
+
+    /**
+     * Reverse segments of the open path while that shortens it. The path is anchored at {@code start} when
+     * there is one; its far end is free.
+     */
+    private static void twoOpt(int[] tour, Location[] locations, Location start, long deadline) {
+        int n = tour.length;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < n - 1; i++) {
+                if (System.nanoTime() > deadline) {
+                    return;
+                }
+                Location before = i == 0 ? start : locations[tour[i - 1]];
+                for (int j = i + 1; j < n; j++) {
+                    Location after = j == n - 1 ? null : locations[tour[j + 1]];
+                    Location first = locations[tour[i]];
+                    Location last = locations[tour[j]];
+                    long delta = distance(before, last) + distance(first, after)
+                            - distance(before, first) - distance(last, after);
+                    if (delta < 0) {
+                        reverse(tour, i, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private static long distance(Location a, Location b) {
+        return a == null || b == null ? 0 : a.distanceTo(b);
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int t = tour[from];
+            tour[from++] = tour[to];
+            tour[to--] = t;
+        }
+    }
+}
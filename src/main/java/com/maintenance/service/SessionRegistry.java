@@ -0,0 +1,162 @@
+package com.maintenance.service;
+
+import com.maintenance.models.*;
+import com.maintenance.util.TimerWheel;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent registry of authenticated sessions keyed by opaque random tokens.
+ *
+ * <p>Touching a session only writes its last-access time. Idle expiry is driven by a
+ * {@link TimerWheel}: each session has one pending timeout at (last access + idle timeout);
+ * when it fires, the session is removed if it really was idle, otherwise the timeout is
+ * re-armed for the new deadline. This keeps per-request cost constant regardless of session count.
+ */
+public final class SessionRegistry {
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final TimerWheel<Session> expiryWheel;
+    private final long idleTimeoutMillis;
+
+    /**
+     * @param idleTimeoutMillis sessions unused for this long are removed
+     */
+    public SessionRegistry(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        // One-second resolution is plenty for idle expiry measured in minutes
+        this.expiryWheel = new TimerWheel<>("session-expiry", 1000, 512, this::onIdleCheck);
+    }
+
+    /**
+     * Create a session for an authenticated user.
+     *
+     * @param user        authenticated principal
+     * @param idleExpiry  false for sessions that live until explicit logout (desktop UI)
+     * @return the new session
+     */
+    public Session create(User user, boolean idleExpiry) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        Session session = new Session(encoder.encodeToString(bytes), user, idleExpiry);
+        sessions.put(session.getToken(), session);
+        if (idleExpiry) {
+            expiryWheel.schedule(session, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return session;
+    }
+
+    /**
+     * Look up a live session and mark it as used.
+     *
+     * @return the session, or null if the token is unknown or expired
+     */
+    public Session touch(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session != null) {
+            session.lastAccessMillis = System.currentTimeMillis();
+        }
+        return session;
+    }
+
+    /**
+     * Remove a session (logout).
+     */
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Wheel callback: drop the session if it stayed idle, otherwise re-arm for the new deadline.
+     */
+    private void onIdleCheck(Session session) {
+        if (!sessions.containsKey(session.getToken())) {
+            return;
+        }
+        long deadline = session.lastAccessMillis + idleTimeoutMillis;
+        if (deadline <= System.currentTimeMillis()) {
+            sessions.remove(session.getToken(), session);
+        } else {
+            expiryWheel.scheduleAt(session, deadline);
+        }
+    }
+
+    /**
+     * An authenticated principal plus its cached role.
+     */
+    public static final class Session {
+        private final String token;
+        private final User user;
+        private final String role;
+        private final boolean idleExpiry;
+        private final long createdMillis;
+        private volatile long lastAccessMillis;
+
+        private Session(String token, User user, boolean idleExpiry) {
+            this.token = token;
+            this.user = user;
+            this.role = roleOf(user);
+            this.idleExpiry = idleExpiry;
+            this.createdMillis = System.currentTimeMillis();
+            this.lastAccessMillis = createdMillis;
+        }
+
+        /**
+         * Resolve the role once at login so per-request checks are a field read.
+         */
+        private static String roleOf(User user) {
+            if (user instanceof Tenant) return "TENANT";
+            if (user instanceof MaintenanceStaff) return "STAFF";
+            if (user instanceof BuildingManager) return "MANAGER";
+            if (user instanceof Admin) return "ADMIN";
+            return "UNKNOWN";
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        /**
+         * @return TENANT, STAFF, MANAGER or ADMIN
+         */
+        public String getRole() {
+            return role;
+        }
+
+        public boolean hasRole(String role) {
+            return this.role.equals(role);
+        }
+
+        public boolean isIdleExpiry() {
+            return idleExpiry;
+        }
+
+        public long getCreatedMillis() {
+            return createdMillis;
+        }
+
+        public long getLastAccessMillis() {
+            return lastAccessMillis;
+        }
+    }
+}
@@ -2,13 +2,24 @@ package com.maintenance.ui.controllers;
 
 import com.maintenance.dao.MaintenanceRequestDAO;
 import com.maintenance.database.DatabaseManager;
+import com.maintenance.database.SqlStats;
 import com.maintenance.enums.CategoryType;
 import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.LatencyHistogram;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.jfr.DashboardLoadEvent;
+import com.maintenance.metrics.jfr.FlightRecording;
 import com.maintenance.models.Admin;
 import com.maintenance.models.MaintenanceRequest;
 import com.maintenance.service.AuthenticationService;
+import com.maintenance.service.BulkImportService;
 import com.maintenance.ui.views.ViewFactory;
 import com.maintenance.util.IDGenerator;
+import com.maintenance.util.PasswordHasher;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
@@ -18,22 +29,33 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controller for the Admin dashboard.
  * Allows admins to:
  *  - View all users
  *  - Create new users by type (Tenant, Staff, Manager, Admin)
+ *  - Bulk import users or apartments from CSV
  *  - Edit basic user info and active status
  *  - View detailed user-specific information (tenant/staff/manager)
  *  - See high-level stats about user distribution (ACTIVE users only for stat cards)
+ *  - Watch latency percentiles, counters and gauges in the System Health tab
  */
 public class AdminDashboardController {
 
@@ -53,6 +75,10 @@ public class AdminDashboardController {
      * DAO used for loading maintenance requests, mainly for staff workload stats.
      */
     private final MaintenanceRequestDAO requestDAO;
+    /**
+     * Service for bulk CSV onboarding of users and apartments.
+     */
+    private final BulkImportService importService;
 
     /**
      * Table displaying abstracted user rows for the Admin.
@@ -68,6 +94,18 @@ public class AdminDashboardController {
      */
     private final ComboBox<String> filterBox = new ComboBox<>();
 
+    /**
+     * System Health tables: per-operation latency, most expensive SQL shapes, and counters/gauges.
+     */
+    private TableView<TimerRow> timerTable;
+    private TableView<SqlRow> sqlTable;
+    private TableView<MetricRow> metricTable;
+    private Label healthUpdatedLabel;
+    /**
+     * Re-reads metrics every few seconds while the System Health tab is selected.
+     */
+    private final Timeline healthRefresh = new Timeline(new KeyFrame(Duration.seconds(5), e -> refreshHealth()));
+
     /**
      * Constructs the Admin dashboard controller with its dependencies.
      *
@@ -78,6 +116,8 @@ public class AdminDashboardController {
         this.authService = AuthenticationService.getInstance();
         this.dbManager = DatabaseManager.getInstance();
         this.requestDAO = new MaintenanceRequestDAO();
+        this.importService = new BulkImportService();
+        healthRefresh.setCycleCount(Animation.INDEFINITE);
     }
 
     /**
@@ -96,10 +136,24 @@ public class AdminDashboardController {
         HBox topBar = createTopBar();
         mainLayout.setTop(topBar);
 
-        // Center: stats + users table
+        // Center: users tab (stats + users table) and System Health tab
         VBox centerContent = createCenterContent();
         VBox.setVgrow(centerContent, Priority.ALWAYS);
-        mainLayout.setCenter(centerContent);
+
+        TabPane tabPane = new TabPane();
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        Tab usersTab = new Tab("👥 Users", centerContent);
+        Tab healthTab = new Tab("🩺 System Health", createHealthContent());
+        healthTab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                refreshHealth();
+                healthRefresh.play();
+            } else {
+                healthRefresh.stop();
+            }
+        });
+        tabPane.getTabs().addAll(usersTab, healthTab);
+        mainLayout.setCenter(tabPane);
 
         // Stretch main layout to fill parent anchor pane
         AnchorPane.setTopAnchor(mainLayout, 0.0);
@@ -140,6 +194,7 @@ public class AdminDashboardController {
                         "-fx-padding: 8 20; -fx-background-radius: 5; -fx-cursor: hand;"
         );
         logoutButton.setOnAction(e -> {
+            healthRefresh.stop();
             authService.logout();
             Stage stage = (Stage) logoutButton.getScene().getWindow();
             viewFactory.closeStage(stage);
@@ -225,7 +280,14 @@ public class AdminDashboardController {
         );
         newUserBtn.setOnAction(e -> showCreateUserDialog());
 
-        headerBox.getChildren().addAll(sectionTitle, spacer, filterBox, refreshBtn, newUserBtn);
+        Button importBtn = new Button("⬆ Import CSV");
+        importBtn.setStyle(
+                "-fx-background-color: #667eea; -fx-text-fill: white; " +
+                        "-fx-padding: 10 20; -fx-background-radius: 5; -fx-cursor: hand;"
+        );
+        importBtn.setOnAction(e -> showImportDialog(importBtn));
+
+        headerBox.getChildren().addAll(sectionTitle, spacer, filterBox, refreshBtn, importBtn, newUserBtn);
 
         // User table setup
         userTable = new TableView<>();
@@ -293,6 +355,151 @@ public class AdminDashboardController {
         return section;
     }
 
+    /**
+     * Builds the System Health tab: latency percentiles per timed operation (DAO calls,
+     * email sends, dashboard loads), the SQL shapes with the most total execution time,
+     * and the current counter and gauge values.
+     *
+     * @return VBox containing the three tables
+     */
+    private VBox createHealthContent() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(30));
+        content.setFillWidth(true);
+
+        HBox headerBox = new HBox(20);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label title = new Label("System Health");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        healthUpdatedLabel = new Label();
+        healthUpdatedLabel.setTextFill(javafx.scene.paint.Color.GRAY);
+
+        Button refreshBtn = new Button("🔄 Refresh");
+        refreshBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        refreshBtn.setOnAction(e -> refreshHealth());
+
+        headerBox.getChildren().addAll(title, spacer, healthUpdatedLabel, refreshBtn);
+
+        // Only offered when launched with -Dmaintenance.jfr=true
+        if (FlightRecording.isRunning()) {
+            Button recordingBtn = new Button("💾 Save Flight Recording");
+            recordingBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; " +
+                    "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+            recordingBtn.setOnAction(e -> saveFlightRecording());
+            headerBox.getChildren().add(recordingBtn);
+        }
+
+        // Latency table; values are cumulative since the application started
+        timerTable = new TableView<>();
+        timerTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        timerTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        VBox.setVgrow(timerTable, Priority.ALWAYS);
+
+        TableColumn<TimerRow, String> opCol = new TableColumn<>("Operation");
+        opCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        opCol.setPrefWidth(380);
+        timerTable.getColumns().add(opCol);
+        String[][] timerColumns = {
+                {"Count", "count"}, {"p50 (ms)", "p50"}, {"p95 (ms)", "p95"}, {"p99 (ms)", "p99"}, {"Max (ms)", "max"}
+        };
+        for (String[] column : timerColumns) {
+            TableColumn<TimerRow, String> col = new TableColumn<>(column[0]);
+            col.setCellValueFactory(new PropertyValueFactory<>(column[1]));
+            col.setStyle("-fx-alignment: CENTER-RIGHT;");
+            col.setPrefWidth(110);
+            timerTable.getColumns().add(col);
+        }
+        timerTable.setPlaceholder(new Label("No operations timed yet"));
+
+        // Top SQL shapes by total time, with literals normalized to ?
+        sqlTable = new TableView<>();
+        sqlTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        sqlTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        sqlTable.setPrefHeight(240);
+
+        TableColumn<SqlRow, String> sqlCol = new TableColumn<>("SQL");
+        sqlCol.setCellValueFactory(new PropertyValueFactory<>("sql"));
+        sqlCol.setPrefWidth(380);
+        sqlTable.getColumns().add(sqlCol);
+        String[][] sqlColumns = {
+                {"Count", "count"}, {"Total (ms)", "total"}, {"Mean (ms)", "mean"}, {"Max (ms)", "max"}, {"Rows", "rows"}
+        };
+        for (String[] column : sqlColumns) {
+            TableColumn<SqlRow, String> col = new TableColumn<>(column[0]);
+            col.setCellValueFactory(new PropertyValueFactory<>(column[1]));
+            col.setStyle("-fx-alignment: CENTER-RIGHT;");
+            col.setPrefWidth(110);
+            sqlTable.getColumns().add(col);
+        }
+        sqlTable.setPlaceholder(new Label("No SQL recorded (tracing disabled?)"));
+
+        // Counters and gauges
+        metricTable = new TableView<>();
+        metricTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        metricTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        metricTable.setPrefHeight(240);
+
+        TableColumn<MetricRow, String> nameCol = new TableColumn<>("Metric");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(380);
+        TableColumn<MetricRow, String> valueCol = new TableColumn<>("Value");
+        valueCol.setCellValueFactory(new PropertyValueFactory<>("value"));
+        valueCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        metricTable.getColumns().setAll(List.of(nameCol, valueCol));
+
+        content.getChildren().addAll(headerBox, timerTable, sqlTable, metricTable);
+        return content;
+    }
+
+    /**
+     * Writes the rolling flight recording buffer to disk so a freeze can be analysed
+     * in JDK Mission Control.
+     */
+    private void saveFlightRecording() {
+        try {
+            Path file = FlightRecording.dump();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Flight Recording Saved");
+            alert.setHeaderText(null);
+            alert.setContentText("Recording written to " + file.toAbsolutePath());
+            alert.showAndWait();
+        } catch (Exception ex) {
+            new Alert(Alert.AlertType.ERROR, "Unable to save flight recording: " + ex.getMessage()).showAndWait();
+        }
+    }
+
+    /**
+     * Reads a fresh snapshot of every metric into the System Health tables.
+     */
+    private void refreshHealth() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+        List<TimerRow> timers = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram.Snapshot> e : metrics.getHistograms().entrySet()) {
+            timers.add(new TimerRow(e.getKey(), e.getValue()));
+        }
+
+        List<MetricRow> values = new ArrayList<>();
+        metrics.getCounters().forEach((name, value) -> values.add(new MetricRow(name, value)));
+        metrics.getGauges().forEach((name, value) -> values.add(new MetricRow(name, value)));
+
+        List<SqlRow> shapes = new ArrayList<>();
+        for (SqlStats.ShapeSummary summary : SqlStats.getInstance().top(20)) {
+            shapes.add(new SqlRow(summary));
+        }
+
+        timerTable.setItems(FXCollections.observableArrayList(timers));
+        sqlTable.setItems(FXCollections.observableArrayList(shapes));
+        metricTable.setItems(FXCollections.observableArrayList(values));
+        healthUpdatedLabel.setText("Updated " + LocalTime.now().withNano(0));
+    }
+
     /**
      * Creates the "Actions" column for each UserRow with "Edit" and "View" buttons.
      *
@@ -345,11 +552,90 @@ public class AdminDashboardController {
         return actionCol;
     }
 
+    /**
+     * Lets the admin pick an import type and CSV file, then runs the import off the FX thread.
+     * Rejected rows are written next to the input as {@code <name>.errors.csv}.
+     *
+     * @param importBtn button that opened the dialog; disabled while the import runs
+     */
+    private void showImportDialog(Button importBtn) {
+        ChoiceDialog<String> typeDialog = new ChoiceDialog<>("Users", "Users", "Apartments");
+        typeDialog.setTitle("Import CSV");
+        typeDialog.setHeaderText(null);
+        typeDialog.setContentText("Import:");
+        String type = typeDialog.showAndWait().orElse(null);
+        if (type == null) {
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import " + type);
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(importBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        boolean users = "Users".equals(type);
+        Path errorFile = file.toPath().resolveSibling(file.getName() + ".errors.csv");
+
+        importBtn.setDisable(true);
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        BulkImportService.ImportReport report = users
+                                ? importService.importUsers(file.toPath())
+                                : importService.importApartments(file.toPath());
+                        if (!report.getErrors().isEmpty()) {
+                            report.writeErrorReport(errorFile);
+                        }
+                        return report;
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                })
+                .whenComplete((report, error) -> Platform.runLater(() -> {
+                    importBtn.setDisable(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("Import Failed");
+                        alert.setHeaderText(null);
+                        alert.setContentText("Unable to import " + type.toLowerCase() + ": " + cause.getMessage());
+                        alert.showAndWait();
+                        return;
+                    }
+
+                    String message = "Imported " + report.getRowsImported() + " of " + report.getRowsRead() +
+                            " rows" + String.format(" (%.2fs, %.0f rows/sec)",
+                            report.getElapsedSeconds(), report.getRowsPerSecond());
+                    if (!report.getErrors().isEmpty()) {
+                        message += "\n" + report.getErrors().size() + " rows rejected; see " + errorFile.getFileName();
+                    }
+
+                    Alert alert = new Alert(report.getErrors().isEmpty()
+                            ? Alert.AlertType.INFORMATION
+                            : Alert.AlertType.WARNING);
+                    alert.setTitle("Import Complete");
+                    alert.setHeaderText(null);
+                    alert.setContentText(message);
+                    alert.showAndWait();
+
+                    if (users) {
+                        loadUsers();
+                    }
+                }));
+    }
+
     /**
      * Loads all users from the database into the table and refreshes the stat cards.
      * Stats are based on ACTIVE users only (like tenant dashboard uses non-archived requests).
      */
     private void loadUsers() {
+        DashboardLoadEvent.time("AdminDashboard", "loadUsers", this::doLoadUsers);
+    }
+
+    private void doLoadUsers() {
         List<UserRow> users = fetchAllUsers();
         userTable.setItems(FXCollections.observableArrayList(users));
         filterBox.setValue("All Users");
@@ -469,6 +755,10 @@ public class AdminDashboardController {
      * @param users list of users represented as UserRow objects
      */
     private void refreshStats(List<UserRow> users) {
+        DashboardLoadEvent.time("AdminDashboard", "refreshStats", () -> doRefreshStats(users));
+    }
+
+    private void doRefreshStats(List<UserRow> users) {
         statsBox.getChildren().clear();
 
         int totalActive = (int) users.stream()
@@ -863,37 +1153,50 @@ public class AdminDashboardController {
                 specializationString = sb.toString();
             }
 
-            // Attempt to create user in DB using a transaction
-            boolean success = createUserInDatabase(
-                    customUserId,
-                    username,
-                    password,
-                    firstName,
-                    lastName,
-                    email,
-                    phone,
-                    userType,
-                    active,
-                    aptField.getText().trim(),
-                    leaseStartPicker.getValue(),
-                    leaseEndPicker.getValue(),
-                    emergencyContactField.getText().trim(),
-                    emergencyPhoneField.getText().trim(),
-                    staffIdField.getText().trim(),
-                    specializationString,
-                    maxCapacitySpinner.getValue(),
-                    employeeIdField.getText().trim(),
-                    departmentField.getText().trim()
-            );
+            // Password hashing is deliberately slow; hash off the FX thread, then create the user in DB
+            // using a transaction and close the dialog ourselves
+            event.consume();
+            createButton.setDisable(true);
+            String staffSpecializations = specializationString;
+            CompletableFuture
+                    .supplyAsync(() -> PasswordHasher.hash(password))
+                    .whenComplete((passwordHash, error) -> Platform.runLater(() -> {
+                        createButton.setDisable(false);
+                        if (error != null) {
+                            System.err.println("Password hashing failed: " + error.getMessage());
+                        }
 
-            if (!success) {
-                new Alert(Alert.AlertType.ERROR,
-                        "Unable to create user. Check logs and ensure User ID / Username are unique.")
-                        .showAndWait();
-                event.consume();
-            } else {
-                created[0] = true;
-            }
+                        boolean success = error == null && createUserInDatabase(
+                                customUserId,
+                                username,
+                                passwordHash,
+                                firstName,
+                                lastName,
+                                email,
+                                phone,
+                                userType,
+                                active,
+                                aptField.getText().trim(),
+                                leaseStartPicker.getValue(),
+                                leaseEndPicker.getValue(),
+                                emergencyContactField.getText().trim(),
+                                emergencyPhoneField.getText().trim(),
+                                staffIdField.getText().trim(),
+                                staffSpecializations,
+                                maxCapacitySpinner.getValue(),
+                                employeeIdField.getText().trim(),
+                                departmentField.getText().trim()
+                        );
+
+                        if (!success) {
+                            new Alert(Alert.AlertType.ERROR,
+                                    "Unable to create user. Check logs and ensure User ID / Username are unique.")
+                                    .showAndWait();
+                        } else {
+                            created[0] = true;
+                            dialog.close();
+                        }
+                    }));
         });
 
         dialog.showAndWait();
@@ -910,12 +1213,13 @@ public class AdminDashboardController {
     /**
      * Persists a new user and any associated role-specific record inside a single transaction.
      *
+     * @param passwordHash the password already hashed with {@link PasswordHasher}
      * @return true on success, false if any error/rollback occurred
      */
     private boolean createUserInDatabase(
             String customUserId,
             String username,
-            String password,
+            String passwordHash,
             String firstName,
             String lastName,
             String email,
@@ -959,7 +1263,7 @@ public class AdminDashboardController {
             try (PreparedStatement userStmt = conn.prepareStatement(userSql)) {
                 userStmt.setString(1, userId);
                 userStmt.setString(2, username);
-                userStmt.setString(3, password);
+                userStmt.setString(3, passwordHash);
                 userStmt.setString(4, firstName);
                 userStmt.setString(5, lastName);
                 userStmt.setString(6, email);
@@ -1552,4 +1856,101 @@ public class AdminDashboardController {
             return dateCreated;
         }
     }
+
+    /**
+     * One timed operation in the System Health tab, with durations formatted in milliseconds.
+     */
+    public static class TimerRow {
+        private final String name;
+        private final LatencyHistogram.Snapshot snapshot;
+
+        public TimerRow(String name, LatencyHistogram.Snapshot snapshot) {
+            this.name = name;
+            this.snapshot = snapshot;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCount() {
+            return String.valueOf(snapshot.getCount());
+        }
+
+        public String getP50() {
+            return millis(snapshot.getPercentileMillis(0.50));
+        }
+
+        public String getP95() {
+            return millis(snapshot.getPercentileMillis(0.95));
+        }
+
+        public String getP99() {
+            return millis(snapshot.getPercentileMillis(0.99));
+        }
+
+        public String getMax() {
+            return millis(snapshot.getMaxMillis());
+        }
+
+        private static String millis(double value) {
+            return String.format(Locale.ROOT, "%.2f", value);
+        }
+    }
+
+    /**
+     * One normalized SQL shape in the System Health tab.
+     */
+    public static class SqlRow {
+        private final SqlStats.ShapeSummary summary;
+
+        public SqlRow(SqlStats.ShapeSummary summary) {
+            this.summary = summary;
+        }
+
+        public String getSql() {
+            return summary.getSql();
+        }
+
+        public String getCount() {
+            return String.valueOf(summary.getCount());
+        }
+
+        public String getTotal() {
+            return String.format(Locale.ROOT, "%.1f", summary.getTotalMillis());
+        }
+
+        public String getMean() {
+            return String.format(Locale.ROOT, "%.2f", summary.getMeanMillis());
+        }
+
+        public String getMax() {
+            return String.format(Locale.ROOT, "%.2f", summary.getMaxMillis());
+        }
+
+        public String getRows() {
+            return String.valueOf(summary.getRows());
+        }
+    }
+
+    /**
+     * One counter or gauge reading in the System Health tab.
+     */
+    public static class MetricRow {
+        private final String name;
+        private final String value;
+
+        public MetricRow(String name, long value) {
+            this.name = name;
+            this.value = String.valueOf(value);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
 }
@@ -9,11 +9,13 @@ import com.maintenance.enums.CategoryType;
 import com.maintenance.enums.PriorityLevel;
 import com.maintenance.enums.RequestStatus;
 import com.maintenance.models.MaintenanceRequest;
+import com.maintenance.models.Photo;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.event.ActionEvent;
 import javafx.geometry.HPos;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
@@ -38,6 +40,10 @@ public final class DashboardUIHelper {
     private static final PhotoDAO PHOTO_DAO = new PhotoDAO();
     private static final UserDAO USER_DAO = new UserDAO();
 
+    // Fixed slot size for the request photo gallery; images are decoded at this size
+    private static final double GALLERY_THUMB_WIDTH = 240;
+    private static final double GALLERY_THUMB_HEIGHT = 180;
+
     // Utility class, no instances
     private DashboardUIHelper() {}
 
@@ -290,23 +296,24 @@ public final class DashboardUIHelper {
     }
 
     /**
-     * Top level helper for showing request details, including current photo if present.
+     * Top level helper for showing request details, including any attached photos.
      */
     public static void showRequestDetailsDialog(MaintenanceRequest request) {
-        String photoUri = null;
-        if (request != null && request.getRequestId() != null) {
-            // Pull the most recent photo for this request if one exists
-            photoUri = PHOTO_DAO.getLatestPhotoPathForRequest(request.getRequestId());
+        if (request == null) {
+            return;
         }
-        if (request != null) {
-            showRequestDetailsDialog(request, photoUri);
+        List<Photo> photos = List.of();
+        if (request.getRequestId() != null) {
+            // Photo metadata only; the gallery decodes images lazily as they scroll into view
+            photos = PHOTO_DAO.getPhotosForRequest(request.getRequestId());
         }
+        showRequestDetailsDialog(request, photos);
     }
 
     /**
      * Internal method that builds the actual details dialog, including tenant and staff info.
      */
-    private static void showRequestDetailsDialog(MaintenanceRequest request, String photoUri) {
+    private static void showRequestDetailsDialog(MaintenanceRequest request, List<Photo> photos) {
         String tenantName = null;
         String tenantPhone = null;
         String tenantEmail = null;
@@ -464,26 +471,13 @@ public final class DashboardUIHelper {
             grid.add(resArea, 1, row++);
         }
 
-        // Optional photo preview if the request has one
-        if (photoUri != null && !photoUri.isBlank()) {
-            Label photoLabel = new Label("Photo:");
+        // Optional photo gallery if the request has any photos
+        if (photos != null && !photos.isEmpty()) {
+            Label photoLabel = new Label(photos.size() == 1 ? "Photo:" : "Photos (" + photos.size() + "):");
             photoLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
 
-            ImageView imageView = new ImageView();
-            imageView.setPreserveRatio(true);
-            imageView.setSmooth(true);
-            imageView.setFitWidth(320);
-
-            try {
-                imageView.setImage(new Image(photoUri, true));
-                grid.add(photoLabel, 0, row);
-                grid.add(imageView, 1, row++);
-            } catch (Exception ex) {
-                Label errorLabel = new Label("Unable to load image");
-                errorLabel.setTextFill(Color.RED);
-                grid.add(photoLabel, 0, row);
-                grid.add(errorLabel, 1, row);
-            }
+            grid.add(photoLabel, 0, row);
+            grid.add(createPhotoGallery(photos), 1, row++);
         }
 
         // Wrap details in a scroll pane to handle long content
@@ -497,6 +491,106 @@ public final class DashboardUIHelper {
         dialog.showAndWait();
     }
 
+    /**
+     * Builds a horizontally scrolling strip of fixed-size photo slots.
+     * Slots start as placeholders and only decode their image (downsampled, in the background)
+     * once they intersect the visible viewport, so requests with many photos open instantly.
+     */
+    private static ScrollPane createPhotoGallery(List<Photo> photos) {
+        HBox strip = new HBox(10);
+        strip.setPadding(new Insets(5));
+        strip.setAlignment(Pos.CENTER_LEFT);
+
+        for (Photo photo : photos) {
+            StackPane slot = new StackPane();
+            slot.setMinSize(GALLERY_THUMB_WIDTH, GALLERY_THUMB_HEIGHT);
+            slot.setPrefSize(GALLERY_THUMB_WIDTH, GALLERY_THUMB_HEIGHT);
+            slot.setMaxSize(GALLERY_THUMB_WIDTH, GALLERY_THUMB_HEIGHT);
+            slot.setStyle("-fx-background-color: #f3f4f6; -fx-background-radius: 6;");
+            slot.setUserData(photo);
+
+            Label placeholder = new Label(photo.getFileName() != null ? photo.getFileName() : "Photo");
+            placeholder.setTextFill(Color.GRAY);
+            placeholder.setFont(Font.font("Arial", 11));
+            slot.getChildren().add(placeholder);
+
+            strip.getChildren().add(slot);
+        }
+
+        ScrollPane gallery = new ScrollPane(strip);
+        gallery.setFitToHeight(true);
+        gallery.setPrefViewportHeight(GALLERY_THUMB_HEIGHT + 10);
+        gallery.setVbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
+        gallery.setHbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
+        gallery.setMaxWidth(Double.MAX_VALUE);
+        GridPane.setHgrow(gallery, Priority.ALWAYS);
+
+        // Re-check visibility whenever the strip is scrolled, resized, or first laid out
+        gallery.hvalueProperty().addListener((obs, oldV, newV) -> loadVisibleThumbnails(gallery, strip));
+        gallery.viewportBoundsProperty().addListener((obs, oldB, newB) -> loadVisibleThumbnails(gallery, strip));
+        strip.widthProperty().addListener((obs, oldW, newW) -> loadVisibleThumbnails(gallery, strip));
+
+        return gallery;
+    }
+
+    /**
+     * Decodes the image for every gallery slot currently inside (or one slot beyond) the viewport.
+     * Slots that already started loading are skipped, so each photo is decoded at most once.
+     */
+    private static void loadVisibleThumbnails(ScrollPane gallery, HBox strip) {
+        double viewportWidth = gallery.getViewportBounds().getWidth();
+        if (viewportWidth <= 0) {
+            return;
+        }
+
+        double scrollable = Math.max(0, strip.getWidth() - viewportWidth);
+        double left = gallery.getHvalue() * scrollable;
+        // Prefetch one slot past the right edge so scrolling feels seamless
+        double right = left + viewportWidth + GALLERY_THUMB_WIDTH;
+
+        for (Node node : strip.getChildren()) {
+            if (!(node instanceof StackPane slot) || !(slot.getUserData() instanceof Photo photo)) {
+                continue;
+            }
+            double x = slot.getBoundsInParent().getMinX();
+            double maxX = slot.getBoundsInParent().getMaxX();
+            if (maxX < left || x > right) {
+                continue;
+            }
+
+            // Mark as loaded before decoding so repeated scroll events don't re-enter
+            slot.setUserData(null);
+
+            String uri = photo.getFilePath();
+            if (uri == null || uri.isBlank()) {
+                continue;
+            }
+            try {
+                // Background load, decoded straight to thumbnail size instead of full resolution
+                Image image = new Image(uri, GALLERY_THUMB_WIDTH, GALLERY_THUMB_HEIGHT, true, true, true);
+                ImageView imageView = new ImageView(image);
+                imageView.setPreserveRatio(true);
+                imageView.setSmooth(true);
+                imageView.setFitWidth(GALLERY_THUMB_WIDTH);
+                imageView.setFitHeight(GALLERY_THUMB_HEIGHT);
+
+                image.errorProperty().addListener((obs, wasError, isError) -> {
+                    if (isError) {
+                        Label errorLabel = new Label("Unable to load image");
+                        errorLabel.setTextFill(Color.RED);
+                        slot.getChildren().setAll(errorLabel);
+                    }
+                });
+
+                slot.getChildren().setAll(imageView);
+            } catch (Exception ex) {
+                Label errorLabel = new Label("Unable to load image");
+                errorLabel.setTextFill(Color.RED);
+                slot.getChildren().setAll(errorLabel);
+            }
+        }
+    }
+
     /**
      * Shared tenant edit dialog used on the tenant dashboard.
      * Supports editing category, description, priority, and limited status transitions
@@ -584,6 +678,10 @@ public final class DashboardUIHelper {
 
         Button saveButton = (Button) dialog.getDialogPane().lookupButton(saveBtnType);
         boolean[] updated = {false};
+        boolean[] changedElsewhere = {false};
+        CategoryType originalCategory = request.getCategory();
+        String originalDescription = request.getDescription();
+        PriorityLevel originalPriority = request.getPriority();
 
         // Validate and persist on Save
         saveButton.addEventFilter(ActionEvent.ACTION, event -> {
@@ -597,42 +695,89 @@ public final class DashboardUIHelper {
             }
 
             RequestStatus newStatus = selectedStatus[0];
+            CategoryType category = categoryBox.getValue();
+            String description = descArea.getText().trim();
+            PriorityLevel priority = priorityBox.getValue();
+
+            // Merge with anything saved while the dialog was open: only the fields edited here are written,
+            // and only if nobody else changed the same field in the meantime
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                boolean categoryEdited = category != originalCategory;
+                boolean descriptionEdited = !description.equals(originalDescription);
+                boolean priorityEdited = priority != originalPriority;
+                boolean statusEdited = newStatus != originalStatus;
+                if ((categoryEdited && r.getCategory() != originalCategory)
+                        || (descriptionEdited && !Objects.equals(r.getDescription(), originalDescription))
+                        || (priorityEdited && r.getPriority() != originalPriority)
+                        || (statusEdited && r.getStatus() != originalStatus)) {
+                    return false;
+                }
+                if (categoryEdited) r.setCategory(category);
+                if (descriptionEdited) r.setDescription(description);
+                if (priorityEdited) r.setPriority(priority);
+                if (statusEdited) {
+                    r.setStatus(newStatus);
+                    // Only when a closed request is explicitly reopened do we clear archive flags.
+                    // This is how tenant reopens a completed or cancelled request and pulls it
+                    // back into both tenant and staff dashboards.
+                    if ((originalStatus == RequestStatus.COMPLETED || originalStatus == RequestStatus.CANCELLED)
+                            && newStatus == RequestStatus.REOPENED) {
+                        r.setTenantArchived(false);
+                        r.setStaffArchived(false);
+                    }
+                }
+                r.setLastUpdated(LocalDateTime.now());
+                return true;
+            });
 
-            // Update edited fields
-            request.setCategory(categoryBox.getValue());
-            request.setDescription(descArea.getText().trim());
-            request.setPriority(priorityBox.getValue());
-            request.setStatus(newStatus);
-            request.setLastUpdated(LocalDateTime.now());
-
-            // Only when a closed request is explicitly reopened do we clear archive flags.
-            // This is how tenant reopens a completed or cancelled request and pulls it
-            // back into both tenant and staff dashboards.
-            if ((originalStatus == RequestStatus.COMPLETED || originalStatus == RequestStatus.CANCELLED)
-                    && newStatus == RequestStatus.REOPENED) {
-                request.setTenantArchived(false);
-                request.setStaffArchived(false);
-            }
-
-            if (!requestDAO.updateRequest(request)) {
-                new Alert(Alert.AlertType.ERROR, "Unable to update request. Please try again.").showAndWait();
+            if (result.isUpdated()) {
+                updated[0] = true;
+            } else if (result.getStatus() == MaintenanceRequestDAO.UpdateStatus.FAILED) {
+                showUpdateFailure(result, "Unable to update request. Please try again.");
                 event.consume();
             } else {
-                updated[0] = true;
+                // The edits cannot be merged; close so the refreshed list shows the current request
+                showUpdateFailure(result, null);
+                changedElsewhere[0] = true;
             }
         });
 
         dialog.showAndWait();
 
-        // Only notify and call afterSave if the update actually succeeded
+        // Only notify if the update actually succeeded; refresh as well if the request changed elsewhere
+        if ((updated[0] || changedElsewhere[0]) && afterSave != null) {
+            afterSave.run();
+        }
         if (updated[0]) {
-            if (afterSave != null) {
-                afterSave.run();
-            }
             new Alert(Alert.AlertType.INFORMATION, "Request updated successfully.").showAndWait();
         }
     }
 
+    /**
+     * Explain why {@link MaintenanceRequestDAO#updateRequest} did not save a change. A conflict names
+     * what the request looks like now, since the user acted on an older copy of it.
+     *
+     * @param failure message for a database error
+     */
+    public static void showUpdateFailure(MaintenanceRequestDAO.UpdateResult result, String failure) {
+        switch (result.getStatus()) {
+            case CONFLICT -> {
+                MaintenanceRequest current = result.getRequest();
+                String assigned = current.getAssignedStaffId() != null
+                        ? ", assigned to " + current.getAssignedStaffId()
+                        : "";
+                new Alert(Alert.AlertType.WARNING, "Request #" + current.getRequestId()
+                        + " was changed by someone else and is now " + current.getStatus().getDisplayName()
+                        + assigned + " (priority " + current.getPriority().getDisplayName() + ").\n"
+                        + "Your change was not saved. Please review the request and try again.").showAndWait();
+            }
+            case NOT_FOUND -> new Alert(Alert.AlertType.ERROR,
+                    "This request no longer exists.").showAndWait();
+            default -> new Alert(Alert.AlertType.ERROR,
+                    failure != null ? failure : "Unable to update request. Please try again.").showAndWait();
+        }
+    }
+
     /**
      * Shared styling helper for "toggle like" labeled controls (CheckBox, etc) that act as actions.
      */
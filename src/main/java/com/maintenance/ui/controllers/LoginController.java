@@ -1,9 +1,10 @@
 package com.maintenance.ui.controllers;
 
-import com.maintenance.database.DatabaseManager;
+import com.maintenance.dao.UserDAO;
 import com.maintenance.models.*;
 import com.maintenance.service.AuthenticationService;
 import com.maintenance.ui.views.ViewFactory;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -14,11 +15,10 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller responsible for rendering and handling the login screen.
@@ -33,8 +33,12 @@ public class LoginController {
     private final ViewFactory viewFactory;
     // Authentication service for login, logout, and current user management
     private final AuthenticationService authService;
-    // Shared database manager used for low-level queries (e.g., inactive account check)
-    private final DatabaseManager dbManager;
+    // Daemon worker for password verification so a pending login never blocks app exit
+    private static final ExecutorService LOGIN_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "login-verify");
+        t.setDaemon(true);
+        return t;
+    });
 
     /**
      * Constructs a LoginController with the shared ViewFactory and service singletons.
@@ -44,7 +48,6 @@ public class LoginController {
     public LoginController(ViewFactory viewFactory) {
         this.viewFactory = viewFactory;
         this.authService = AuthenticationService.getInstance();
-        this.dbManager = DatabaseManager.getInstance();
     }
 
     /**
@@ -376,77 +379,71 @@ public class LoginController {
             }
 
             errorLabel.setVisible(false);
-
-            // Delegate authentication to AuthenticationService
-            if (authService.login(username, password)) {
-                User currentUser = authService.getCurrentUser();
-
-                // Guard: authenticated but account marked inactive
-                if (currentUser != null && !currentUser.isActive()) {
-                    errorLabel.setText("Your account is inactive. Contact an administrator.");
-                    errorLabel.setVisible(true);
-                    authService.logout();
-                    return;
-                }
-
-                // Close the login window
-                Stage currentStage = (Stage) loginButton.getScene().getWindow();
-                viewFactory.closeStage(currentStage);
-
-                // Prepare a new stage for the dashboard
-                Stage newStage = new Stage();
-
-                // Route to the correct dashboard based on the concrete user type
-                if (currentUser instanceof Tenant) {
-                    viewFactory.showTenantDashboard(newStage);
-                } else if (currentUser instanceof BuildingManager) {
-                    viewFactory.showManagerDashboard(newStage);
-                } else if (currentUser instanceof MaintenanceStaff) {
-                    viewFactory.showStaffDashboard(newStage);
-                } else if (currentUser instanceof Admin) {
-                    viewFactory.showAdminDashboard(newStage);
-                }
-            } else {
-                // Authentication failed: distinguish between invalid credentials and inactive account
-                if (isInactiveUser(username, password)) {
-                    errorLabel.setText("Your account is inactive. Contact an administrator.");
-                } else {
-                    errorLabel.setText("Invalid username or password.");
-                }
-                errorLabel.setVisible(true);
-            }
+            loginButton.setDisable(true);
+            loginButton.setText("Signing in...");
+
+            // Password hashing is deliberately slow; verify off the FX thread so the UI stays responsive
+            CompletableFuture
+                    .supplyAsync(() -> authService.authenticate(username, password).getStatus(), LOGIN_EXECUTOR)
+                    .whenComplete((outcome, error) -> Platform.runLater(() -> {
+                        loginButton.setDisable(false);
+                        loginButton.setText("Sign in");
+
+                        if (error != null) {
+                            System.err.println("Login error: " + error.getMessage());
+                            errorLabel.setText("Unable to sign in right now. Please try again.");
+                            errorLabel.setVisible(true);
+                        } else if (outcome == UserDAO.AuthStatus.SUCCESS) {
+                            openDashboard(loginButton, errorLabel);
+                        } else if (outcome == UserDAO.AuthStatus.THROTTLED) {
+                            errorLabel.setText("Too many sign-in attempts. Please wait a minute and try again.");
+                            errorLabel.setVisible(true);
+                        } else if (outcome == UserDAO.AuthStatus.INACTIVE) {
+                            errorLabel.setText("Your account is inactive. Contact an administrator.");
+                            errorLabel.setVisible(true);
+                        } else {
+                            errorLabel.setText("Invalid username or password.");
+                            errorLabel.setVisible(true);
+                        }
+                    }));
         });
         return loginButton;
     }
 
     /**
-     * Checks if a user with the supplied credentials exists but is inactive.
-     * This is used to provide a more specific error message when login fails.
+     * Closes the login window and opens the dashboard for the authenticated user's role.
+     * Must be called on the FX thread after a successful login.
      *
-     * @param username username to check
-     * @param password password to check
-     * @return true if a matching user exists and is inactive, false otherwise
+     * @param loginButton button whose window is the login stage
+     * @param errorLabel  label used if the account turns out to be inactive
      */
-    private boolean isInactiveUser(String username, String password) {
-        Connection conn = dbManager.getConnection();
-        if (conn == null) {
-            System.err.println("Database connection is null in isInactiveUser");
-            return false;
+    private void openDashboard(Button loginButton, Label errorLabel) {
+        User currentUser = authService.getCurrentUser();
+
+        // Guard: authenticated but account marked inactive
+        if (currentUser != null && !currentUser.isActive()) {
+            errorLabel.setText("Your account is inactive. Contact an administrator.");
+            errorLabel.setVisible(true);
+            authService.logout();
+            return;
         }
 
-        String sql = "SELECT is_active FROM users WHERE username = ? AND password = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, username);
-            ps.setString(2, password);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    boolean active = rs.getBoolean("is_active");
-                    return !active;
-                }
-            }
-        } catch (SQLException ex) {
-            System.err.println("Error checking inactive user during login: " + ex.getMessage());
+        // Close the login window
+        Stage currentStage = (Stage) loginButton.getScene().getWindow();
+        viewFactory.closeStage(currentStage);
+
+        // Prepare a new stage for the dashboard
+        Stage newStage = new Stage();
+
+        // Route to the correct dashboard based on the concrete user type
+        if (currentUser instanceof Tenant) {
+            viewFactory.showTenantDashboard(newStage);
+        } else if (currentUser instanceof BuildingManager) {
+            viewFactory.showManagerDashboard(newStage);
+        } else if (currentUser instanceof MaintenanceStaff) {
+            viewFactory.showStaffDashboard(newStage);
+        } else if (currentUser instanceof Admin) {
+            viewFactory.showAdminDashboard(newStage);
         }
-        return false;
     }
 }
@@ -1,14 +1,36 @@
 package com.maintenance.ui.controllers;
 
+import com.maintenance.dao.AnalyticsDAO;
+import com.maintenance.dao.ApartmentDAO;
+import com.maintenance.dao.BuildingDAO;
+import com.maintenance.dao.CompletionSketchDAO;
+import com.maintenance.dao.InventoryDAO;
 import com.maintenance.dao.MaintenanceRequestDAO;
+import com.maintenance.dao.PreventiveMaintenanceScheduler;
+import com.maintenance.dao.PreventiveScheduleDAO;
+import com.maintenance.dao.RequestRollups;
+import com.maintenance.dao.SlaMonitor;
 import com.maintenance.dao.UserDAO;
+import com.maintenance.enums.CategoryType;
+import com.maintenance.enums.PriorityLevel;
 import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.QuantileSketch;
+import com.maintenance.metrics.jfr.DashboardLoadEvent;
+import com.maintenance.models.Apartment;
+import com.maintenance.models.Building;
 import com.maintenance.models.BuildingManager;
 import com.maintenance.models.MaintenanceRequest;
 import com.maintenance.models.MaintenanceStaff;
+import com.maintenance.models.Part;
+import com.maintenance.models.PreventiveSchedule;
 import com.maintenance.service.AuthenticationService;
+import com.maintenance.service.RequestExportService;
 import com.maintenance.ui.views.ViewFactory;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -17,20 +39,40 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controller for the Building Manager dashboard.
  * Responsibilities:
  *  - Render manager dashboard layout (top bar, sidebar, center content)
- *  - Show request-level stats and filterable request table
+ *  - Show request-level stats and filterable request table, scoped to the building in focus
  *  - Enforce staff capacity when assigning or reassigning requests
+ *  - Export request data for accounting (CSV / JSON Lines)
+ *  - Show weekly analytics (requests per category, completion times, costs) from the rollup tables
+ *  - Show completion-time percentiles per category and per staff member from stored sketches
+ *  - Show parts stock and the low-stock report; add parts and receive deliveries
+ *  - Manage recurring preventive maintenance schedules per building or apartment
  *  - Route back to login on logout
  */
 public class ManagerDashboardController {
+    // Timers for dashboard loads
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
     // Used to open and close views / stages
     private final ViewFactory viewFactory;
     // Provides current user and logout functionality
@@ -39,12 +81,44 @@ public class ManagerDashboardController {
     private final MaintenanceRequestDAO requestDAO;
     // DAO for loading staff data, including workload
     private final UserDAO userDAO;
+    // DAO for the building selector
+    private final BuildingDAO buildingDAO;
+    // Streams request data to CSV / JSON Lines files
+    private final RequestExportService exportService;
+    // Reads the pre-aggregated analytics rollups
+    private final AnalyticsDAO analyticsDAO;
+    // Reads the completion-time percentile sketches
+    private final CompletionSketchDAO sketchDAO;
+    // Parts catalog and stock counters
+    private final InventoryDAO inventoryDAO;
+    // DAOs for preventive maintenance schedules and the apartments they cover
+    private final PreventiveScheduleDAO scheduleDAO;
+    private final ApartmentDAO apartmentDAO;
     // Table showing all (or filtered) maintenance requests
     private TableView<MaintenanceRequest> requestTable;
     // Container for stat cards (total, in progress, etc.)
     private HBox statsBox;
     // Filter combo box that controls which requests are shown in the table
     private final ComboBox<String> filterBox = new ComboBox<>();
+    // Building in focus; only its requests are loaded
+    private final ComboBox<Building> buildingBox = new ComboBox<>();
+    // Selector entry (with no building ID) that loads every building
+    private final Building allBuildings;
+    // Analytics tab: how many weeks back to report
+    private final ComboBox<Integer> weeksBox = new ComboBox<>();
+    // Analytics tab and its tables; refreshed while the tab is showing
+    private Tab analyticsTab;
+    private Label analyticsScopeLabel;
+    private TableView<WeekRow> weeklyTable;
+    private TableView<AnalyticsDAO.PriorityCompletion> completionTable;
+    private TableView<AnalyticsDAO.BuildingCost> costTable;
+    private TableView<PercentileRow> categoryPercentileTable;
+    private TableView<PercentileRow> staffPercentileTable;
+    // Inventory tab: parts stock, optionally only the low-stock report
+    private TableView<Part> partsTable;
+    private final CheckBox lowStockOnly = new CheckBox("Low stock only");
+    // Preventive tab: recurring jobs and when each is next due
+    private TableView<PreventiveSchedule> scheduleTable;
 
     /**
      * Create a ManagerDashboardController with the shared ViewFactory and service singletons.
@@ -56,6 +130,15 @@ public class ManagerDashboardController {
         this.authService = AuthenticationService.getInstance();
         this.requestDAO = new MaintenanceRequestDAO();
         this.userDAO = new UserDAO();
+        this.buildingDAO = new BuildingDAO();
+        this.allBuildings = new Building("All Buildings", null, null, 0);
+        this.allBuildings.setBuildingId(null);
+        this.exportService = new RequestExportService();
+        this.analyticsDAO = new AnalyticsDAO();
+        this.sketchDAO = new CompletionSketchDAO();
+        this.inventoryDAO = new InventoryDAO();
+        this.scheduleDAO = new PreventiveScheduleDAO();
+        this.apartmentDAO = new ApartmentDAO();
     }
 
     /**
@@ -78,10 +161,33 @@ public class ManagerDashboardController {
         VBox sidebar = createSidebar();
         mainLayout.setLeft(sidebar);
 
-        // Center content: welcome text, stats, request table
+        // Center: dashboard tab (welcome text, stats, request table), Analytics, Inventory and Preventive tabs
         VBox centerContent = createCenterContent();
         VBox.setVgrow(centerContent, Priority.ALWAYS);
-        mainLayout.setCenter(centerContent);
+
+        TabPane tabPane = new TabPane();
+        tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        Tab dashboardTab = new Tab("📊 Dashboard", centerContent);
+        analyticsTab = new Tab("📈 Analytics", createAnalyticsContent());
+        analyticsTab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                refreshAnalytics();
+            }
+        });
+        Tab inventoryTab = new Tab("📦 Inventory", createInventoryContent());
+        inventoryTab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                refreshInventory();
+            }
+        });
+        Tab preventiveTab = new Tab("🗓 Preventive", createPreventiveContent());
+        preventiveTab.selectedProperty().addListener((obs, wasSelected, selected) -> {
+            if (selected) {
+                refreshSchedules();
+            }
+        });
+        tabPane.getTabs().addAll(dashboardTab, analyticsTab, inventoryTab, preventiveTab);
+        mainLayout.setCenter(tabPane);
 
         // Anchor the main layout to fill the entire root pane
         AnchorPane.setTopAnchor(mainLayout, 0.0);
@@ -206,13 +312,17 @@ public class ManagerDashboardController {
      * Each stat card is clickable and sets the request filter accordingly.
      */
     private void refreshStats() {
+        DashboardLoadEvent.time("ManagerDashboard", "refreshStats", this::doRefreshStats);
+    }
+
+    private void doRefreshStats() {
         if (statsBox == null) {
             return;
         }
 
         statsBox.getChildren().clear();
 
-        List<MaintenanceRequest> allRequests = requestDAO.getAllRequests();
+        List<MaintenanceRequest> allRequests = loadScopedRequests(false);
 
         long unassigned = allRequests.stream()
                 .filter(r -> r.getStatus() == RequestStatus.SUBMITTED)
@@ -298,6 +408,8 @@ public class ManagerDashboardController {
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
+        setUpBuildingBox();
+
         // Filter options bound to the request status categories
         filterBox.getItems().addAll(
                 "All Requests",
@@ -305,7 +417,8 @@ public class ManagerDashboardController {
                 "In Progress",
                 "Not Started",
                 "Completed",
-                "Cancelled"
+                "Cancelled",
+                "Archived"
         );
         filterBox.setValue("All Requests");
         filterBox.setStyle("-fx-background-radius: 5; -fx-padding: 5 10;");
@@ -324,7 +437,13 @@ public class ManagerDashboardController {
                 "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
         refreshBtn.setOnAction(e -> loadRequests());
 
-        headerBox.getChildren().addAll(sectionTitle, spacer, filterBox, refreshBtn);
+        // Streams every request to CSV / JSON Lines for accounting
+        Button exportBtn = new Button("⬇ Export");
+        exportBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        exportBtn.setOnAction(e -> showExportDialog(exportBtn));
+
+        headerBox.getChildren().addAll(sectionTitle, spacer, buildingBox, filterBox, refreshBtn, exportBtn);
 
         // Request table setup
         requestTable = new TableView<>();
@@ -354,6 +473,19 @@ public class ManagerDashboardController {
         TableColumn<MaintenanceRequest, ?> statusCol = DashboardUIHelper.createStatusColumn();
         TableColumn<MaintenanceRequest, ?> dateCol = DashboardUIHelper.createSubmittedDateColumn();
 
+        // SLA deadline for the request's current phase (pick-up or completion), flagged once passed
+        TableColumn<MaintenanceRequest, String> slaCol = new TableColumn<>("SLA Due");
+        slaCol.setCellValueFactory(data -> {
+            SlaMonitor monitor = SlaMonitor.getInstance();
+            LocalDateTime due = monitor != null ? monitor.deadlineFor(data.getValue()) : null;
+            if (due == null) {
+                return new ReadOnlyStringWrapper("");
+            }
+            String text = due.format(DateTimeFormatter.ofPattern("MM/dd HH:mm"));
+            return new ReadOnlyStringWrapper(due.isBefore(LocalDateTime.now()) ? "⚠ " + text : text);
+        });
+        slaCol.setPrefWidth(110);
+
         // Actions column that shows "Assign" / "Reassign" / "View"
         TableColumn<MaintenanceRequest, Void> actionCol = getMaintenanceRequestVoidTableColumn();
 
@@ -365,6 +497,7 @@ public class ManagerDashboardController {
                 priorityCol,
                 statusCol,
                 dateCol,
+                slaCol,
                 actionCol
         ));
 
@@ -381,6 +514,370 @@ public class ManagerDashboardController {
         return section;
     }
 
+    /**
+     * Fills the building selector with the manager's own buildings first, then the rest, and focuses
+     * the first building the manager runs (or every building if they run none). Changing the selection
+     * reloads stats and the table for that building only.
+     */
+    private void setUpBuildingBox() {
+        BuildingManager manager = (BuildingManager) authService.getCurrentUser();
+        List<Building> managed = buildingDAO.getBuildingsByManager(manager.getUserId());
+
+        buildingBox.getItems().add(allBuildings);
+        buildingBox.getItems().addAll(managed);
+        for (Building building : buildingDAO.getAllBuildings()) {
+            if (managed.stream().noneMatch(b -> b.getBuildingId().equals(building.getBuildingId()))) {
+                buildingBox.getItems().add(building);
+            }
+        }
+        buildingBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Building building) {
+                return building == null ? "" : "🏢 " + building.getBuildingName();
+            }
+
+            @Override
+            public Building fromString(String name) {
+                return null;
+            }
+        });
+        buildingBox.setValue(managed.isEmpty() ? allBuildings : managed.get(0));
+        buildingBox.setStyle("-fx-background-radius: 5; -fx-padding: 5 10;");
+
+        buildingBox.valueProperty().addListener((obs, oldBuilding, newBuilding) -> {
+            if (newBuilding != null && requestTable != null) {
+                refreshStats();
+                filterRequests(filterBox.getValue());
+            }
+            if (newBuilding != null && analyticsTab != null && analyticsTab.isSelected()) {
+                refreshAnalytics();
+            }
+        });
+    }
+
+    /**
+     * Loads active (or archive-store) requests for the building in focus, or every building.
+     *
+     * @param archived true to read the archive store
+     * @return requests newest first
+     */
+    private List<MaintenanceRequest> loadScopedRequests(boolean archived) {
+        Building building = buildingBox.getValue();
+        String buildingId = building != null ? building.getBuildingId() : null;
+        if (buildingId == null) {
+            return archived ? requestDAO.getArchivedRequests() : requestDAO.getAllRequests();
+        }
+        return archived
+                ? requestDAO.getArchivedRequestsByBuilding(buildingId)
+                : requestDAO.getRequestsByBuilding(buildingId);
+    }
+
+    /**
+     * Builds the Analytics tab: requests per category per week, mean completion time by priority,
+     * and cost by building, all read from the rollup tables rather than the request tables.
+     * The category and priority tables follow the building selected on the Dashboard tab.
+     *
+     * @return VBox containing the analytics header and tables
+     */
+    private VBox createAnalyticsContent() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(30));
+        content.setFillWidth(true);
+
+        HBox headerBox = new HBox(20);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label title = new Label("Maintenance Analytics");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        analyticsScopeLabel = new Label();
+        analyticsScopeLabel.setTextFill(Color.GRAY);
+
+        weeksBox.getItems().addAll(4, 12, 26, 52);
+        weeksBox.setValue(12);
+        weeksBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Integer weeks) {
+                return weeks == null ? "" : "Last " + weeks + " weeks";
+            }
+
+            @Override
+            public Integer fromString(String text) {
+                return null;
+            }
+        });
+        weeksBox.setStyle("-fx-background-radius: 5; -fx-padding: 5 10;");
+        weeksBox.valueProperty().addListener((obs, oldWeeks, newWeeks) -> refreshAnalytics());
+
+        Button refreshBtn = new Button("🔄 Refresh");
+        refreshBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        refreshBtn.setOnAction(e -> refreshAnalytics());
+
+        // Recomputes the rollups from every request; only needed if they are ever suspected wrong
+        Button rebuildBtn = new Button("🛠 Rebuild");
+        rebuildBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        rebuildBtn.setOnAction(e -> rebuildAnalytics(rebuildBtn));
+
+        headerBox.getChildren().addAll(title, spacer, analyticsScopeLabel, weeksBox, refreshBtn, rebuildBtn);
+
+        // Requests per week, one column per category
+        weeklyTable = new TableView<>();
+        weeklyTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        weeklyTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        VBox.setVgrow(weeklyTable, Priority.ALWAYS);
+
+        TableColumn<WeekRow, String> weekCol = new TableColumn<>("Week of");
+        weekCol.setCellValueFactory(new PropertyValueFactory<>("week"));
+        weekCol.setPrefWidth(110);
+        weeklyTable.getColumns().add(weekCol);
+        for (CategoryType category : CategoryType.values()) {
+            TableColumn<WeekRow, String> col = new TableColumn<>(category.getIcon() + " " + category.getDisplayName());
+            col.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    String.valueOf(data.getValue().getCount(category.name()))));
+            col.setStyle("-fx-alignment: CENTER-RIGHT;");
+            col.setPrefWidth(95);
+            weeklyTable.getColumns().add(col);
+        }
+        TableColumn<WeekRow, String> totalCol = new TableColumn<>("Total");
+        totalCol.setCellValueFactory(new PropertyValueFactory<>("total"));
+        totalCol.setStyle("-fx-alignment: CENTER-RIGHT; -fx-font-weight: bold;");
+        weeklyTable.getColumns().add(totalCol);
+        weeklyTable.setPlaceholder(new Label("No requests in this period"));
+
+        // Mean submission-to-completion time per priority
+        completionTable = new TableView<>();
+        completionTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        completionTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        completionTable.setPrefHeight(200);
+
+        TableColumn<AnalyticsDAO.PriorityCompletion, String> priorityCol = new TableColumn<>("Priority");
+        priorityCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(priorityName(data.getValue().getPriority())));
+        priorityCol.setPrefWidth(160);
+        TableColumn<AnalyticsDAO.PriorityCompletion, String> submittedCol = new TableColumn<>("Submitted");
+        submittedCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(String.valueOf(data.getValue().getRequests())));
+        submittedCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        TableColumn<AnalyticsDAO.PriorityCompletion, String> completedCol = new TableColumn<>("Completed");
+        completedCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(String.valueOf(data.getValue().getCompleted())));
+        completedCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        TableColumn<AnalyticsDAO.PriorityCompletion, String> meanCol = new TableColumn<>("Mean time to complete");
+        meanCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getCompleted() == 0
+                ? "—"
+                : formatHours(data.getValue().getMeanCompletionHours())));
+        meanCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        completionTable.getColumns().setAll(List.of(priorityCol, submittedCol, completedCol, meanCol));
+        completionTable.setPlaceholder(new Label("No requests in this period"));
+
+        // Cost per building (always every building, for comparison)
+        costTable = new TableView<>();
+        costTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        costTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        costTable.setPrefHeight(200);
+
+        TableColumn<AnalyticsDAO.BuildingCost, String> buildingCol = new TableColumn<>("Building");
+        buildingCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                data.getValue().getBuildingName() != null ? data.getValue().getBuildingName() : "(no building)"));
+        buildingCol.setPrefWidth(220);
+        TableColumn<AnalyticsDAO.BuildingCost, String> requestsCol = new TableColumn<>("Requests");
+        requestsCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(String.valueOf(data.getValue().getRequests())));
+        requestsCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        TableColumn<AnalyticsDAO.BuildingCost, String> estimatedCol = new TableColumn<>("Estimated");
+        estimatedCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(money(data.getValue().getEstimatedCost())));
+        estimatedCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        TableColumn<AnalyticsDAO.BuildingCost, String> actualCol = new TableColumn<>("Actual");
+        actualCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(money(data.getValue().getActualCost())));
+        actualCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        costTable.getColumns().setAll(List.of(buildingCol, requestsCol, estimatedCol, actualCol));
+        costTable.setPlaceholder(new Label("No requests in this period"));
+
+        Label completionTitle = new Label("Completion Time by Priority");
+        completionTitle.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        Label costTitle = new Label("Cost by Building");
+        costTitle.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+        VBox completionBox = new VBox(8, completionTitle, completionTable);
+        VBox costBox = new VBox(8, costTitle, costTable);
+        HBox.setHgrow(completionBox, Priority.ALWAYS);
+        HBox.setHgrow(costBox, Priority.ALWAYS);
+        HBox lowerBox = new HBox(20, completionBox, costBox);
+
+        // Completion-time percentiles over all time, from the per-category and per-staff sketches
+        categoryPercentileTable = createPercentileTable("Category");
+        staffPercentileTable = createPercentileTable("Staff");
+        Label categoryPercentileTitle = new Label("Completion Time Percentiles by Category (all time)");
+        categoryPercentileTitle.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        Label staffPercentileTitle = new Label("Completion Time Percentiles by Staff (all time)");
+        staffPercentileTitle.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+
+        VBox categoryPercentileBox = new VBox(8, categoryPercentileTitle, categoryPercentileTable);
+        VBox staffPercentileBox = new VBox(8, staffPercentileTitle, staffPercentileTable);
+        HBox.setHgrow(categoryPercentileBox, Priority.ALWAYS);
+        HBox.setHgrow(staffPercentileBox, Priority.ALWAYS);
+        HBox percentileBox = new HBox(20, categoryPercentileBox, staffPercentileBox);
+
+        content.getChildren().addAll(headerBox, weeklyTable, lowerBox, percentileBox);
+        return content;
+    }
+
+    /**
+     * Creates a table of completion-time count, p50, p90 and p99 per row.
+     *
+     * @param groupLabel header of the first column
+     * @return configured TableView for PercentileRow items
+     */
+    private TableView<PercentileRow> createPercentileTable(String groupLabel) {
+        TableView<PercentileRow> table = new TableView<>();
+        table.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPrefHeight(200);
+
+        TableColumn<PercentileRow, String> nameCol = new TableColumn<>(groupLabel);
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameCol.setPrefWidth(180);
+        table.getColumns().add(nameCol);
+        String[][] columns = {{"Completed", "count"}, {"p50", "p50"}, {"p90", "p90"}, {"p99", "p99"}};
+        for (String[] column : columns) {
+            TableColumn<PercentileRow, String> col = new TableColumn<>(column[0]);
+            col.setCellValueFactory(new PropertyValueFactory<>(column[1]));
+            col.setStyle("-fx-alignment: CENTER-RIGHT;");
+            table.getColumns().add(col);
+        }
+        table.setPlaceholder(new Label("No completed requests yet"));
+        return table;
+    }
+
+    /**
+     * Reloads the Analytics tables for the selected period and building.
+     */
+    private void refreshAnalytics() {
+        if (weeklyTable == null) {
+            return;
+        }
+        DashboardLoadEvent.time("ManagerDashboard", "refreshAnalytics", this::doRefreshAnalytics);
+    }
+
+    private void doRefreshAnalytics() {
+        Building building = buildingBox.getValue();
+        String buildingId = building != null ? building.getBuildingId() : null;
+        int weeks = weeksBox.getValue() != null ? weeksBox.getValue() : 12;
+        LocalDate since = LocalDate.now().minusWeeks(weeks - 1L);
+
+        List<WeekRow> weekRows = new ArrayList<>();
+        for (Map.Entry<LocalDate, Map<String, Long>> e
+                : analyticsDAO.getWeeklyCategoryCounts(buildingId, since).entrySet()) {
+            weekRows.add(new WeekRow(e.getKey(), e.getValue()));
+        }
+        weekRows.sort(Comparator.comparing(WeekRow::getWeekStart).reversed());
+
+        List<AnalyticsDAO.PriorityCompletion> completion =
+                new ArrayList<>(analyticsDAO.getCompletionByPriority(buildingId, since));
+        completion.sort(Comparator.comparingInt(c -> -priorityLevel(c.getPriority())));
+
+        weeklyTable.setItems(FXCollections.observableArrayList(weekRows));
+        completionTable.setItems(FXCollections.observableArrayList(completion));
+        costTable.setItems(FXCollections.observableArrayList(analyticsDAO.getCostByBuilding(since)));
+        refreshPercentiles();
+        analyticsScopeLabel.setText(building != null ? "🏢 " + building.getBuildingName() : "");
+    }
+
+    /**
+     * Reloads the percentile tables. The category table starts with every category merged into one row.
+     */
+    private void refreshPercentiles() {
+        List<PercentileRow> categoryRows = new ArrayList<>();
+        QuantileSketch allCategories = new QuantileSketch();
+        for (Map.Entry<String, QuantileSketch> e : sketchDAO.getSketches(CompletionSketchDAO.CATEGORY).entrySet()) {
+            allCategories.merge(e.getValue());
+            categoryRows.add(new PercentileRow(categoryName(e.getKey()), e.getValue()));
+        }
+        if (allCategories.getCount() > 0) {
+            categoryRows.add(0, new PercentileRow("All categories", allCategories));
+        }
+
+        List<PercentileRow> staffRows = new ArrayList<>();
+        Map<String, QuantileSketch> staffSketches = sketchDAO.getSketches(CompletionSketchDAO.STAFF);
+        if (!staffSketches.isEmpty()) {
+            Map<String, String> names = new HashMap<>();
+            for (MaintenanceStaff staff : userDAO.getAllActiveStaff()) {
+                names.put(staff.getStaffId(), staff.getFullName());
+            }
+            staffSketches.forEach((staffId, sketch) ->
+                    staffRows.add(new PercentileRow(names.getOrDefault(staffId, staffId), sketch)));
+            staffRows.sort(Comparator.comparing(PercentileRow::getName));
+        }
+
+        categoryPercentileTable.setItems(FXCollections.observableArrayList(categoryRows));
+        staffPercentileTable.setItems(FXCollections.observableArrayList(staffRows));
+    }
+
+    /**
+     * Recomputes the rollups from the request tables on a background thread, then reloads the tab.
+     *
+     * @param rebuildBtn button that triggered the rebuild; disabled while it runs
+     */
+    private void rebuildAnalytics(Button rebuildBtn) {
+        rebuildBtn.setDisable(true);
+        CompletableFuture
+                .runAsync(() -> {
+                    try {
+                        RequestRollups.getInstance().rebuild();
+                        sketchDAO.rebuild();
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                })
+                .whenComplete((result, error) -> Platform.runLater(() -> {
+                    rebuildBtn.setDisable(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("Rebuild Failed");
+                        alert.setHeaderText(null);
+                        alert.setContentText("Unable to rebuild analytics: " + cause.getMessage());
+                        alert.showAndWait();
+                        return;
+                    }
+                    refreshAnalytics();
+                }));
+    }
+
+    private static String categoryName(String category) {
+        try {
+            CategoryType type = CategoryType.valueOf(category);
+            return type.getIcon() + " " + type.getDisplayName();
+        } catch (IllegalArgumentException e) {
+            return category;
+        }
+    }
+
+    private static String priorityName(String priority) {
+        try {
+            return PriorityLevel.valueOf(priority).getDisplayName();
+        } catch (IllegalArgumentException e) {
+            return priority.isEmpty() ? "(none)" : priority;
+        }
+    }
+
+    private static int priorityLevel(String priority) {
+        try {
+            return PriorityLevel.valueOf(priority).getLevel();
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private static String formatHours(double hours) {
+        return hours >= 48 ? String.format("%.1f days", hours / 24) : String.format("%.1f h", hours);
+    }
+
+    private static String money(BigDecimal amount) {
+        return amount != null ? String.format("$%,.2f", amount) : "$0.00";
+    }
+
     /**
      * Helper to sync filter combo box when the user clicks a stat card.
      * Triggers the filter request logic via the value listener.
@@ -498,20 +995,24 @@ public class ManagerDashboardController {
      * and reset the filter selection to "All Requests".
      */
     private void loadRequests() {
-        requestTable.setItems(FXCollections.observableArrayList(requestDAO.getAllRequests()));
+        DashboardLoadEvent.time("ManagerDashboard", "loadRequests", this::doLoadRequests);
+    }
+
+    private void doLoadRequests() {
+        requestTable.setItems(FXCollections.observableArrayList(loadScopedRequests(false)));
         refreshStats();
         requestTable.sort();   // keep sort by date desc
         filterBox.setValue("All Requests");
     }
 
     /**
-     * Applies the current filter selection by loading all requests and then
-     * filtering them based on status category.
+     * Applies the current filter selection by loading the building's requests and then
+     * filtering them based on status category. "Archived" lists the archive store instead.
      *
      * @param filter human-readable filter label from the combo box
      */
     private void filterRequests(String filter) {
-        List<MaintenanceRequest> requests = requestDAO.getAllRequests();
+        List<MaintenanceRequest> requests = loadScopedRequests("Archived".equals(filter));
 
         switch (filter) {
             case "Unassigned" -> requests = requests.stream()
@@ -536,6 +1037,68 @@ public class ManagerDashboardController {
         requestTable.sort();   // reapply same sort
     }
 
+    /**
+     * Lets the manager pick an export file and format, then streams all requests to it
+     * on a background thread. The chosen extension decides CSV vs JSON Lines and gzip.
+     *
+     * @param exportBtn button that triggered the export; disabled while it runs
+     */
+    private void showExportDialog(Button exportBtn) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Maintenance Requests");
+        fileChooser.setInitialFileName("maintenance_requests_" + LocalDate.now() + ".csv");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV", "*.csv");
+        FileChooser.ExtensionFilter csvGz = new FileChooser.ExtensionFilter("CSV (gzip)", "*.csv.gz");
+        FileChooser.ExtensionFilter jsonl = new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl");
+        FileChooser.ExtensionFilter jsonlGz = new FileChooser.ExtensionFilter("JSON Lines (gzip)", "*.jsonl.gz");
+        fileChooser.getExtensionFilters().addAll(csv, csvGz, jsonl, jsonlGz);
+
+        File file = fileChooser.showSaveDialog(exportBtn.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        String name = file.getName().toLowerCase();
+        FileChooser.ExtensionFilter chosen = fileChooser.getSelectedExtensionFilter();
+        boolean gzip = name.endsWith(".gz") || chosen == csvGz || chosen == jsonlGz;
+        boolean json = name.endsWith(".jsonl") || name.endsWith(".jsonl.gz") || chosen == jsonl || chosen == jsonlGz;
+        RequestExportService.Format format = json
+                ? RequestExportService.Format.JSON_LINES
+                : RequestExportService.Format.CSV;
+
+        exportBtn.setDisable(true);
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return exportService.exportRequests(file.toPath(), format, true, gzip);
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                })
+                .whenComplete((result, error) -> Platform.runLater(() -> {
+                    exportBtn.setDisable(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("Export Failed");
+                        alert.setHeaderText(null);
+                        alert.setContentText("Unable to export requests: " + cause.getMessage());
+                        alert.showAndWait();
+                        return;
+                    }
+                    Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                    alert.setTitle("Export Complete");
+                    alert.setHeaderText(null);
+                    alert.setContentText(String.format(
+                            "Exported %d requests to %s%n(%.2fs, %.0f rows/sec)",
+                            result.getRows(),
+                            result.getTarget().getFileName(),
+                            result.getElapsedSeconds(),
+                            result.getRowsPerSecond()));
+                    alert.showAndWait();
+                }));
+    }
+
     /**
      * Shows the assign/reassign dialog for a single request.
      * Enforces the staff capacity rule:
@@ -667,22 +1230,486 @@ public class ManagerDashboardController {
                 return;
             }
 
-            // Apply assignment and persist to DB
-            request.setAssignedStaffId(staff.getStaffId());
-            request.setStatus(RequestStatus.ASSIGNED);
-            if (requestDAO.updateRequest(request)) {
+            // Apply assignment and persist to DB, unless someone else assigned or closed it meanwhile
+            RequestStatus seenStatus = request.getStatus();
+            String seenAssignee = request.getAssignedStaffId();
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                if (r.getStatus() != seenStatus || !Objects.equals(r.getAssignedStaffId(), seenAssignee)) {
+                    return false;
+                }
+                r.setAssignedStaffId(staff.getStaffId());
+                r.setStatus(RequestStatus.ASSIGNED);
+                return true;
+            });
+            if (result.isUpdated()) {
+                MaintenanceRequest saved = result.getRequest();
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Success");
                 alert.setHeaderText(isReassign ? "Request Reassigned" : "Request Assigned");
                 alert.setContentText("Request has been " +
                         (isReassign ? "reassigned to " : "assigned to ") +
-                        staff.getFullName());
+                        staff.getFullName() +
+                        (saved.getScheduledDate() != null
+                                ? "\nScheduled for " + saved.getScheduledDate().format(
+                                        DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm"))
+                                : ""));
                 alert.showAndWait();
                 loadRequests();
+            } else {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to assign request. Please try again.");
+                loadRequests();
             }
         });
     }
 
+    /**
+     * Builds the Inventory tab: stock per part, filtered to the low-stock report by default.
+     *
+     * @return VBox containing the inventory header and parts table
+     */
+    private VBox createInventoryContent() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(30));
+        content.setFillWidth(true);
+
+        HBox headerBox = new HBox(20);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label title = new Label("Parts Inventory");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        lowStockOnly.setSelected(true);
+        lowStockOnly.selectedProperty().addListener((obs, was, now) -> refreshInventory());
+
+        Button addBtn = new Button("➕ Add Part");
+        addBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        addBtn.setOnAction(e -> showAddPartDialog());
+
+        Button receiveBtn = new Button("📥 Receive Stock");
+        receiveBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        receiveBtn.setOnAction(e -> showReceiveStockDialog());
+
+        headerBox.getChildren().addAll(title, spacer, lowStockOnly, addBtn, receiveBtn);
+
+        partsTable = new TableView<>();
+        partsTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        partsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        VBox.setVgrow(partsTable, Priority.ALWAYS);
+
+        TableColumn<Part, String> nameCol = new TableColumn<>("Part");
+        nameCol.setCellValueFactory(new PropertyValueFactory<>("partName"));
+        nameCol.setPrefWidth(220);
+
+        TableColumn<Part, String> costCol = new TableColumn<>("Unit cost");
+        costCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(money(data.getValue().getUnitCost())));
+        costCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<Part, Integer> onHandCol = new TableColumn<>("On hand");
+        onHandCol.setCellValueFactory(new PropertyValueFactory<>("onHand"));
+        onHandCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<Part, Integer> reservedCol = new TableColumn<>("Reserved");
+        reservedCol.setCellValueFactory(new PropertyValueFactory<>("reserved"));
+        reservedCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<Part, Integer> availableCol = new TableColumn<>("Available");
+        availableCol.setCellValueFactory(new PropertyValueFactory<>("available"));
+        availableCol.setStyle("-fx-alignment: CENTER-RIGHT; -fx-font-weight: bold;");
+
+        TableColumn<Part, Integer> reorderCol = new TableColumn<>("Reorder at");
+        reorderCol.setCellValueFactory(new PropertyValueFactory<>("reorderLevel"));
+        reorderCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<Part, String> stockCol = new TableColumn<>("Stock");
+        stockCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                data.getValue().isLowStock() ? "⚠ Reorder" : "OK"));
+
+        partsTable.getColumns().addAll(List.of(nameCol, costCol, onHandCol, reservedCol, availableCol,
+                reorderCol, stockCol));
+        partsTable.setPlaceholder(new Label("No parts at or below their reorder level"));
+
+        content.getChildren().addAll(headerBox, partsTable);
+        return content;
+    }
+
+    /**
+     * Reloads the parts table from the stock counters.
+     */
+    private void refreshInventory() {
+        if (partsTable == null) {
+            return;
+        }
+        MetricsRegistry.Sample timer = METRICS.time("ui.ManagerDashboard.refreshInventory");
+        try (timer) {
+            boolean lowOnly = lowStockOnly.isSelected();
+            partsTable.setItems(FXCollections.observableArrayList(
+                    lowOnly ? inventoryDAO.getLowStockParts() : inventoryDAO.getAllParts()));
+            partsTable.setPlaceholder(new Label(lowOnly
+                    ? "No parts at or below their reorder level"
+                    : "No parts in the catalog yet"));
+        }
+    }
+
+    /**
+     * Dialog for adding a part to the catalog with its opening stock.
+     */
+    private void showAddPartDialog() {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Add Part");
+        dialog.setHeaderText("Add a part to the inventory");
+
+        ButtonType addBtnType = new ButtonType("Add", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(addBtnType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20));
+
+        TextField nameField = new TextField();
+        TextField costField = new TextField("0.00");
+        TextField reorderField = new TextField("0");
+        TextField stockField = new TextField("0");
+        grid.addRow(0, new Label("Part name:"), nameField);
+        grid.addRow(1, new Label("Unit cost:"), costField);
+        grid.addRow(2, new Label("Reorder at:"), reorderField);
+        grid.addRow(3, new Label("Opening stock:"), stockField);
+        dialog.getDialogPane().setContent(grid);
+
+        Button addButton = (Button) dialog.getDialogPane().lookupButton(addBtnType);
+
+        // Validate and save on Add; the dialog stays open on a bad value
+        addButton.addEventFilter(ActionEvent.ACTION, event -> {
+            Part part = new Part();
+            part.setPartName(nameField.getText().trim());
+            try {
+                part.setUnitCost(new BigDecimal(costField.getText().trim()));
+                part.setReorderLevel(Integer.parseInt(reorderField.getText().trim()));
+                part.setOnHand(Integer.parseInt(stockField.getText().trim()));
+            } catch (NumberFormatException ex) {
+                part.setOnHand(-1);
+            }
+
+            if (part.getPartName().isEmpty()) {
+                new Alert(Alert.AlertType.WARNING, "Part name is required.").showAndWait();
+                event.consume();
+                return;
+            }
+            if (part.getUnitCost().signum() < 0 || part.getReorderLevel() < 0 || part.getOnHand() < 0) {
+                new Alert(Alert.AlertType.WARNING,
+                        "Enter a cost and whole, non-negative quantities.").showAndWait();
+                event.consume();
+                return;
+            }
+            if (!inventoryDAO.addPart(part)) {
+                new Alert(Alert.AlertType.ERROR,
+                        "Could not add " + part.getPartName() + ". Part names must be unique.").showAndWait();
+                event.consume();
+                return;
+            }
+            refreshInventory();
+        });
+
+        dialog.showAndWait();
+    }
+
+    /**
+     * Asks how many units of the selected part were delivered and adds them to its stock.
+     */
+    private void showReceiveStockDialog() {
+        Part part = partsTable.getSelectionModel().getSelectedItem();
+        if (part == null) {
+            new Alert(Alert.AlertType.WARNING, "Select a part in the table first.").showAndWait();
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog("1");
+        dialog.setTitle("Receive Stock");
+        dialog.setHeaderText("Delivery of " + part.getPartName());
+        dialog.setContentText("Quantity received:");
+        dialog.showAndWait().ifPresent(text -> {
+            int quantity;
+            try {
+                quantity = Integer.parseInt(text.trim());
+            } catch (NumberFormatException ex) {
+                quantity = 0;
+            }
+            if (quantity <= 0 || !inventoryDAO.receiveStock(part.getPartId(), quantity)) {
+                new Alert(Alert.AlertType.ERROR, "Enter a whole number of units greater than zero.").showAndWait();
+                return;
+            }
+            refreshInventory();
+        });
+    }
+
+    /**
+     * Builds the Preventive tab: recurring jobs with their interval and next due date.
+     *
+     * @return VBox containing the header and schedule table
+     */
+    private VBox createPreventiveContent() {
+        VBox content = new VBox(15);
+        content.setPadding(new Insets(30));
+        content.setFillWidth(true);
+
+        HBox headerBox = new HBox(20);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        Label title = new Label("Preventive Maintenance");
+        title.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        Button addBtn = new Button("➕ Add Schedule");
+        addBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        addBtn.setOnAction(e -> showAddScheduleDialog());
+
+        Button pauseBtn = new Button("⏯ Pause / Resume");
+        pauseBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        pauseBtn.setOnAction(e -> toggleSelectedSchedule());
+
+        Button runBtn = new Button("▶ Generate Due Requests");
+        runBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; " +
+                "-fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        runBtn.setOnAction(e -> generateDueRequests(runBtn));
+
+        headerBox.getChildren().addAll(title, spacer, addBtn, pauseBtn, runBtn);
+
+        scheduleTable = new TableView<>();
+        scheduleTable.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+        scheduleTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        scheduleTable.setPlaceholder(new Label("No preventive schedules yet"));
+        VBox.setVgrow(scheduleTable, Priority.ALWAYS);
+
+        content.getChildren().addAll(headerBox, scheduleTable);
+        return content;
+    }
+
+    /**
+     * Reloads the schedule table, resolving building names and apartment numbers for display.
+     */
+    private void refreshSchedules() {
+        if (scheduleTable == null) {
+            return;
+        }
+        MetricsRegistry.Sample timer = METRICS.time("ui.ManagerDashboard.refreshSchedules");
+        try (timer) {
+            List<PreventiveSchedule> schedules = scheduleDAO.getAllSchedules();
+            Map<String, String> buildingNames = new HashMap<>();
+            for (Building b : buildingDAO.getAllBuildings()) {
+                buildingNames.put(b.getBuildingId(), b.getBuildingName());
+            }
+            Map<String, String> apartmentNumbers = new HashMap<>();
+            schedules.stream()
+                    .filter(ps -> ps.getApartmentId() != null)
+                    .map(PreventiveSchedule::getBuildingId)
+                    .distinct()
+                    .forEach(buildingId -> apartmentDAO.getApartmentsByBuilding(buildingId)
+                            .forEach(a -> apartmentNumbers.put(a.getApartmentId(), a.getApartmentNumber())));
+
+            TableColumn<PreventiveSchedule, String> buildingCol = new TableColumn<>("Building");
+            buildingCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    buildingNames.getOrDefault(data.getValue().getBuildingId(), data.getValue().getBuildingId())));
+
+            TableColumn<PreventiveSchedule, String> unitCol = new TableColumn<>("Apartment");
+            unitCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getApartmentId() == null
+                    ? "All units"
+                    : apartmentNumbers.getOrDefault(data.getValue().getApartmentId(), data.getValue().getApartmentId())));
+
+            TableColumn<PreventiveSchedule, String> jobCol = new TableColumn<>("Job");
+            jobCol.setCellValueFactory(new PropertyValueFactory<>("description"));
+            jobCol.setPrefWidth(220);
+
+            TableColumn<PreventiveSchedule, String> categoryCol = new TableColumn<>("Category");
+            categoryCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    data.getValue().getCategory().getDisplayName()));
+
+            TableColumn<PreventiveSchedule, String> everyCol = new TableColumn<>("Every");
+            everyCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    data.getValue().getIntervalMonths() + " month" + (data.getValue().getIntervalMonths() == 1 ? "" : "s")));
+
+            TableColumn<PreventiveSchedule, String> nextCol = new TableColumn<>("Next due");
+            nextCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    data.getValue().getNextDue().format(DateTimeFormatter.ofPattern("MM/dd/yyyy"))));
+
+            TableColumn<PreventiveSchedule, String> activeCol = new TableColumn<>("Status");
+            activeCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                    data.getValue().isActive() ? "Active" : "Paused"));
+
+            scheduleTable.getColumns().setAll(List.of(buildingCol, unitCol, jobCol, categoryCol, everyCol,
+                    nextCol, activeCol));
+            scheduleTable.setItems(FXCollections.observableArrayList(schedules));
+        }
+    }
+
+    /**
+     * Dialog for a new recurring job on every apartment of a building or on one apartment.
+     */
+    private void showAddScheduleDialog() {
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Add Preventive Schedule");
+        dialog.setHeaderText("Recurring job, generated as requests on each due date");
+
+        ButtonType addBtnType = new ButtonType("Add", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(addBtnType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20));
+
+        ComboBox<Building> buildingChoice = new ComboBox<>();
+        buildingChoice.getItems().addAll(buildingDAO.getAllBuildings());
+        buildingChoice.setConverter(buildingBox.getConverter());
+
+        // null stands for every apartment in the building
+        ComboBox<Apartment> apartmentChoice = new ComboBox<>();
+        apartmentChoice.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Apartment apartment) {
+                return apartment == null ? "All units" : apartment.getApartmentNumber();
+            }
+
+            @Override
+            public Apartment fromString(String number) {
+                return null;
+            }
+        });
+        buildingChoice.valueProperty().addListener((obs, old, building) -> {
+            apartmentChoice.getItems().clear();
+            apartmentChoice.getItems().add(null);
+            if (building != null) {
+                List<Apartment> apartments = new ArrayList<>(apartmentDAO.getApartmentsByBuilding(building.getBuildingId()));
+                apartments.sort(Comparator.comparing(Apartment::getApartmentNumber,
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+                apartmentChoice.getItems().addAll(apartments);
+            }
+            apartmentChoice.setValue(null);
+        });
+
+        TextField jobField = new TextField();
+        jobField.setPromptText("e.g. Replace HVAC filter");
+        ComboBox<CategoryType> categoryChoice = new ComboBox<>(FXCollections.observableArrayList(CategoryType.values()));
+        categoryChoice.setValue(CategoryType.HVAC);
+        ComboBox<PriorityLevel> priorityChoice = new ComboBox<>(FXCollections.observableArrayList(PriorityLevel.values()));
+        priorityChoice.setValue(PriorityLevel.LOW);
+        TextField intervalField = new TextField("3");
+        DatePicker firstDuePicker = new DatePicker(LocalDate.now());
+
+        grid.addRow(0, new Label("Building:"), buildingChoice);
+        grid.addRow(1, new Label("Apartment:"), apartmentChoice);
+        grid.addRow(2, new Label("Job:"), jobField);
+        grid.addRow(3, new Label("Category:"), categoryChoice);
+        grid.addRow(4, new Label("Priority:"), priorityChoice);
+        grid.addRow(5, new Label("Every (months):"), intervalField);
+        grid.addRow(6, new Label("First due:"), firstDuePicker);
+        dialog.getDialogPane().setContent(grid);
+
+        Button addButton = (Button) dialog.getDialogPane().lookupButton(addBtnType);
+
+        // Validate and save on Add; the dialog stays open on a bad value
+        addButton.addEventFilter(ActionEvent.ACTION, event -> {
+            int interval;
+            try {
+                interval = Integer.parseInt(intervalField.getText().trim());
+            } catch (NumberFormatException ex) {
+                interval = 0;
+            }
+            String problem = null;
+            if (buildingChoice.getValue() == null) {
+                problem = "Choose a building.";
+            } else if (jobField.getText().isBlank()) {
+                problem = "Describe the job.";
+            } else if (interval <= 0) {
+                problem = "Enter the interval as a whole number of months.";
+            } else if (firstDuePicker.getValue() == null) {
+                problem = "Choose the first due date.";
+            }
+            if (problem != null) {
+                new Alert(Alert.AlertType.WARNING, problem).showAndWait();
+                event.consume();
+                return;
+            }
+
+            PreventiveSchedule schedule = new PreventiveSchedule();
+            schedule.setBuildingId(buildingChoice.getValue().getBuildingId());
+            schedule.setApartmentId(apartmentChoice.getValue() != null ? apartmentChoice.getValue().getApartmentId() : null);
+            schedule.setDescription(jobField.getText().trim());
+            schedule.setCategory(categoryChoice.getValue());
+            schedule.setPriority(priorityChoice.getValue());
+            schedule.setIntervalMonths(interval);
+            schedule.setFirstDue(firstDuePicker.getValue());
+            if (!scheduleDAO.saveSchedule(schedule)) {
+                new Alert(Alert.AlertType.ERROR, "Could not save the schedule.").showAndWait();
+                event.consume();
+                return;
+            }
+            refreshSchedules();
+        });
+
+        dialog.showAndWait();
+    }
+
+    /**
+     * Pauses the selected schedule, or resumes it if already paused.
+     */
+    private void toggleSelectedSchedule() {
+        PreventiveSchedule schedule = scheduleTable.getSelectionModel().getSelectedItem();
+        if (schedule == null) {
+            new Alert(Alert.AlertType.WARNING, "Select a schedule in the table first.").showAndWait();
+            return;
+        }
+        if (!scheduleDAO.setActive(schedule.getScheduleId(), !schedule.isActive())) {
+            new Alert(Alert.AlertType.ERROR, "Could not update the schedule.").showAndWait();
+            return;
+        }
+        refreshSchedules();
+    }
+
+    /**
+     * Expands every schedule due today on a background thread, without waiting for the next scheduled run.
+     *
+     * @param runBtn button that triggered the run; disabled while it runs
+     */
+    private void generateDueRequests(Button runBtn) {
+        PreventiveMaintenanceScheduler scheduler = PreventiveMaintenanceScheduler.getInstance();
+        if (scheduler == null) {
+            new Alert(Alert.AlertType.WARNING, "The preventive maintenance scheduler is not running.").showAndWait();
+            return;
+        }
+        runBtn.setDisable(true);
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return scheduler.expandNow(LocalDate.now());
+                    } catch (Exception ex) {
+                        throw new CompletionException(ex);
+                    }
+                })
+                .whenComplete((created, error) -> Platform.runLater(() -> {
+                    runBtn.setDisable(false);
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        new Alert(Alert.AlertType.ERROR, "Unable to generate requests: " + cause.getMessage()).showAndWait();
+                        return;
+                    }
+                    refreshSchedules();
+                    loadRequests();
+                    new Alert(Alert.AlertType.INFORMATION, created == 0
+                            ? "No preventive jobs are due."
+                            : "Created " + created + " preventive maintenance request" + (created == 1 ? "." : "s."))
+                            .showAndWait();
+                }));
+    }
+
     // Shared status grouping helpers (same across controllers)
 
     /**
@@ -726,4 +1753,66 @@ public class ManagerDashboardController {
     private boolean isCancelled(MaintenanceRequest r) {
         return r.getStatus() == RequestStatus.CANCELLED;
     }
+
+    /**
+     * One week of the requests-per-category table.
+     */
+    public static class WeekRow {
+        private final LocalDate weekStart;
+        private final Map<String, Long> counts;
+
+        public WeekRow(LocalDate weekStart, Map<String, Long> counts) {
+            this.weekStart = weekStart;
+            this.counts = counts;
+        }
+
+        public LocalDate getWeekStart() {
+            return weekStart;
+        }
+
+        public String getWeek() {
+            return weekStart.format(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+        }
+
+        public long getCount(String category) {
+            return counts.getOrDefault(category, 0L);
+        }
+
+        public String getTotal() {
+            return String.valueOf(counts.values().stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    /**
+     * Completion-time percentiles for one category or staff member.
+     */
+    public static class PercentileRow {
+        private final String name;
+        private final QuantileSketch sketch;
+
+        public PercentileRow(String name, QuantileSketch sketch) {
+            this.name = name;
+            this.sketch = sketch;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCount() {
+            return String.valueOf(sketch.getCount());
+        }
+
+        public String getP50() {
+            return formatHours(sketch.getQuantile(0.50) / 3600);
+        }
+
+        public String getP90() {
+            return formatHours(sketch.getQuantile(0.90) / 3600);
+        }
+
+        public String getP99() {
+            return formatHours(sketch.getQuantile(0.99) / 3600);
+        }
+    }
 }
@@ -4,11 +4,15 @@ import com.maintenance.dao.MaintenanceRequestDAO;
 import com.maintenance.dao.UserDAO;
 import com.maintenance.enums.PriorityLevel;
 import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.MetricsRegistry;
+import com.maintenance.metrics.jfr.DashboardLoadEvent;
 import com.maintenance.models.MaintenanceRequest;
 import com.maintenance.models.MaintenanceStaff;
 import com.maintenance.notification.Email;
 import com.maintenance.service.AuthenticationService;
+import com.maintenance.service.RoutePlanner;
 import com.maintenance.ui.views.ViewFactory;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
@@ -23,7 +27,9 @@ import javafx.stage.Stage;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -32,9 +38,12 @@ import java.util.concurrent.CompletableFuture;
  *  - Layout and rendering of the staff view (top bar, sidebar, center content)
  *  - Loading and filtering of requests assigned to the logged-in staff member
  *  - Actions on requests (start, complete, update, archive/unarchive)
+ *  - Today's route through open requests, ordered by priority window and location
  *  - Email notifications sent to tenants when staff take actions
  */
 public class StaffDashboardController {
+    // Timers for dashboard loads
+    private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
     // Factory for creating and switching application windows
     private final ViewFactory viewFactory;
     // Central authentication service (current user, login, logout)
@@ -231,6 +240,10 @@ public class StaffDashboardController {
      * based on the staff member's non-archived requests.
      */
     private void refreshStats() {
+        DashboardLoadEvent.time("StaffDashboard", "refreshStats", this::doRefreshStats);
+    }
+
+    private void doRefreshStats() {
         if (statsBox == null) return;
 
         statsBox.getChildren().clear();
@@ -350,7 +363,11 @@ public class StaffDashboardController {
         // Reload from DB and reset filter
         refreshBtn.setOnAction(e -> loadRequests());
 
-        headerBox.getChildren().addAll(sectionTitle, spacer, filterBox, refreshBtn);
+        Button routeBtn = new Button("🗺 Today's Route");
+        routeBtn.setStyle("-fx-background-color: #764ba2; -fx-text-fill: white; -fx-padding: 8 15; -fx-background-radius: 5; -fx-cursor: hand;");
+        routeBtn.setOnAction(e -> showRouteDialog());
+
+        headerBox.getChildren().addAll(sectionTitle, spacer, filterBox, routeBtn, refreshBtn);
 
         // Build main requests table
         requestTable = new TableView<>();
@@ -419,6 +436,61 @@ public class StaffDashboardController {
         return section;
     }
 
+    /**
+     * Shows the staff member's open requests in the order to visit them today: urgent work first,
+     * then high priority, then the rest, each stretch walked building by building and floor by floor.
+     */
+    private void showRouteDialog() {
+        MaintenanceStaff staff = (MaintenanceStaff) authService.getCurrentUser();
+        List<RoutePlanner.Stop> stops = METRICS.time("ui.StaffDashboard.showRoute",
+                () -> RoutePlanner.getInstance().planFor(staff.getStaffId()));
+
+        TableView<RoutePlanner.Stop> routeTable = new TableView<>(FXCollections.observableArrayList(stops));
+        routeTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        routeTable.setPrefSize(760, 420);
+        routeTable.setPlaceholder(new Label("No open requests to visit"));
+
+        TableColumn<RoutePlanner.Stop, String> seqCol = new TableColumn<>("#");
+        seqCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(String.valueOf(data.getValue().getSequence())));
+        seqCol.setPrefWidth(40);
+        seqCol.setStyle("-fx-alignment: CENTER;");
+
+        TableColumn<RoutePlanner.Stop, String> windowCol = new TableColumn<>("Window");
+        windowCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getWindow()));
+        windowCol.setPrefWidth(80);
+
+        TableColumn<RoutePlanner.Stop, String> buildingCol = new TableColumn<>("Building");
+        buildingCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getBuildingName()));
+        buildingCol.setPrefWidth(140);
+
+        TableColumn<RoutePlanner.Stop, String> floorCol = new TableColumn<>("Floor");
+        floorCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(String.valueOf(data.getValue().getFloor())));
+        floorCol.setPrefWidth(50);
+        floorCol.setStyle("-fx-alignment: CENTER;");
+
+        TableColumn<RoutePlanner.Stop, String> aptCol = new TableColumn<>("Apartment");
+        aptCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getRequest().getApartmentNumber()));
+        aptCol.setPrefWidth(80);
+
+        TableColumn<RoutePlanner.Stop, String> priorityCol = new TableColumn<>("Priority");
+        priorityCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(
+                String.valueOf(data.getValue().getRequest().getPriority())));
+        priorityCol.setPrefWidth(80);
+
+        TableColumn<RoutePlanner.Stop, String> descCol = new TableColumn<>("Description");
+        descCol.setCellValueFactory(data -> new ReadOnlyStringWrapper(data.getValue().getRequest().getDescription()));
+
+        routeTable.getColumns().setAll(List.of(seqCol, windowCol, buildingCol, floorCol, aptCol, priorityCol, descCol));
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Today's Route");
+        dialog.setHeaderText(stops.size() + " open request" + (stops.size() == 1 ? "" : "s") + " in visiting order");
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.getDialogPane().setContent(routeTable);
+        dialog.setResizable(true);
+        dialog.showAndWait();
+    }
+
     /**
      * Sets filter in the combo box from a stat card click.
      * Triggers filterRequests via the value listener.
@@ -582,14 +654,20 @@ public class StaffDashboardController {
                 return;
             }
 
-            request.setStaffArchived(false);
-            request.setLastUpdated(LocalDateTime.now());
-
-            if (!requestDAO.updateRequest(request)) {
+            // Requests moved to the archive store go back to the active table first
+            if (request.isInArchiveStore() && !requestDAO.restoreArchivedRequest(request.getRequestId())) {
                 showError("Unable to unarchive request. Please try again.");
-            } else {
-                loadRequests();
+                return;
+            }
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                r.setStaffArchived(false);
+                return true;
+            });
+
+            if (!result.isUpdated()) {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to unarchive request. Please try again.");
             }
+            loadRequests();
         });
     }
 
@@ -646,15 +724,25 @@ public class StaffDashboardController {
                 return;
             }
 
-            // Persist staff notes and ensure tenant sees it again (reset tenant archive flag)
-            request.setStaffUpdateNotes(text);
-            request.setTenantArchived(false);
-            request.setLastUpdated(LocalDateTime.now());
-
-            if (!requestDAO.updateRequest(request)) {
-                new Alert(Alert.AlertType.ERROR,
-                        "Unable to save staff update. Please try again.").showAndWait();
-                event.consume();
+            // Persist staff notes and ensure tenant sees it again (reset tenant archive flag),
+            // unless the notes were changed elsewhere since this dialog showed them
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                if (!Objects.equals(r.getStaffUpdateNotes(), existing)) {
+                    return false;
+                }
+                r.setStaffUpdateNotes(text);
+                r.setTenantArchived(false);
+                r.setLastUpdated(LocalDateTime.now());
+                return true;
+            });
+
+            if (!result.isUpdated()) {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to save staff update. Please try again.");
+                if (result.getStatus() == MaintenanceRequestDAO.UpdateStatus.FAILED) {
+                    event.consume();
+                } else {
+                    loadRequests();
+                }
             } else {
                 String staff = resolveTechnicianName(request);
                 String staffEmail = requestDAO
@@ -704,6 +792,10 @@ public class StaffDashboardController {
      *  - Default "All Tasks" filter selection reset
      */
     private void loadRequests() {
+        DashboardLoadEvent.time("StaffDashboard", "loadRequests", this::doLoadRequests);
+    }
+
+    private void doLoadRequests() {
         MaintenanceStaff staff = (MaintenanceStaff) authService.getCurrentUser();
         List<MaintenanceRequest> all = requestDAO.getRequestsByStaff(staff.getStaffId());
         List<MaintenanceRequest> visible = all.stream()
@@ -729,10 +821,12 @@ public class StaffDashboardController {
         List<MaintenanceRequest> filtered;
 
         if ("Archived".equals(filter)) {
-            // Show only staff-archived items
-            filtered = all.stream()
+            // Staff-archived items plus those moved to the archive store
+            List<MaintenanceRequest> archived = new ArrayList<>(all.stream()
                     .filter(MaintenanceRequest::isStaffArchived)
-                    .toList();
+                    .toList());
+            archived.addAll(requestDAO.getArchivedRequestsByStaff(staff.getStaffId()));
+            filtered = archived;
         } else {
             // Start from non-archived
             filtered = all.stream()
@@ -820,14 +914,16 @@ public class StaffDashboardController {
                 return;
             }
 
-            request.setStaffArchived(true);
-            request.setLastUpdated(LocalDateTime.now());
+            // Hiding a request from one's own list is not a change to it: only the flag is written
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                r.setStaffArchived(true);
+                return true;
+            });
 
-            if (!requestDAO.updateRequest(request)) {
-                showError("Unable to archive request. Please try again.");
-            } else {
-                loadRequests();
+            if (!result.isUpdated()) {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to archive request. Please try again.");
             }
+            loadRequests();
         });
     }
 
@@ -846,10 +942,18 @@ public class StaffDashboardController {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                request.setStatus(RequestStatus.IN_PROGRESS);
-                request.setLastUpdated(java.time.LocalDateTime.now());
+                // Only if it is still as shown, e.g. not reassigned or cancelled meanwhile
+                String staffId = request.getAssignedStaffId();
+                MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                    if (r.getStatus() != previousStatus || !Objects.equals(r.getAssignedStaffId(), staffId)) {
+                        return false;
+                    }
+                    r.setStatus(RequestStatus.IN_PROGRESS);
+                    r.setLastUpdated(java.time.LocalDateTime.now());
+                    return true;
+                });
 
-                if (requestDAO.updateRequest(request)) {
+                if (result.isUpdated()) {
                     String staff = resolveTechnicianName(request);
                     String staffEmail = requestDAO
                             .findStaffEmailByRequestId(request.getRequestId())
@@ -890,7 +994,8 @@ public class StaffDashboardController {
                     success.showAndWait();
                     loadRequests();
                 } else {
-                    showError("Failed to update request status");
+                    DashboardUIHelper.showUpdateFailure(result, "Failed to update request status");
+                    loadRequests();
                 }
             }
         });
@@ -993,11 +1098,19 @@ public class StaffDashboardController {
                 // Ignore parsing issues here; we already validated above
             }
 
-            // Persist cost and close request with resolution notes
-            request.setActualCost(cost);
-            request.close(resolution);
+            // Persist cost and close request with resolution notes, unless it was closed or reassigned meanwhile
+            double actualCost = cost;
+            String staffId = request.getAssignedStaffId();
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                if (r.getStatus() != previousStatus || !Objects.equals(r.getAssignedStaffId(), staffId)) {
+                    return false;
+                }
+                r.setActualCost(actualCost);
+                r.close(resolution);
+                return true;
+            });
 
-            if (requestDAO.updateRequest(request)) {
+            if (result.isUpdated()) {
                 String staff = resolveTechnicianName(request);
                 String staffEmail = requestDAO
                         .findStaffEmailByRequestId(request.getRequestId())
@@ -1039,7 +1152,8 @@ public class StaffDashboardController {
                 success.showAndWait();
                 loadRequests();
             } else {
-                showError("Failed to update request");
+                DashboardUIHelper.showUpdateFailure(result, "Failed to update request");
+                loadRequests();
             }
         });
     }
@@ -4,6 +4,7 @@ import com.maintenance.dao.MaintenanceRequestDAO;
 import com.maintenance.dao.PhotoDAO;
 import com.maintenance.enums.CategoryType;
 import com.maintenance.enums.RequestStatus;
+import com.maintenance.metrics.jfr.DashboardLoadEvent;
 import com.maintenance.models.MaintenanceRequest;
 import com.maintenance.models.Tenant;
 import com.maintenance.service.AuthenticationService;
@@ -24,6 +25,7 @@ import javafx.stage.Stage;
 import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -207,6 +209,10 @@ public class TenantDashboardController {
      * Clicking a card updates the table filter.
      */
     private void refreshStats() {
+        DashboardLoadEvent.time("TenantDashboard", "refreshStats", this::doRefreshStats);
+    }
+
+    private void doRefreshStats() {
         if (statsBox == null) {
             return;
         }
@@ -507,15 +513,21 @@ public class TenantDashboardController {
                 return;
             }
 
-            request.setTenantArchived(false);
-            request.setLastUpdated(LocalDateTime.now());
-
-            if (!requestDAO.updateRequest(request)) {
+            // Requests moved to the archive store go back to the active table first
+            if (request.isInArchiveStore() && !requestDAO.restoreArchivedRequest(request.getRequestId())) {
                 new Alert(Alert.AlertType.ERROR,
                         "Unable to unarchive request. Please try again.").showAndWait();
-            } else {
-                loadRequests();
+                return;
             }
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                r.setTenantArchived(false);
+                return true;
+            });
+
+            if (!result.isUpdated()) {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to unarchive request. Please try again.");
+            }
+            loadRequests();
         });
     }
 
@@ -526,6 +538,10 @@ public class TenantDashboardController {
      *  - Resets filter to "All Requests"
      */
     private void loadRequests() {
+        DashboardLoadEvent.time("TenantDashboard", "loadRequests", this::doLoadRequests);
+    }
+
+    private void doLoadRequests() {
         Tenant tenant = (Tenant) authService.getCurrentUser();
         List<MaintenanceRequest> allRequests = requestDAO.getRequestsByTenant(tenant.getUserId());
         List<MaintenanceRequest> visible = allRequests.stream()
@@ -552,9 +568,12 @@ public class TenantDashboardController {
         List<MaintenanceRequest> filtered;
 
         if ("Archived".equals(filter)) {
-            filtered = all.stream()
+            // Tenant-archived items plus those moved to the archive store
+            List<MaintenanceRequest> archived = new ArrayList<>(all.stream()
                     .filter(MaintenanceRequest::isTenantArchived)
-                    .toList();
+                    .toList());
+            archived.addAll(requestDAO.getArchivedRequestsByTenant(tenant.getUserId()));
+            filtered = archived;
         } else {
             filtered = all.stream()
                     .filter(r -> !r.isTenantArchived())
@@ -615,15 +634,16 @@ public class TenantDashboardController {
                 return;
             }
 
-            request.setTenantArchived(true);
-            request.setLastUpdated(LocalDateTime.now());
+            // Archiving only changes the tenant's view, so last_updated stays as it was
+            MaintenanceRequestDAO.UpdateResult result = requestDAO.updateRequest(request.getRequestId(), r -> {
+                r.setTenantArchived(true);
+                return true;
+            });
 
-            if (!requestDAO.updateRequest(request)) {
-                new Alert(Alert.AlertType.ERROR,
-                        "Unable to archive request. Please try again.").showAndWait();
-            } else {
-                loadRequests();
+            if (!result.isUpdated()) {
+                DashboardUIHelper.showUpdateFailure(result, "Unable to archive request. Please try again.");
             }
+            loadRequests();
         });
     }
 
@@ -632,8 +652,8 @@ public class TenantDashboardController {
      * Tenant can:
      *  - Pick a category
      *  - Enter description
-     *  - Optionally attach a photo (image file)
-     * After successful save, request is persisted and photo record is stored if provided.
+     *  - Optionally attach one or more photos (image files)
+     * After successful save, request is persisted and photo records are stored if provided.
      */
     private void showNewRequestDialog() {
         Dialog<MaintenanceRequest> dialog = new Dialog<>();
@@ -656,32 +676,38 @@ public class TenantDashboardController {
         descArea.setPromptText("Describe the issue...");
         descArea.setPrefRowCount(4);
 
-        // Track selected photo file
-        final File[] selectedPhotoFile = {null};
+        // Track selected photo files (a request can carry several photos)
+        final List<File> selectedPhotoFiles = new ArrayList<>();
 
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Select Photo");
+        fileChooser.setTitle("Select Photos");
         fileChooser.getExtensionFilters().add(
                 new FileChooser.ExtensionFilter("Image Files", "*.png", "*.jpg", "*.jpeg", "*.gif")
         );
 
-        Button attachPhotoBtn = new Button("Attach Photo");
+        Button attachPhotoBtn = new Button("Attach Photos");
         attachPhotoBtn.setStyle(
                 "-fx-background-color: #667eea; -fx-text-fill: white; " +
                         "-fx-padding: 6 12; -fx-background-radius: 3; -fx-cursor: hand;"
         );
 
-        Label photoNameLabel = new Label("No file selected");
+        Label photoNameLabel = new Label("No files selected");
         photoNameLabel.setFont(Font.font("Arial", 12));
         photoNameLabel.setTextFill(Color.GRAY);
 
-        // Use the dialog window as owner instead of null
+        // Use the dialog window as owner instead of null; repeated picks add to the selection
         attachPhotoBtn.setOnAction(e -> {
             Stage owner = (Stage) dialog.getDialogPane().getScene().getWindow();
-            File file = fileChooser.showOpenDialog(owner);
-            if (file != null) {
-                selectedPhotoFile[0] = file;
-                photoNameLabel.setText(file.getName());
+            List<File> files = fileChooser.showOpenMultipleDialog(owner);
+            if (files != null && !files.isEmpty()) {
+                for (File file : files) {
+                    if (!selectedPhotoFiles.contains(file)) {
+                        selectedPhotoFiles.add(file);
+                    }
+                }
+                photoNameLabel.setText(selectedPhotoFiles.size() == 1
+                        ? selectedPhotoFiles.get(0).getName()
+                        : selectedPhotoFiles.size() + " photos selected");
                 photoNameLabel.setTextFill(Color.BLACK);
             }
         });
@@ -693,7 +719,7 @@ public class TenantDashboardController {
         grid.add(categoryBox, 1, 0);
         grid.add(new Label("Description:"), 0, 1);
         grid.add(descArea, 1, 1);
-        grid.add(new Label("Photo (optional):"), 0, 2);
+        grid.add(new Label("Photos (optional):"), 0, 2);
         grid.add(photoRow, 1, 2);
 
         dialog.getDialogPane().setContent(grid);
@@ -739,16 +765,9 @@ public class TenantDashboardController {
         });
 
         dialog.showAndWait().ifPresent(request -> {
-            // Persist photo metadata if attached and request ID exists
-            if (selectedPhotoFile[0] != null && request.getRequestId() != null) {
-                File file = selectedPhotoFile[0];
-
-                // Store a file: URI so JavaFX Image can load it directly later
-                String uri = file.toURI().toString();
-                long size = file.length();
-                String fileName = file.getName();
-
-                photoDAO.savePhotoForRequest(request.getRequestId(), fileName, uri, size);
+            // Persist photo metadata for all attached files in one batch
+            if (!selectedPhotoFiles.isEmpty() && request.getRequestId() != null) {
+                photoDAO.savePhotosForRequest(request.getRequestId(), selectedPhotoFiles);
             }
 
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
@@ -0,0 +1,107 @@
+package com.maintenance.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180).
+ * Handles quoted fields, doubled quotes, and line breaks inside quotes.
+ * Reads one record at a time so arbitrarily large files use constant memory.
+ */
+public final class CsvReader implements Closeable {
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordStartLine = 1;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return list of field values, or null at end of input
+     * @throws IOException if the underlying reader fails
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordStartLine = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // Unterminated quote: keep what we have
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            } else {
+                if (c == -1 || c == '\n') {
+                    if (c == '\n') lineNumber++;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '\r') {
+                    // Swallow CR of CRLF
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return 1-based line number on which the most recently returned record started
+     */
+    public long getRecordStartLine() {
+        return recordStartLine;
+    }
+
+    private int read() throws IOException {
+        if (pos >= limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[pos++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -1,52 +1,145 @@
 package com.maintenance.util;
 
-import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generates prefixed, time-ordered IDs (Snowflake-style).
+ * Each ID packs a millisecond timestamp, a node id, and a per-millisecond sequence into 64 bits
+ * and is rendered as 13 Crockford base32 characters, so IDs sort in creation order as strings
+ * and new rows land at the right edge of the primary-key index.
+ *
+ * <p>Layout: 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node id, 12 bits of sequence
+ * (4096 IDs per millisecond per node). Generation is lock-free: the last timestamp and sequence
+ * share a single {@link AtomicLong} updated with compare-and-set.
+ *
+ * <p>The node id comes from the {@code maintenance.nodeId} system property (0-1023); when unset, a
+ * random node id is picked at startup so separate JVMs sharing one database are unlikely to overlap.
+ */
 public class IDGenerator {
-    private static final AtomicInteger buildingCounter = new AtomicInteger(1000);
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds lasts until ~2093
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final long NODE_ID = resolveNodeId();
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last issued ID
+    private static final AtomicLong lastState = new AtomicLong();
 
     public static String generateRequestId() {
-        return "REQ" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("REQ");
     }
 
     public static String generateUserId() {
-        return "USR" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("USR");
     }
 
     public static String generateBuildingId() {
-        return "BLD" + buildingCounter.incrementAndGet();
+        return next("BLD");
     }
 
     public static String generateApartmentId() {
-        return "APT" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("APT");
     }
 
     public static String generateWorkOrderId() {
-        return "WO" + System.currentTimeMillis();
+        return next("WO");
     }
 
     public static String generatePhotoId() {
-        return "PHT" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("PHT");
+    }
+
+    public static String generatePartId() {
+        return next("PRT");
+    }
+
+    public static String generateScheduleId() {
+        return next("PMS");
     }
 
     public static String generateCommentId() {
-        return "CMT" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("CMT");
     }
 
     public static String generateNotificationId() {
-        return "NTF" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("NTF");
     }
 
     public static String generateMessageId() {
-        return "MSG" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("MSG");
     }
 
     public static String generateReportId() {
-        return "RPT" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("RPT");
     }
 
     public static String generateSystemId() {
-        return "SYS" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return next("SYS");
+    }
+
+    /**
+     * Next raw 64-bit ID. Strictly increasing within this JVM.
+     */
+    public static long nextId() {
+        while (true) {
+            long prev = lastState.get();
+            long prevTime = prev >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+
+            long next;
+            if (now > prevTime) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock stepped back: keep counting from the last state.
+                // Sequence overflow carries into the timestamp, borrowing from the next millisecond.
+                next = prev + 1;
+            }
+
+            if (lastState.compareAndSet(prev, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (NODE_ID << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    /**
+     * Prefix followed by the fixed-width base32 form of {@link #nextId()}.
+     */
+    private static String next(String prefix) {
+        long id = nextId();
+        int prefixLength = prefix.length();
+        char[] out = new char[prefixLength + ENCODED_LENGTH];
+        prefix.getChars(0, prefixLength, out, 0);
+        // 13 base32 digits cover 65 bits; most significant first so lexical order matches numeric order
+        for (int i = out.length - 1; i >= prefixLength; i--) {
+            out[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(out);
+    }
+
+    private static long resolveNodeId() {
+        String configured = System.getProperty("maintenance.nodeId");
+        if (configured != null) {
+            try {
+                long node = Long.parseLong(configured.trim());
+                if (node >= 0 && node <= MAX_NODE) {
+                    return node;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to random node id
+            }
+            System.err.println("Ignoring invalid maintenance.nodeId: " + configured);
+        }
+        return new SecureRandom().nextInt((int) MAX_NODE + 1);
     }
 }
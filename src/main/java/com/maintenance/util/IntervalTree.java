@@ -0,0 +1,256 @@
+package com.maintenance.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Half-open intervals {@code [start, end)} on a long time line, each identified by a key, in an AVL tree
+ * ordered by start and augmented per subtree with the earliest start, the latest end and the longest free
+ * gap between its intervals.
+ *
+ * <p>Adding, removing and "does anything overlap" are O(log n); listing overlaps is O(log n + k).
+ * {@link #nextFree} finds the earliest free stretch of a given length after a time in O(log n) when the
+ * intervals do not overlap each other. Overlapping intervals are handled correctly, but the stored gaps are
+ * then only upper bounds and the search may visit more nodes.
+ *
+ * <p>Not thread-safe.
+ */
+public final class IntervalTree<K extends Comparable<? super K>> {
+    private Node<K> root;
+    private int size;
+
+    private static final class Node<K> {
+        final K key;
+        final long start;
+        final long end;
+        Node<K> left;
+        Node<K> right;
+        int height = 1;
+        long minStart;
+        long maxEnd;
+        long maxGap;
+
+        Node(K key, long start, long end) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.minStart = start;
+            this.maxEnd = end;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add an interval. A key may be added more than once only with different starts.
+     */
+    public void add(K key, long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Empty interval [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node<>(key, start, end));
+        size++;
+    }
+
+    /**
+     * Remove the interval added with this key and start.
+     *
+     * @return false if there is no such interval
+     */
+    public boolean remove(K key, long start) {
+        int before = size;
+        root = delete(root, key, start);
+        return size < before;
+    }
+
+    /**
+     * @return the key of some interval overlapping {@code [start, end)}, or null if that stretch is free
+     */
+    public K findAnyOverlap(long start, long end) {
+        Node<K> node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return node.key;
+            }
+            // If the left subtree reaches past start but holds no overlap, everything from here on starts too late
+            node = node.left != null && node.left.maxEnd > start ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * @return keys of every interval overlapping {@code [start, end)}, in start order
+     */
+    public List<K> findOverlapping(long start, long end) {
+        List<K> keys = new ArrayList<>();
+        collectOverlapping(root, start, end, keys);
+        return keys;
+    }
+
+    private void collectOverlapping(Node<K> node, long start, long end, List<K> keys) {
+        if (node == null || node.maxEnd <= start || node.minStart >= end) {
+            return;
+        }
+        collectOverlapping(node.left, start, end, keys);
+        if (node.start < end && start < node.end) {
+            keys.add(node.key);
+        }
+        collectOverlapping(node.right, start, end, keys);
+    }
+
+    /**
+     * @return the earliest time at or after {@code from} at which {@code duration} fits without overlapping
+     *         any interval
+     */
+    public long nextFree(long from, long duration) {
+        long[] cursor = {from};
+        findGap(root, cursor, duration);
+        return cursor[0];
+    }
+
+    /**
+     * Walks the subtree in start order, moving the cursor past every interval it runs into.
+     *
+     * @return true once the cursor is the start of a free stretch of the given length
+     */
+    private boolean findGap(Node<K> node, long[] cursor, long duration) {
+        if (node == null || node.maxEnd <= cursor[0]) {
+            return false;
+        }
+        if (node.minStart >= cursor[0] + duration) {
+            return true;
+        }
+        if (node.maxGap < duration) {
+            // No room anywhere inside this subtree: the slot can only start after it
+            cursor[0] = node.maxEnd;
+            return false;
+        }
+        if (findGap(node.left, cursor, duration)) {
+            return true;
+        }
+        if (node.start >= cursor[0] + duration) {
+            return true;
+        }
+        cursor[0] = Math.max(cursor[0], node.end);
+        return findGap(node.right, cursor, duration);
+    }
+
+    // AVL maintenance
+
+    private static <K extends Comparable<? super K>> int compare(long start, K key, Node<K> node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : key.compareTo(node.key);
+    }
+
+    private Node<K> insert(Node<K> node, Node<K> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.key, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node<K> delete(Node<K> node, K key, long start) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, key, node);
+        if (c < 0) {
+            node.left = delete(node.left, key, start);
+        } else if (c > 0) {
+            node.right = delete(node.right, key, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<K> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node<K> replacement = new Node<>(successor.key, successor.start, successor.end);
+            replacement.left = node.left;
+            replacement.right = removeMin(node.right);
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private Node<K> removeMin(Node<K> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node<K> balance(Node<K> node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<K> rotateRight(Node<K> node) {
+        Node<K> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<K> rotateLeft(Node<K> node) {
+        Node<K> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node<?> node) {
+        Node<?> left = node.left;
+        Node<?> right = node.right;
+        node.height = 1 + Math.max(height(left), height(right));
+
+        long reach = node.end;
+        long gap = 0;
+        node.minStart = node.start;
+        if (left != null) {
+            node.minStart = left.minStart;
+            gap = Math.max(left.maxGap, node.start - left.maxEnd);
+            reach = Math.max(reach, left.maxEnd);
+        }
+        node.maxEnd = reach;
+        if (right != null) {
+            gap = Math.max(gap, Math.max(right.maxGap, right.minStart - reach));
+            node.maxEnd = Math.max(reach, right.maxEnd);
+        }
+        node.maxGap = gap;
+    }
+}
@@ -0,0 +1,187 @@
+package com.maintenance.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashing using only the JDK.
+ *
+ * <p>Stored format: {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} with unpadded base64 salt and hash,
+ * which fits the existing {@code users.password VARCHAR(100)} column. The iteration count is stored per
+ * row, so raising the work factor only affects new hashes; {@link #needsRehash(String)} tells callers
+ * when a stored hash should be upgraded after a successful login.
+ *
+ * <p>The work factor defaults to {@link #DEFAULT_ITERATIONS} and can be overridden with the
+ * {@code maintenance.pbkdf2.iterations} system property. Run {@link #main(String[])} to time candidate
+ * values on the target machine.
+ */
+public final class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$";
+
+    public static final int DEFAULT_ITERATIONS = 310_000;
+    // Floor so a typo in the system property cannot silently weaken new hashes
+    private static final int MIN_ITERATIONS = 10_000;
+
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private static final int ITERATIONS = resolveIterations();
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * @return the work factor used for new hashes
+     */
+    public static int getIterations() {
+        return ITERATIONS;
+    }
+
+    /**
+     * Hash a password with a fresh random salt at the configured work factor.
+     */
+    public static String hash(String password) {
+        return hash(password, ITERATIONS);
+    }
+
+    /**
+     * Hash a password with a fresh random salt at an explicit work factor.
+     */
+    public static String hash(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] derived = derive(password, salt, iterations);
+        return PREFIX + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(derived);
+    }
+
+    /**
+     * Check a password against a stored value. Values without the hash prefix are treated as
+     * legacy plaintext and compared in constant time.
+     *
+     * @param password candidate password
+     * @param stored   value from the users.password column
+     * @return true if the password matches
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] parts = stored.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = DECODER.decode(parts[1]);
+            byte[] expected = DECODER.decode(parts[2]);
+            byte[] actual = derive(password, salt, iterations, expected.length * 8);
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            // Malformed stored hash
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the stored value is a PBKDF2 hash rather than legacy plaintext
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /**
+     * @return true if the stored value is plaintext or was hashed with fewer iterations than configured
+     */
+    public static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        if (end < 0) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(stored.substring(PREFIX.length(), end)) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        return derive(password, salt, iterations, HASH_BITS);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int keyBits) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // PBKDF2WithHmacSHA256 is mandatory on every Java SE platform
+            throw new IllegalStateException("PBKDF2 unavailable", e);
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+
+    private static int resolveIterations() {
+        String configured = System.getProperty("maintenance.pbkdf2.iterations");
+        if (configured == null) {
+            return DEFAULT_ITERATIONS;
+        }
+        try {
+            int value = Integer.parseInt(configured.trim());
+            if (value >= MIN_ITERATIONS) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to default
+        }
+        System.err.println("Ignoring invalid maintenance.pbkdf2.iterations: " + configured);
+        return DEFAULT_ITERATIONS;
+    }
+
+    /**
+     * Prints time per hash and the resulting single-core logins/sec for a range of work factors.
+     * Usage: {@code PasswordHasher [iterations...]}
+     */
+    public static void main(String[] args) {
+        int[] candidates = args.length == 0
+                ? new int[]{100_000, 210_000, 310_000, 600_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        int samples = 10;
+
+        // Warm up the JIT so the first row is not skewed
+        for (int i = 0; i < 3; i++) {
+            hash("warmup", candidates[0]);
+        }
+
+        System.out.println("iterations   ms/hash   logins/sec/core");
+        for (int iterations : candidates) {
+            long started = System.nanoTime();
+            for (int i = 0; i < samples; i++) {
+                hash("benchmark-password", iterations);
+            }
+            double ms = (System.nanoTime() - started) / 1_000_000.0 / samples;
+            System.out.printf("%10d %9.1f %17.1f%n", iterations, ms, 1000.0 / ms);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.maintenance.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for large numbers of coarse-grained timeouts.
+ *
+ * <p>Scheduling is O(1) and lock-free: callers only append to a queue. A single daemon worker
+ * ticks every {@code tickMillis}, moves newly scheduled timeouts into their bucket
+ * ({@code deadline / tick mod wheelSize}, with a round counter for deadlines beyond one revolution),
+ * and fires the expired entries of the current bucket. Cancelled timeouts are dropped lazily.
+ * Expiry callbacks run on the worker thread, so they should be short.
+ *
+ * @param <T> payload handed to the expiry callback
+ */
+public final class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<Timeout<T>>[] buckets;
+    private final int mask;
+    private final Consumer<T> onExpire;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startMillis;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param name       worker thread name
+     * @param tickMillis resolution of the wheel; timeouts fire up to one tick late
+     * @param wheelSize  number of buckets, rounded up to a power of two
+     * @param onExpire   called on the worker thread for each expired, non-cancelled timeout
+     */
+    public TimerWheel(String name, long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.buckets = newBuckets(size);
+        this.mask = size - 1;
+        this.onExpire = onExpire;
+        this.startMillis = System.currentTimeMillis();
+
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Generic arrays cannot be created directly; every slot is filled with a List<Timeout<T>> here
+    @SuppressWarnings("unchecked")
+    private static <T> List<Timeout<T>>[] newBuckets(int size) {
+        List<Timeout<T>>[] buckets = (List<Timeout<T>>[]) new List<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * Schedule a payload to expire after the given delay.
+     *
+     * @return handle that can cancel the timeout
+     */
+    public Timeout<T> schedule(T payload, long delay, TimeUnit unit) {
+        return scheduleAt(payload, System.currentTimeMillis() + unit.toMillis(delay));
+    }
+
+    /**
+     * Schedule a payload to expire at an absolute wall-clock time in milliseconds.
+     *
+     * @return handle that can cancel the timeout
+     */
+    public Timeout<T> scheduleAt(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMillis);
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stop the worker. Pending timeouts are discarded.
+     */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long nextTick = startMillis + tickMillis;
+        while (running) {
+            long sleep = nextTick - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) return;
+                }
+                continue;
+            }
+
+            transferIncoming();
+            expireBucket(buckets[(int) (tick & mask)]);
+            tick++;
+            nextTick += tickMillis;
+        }
+    }
+
+    /**
+     * Place newly scheduled timeouts into their bucket. Only the worker touches buckets.
+     */
+    private void transferIncoming() {
+        Timeout<T> timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long targetTick = Math.max((timeout.deadlineMillis - startMillis) / tickMillis, tick);
+            timeout.remainingRounds = (targetTick - tick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(List<Timeout<T>> bucket) {
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.isCancelled()) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                if (timeout.state.compareAndSet(false, true)) {
+                    try {
+                        onExpire.accept(timeout.payload);
+                    } catch (RuntimeException e) {
+                        System.err.println("Timer callback failed: " + e.getMessage());
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle for a scheduled timeout.
+     */
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMillis;
+        // true once fired or cancelled
+        private final AtomicBoolean state = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Timeout(T payload, long deadlineMillis) {
+            this.payload = payload;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        /**
+         * Cancel the timeout.
+         *
+         * @return true if it had not fired yet
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(false, true)) {
+                cancelled = true;
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+    }
+}